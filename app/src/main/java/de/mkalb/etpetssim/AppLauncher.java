@@ -11,7 +11,8 @@ import java.util.*;
  * Application launcher and bootstrap entry point.
  * <p>
  * This class parses command-line arguments, initializes logging and localization,
- * and launches {@link ExtraterrestrialPetsSimulation}. It is intentionally separate
+ * and launches {@link ExtraterrestrialPetsSimulation}, or runs a simulation without user interface
+ * ({@link HeadlessRunner}) if {@link AppArgs.Key#HEADLESS} is active. It is intentionally separate
  * from the JavaFX {@link Application} subclass.
  */
 public final class AppLauncher {
@@ -81,14 +82,22 @@ public final class AppLauncher {
      * <p>
      * Arguments are parsed first, then logging and localization are initialized,
      * and finally the JavaFX application is launched.
+     * In headless mode, the simulation is run without JavaFX and the process exits with the status
+     * of the run.
      *
      * @param args command-line arguments passed to the application
      */
+    @SuppressWarnings("CallToSystemExit")
     static void main(String[] args) {
         var arguments = parseArgumentsAndHandleHelp(args);
         initAppLogger(arguments);
         initAppLocalization(arguments);
 
+        if (arguments.isFlagActive(AppArgs.Key.HEADLESS)) {
+            AppLogger.infof("AppLauncher: Running headless with arguments: %s", arguments.argumentsAsString());
+            System.exit(HeadlessRunner.run(arguments, System.out, System.err));
+        }
+
         AppLogger.infof("AppLauncher: Launching application with arguments: %s", arguments.argumentsAsString());
         Application.launch(ExtraterrestrialPetsSimulation.class, args);
     }
@@ -0,0 +1,164 @@
+package de.mkalb.etpetssim;
+
+import de.mkalb.etpetssim.core.*;
+import de.mkalb.etpetssim.engine.executor.StepExecutionResult;
+import de.mkalb.etpetssim.simulations.core.*;
+import de.mkalb.etpetssim.simulations.core.model.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Runs a simulation without the JavaFX user interface, for example for batch runs on a server without display.
+ * <p>
+ * The simulation is selected by {@link AppArgs.Key#SIMULATION} and configured by the optional properties file
+ * given by {@link AppArgs.Key#CONFIG} (see {@link HeadlessConfigValues}) and {@link AppArgs.Key#SEED}.
+ * It executes at most {@link AppArgs.Key#STEPS} steps at full speed, without rendering, and stops early
+ * when the simulation is finished. The result is written as {@code key=value} lines to the console or to the file
+ * given by {@link AppArgs.Key#OUTPUT}. Each statistics counter is written as a separate line with the key prefix
+ * {@value #STATISTICS_KEY_PREFIX}. Apart from the elapsed time and the step timings, the result of a seeded run
+ * is reproducible.
+ *
+ * @see HeadlessSimulationFactory
+ */
+public final class HeadlessRunner {
+
+    /**
+     * The maximum number of steps if {@link AppArgs.Key#STEPS} is not given.
+     */
+    public static final int DEFAULT_STEPS = 1_000;
+
+    /**
+     * The exit status of a successful run.
+     */
+    public static final int EXIT_SUCCESS = 0;
+
+    /**
+     * The exit status of a failed run, for example because of invalid arguments or configuration values.
+     */
+    public static final int EXIT_FAILURE = 1;
+
+    /**
+     * The key prefix of the statistics counters in the result, followed by the counter name
+     * (see {@link SimulationStatistics#values()}).
+     */
+    public static final String STATISTICS_KEY_PREFIX = "statistics.";
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private HeadlessRunner() {
+    }
+
+    /**
+     * Runs the simulation specified by the arguments and writes the result.
+     *
+     * @param arguments parsed command-line arguments
+     * @param out       the console for the result, if no output file is given
+     * @param err       the console for error messages
+     * @return {@link #EXIT_SUCCESS} or {@link #EXIT_FAILURE}
+     */
+    static int run(AppArgs arguments, PrintStream out, PrintStream err) {
+        try {
+            SimulationType simulationType = arguments.getValue(AppArgs.Key.SIMULATION)
+                                                     .flatMap(arg -> SimulationType.fromCliArgument(arg, true))
+                                                     .filter(HeadlessSimulationFactory::isSupported)
+                                                     .orElseThrow(() -> new IllegalArgumentException(
+                                                             "Missing or unsupported simulation: "
+                                                                     + arguments.getValue(AppArgs.Key.SIMULATION).orElse("")));
+            int steps = readSteps(arguments);
+            HeadlessConfigValues values = readConfigValues(arguments);
+
+            var manager = HeadlessSimulationFactory.createManager(simulationType, values);
+            for (String unusedKey : values.unusedKeys()) {
+                AppLogger.warn("HeadlessRunner: Unknown configuration key for " + simulationType + ": '" + unusedKey + "'");
+            }
+            AppLogger.info("HeadlessRunner: Running " + steps + " steps with configuration: " + manager.config());
+
+            long startNanos = System.nanoTime();
+            StepExecutionResult result = manager.executeSteps(steps, true, () -> {
+            });
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            String report = createReport(simulationType, manager, result, elapsedNanos);
+            Optional<String> output = arguments.getValue(AppArgs.Key.OUTPUT);
+            if (output.isPresent()) {
+                Files.writeString(Path.of(output.get()), report, StandardCharsets.UTF_8);
+                AppLogger.info("HeadlessRunner: Result written to file: " + output.get());
+            } else {
+                out.print(report);
+                out.flush();
+            }
+            return EXIT_SUCCESS;
+        } catch (IllegalArgumentException | IOException e) {
+            AppLogger.error(e, "HeadlessRunner: Headless run failed.");
+            err.println("Headless run failed: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * Reads the maximum number of steps. Unlike {@link AppArgs#getInt(AppArgs.Key, int)}, an invalid value
+     * is rejected instead of replaced by the default, so a typo cannot silently change the length of a batch run.
+     */
+    private static int readSteps(AppArgs arguments) {
+        Optional<String> value = arguments.getValue(AppArgs.Key.STEPS).filter(arg -> !arg.isBlank());
+        if (value.isEmpty()) {
+            return DEFAULT_STEPS;
+        }
+        int steps;
+        try {
+            steps = Integer.parseInt(value.get().strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Steps must be an integer, but was: '" + value.get() + "'", e);
+        }
+        if (steps < 0) {
+            throw new IllegalArgumentException("Steps must not be negative, but was: " + steps);
+        }
+        return steps;
+    }
+
+    private static HeadlessConfigValues readConfigValues(AppArgs arguments) throws IOException {
+        Optional<String> configFile = arguments.getValue(AppArgs.Key.CONFIG);
+        HeadlessConfigValues values = configFile.isPresent()
+                ? HeadlessConfigValues.load(Path.of(configFile.get()))
+                : HeadlessConfigValues.empty();
+        Optional<String> seed = arguments.getValue(AppArgs.Key.SEED);
+        return seed.isPresent() ? values.with(HeadlessSimulationFactory.SEED_KEY, seed.get()) : values;
+    }
+
+    /**
+     * Creates the result of a run as {@code key=value} lines.
+     */
+    static String createReport(SimulationType simulationType,
+                               SimulationManager<?, ?, ?, ?> manager,
+                               StepExecutionResult result,
+                               long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        appendLine(sb, "simulation", simulationType.name());
+        appendLine(sb, "config", manager.config());
+        appendLine(sb, "stepCount", result.stepCount());
+        appendLine(sb, "executedSteps", result.executedSteps());
+        appendLine(sb, "finished", result.isFinished());
+        appendLine(sb, "interrupted", result.isInterrupted());
+        appendLine(sb, "elapsedMillis", elapsedNanos / NANOS_PER_MILLI);
+        SimulationStatistics statistics = manager.statistics();
+        if (statistics instanceof TimedSimulationStatistics timedStatistics) {
+            appendLine(sb, "stepTimingStatistics", timedStatistics.stepTimingStatistics());
+        }
+        // One line per counter, without the timings, so that the lines of seeded runs can be compared
+        for (Map.Entry<String, Number> value : statistics.values().entrySet()) {
+            appendLine(sb, STATISTICS_KEY_PREFIX + value.getKey(), value.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static void appendLine(StringBuilder sb, String key, Object value) {
+        sb.append(key).append('=').append(value).append(System.lineSeparator());
+    }
+
+}
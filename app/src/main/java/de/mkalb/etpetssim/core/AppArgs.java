@@ -208,7 +208,12 @@ public final class AppArgs {
         LOG_CONSOLE("log-console", "Enables logging to the console. Format: --log-console", true),
         LOG_FILE("log-file", "Enables logging to a file. Format: --log-file", true),
         LOG_LEVEL("log-level", "Sets the log level. Format: --log-level=<level>", false),
-        SIMULATION("simulation", "Starts the specified simulation. Format: --simulation=<name>", false);
+        SIMULATION("simulation", "Starts the specified simulation. Format: --simulation=<name>", false),
+        HEADLESS("headless", "Runs the simulation specified by --simulation without user interface and prints the final statistics. Format: --headless", true),
+        STEPS("steps", "Sets the maximum number of steps of a headless run. Format: --steps=<count>", false),
+        CONFIG("config", "Sets the configuration properties file of a headless run. Format: --config=<file>", false),
+        SEED("seed", "Sets the seed of a headless run, overriding the configuration file. Format: --seed=<seed>", false),
+        OUTPUT("output", "Writes the result of a headless run to a file instead of the console. Format: --output=<file>", false);
 
         private final String key;
         private final String description;
@@ -7,7 +7,7 @@ import java.nio.file.*;
 import java.util.*;
 
 /**
- * File-system storage utilities for application data, logs, and cache files.
+ * File-system storage utilities for application data, checkpoints, logs, and cache files.
  * <p>
  * Directory locations are selected per operating system and created on demand.
  */
@@ -18,6 +18,11 @@ public final class AppStorage {
      */
     public static final String APP_NAME = "ExtraterrestrialPetsSimulation";
 
+    /**
+     * The name of the subdirectory of the application data directory holding checkpoint files.
+     */
+    public static final String CHECKPOINT_DIR_NAME = "checkpoints";
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -99,6 +104,19 @@ public final class AppStorage {
         return createAndCheckDirectory(path);
     }
 
+    /**
+     * Returns the checkpoint directory inside the application data directory for the given OS.
+     *
+     * @param os operating system
+     * @return writable checkpoint directory path
+     * @throws NullPointerException if {@code os} is {@code null}
+     * @throws IOException          if the directory cannot be created or validated
+     */
+    private static Path getOrCreateCheckpointDir(OperatingSystem os) throws IOException {
+        Objects.requireNonNull(os, "Operating system must not be null");
+        return createAndCheckDirectory(getOrCreateAppDataDir(os).resolve(CHECKPOINT_DIR_NAME));
+    }
+
     /**
      * Resolves a file name against a directory and enforces that the normalized result stays within that directory.
      *
@@ -171,6 +189,23 @@ public final class AppStorage {
         return false;
     }
 
+    /**
+     * Resolves a file path inside the checkpoint directory, a subdirectory of the application data directory
+     * holding saved simulation states.
+     *
+     * @param fileName file name relative to the checkpoint directory
+     * @param os       operating system
+     * @return resolved checkpoint file path
+     * @throws NullPointerException     if {@code fileName} or {@code os} is {@code null}
+     * @throws IllegalArgumentException if {@code fileName} is empty or blank
+     * @throws IOException              if the checkpoint directory cannot be created/validated or {@code fileName} escapes that directory
+     */
+    public static Path getCheckpointFile(String fileName, OperatingSystem os) throws IOException {
+        Objects.requireNonNull(fileName, "File name must not be null");
+        Objects.requireNonNull(os, "Operating system must not be null");
+        return resolveFileInDirectory(getOrCreateCheckpointDir(os), fileName);
+    }
+
     /**
      * Resolves a file path inside the log directory.
      *
@@ -144,6 +144,103 @@ public record GridStructure(GridTopology topology, GridSize size) {
         return coordinate.isWithinBounds(minCoordinateInclusive(), maxCoordinateExclusive());
     }
 
+    /**
+     * Checks whether the given x- and y-values lie within the valid bounds of the grid.
+     * <p>
+     * Allocation-free counterpart of {@link #isCoordinateValid(GridCoordinate)}.
+     *
+     * @param x the x-coordinate to check
+     * @param y the y-coordinate to check
+     * @return true if the position is within the grid bounds, false otherwise
+     */
+    public boolean isCoordinateValid(int x, int y) {
+        return (x >= 0) && (x < size.width()) && (y >= 0) && (y < size.height());
+    }
+
+    /**
+     * Checks whether the given flat cell index lies within the valid range of the grid.
+     * <p>
+     * Valid indices range from {@code 0} (inclusive) to {@link #cellCount()} (exclusive).
+     *
+     * @param index the flat cell index to check
+     * @return true if the index is valid, false otherwise
+     * @see #indexOf(int, int)
+     */
+    public boolean isIndexValid(int index) {
+        return (index >= 0) && (index < size.area());
+    }
+
+    /**
+     * Returns the flat cell index of the given position in row-major order
+     * ({@code index = y * width + x}).
+     * <p>
+     * The position is not validated; callers must ensure that it lies within the grid bounds.
+     * The index of a valid position is in the range from {@code 0} to {@link #cellCount()} (exclusive)
+     * and follows the same row-major order as {@link #coordinatesList()}.
+     *
+     * @param x the x-coordinate (column)
+     * @param y the y-coordinate (row)
+     * @return the flat cell index of the position
+     * @see #xOf(int)
+     * @see #yOf(int)
+     */
+    public int indexOf(int x, int y) {
+        return (y * size.width()) + x;
+    }
+
+    /**
+     * Returns the flat cell index of the given coordinate in row-major order.
+     * <p>
+     * The coordinate is not validated; callers must ensure that it lies within the grid bounds.
+     *
+     * @param coordinate the grid coordinate
+     * @return the flat cell index of the coordinate
+     * @see #indexOf(int, int)
+     */
+    public int indexOf(GridCoordinate coordinate) {
+        return indexOf(coordinate.x(), coordinate.y());
+    }
+
+    /**
+     * Returns the x-coordinate (column) of the given flat cell index.
+     * <p>
+     * The index is not validated.
+     *
+     * @param index the flat cell index
+     * @return the x-coordinate of the cell
+     * @see #indexOf(int, int)
+     */
+    public int xOf(int index) {
+        return index % size.width();
+    }
+
+    /**
+     * Returns the y-coordinate (row) of the given flat cell index.
+     * <p>
+     * The index is not validated.
+     *
+     * @param index the flat cell index
+     * @return the y-coordinate of the cell
+     * @see #indexOf(int, int)
+     */
+    public int yOf(int index) {
+        return index / size.width();
+    }
+
+    /**
+     * Returns a new {@link GridCoordinate} for the given flat cell index.
+     * <p>
+     * The index is not validated.
+     *
+     * @param index the flat cell index
+     * @return the coordinate of the cell
+     * @see #indexOf(GridCoordinate)
+     */
+    public GridCoordinate coordinateOf(int index) {
+        int width = size.width();
+        return new GridCoordinate(index % width, index / width);
+    }
+
     /**
      * Returns a stream of all valid coordinates in the grid.
      * <p>
@@ -2,6 +2,7 @@ package de.mkalb.etpetssim.engine.executor;
 
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.*;
@@ -13,7 +14,11 @@ import java.util.function.*;
  * that satisfy the given {@code agentPredicate}. The agent logic is applied to each
  * agent cell, using the provided context object for state sharing or accumulation.
  * The order in which agents are processed is determined by the provided
- * {@code agentOrderingStrategy}.
+ * {@code agentOrderingStrategy}, or is the position order if the runner is created without one.
+ * <p>
+ * Without an ordering strategy, the runner keeps the agent positions in a {@link GridAgentIndex}, which is
+ * updated from the cells written to the model. A step then costs time proportional to the number of agents
+ * instead of scanning and sorting all cells of the grid.
  *
  * @param <T> the type of {@link de.mkalb.etpetssim.engine.model.entity.GridEntity} contained in the grid model
  * @param <C> the type of the context object provided to each simulation step
@@ -22,7 +27,8 @@ public final class AsynchronousStepRunner<T extends GridEntity, C> implements Si
 
     private final WritableGridModel<T> model;
     private final Predicate<T> agentPredicate;
-    private final Function<C, Comparator<GridCell<T>>> agentOrderingStrategyProvider;
+    private final @Nullable Function<C, Comparator<GridCell<T>>> agentOrderingStrategyProvider;
+    private final @Nullable GridAgentIndex<T> agentIndex;
     private final AgentStepLogic<T, C> agentStepLogic;
 
     /**
@@ -41,6 +47,7 @@ public final class AsynchronousStepRunner<T extends GridEntity, C> implements Si
         this.model = model;
         this.agentPredicate = agentPredicate;
         this.agentOrderingStrategyProvider = agentOrderingStrategyProvider;
+        agentIndex = null;
         this.agentStepLogic = agentStepLogic;
     }
 
@@ -60,6 +67,27 @@ public final class AsynchronousStepRunner<T extends GridEntity, C> implements Si
         this(model, agentPredicate, _ -> agentOrderingStrategy, agentStepLogic);
     }
 
+    /**
+     * Constructs a new {@code AsynchronousStepRunner} that processes the agents in position order
+     * (row-major, like {@link de.mkalb.etpetssim.engine.support.AgentOrderingStrategies#byPosition()}).
+     * <p>
+     * The agent positions are kept in a {@link GridAgentIndex}, which attaches a change journal to the model.
+     *
+     * @param model          the grid model to operate on
+     * @param agentPredicate predicate to identify agent entities in the grid
+     * @param agentStepLogic logic to apply to each agent cell
+     * @throws IllegalStateException if a change journal is already attached to the model
+     */
+    public AsynchronousStepRunner(WritableGridModel<T> model,
+                                  Predicate<T> agentPredicate,
+                                  AgentStepLogic<T, C> agentStepLogic) {
+        this.model = model;
+        this.agentPredicate = agentPredicate;
+        agentOrderingStrategyProvider = null;
+        agentIndex = new GridAgentIndex<>(model, agentPredicate);
+        this.agentStepLogic = agentStepLogic;
+    }
+
     /**
      * Performs a single asynchronous simulation step.
      * <p>
@@ -71,13 +99,31 @@ public final class AsynchronousStepRunner<T extends GridEntity, C> implements Si
      */
     @Override
     public void performStep(int stepIndex, C context) {
-        Comparator<GridCell<T>> agentOrderingStrategy = agentOrderingStrategyProvider.apply(context);
-        List<GridCell<T>> orderedAgentCells = model.filteredCellsSortedBy(agentPredicate, agentOrderingStrategy);
+        List<GridCell<T>> orderedAgentCells;
+        if (agentIndex != null) {
+            orderedAgentCells = indexedAgentCells(agentIndex);
+        } else {
+            Comparator<GridCell<T>> agentOrderingStrategy = Objects.requireNonNull(agentOrderingStrategyProvider).apply(context);
+            orderedAgentCells = model.filteredCellsSortedBy(agentPredicate, agentOrderingStrategy);
+        }
         for (GridCell<T> agentCell : orderedAgentCells) {
             agentStepLogic.performAgentStep(agentCell, model, stepIndex, context);
         }
     }
 
+    /**
+     * Captures the agent cells in position order at the start of a step,
+     * so agents moved or created during the step are not processed twice.
+     */
+    private List<GridCell<T>> indexedAgentCells(GridAgentIndex<T> index) {
+        int[] agentIndices = index.agentIndices();
+        List<GridCell<T>> agentCells = new ArrayList<>(agentIndices.length);
+        for (int cellIndex : agentIndices) {
+            agentCells.add(new GridCell<>(model.structure().coordinateOf(cellIndex), model.getEntity(cellIndex)));
+        }
+        return agentCells;
+    }
+
     /**
      * Returns the grid model used by this runner.
      *
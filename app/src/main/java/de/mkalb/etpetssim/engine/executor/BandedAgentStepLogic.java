@@ -0,0 +1,89 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+import java.util.*;
+
+/**
+ * Logic for a single agent during an asynchronous simulation step, whose agents can be processed
+ * in parallel by a {@link ParallelAsynchronousStepRunner}.
+ * <p>
+ * An agent step may read and write only cells within {@link #interactionRadius()} neighbor steps
+ * of the agent cell. The results of an agent step, such as cell counts for statistics, are collected
+ * in the result of the row band containing the agent and merged after all agents have been processed.
+ * <p>
+ * The methods are called in this order for each step:
+ * <ol>
+ *   <li>{@link #createBandResult(GridRowBand, int, Object)} once per band, in band order, on a single thread.</li>
+ *   <li>{@link #performBandAgentStep(GridCell, WritableGridModel, int, Object)} once per agent.
+ *       Agents of the same band are processed one after another in position order,
+ *       agents of different bands possibly concurrently.</li>
+ *   <li>{@link #completeStep(List, int, Object)} once, on a single thread.</li>
+ * </ol>
+ * Implementations must not modify shared state in {@code performBandAgentStep}. Random values should be
+ * keyed by step and agent (see {@link de.mkalb.etpetssim.engine.support.RandomStreams}) instead of drawn
+ * from a shared generator. Then the result depends on the partition but not on the number of threads.
+ *
+ * @param <T> the type of {@link de.mkalb.etpetssim.engine.model.entity.GridEntity} contained in the grid model
+ * @param <C> the type of the context object provided to each simulation step
+ * @param <R> the type of the band result
+ * @see ParallelAsynchronousStepRunner
+ */
+public interface BandedAgentStepLogic<T extends GridEntity, C, R> extends AgentStepLogic<T, C> {
+
+    /**
+     * Returns the maximum number of neighbor steps between the agent cell and any cell read or written
+     * by an agent step.
+     *
+     * @return the interaction radius (positive)
+     */
+    int interactionRadius();
+
+    /**
+     * Creates the result object of a band for the current step.
+     *
+     * @param band      the band
+     * @param stepIndex the index of the current simulation step
+     * @param context   the context object used to share or accumulate state during the simulation
+     * @return a new band result
+     */
+    R createBandResult(GridRowBand band, int stepIndex, C context);
+
+    /**
+     * Performs the logic for a single agent during a simulation step.
+     *
+     * @param agentCell  the grid cell containing the agent to update
+     * @param model      the grid model representing the simulation environment
+     * @param stepIndex  the index of the current simulation step
+     * @param bandResult the result of the band containing the agent cell at the start of the step
+     */
+    void performBandAgentStep(GridCell<T> agentCell, WritableGridModel<T> model, int stepIndex, R bandResult);
+
+    /**
+     * Merges the band results after all agents have been processed.
+     *
+     * @param bandResults the band results in band order
+     * @param stepIndex   the index of the current simulation step
+     * @param context     the context object used to share or accumulate state during the simulation
+     */
+    void completeStep(List<R> bandResults, int stepIndex, C context);
+
+    /**
+     * Performs the logic for a single agent as a band covering the whole grid,
+     * for use with an {@link AsynchronousStepRunner}.
+     *
+     * @param agentCell the grid cell containing the agent to update
+     * @param model     the grid model representing the simulation environment
+     * @param stepIndex the index of the current simulation step
+     * @param context   the context object used to share or accumulate state during the simulation
+     */
+    @Override
+    default void performAgentStep(GridCell<T> agentCell, WritableGridModel<T> model, int stepIndex, C context) {
+        GridRowBand band = GridRowBand.wholeGrid(model.structure());
+        R bandResult = createBandResult(band, stepIndex, context);
+        performBandAgentStep(agentCell, model, stepIndex, bandResult);
+        completeStep(List.of(bandResult), stepIndex, context);
+    }
+
+}
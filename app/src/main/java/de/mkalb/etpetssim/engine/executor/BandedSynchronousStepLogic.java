@@ -0,0 +1,81 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+import java.util.*;
+
+/**
+ * Logic for a synchronous simulation step that can be split into independent row bands.
+ * <p>
+ * Each band reads from the current model (including rows of adjacent bands) and writes only the cells
+ * of its own rows to the next model. The results of a band, such as cell counts for statistics,
+ * are collected in a band result and merged after all bands have completed.
+ * <p>
+ * The methods are called in this order for each step:
+ * <ol>
+ *   <li>{@link #createBandResult(GridRowBand, int, Object)} once per band, in band order, on a single thread.</li>
+ *   <li>{@link #performBandStep(ReadableGridModel, WritableGridModel, GridRowBand, int, Object)} once per band,
+ *       possibly concurrently and in any order.</li>
+ *   <li>{@link #completeStep(List, int, Object)} once, on a single thread.</li>
+ * </ol>
+ * Implementations must not modify shared state in {@code performBandStep}. If the result depends only on
+ * the band results, it depends on the partition but not on the number of threads.
+ *
+ * @param <T> the type of {@link de.mkalb.etpetssim.engine.model.entity.GridEntity} contained in the grid model
+ * @param <C> the type of the context object provided to each simulation step
+ * @param <R> the type of the band result
+ * @see ParallelSynchronousStepRunner
+ */
+public interface BandedSynchronousStepLogic<T extends GridEntity, C, R> extends SynchronousStepLogic<T, C> {
+
+    /**
+     * Creates the result object of a band for the current step.
+     *
+     * @param band      the band
+     * @param stepIndex the index of the current simulation step
+     * @param context   the context object used to share or accumulate state during the simulation
+     * @return a new band result
+     */
+    R createBandResult(GridRowBand band, int stepIndex, C context);
+
+    /**
+     * Performs the step for the cells of one band.
+     * <p>
+     * Reads from the current model and writes only cells of the band to the next model.
+     *
+     * @param currentModel the current (read-only) grid model representing the simulation state
+     * @param nextModel    the grid model to write the updated state of the band to
+     * @param band         the band to process
+     * @param stepIndex    the index of the current simulation step
+     * @param bandResult   the result of the band, created by {@link #createBandResult(GridRowBand, int, Object)}
+     */
+    void performBandStep(ReadableGridModel<T> currentModel, WritableGridModel<T> nextModel,
+                         GridRowBand band, int stepIndex, R bandResult);
+
+    /**
+     * Merges the band results after all bands have been processed.
+     *
+     * @param bandResults the band results in band order
+     * @param stepIndex   the index of the current simulation step
+     * @param context     the context object used to share or accumulate state during the simulation
+     */
+    void completeStep(List<R> bandResults, int stepIndex, C context);
+
+    /**
+     * Performs the step as a single band covering the whole grid.
+     *
+     * @param currentModel the current (read-only) grid model representing the simulation state
+     * @param nextModel    the grid model to write the updated state to
+     * @param stepIndex    the index of the current simulation step
+     * @param context      the context object used to share or accumulate state during the simulation
+     */
+    @Override
+    default void performSynchronousStep(ReadableGridModel<T> currentModel, WritableGridModel<T> nextModel, int stepIndex, C context) {
+        GridRowBand band = GridRowBand.wholeGrid(currentModel.structure());
+        R bandResult = createBandResult(band, stepIndex, context);
+        performBandStep(currentModel, nextModel, band, stepIndex, bandResult);
+        completeStep(List.of(bandResult), stepIndex, context);
+    }
+
+}
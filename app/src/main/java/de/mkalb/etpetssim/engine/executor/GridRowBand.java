@@ -0,0 +1,133 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.*;
+
+import java.util.*;
+
+/**
+ * A band of consecutive grid rows, processed as one unit by a {@link ParallelSynchronousStepRunner}.
+ * <p>
+ * The cells of a band form the contiguous range of flat cell indices from {@link #startIndex()}
+ * (inclusive) to {@link #endIndex()} (exclusive).
+ *
+ * @param bandIndex the index of the band within its partition, starting at {@code 0}
+ * @param startRow  the first row of the band (inclusive)
+ * @param endRow    the last row of the band (exclusive)
+ * @param width     the number of cells per row
+ * @see BandedSynchronousStepLogic
+ */
+public record GridRowBand(int bandIndex, int startRow, int endRow, int width) {
+
+    /**
+     * Validates the band.
+     *
+     * @throws IllegalArgumentException if the band index or start row is negative, the band is empty
+     *                                  or the width is not positive
+     */
+    public GridRowBand {
+        if ((bandIndex < 0) || (startRow < 0) || (endRow <= startRow) || (width <= 0)) {
+            throw new IllegalArgumentException("Invalid row band: bandIndex=" + bandIndex
+                    + ", startRow=" + startRow + ", endRow=" + endRow + ", width=" + width);
+        }
+    }
+
+    /**
+     * Returns a single band covering all rows of the grid.
+     *
+     * @param structure the grid structure
+     * @return the band covering the whole grid
+     */
+    public static GridRowBand wholeGrid(GridStructure structure) {
+        return new GridRowBand(0, 0, structure.size().height(), structure.size().width());
+    }
+
+    /**
+     * Partitions the rows of the grid into at most {@code maxBandCount} bands of equal height,
+     * except for the last band, which may be smaller.
+     * <p>
+     * The partition depends only on the grid structure and {@code maxBandCount}, never on the number of threads.
+     * For triangle cells, every band starts at an even row, so all bands share the same pattern of
+     * cells pointing up and down. Neighbors of the first and last row of a band lie in the adjacent bands.
+     *
+     * @param structure    the grid structure
+     * @param maxBandCount the maximum number of bands (positive)
+     * @return an unmodifiable list of bands in row order, covering every row exactly once
+     * @throws IllegalArgumentException if {@code maxBandCount} is not positive
+     */
+    public static List<GridRowBand> partition(GridStructure structure, int maxBandCount) {
+        if (maxBandCount <= 0) {
+            throw new IllegalArgumentException("Maximum band count must be positive, but was: " + maxBandCount);
+        }
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int rowAlignment = (structure.cellShape() == CellShape.TRIANGLE) ? 2 : 1;
+        int rowsPerBand = (height + maxBandCount - 1) / maxBandCount;
+        rowsPerBand = ((rowsPerBand + rowAlignment - 1) / rowAlignment) * rowAlignment;
+
+        List<GridRowBand> bands = new ArrayList<>((height + rowsPerBand - 1) / rowsPerBand);
+        for (int startRow = 0; startRow < height; startRow += rowsPerBand) {
+            bands.add(new GridRowBand(bands.size(), startRow, Math.min(startRow + rowsPerBand, height), width));
+        }
+        return List.copyOf(bands);
+    }
+
+    /**
+     * Partitions the rows of the grid into at most {@code maxBandCount} bands, each with at least
+     * {@code minRowCount} rows. The row counts of the bands differ by at most one.
+     * <p>
+     * The partition depends only on the grid structure and the arguments, never on the number of threads.
+     * If the grid has fewer than {@code 2 * minRowCount} rows, the only band covers the whole grid.
+     *
+     * @param structure    the grid structure
+     * @param maxBandCount the maximum number of bands (positive)
+     * @param minRowCount  the minimum number of rows per band (positive)
+     * @return an unmodifiable list of bands in row order, covering every row exactly once
+     * @throws IllegalArgumentException if {@code maxBandCount} or {@code minRowCount} is not positive
+     * @see ParallelAsynchronousStepRunner
+     */
+    public static List<GridRowBand> partitionEvenly(GridStructure structure, int maxBandCount, int minRowCount) {
+        if ((maxBandCount <= 0) || (minRowCount <= 0)) {
+            throw new IllegalArgumentException("Maximum band count and minimum row count must be positive, but were: "
+                    + maxBandCount + ", " + minRowCount);
+        }
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int bandCount = Math.clamp(height / minRowCount, 1, maxBandCount);
+
+        List<GridRowBand> bands = new ArrayList<>(bandCount);
+        for (int bandIndex = 0; bandIndex < bandCount; bandIndex++) {
+            int startRow = (int) (((long) bandIndex * height) / bandCount);
+            int endRow = (int) (((long) (bandIndex + 1) * height) / bandCount);
+            bands.add(new GridRowBand(bandIndex, startRow, endRow, width));
+        }
+        return List.copyOf(bands);
+    }
+
+    /**
+     * Returns the number of rows of the band.
+     *
+     * @return the number of rows
+     */
+    public int rowCount() {
+        return endRow - startRow;
+    }
+
+    /**
+     * Returns the flat cell index of the first cell of the band.
+     *
+     * @return the first cell index (inclusive)
+     */
+    public int startIndex() {
+        return startRow * width;
+    }
+
+    /**
+     * Returns the flat cell index after the last cell of the band.
+     *
+     * @return the end cell index (exclusive)
+     */
+    public int endIndex() {
+        return endRow * width;
+    }
+
+}
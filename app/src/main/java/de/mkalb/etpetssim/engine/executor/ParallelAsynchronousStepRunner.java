@@ -0,0 +1,218 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Executes asynchronous simulation steps on a {@link de.mkalb.etpetssim.engine.model.WritableGridModel},
+ * processing agents of non-interfering row bands in parallel.
+ * <p>
+ * The grid is partitioned once into row bands with at least twice the
+ * {@link BandedAgentStepLogic#interactionRadius() interaction radius} rows each
+ * (see {@link GridRowBand#partitionEvenly(GridStructure, int, int)}), and the bands are colored like a
+ * graph: adjacent bands get different colors. Because a neighbor step changes the row by at most one
+ * for every cell shape, the cells read and written by agents of two bands with the same color never overlap.
+ * Alternating bands get the colors {@code 0} and {@code 1}. If the rows wrap around and the number of bands
+ * is odd, the last band gets the color {@code 2}, because it is adjacent to the first band.
+ * <p>
+ * At the start of a step, the agent cells of every band are captured in position order, so agents moved
+ * or created during the step are not processed twice. The color classes are then processed one after another.
+ * The bands of a color class are processed as tasks of a {@link ForkJoinPool}, the agents of a band
+ * one after another in position order.
+ * <p>
+ * The bands are processed concurrently only if a pool is given and the model supports concurrent writes
+ * to disjoint row bands (see {@link WritableGridModel#beginConcurrentRowBandWrites()}); otherwise they are
+ * processed one after another on the calling thread. The processing order is deterministic: since the bands of a
+ * color class do not interfere, parallel and sequential runs produce the same result, independent of
+ * the number of threads.
+ *
+ * @param <T> the type of {@link de.mkalb.etpetssim.engine.model.entity.GridEntity} contained in the grid model
+ * @param <C> the type of the context object provided to each simulation step
+ * @param <R> the type of the band result
+ * @see BandedAgentStepLogic
+ * @see AsynchronousStepRunner
+ */
+public final class ParallelAsynchronousStepRunner<T extends GridEntity, C, R> implements SimulationStepRunner<C> {
+
+    /**
+     * The default maximum number of row bands. Enough bands to balance the load on common core counts,
+     * but few enough to keep the overhead per band small.
+     */
+    public static final int DEFAULT_MAX_BAND_COUNT = 64;
+
+    private static final int WRAPPED_ODD_LAST_COLOR = 2;
+
+    private final WritableGridModel<T> model;
+    private final Predicate<T> agentPredicate;
+    private final BandedAgentStepLogic<T, C, R> agentStepLogic;
+    private final @Nullable ForkJoinPool pool;
+    private final List<GridRowBand> bands;
+    private final List<List<GridRowBand>> colorClasses;
+
+    /**
+     * Constructs a new {@code ParallelAsynchronousStepRunner} using the common pool
+     * and {@link #DEFAULT_MAX_BAND_COUNT}.
+     *
+     * @param model          the grid model to operate on
+     * @param agentPredicate predicate to identify agent entities in the grid
+     * @param agentStepLogic logic to apply to each agent cell
+     * @throws IllegalArgumentException if the interaction radius of the agent step logic is not positive
+     */
+    public ParallelAsynchronousStepRunner(WritableGridModel<T> model,
+                                          Predicate<T> agentPredicate,
+                                          BandedAgentStepLogic<T, C, R> agentStepLogic) {
+        this(model, agentPredicate, agentStepLogic, ForkJoinPool.commonPool(), DEFAULT_MAX_BAND_COUNT);
+    }
+
+    /**
+     * Constructs a new {@code ParallelAsynchronousStepRunner}.
+     *
+     * @param model          the grid model to operate on
+     * @param agentPredicate predicate to identify agent entities in the grid
+     * @param agentStepLogic logic to apply to each agent cell
+     * @param pool           the pool executing the band tasks, or {@code null} to process
+     *                     the bands one after another on the calling thread
+     * @param maxBandCount   the maximum number of row bands (positive)
+     * @throws IllegalArgumentException if {@code maxBandCount} or the interaction radius
+     *                                  of the agent step logic is not positive
+     */
+    public ParallelAsynchronousStepRunner(WritableGridModel<T> model,
+                                          Predicate<T> agentPredicate,
+                                          BandedAgentStepLogic<T, C, R> agentStepLogic,
+                                          @Nullable ForkJoinPool pool,
+                                          int maxBandCount) {
+        int interactionRadius = agentStepLogic.interactionRadius();
+        if (interactionRadius <= 0) {
+            throw new IllegalArgumentException("Interaction radius must be positive, but was: " + interactionRadius);
+        }
+        this.model = model;
+        this.agentPredicate = agentPredicate;
+        this.agentStepLogic = agentStepLogic;
+        this.pool = pool;
+        bands = GridRowBand.partitionEvenly(model.structure(), maxBandCount, 2 * interactionRadius);
+        colorClasses = colorClasses(bands, model.structure().edgeBehaviorY() == EdgeBehavior.WRAP);
+    }
+
+    /**
+     * Returns the color of a band. Adjacent bands, including the first and last band of wrapped rows,
+     * have different colors.
+     *
+     * @param bandIndex the index of the band
+     * @param bandCount the number of bands
+     * @param wrapRows  whether the rows wrap around
+     * @return the color of the band: {@code 0}, {@code 1} or {@code 2}
+     */
+    static int colorOf(int bandIndex, int bandCount, boolean wrapRows) {
+        if (wrapRows && (bandCount > 1) && ((bandCount % 2) != 0) && (bandIndex == (bandCount - 1))) {
+            return WRAPPED_ODD_LAST_COLOR;
+        }
+        return bandIndex % 2;
+    }
+
+    private static List<List<GridRowBand>> colorClasses(List<GridRowBand> bands, boolean wrapRows) {
+        List<List<GridRowBand>> classes = new ArrayList<>();
+        for (GridRowBand band : bands) {
+            int color = colorOf(band.bandIndex(), bands.size(), wrapRows);
+            while (classes.size() <= color) {
+                classes.add(new ArrayList<>());
+            }
+            classes.get(color).add(band);
+        }
+        return classes.stream().map(List::copyOf).toList();
+    }
+
+    /**
+     * Performs a single asynchronous simulation step.
+     * <p>
+     * Applies the agent logic to all entities identified as agents in the grid model at the start of the step,
+     * color class by color class, and merges the band results.
+     *
+     * @param stepIndex the index of the current simulation step
+     * @param context   the context object used to share or accumulate state during the simulation
+     */
+    @Override
+    public void performStep(int stepIndex, C context) {
+        List<List<GridCell<T>>> bandAgentCells = new ArrayList<>(bands.size());
+        List<R> bandResults = new ArrayList<>(bands.size());
+        for (GridRowBand band : bands) {
+            bandAgentCells.add(agentCells(band));
+            bandResults.add(agentStepLogic.createBandResult(band, stepIndex, context));
+        }
+
+        boolean concurrent = (pool != null) && (bands.size() > 1) && model.beginConcurrentRowBandWrites();
+        try {
+            for (List<GridRowBand> colorClass : colorClasses) {
+                if (concurrent && (colorClass.size() > 1)) {
+                    List<ForkJoinTask<?>> tasks = new ArrayList<>(colorClass.size());
+                    for (GridRowBand band : colorClass) {
+                        List<GridCell<T>> agentCells = bandAgentCells.get(band.bandIndex());
+                        R bandResult = bandResults.get(band.bandIndex());
+                        tasks.add(ForkJoinTask.adapt(() -> performBandStep(agentCells, stepIndex, bandResult)));
+                    }
+                    pool.invoke(ForkJoinTask.adapt(() -> {
+                        ForkJoinTask.invokeAll(tasks);
+                    }));
+                } else {
+                    for (GridRowBand band : colorClass) {
+                        performBandStep(bandAgentCells.get(band.bandIndex()), stepIndex, bandResults.get(band.bandIndex()));
+                    }
+                }
+            }
+        } finally {
+            model.endConcurrentRowBandWrites();
+        }
+
+        agentStepLogic.completeStep(Collections.unmodifiableList(bandResults), stepIndex, context);
+    }
+
+    private List<GridCell<T>> agentCells(GridRowBand band) {
+        List<GridCell<T>> agentCells = new ArrayList<>();
+        for (int index = band.startIndex(), endIndex = band.endIndex(); index < endIndex; index++) {
+            T entity = model.getEntity(index);
+            if (agentPredicate.test(entity)) {
+                agentCells.add(new GridCell<>(model.structure().coordinateOf(index), entity));
+            }
+        }
+        return agentCells;
+    }
+
+    private void performBandStep(List<GridCell<T>> agentCells, int stepIndex, R bandResult) {
+        for (GridCell<T> agentCell : agentCells) {
+            agentStepLogic.performBandAgentStep(agentCell, model, stepIndex, bandResult);
+        }
+    }
+
+    /**
+     * Returns the row bands processed in each step.
+     *
+     * @return an unmodifiable list of bands in row order
+     */
+    public List<GridRowBand> bands() {
+        return bands;
+    }
+
+    /**
+     * Returns the number of color classes, which are processed one after another in each step.
+     *
+     * @return the number of color classes: {@code 1}, {@code 2} or {@code 3}
+     */
+    public int colorCount() {
+        return colorClasses.size();
+    }
+
+    /**
+     * Returns the grid model used by this runner.
+     *
+     * @return the current {@link WritableGridModel}
+     */
+    public WritableGridModel<T> model() {
+        return model;
+    }
+
+}
@@ -0,0 +1,148 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.model.WritableGridModel;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Executes synchronous simulation steps on a {@link de.mkalb.etpetssim.engine.model.WritableGridModel},
+ * processing the row bands of the grid in parallel.
+ * <p>
+ * Like {@link SynchronousStepRunner}, this runner reads from the current model, writes to the next model,
+ * swaps the models after each step and clears the next model. The grid is partitioned once into
+ * row bands (see {@link GridRowBand#partition(de.mkalb.etpetssim.engine.GridStructure, int)}), which
+ * are processed as tasks of a {@link ForkJoinPool}.
+ * <p>
+ * The bands are processed concurrently only if a pool is given and the next model supports concurrent writes
+ * to disjoint row bands (see {@link WritableGridModel#beginConcurrentRowBandWrites()}); otherwise they are
+ * processed one after another on the calling thread. Either way, the result is the same.
+ *
+ * @param <T> the type of {@link de.mkalb.etpetssim.engine.model.entity.GridEntity} contained in the grid model
+ * @param <C> the type of the context object provided to each simulation step
+ * @param <R> the type of the band result
+ * @see BandedSynchronousStepLogic
+ */
+public final class ParallelSynchronousStepRunner<T extends GridEntity, C, R> implements SimulationStepRunner<C> {
+
+    /**
+     * The default maximum number of row bands. Enough bands to balance the load on common core counts,
+     * but few enough to keep the overhead per band small.
+     */
+    public static final int DEFAULT_MAX_BAND_COUNT = 64;
+
+    private final BandedSynchronousStepLogic<T, C, R> stepLogic;
+    private final @Nullable ForkJoinPool pool;
+    private final List<GridRowBand> bands;
+    private WritableGridModel<T> currentModel;
+    private WritableGridModel<T> nextModel;
+
+    /**
+     * Constructs a new {@code ParallelSynchronousStepRunner} using the common pool
+     * and {@link #DEFAULT_MAX_BAND_COUNT}.
+     * The step logic must not modify the {@code ReadableGridModel} parameter.
+     *
+     * @param initialModel the initial grid model
+     * @param stepLogic    the logic to apply to each band of each synchronous simulation step
+     */
+    public ParallelSynchronousStepRunner(WritableGridModel<T> initialModel,
+                                         BandedSynchronousStepLogic<T, C, R> stepLogic) {
+        this(initialModel, stepLogic, ForkJoinPool.commonPool(), DEFAULT_MAX_BAND_COUNT);
+    }
+
+    /**
+     * Constructs a new {@code ParallelSynchronousStepRunner}.
+     * The step logic must not modify the {@code ReadableGridModel} parameter.
+     *
+     * @param initialModel the initial grid model
+     * @param stepLogic    the logic to apply to each band of each synchronous simulation step
+     * @param pool         the pool executing the band tasks, or {@code null} to process
+     *                     the bands one after another on the calling thread
+     * @param maxBandCount the maximum number of row bands (positive)
+     * @throws IllegalArgumentException if {@code maxBandCount} is not positive
+     */
+    public ParallelSynchronousStepRunner(WritableGridModel<T> initialModel,
+                                         BandedSynchronousStepLogic<T, C, R> stepLogic,
+                                         @Nullable ForkJoinPool pool,
+                                         int maxBandCount) {
+        bands = GridRowBand.partition(initialModel.structure(), maxBandCount);
+        currentModel = initialModel;
+        nextModel = currentModel.copyWithDefaultEntity();
+        this.stepLogic = stepLogic;
+        this.pool = pool;
+    }
+
+    /**
+     * Performs a single synchronous simulation step.
+     * <p>
+     * The step logic processes every band, reading from the current model and writing to the next model,
+     * and merges the band results. After the update, the models are swapped and the next model is cleared.
+     *
+     * @param stepIndex the index of the current simulation step
+     * @param context   the context object used to share or accumulate state during the simulation
+     */
+    @Override
+    public void performStep(int stepIndex, C context) {
+        List<R> bandResults = new ArrayList<>(bands.size());
+        for (GridRowBand band : bands) {
+            bandResults.add(stepLogic.createBandResult(band, stepIndex, context));
+        }
+
+        boolean concurrent = (pool != null) && (bands.size() > 1) && nextModel.beginConcurrentRowBandWrites();
+        try {
+            if (concurrent) {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(bands.size());
+                for (GridRowBand band : bands) {
+                    R bandResult = bandResults.get(band.bandIndex());
+                    tasks.add(ForkJoinTask.adapt(() ->
+                            stepLogic.performBandStep(currentModel, nextModel, band, stepIndex, bandResult)));
+                }
+                pool.invoke(ForkJoinTask.adapt(() -> {
+                    ForkJoinTask.invokeAll(tasks);
+                }));
+            } else {
+                for (GridRowBand band : bands) {
+                    stepLogic.performBandStep(currentModel, nextModel, band, stepIndex, bandResults.get(band.bandIndex()));
+                }
+            }
+        } finally {
+            nextModel.endConcurrentRowBandWrites();
+        }
+
+        stepLogic.completeStep(Collections.unmodifiableList(bandResults), stepIndex, context);
+        WritableGridModel<T> tempModel = currentModel;
+        currentModel = nextModel;
+        nextModel = tempModel;
+        nextModel.clear();
+    }
+
+    /**
+     * Returns the row bands processed in each step.
+     *
+     * @return an unmodifiable list of bands in row order
+     */
+    public List<GridRowBand> bands() {
+        return bands;
+    }
+
+    /**
+     * Returns the current grid model representing the latest simulation state.
+     *
+     * @return the current {@link WritableGridModel}
+     */
+    public WritableGridModel<T> currentModel() {
+        return currentModel;
+    }
+
+    /**
+     * Returns the next grid model used for the upcoming simulation step.
+     *
+     * @return the next {@link WritableGridModel}
+     */
+    public WritableGridModel<T> nextModel() {
+        return nextModel;
+    }
+
+}
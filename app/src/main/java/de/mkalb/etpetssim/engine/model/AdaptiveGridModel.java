@@ -0,0 +1,493 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An implementation of {@link WritableGridModel} that switches its backing storage between a
+ * {@link SparseGridModel} and an {@link ArrayGridModel} depending on the current density of
+ * non-default entities.
+ * <p>
+ * The model tracks the number of non-default cells on every write. When the density rises to the
+ * dense threshold, the entities are migrated into an {@link ArrayGridModel}; when it falls to the
+ * sparse threshold, they are migrated back into a {@link SparseGridModel}. Because the sparse threshold
+ * is lower than the dense threshold, a population fluctuating around one threshold does not cause
+ * repeated migrations (hysteresis). Migration to dense storage is only checked when a write adds a
+ * non-default entity and migration to sparse storage only when a write removes one, so an emptied
+ * model that is being refilled keeps its representation.
+ * <p>
+ * All cells, coordinates and indices are listed in row-major order in both representations.
+ * An attached {@link GridChangeJournal} belongs to this model and is not affected by migrations.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
+ */
+public final class AdaptiveGridModel<T extends GridEntity> implements WritableGridModel<T> {
+
+    /**
+     * Default density at or below which dense storage is migrated to sparse storage.
+     */
+    public static final double DEFAULT_SPARSE_THRESHOLD = 0.10d;
+
+    /**
+     * Default density at or above which sparse storage is migrated to dense storage.
+     */
+    public static final double DEFAULT_DENSE_THRESHOLD = 0.30d;
+
+    /**
+     * The structure describing the grid's dimensions and valid coordinates.
+     */
+    private final GridStructure structure;
+
+    /**
+     * The default entity for all grid cells.
+     */
+    private final T defaultEntity;
+
+    /**
+     * Density at or below which dense storage is migrated to sparse storage.
+     */
+    private final double sparseThreshold;
+
+    /**
+     * Density at or above which sparse storage is migrated to dense storage.
+     */
+    private final double denseThreshold;
+
+    /**
+     * Non-default cell count at or below which dense storage is migrated to sparse storage.
+     */
+    private final int sparseLimit;
+
+    /**
+     * Non-default cell count at or above which sparse storage is migrated to dense storage.
+     */
+    private final int denseLimit;
+
+    /**
+     * The current backing storage, either a {@link SparseGridModel} or an {@link ArrayGridModel}.
+     */
+    private WritableGridModel<T> storage;
+
+    /**
+     * The number of cells currently holding a non-default entity.
+     */
+    private int nonDefaultCount;
+
+    /**
+     * The number of storage migrations performed by this model.
+     */
+    private int migrationCount;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * The backing storage representation of an {@link AdaptiveGridModel}.
+     */
+    public enum Representation {
+        /**
+         * Non-default entities are stored in a {@link SparseGridModel}.
+         */
+        SPARSE,
+        /**
+         * All entities are stored in an {@link ArrayGridModel}.
+         */
+        DENSE
+    }
+
+    /**
+     * Constructs a new {@code AdaptiveGridModel} with the given structure and default entity,
+     * using {@link #DEFAULT_SPARSE_THRESHOLD} and {@link #DEFAULT_DENSE_THRESHOLD}.
+     * All cells are initialized to the default entity and the model starts with sparse storage.
+     *
+     * @param structure     the grid structure
+     * @param defaultEntity the default entity for all cells
+     */
+    public AdaptiveGridModel(GridStructure structure, T defaultEntity) {
+        this(structure, defaultEntity, DEFAULT_SPARSE_THRESHOLD, DEFAULT_DENSE_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new {@code AdaptiveGridModel} with the given structure, default entity and thresholds.
+     * All cells are initialized to the default entity and the model starts with sparse storage.
+     *
+     * @param structure       the grid structure
+     * @param defaultEntity   the default entity for all cells
+     * @param sparseThreshold the density (0.0 to 1.0) at or below which dense storage is migrated to sparse storage
+     * @param denseThreshold  the density (0.0 to 1.0) at or above which sparse storage is migrated to dense storage
+     * @throws IllegalArgumentException if the thresholds are not within {@code 0.0 <= sparseThreshold < denseThreshold <= 1.0}
+     */
+    public AdaptiveGridModel(GridStructure structure, T defaultEntity, double sparseThreshold, double denseThreshold) {
+        this(structure, defaultEntity, sparseThreshold, denseThreshold, Representation.SPARSE);
+    }
+
+    private AdaptiveGridModel(GridStructure structure, T defaultEntity,
+                              double sparseThreshold, double denseThreshold, Representation representation) {
+        if (!((sparseThreshold >= 0.0d) && (sparseThreshold < denseThreshold) && (denseThreshold <= 1.0d))) {
+            throw new IllegalArgumentException("Invalid thresholds: sparseThreshold=" + sparseThreshold
+                    + ", denseThreshold=" + denseThreshold);
+        }
+        this.structure = structure;
+        this.defaultEntity = defaultEntity;
+        this.sparseThreshold = sparseThreshold;
+        this.denseThreshold = denseThreshold;
+        int cellCount = structure.cellCount();
+        sparseLimit = (int) Math.floor(sparseThreshold * cellCount);
+        denseLimit = Math.max(1, (int) Math.ceil(denseThreshold * cellCount));
+        storage = newStorage(representation);
+    }
+
+    /**
+     * Returns the current backing storage representation.
+     *
+     * @return the current representation
+     */
+    public Representation representation() {
+        return (storage instanceof ArrayGridModel<T>) ? Representation.DENSE : Representation.SPARSE;
+    }
+
+    /**
+     * Returns the number of storage migrations performed by this model since its construction.
+     *
+     * @return the number of migrations
+     */
+    public int migrationCount() {
+        return migrationCount;
+    }
+
+    /**
+     * Returns the number of cells currently holding a non-default entity.
+     *
+     * @return the non-default cell count
+     */
+    public int nonDefaultCount() {
+        return nonDefaultCount;
+    }
+
+    /**
+     * Returns the density at or below which dense storage is migrated to sparse storage.
+     *
+     * @return the sparse threshold
+     */
+    public double sparseThreshold() {
+        return sparseThreshold;
+    }
+
+    /**
+     * Returns the density at or above which sparse storage is migrated to dense storage.
+     *
+     * @return the dense threshold
+     */
+    public double denseThreshold() {
+        return denseThreshold;
+    }
+
+    @Override
+    public GridStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public T defaultEntity() {
+        return defaultEntity;
+    }
+
+    @Override
+    public T getEntity(GridCoordinate coordinate) {
+        return storage.getEntity(coordinate);
+    }
+
+    @Override
+    public boolean isDefaultEntity(GridCoordinate coordinate) {
+        return storage.isDefaultEntity(coordinate);
+    }
+
+    @Override
+    public T getEntity(int index) {
+        return storage.getEntity(index);
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        return storage.isDefaultEntity(index);
+    }
+
+    @Override
+    public boolean isSparse() {
+        return storage.isSparse();
+    }
+
+    @Override
+    public long countEntities(Predicate<? super T> predicate) {
+        return storage.countEntities(predicate);
+    }
+
+    @Override
+    public Set<GridCoordinate> nonDefaultCoordinates() {
+        return storage.nonDefaultCoordinates();
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        return storage.nonDefaultIndices();
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        return storage.filteredIndices(entityPredicate);
+    }
+
+    @Override
+    public List<GridCoordinate> filteredCoordinates(Predicate<T> entityPredicate) {
+        return storage.filteredCoordinates(entityPredicate);
+    }
+
+    @Override
+    public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
+        return storage.findRandomDefaultCoordinate(random);
+    }
+
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        storage.forEachCell(visitor);
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        storage.forEachNonDefault(visitor);
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        storage.forEachMatching(entityPredicate, visitor);
+    }
+
+    @Override
+    public List<GridCell<T>> allCells() {
+        return storage.allCells();
+    }
+
+    @Override
+    public List<GridCell<T>> nonDefaultCells() {
+        return storage.nonDefaultCells();
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCells(Predicate<T> entityPredicate) {
+        return storage.filteredCells(entityPredicate);
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCellsSortedBy(Predicate<T> entityPredicate, Comparator<GridCell<T>> cellOrdering) {
+        return storage.filteredCellsSortedBy(entityPredicate, cellOrdering);
+    }
+
+    /**
+     * Creates a copy of this grid model, including the current grid state and representation.
+     * The migration count of the copy starts at zero.
+     *
+     * @return a copy of this grid model
+     */
+    @Override
+    public AdaptiveGridModel<T> copy() {
+        AdaptiveGridModel<T> clone = new AdaptiveGridModel<>(structure, defaultEntity,
+                sparseThreshold, denseThreshold, representation());
+        clone.storage = storage.copy();
+        clone.nonDefaultCount = nonDefaultCount;
+        return clone;
+    }
+
+    /**
+     * Creates a copy of this grid model with all entities set to the default entity.
+     * The copy keeps the current representation, because it is typically refilled with a population
+     * of similar density. The migration count of the copy starts at zero.
+     *
+     * @return a copy of this grid model with the default entity in all cells
+     */
+    @Override
+    public AdaptiveGridModel<T> copyWithDefaultEntity() {
+        return new AdaptiveGridModel<>(structure, defaultEntity, sparseThreshold, denseThreshold, representation());
+    }
+
+    @Override
+    public void setEntity(GridCoordinate coordinate, T entity) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setEntityUnchecked(structure.indexOf(coordinate), entity);
+    }
+
+    @Override
+    public void setEntity(int index, T entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setEntityUnchecked(index, entity);
+    }
+
+    @Override
+    public void setEntityToDefault(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setEntityUnchecked(structure.indexOf(coordinate), defaultEntity);
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setEntityUnchecked(index, defaultEntity);
+    }
+
+    @Override
+    public void fill(T entity) {
+        storage.fill(entity);
+        nonDefaultCount = Objects.equals(entity, defaultEntity) ? 0 : structure.cellCount();
+        recordAllChanged();
+        adaptRepresentation();
+    }
+
+    @Override
+    public void fill(Supplier<T> supplier) {
+        storage.fill(supplier);
+        nonDefaultCount = storage.nonDefaultIndices().length;
+        recordAllChanged();
+        adaptRepresentation();
+    }
+
+    @Override
+    public void fill(Function<GridCoordinate, T> mapper) {
+        storage.fill(mapper);
+        nonDefaultCount = storage.nonDefaultIndices().length;
+        recordAllChanged();
+        adaptRepresentation();
+    }
+
+    /**
+     * Sets all grid cells to the default entity.
+     * The current representation is kept.
+     */
+    @Override
+    public void clear() {
+        storage.clear();
+        nonDefaultCount = 0;
+        recordAllChanged();
+    }
+
+    @Override
+    public void swapInputCellEntities(GridCell<T> cellA, GridCell<T> cellB) {
+        GridCoordinate coordinateA = cellA.coordinate();
+        GridCoordinate coordinateB = cellB.coordinate();
+        if (!structure.isCoordinateValid(coordinateA)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateA + " for structure: " + structure);
+        }
+        if (!structure.isCoordinateValid(coordinateB)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
+        }
+        setEntityUnchecked(structure.indexOf(coordinateA), cellB.entity());
+        setEntityUnchecked(structure.indexOf(coordinateB), cellA.entity());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the current backing storage, which is duplicated before the next write to this model.
+     */
+    @Override
+    public GridModelSnapshot<T> snapshot() {
+        return storage.snapshot();
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveGridModel{" +
+                "structure=" + structure +
+                ", defaultEntity=" + defaultEntity +
+                ", representation=" + representation() +
+                ", nonDefaultCount=" + nonDefaultCount +
+                ", migrationCount=" + migrationCount +
+                '}';
+    }
+
+    /**
+     * Writes the entity at a validated index, updates the non-default count and
+     * migrates the storage if the write crossed a threshold.
+     */
+    private void setEntityUnchecked(int index, T entity) {
+        boolean wasDefault = storage.isDefaultEntity(index);
+        storage.setEntity(index, entity);
+        recordChange(index);
+        boolean isDefault = Objects.equals(entity, defaultEntity);
+        if (wasDefault && !isDefault) {
+            nonDefaultCount++;
+            if ((nonDefaultCount >= denseLimit) && (storage instanceof SparseGridModel<T>)) {
+                migrate(Representation.DENSE);
+            }
+        } else if (!wasDefault && isDefault) {
+            nonDefaultCount--;
+            if ((nonDefaultCount <= sparseLimit) && (storage instanceof ArrayGridModel<T>)) {
+                migrate(Representation.SPARSE);
+            }
+        }
+    }
+
+    /**
+     * Migrates the storage after a bulk operation if the non-default count is beyond a threshold.
+     */
+    private void adaptRepresentation() {
+        if ((nonDefaultCount >= denseLimit) && (storage instanceof SparseGridModel<T>)) {
+            migrate(Representation.DENSE);
+        } else if ((nonDefaultCount <= sparseLimit) && (storage instanceof ArrayGridModel<T>)) {
+            migrate(Representation.SPARSE);
+        }
+    }
+
+    /**
+     * Copies all non-default entities into new storage of the given representation.
+     */
+    private void migrate(Representation target) {
+        WritableGridModel<T> migrated = newStorage(target);
+        storage.forEachNonDefault((x, y, entity) -> migrated.setEntity(structure.indexOf(x, y), entity));
+        storage = migrated;
+        migrationCount++;
+    }
+
+    private WritableGridModel<T> newStorage(Representation representation) {
+        return switch (representation) {
+            case SPARSE -> new SparseGridModel<>(structure, defaultEntity);
+            case DENSE -> new ArrayGridModel<>(structure, defaultEntity);
+        };
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
+}
@@ -2,18 +2,38 @@ package de.mkalb.etpetssim.engine.model;
 
 import de.mkalb.etpetssim.engine.*;
 import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.*;
 
 /**
- * An implementation of {@link WritableGridModel} that stores grid entities in a two-dimensional array.
+ * An implementation of {@link WritableGridModel} that stores grid entities in row-major order.
  * Efficient for dense grids with mostly non-default entities.
+ * <p>
+ * The cells are stored in pages of {@value #PAGE_SIZE} consecutive flat cell indices as defined by
+ * {@link GridStructure#indexOf(int, int)}, that is, in blocks of rows. The page and the position within the page
+ * are derived from the cell index by a shift and a mask, so each access costs one lookup in the small page
+ * directory and one array dereference, and bulk operations such as {@link #clear()}
+ * are {@link Arrays#fill} calls per page.
+ * <p>
+ * {@link #snapshot()} and {@link #copy()} share the pages with the snapshot or copy. After that, the page
+ * directory is duplicated on the first write and each page is duplicated on the first write into it, so only
+ * the pages written afterward are copied. A new model and {@link #copyWithDefaultEntity()} share one page of
+ * default entities until a page is written.
  *
  * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
  */
 public final class ArrayGridModel<T extends GridEntity> implements WritableGridModel<T> {
 
+    /**
+     * The number of cells per page.
+     */
+    public static final int PAGE_SIZE = 4096;
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
     /**
      * The structure describing the grid's dimensions and valid coordinates.
      */
@@ -25,9 +45,39 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
     private final T defaultEntity;
 
     /**
-     * The two-dimensional array holding the grid entities.
+     * The pages holding the grid entities in row-major order; the cell with flat index {@code i} is stored
+     * at position {@code i & PAGE_MASK} of page {@code i >>> PAGE_SHIFT}. All pages are full except the last one.
+     * The directory and its pages may be shared with snapshots and copies
+     * (see {@link #directoryShared} and {@link #pageOwners}).
+     */
+    private Object[][] pages;
+
+    /**
+     * Whether {@link #pages} is shared with a snapshot or copy and must be duplicated before the next write.
+     */
+    private boolean directoryShared;
+
+    /**
+     * The owner generation of each page. A page may be written in place only if its owner generation
+     * equals {@link #ownerGeneration}; otherwise it is shared and duplicated first.
+     */
+    private final int[] pageOwners;
+
+    /**
+     * The current owner generation, incremented by every snapshot and copy.
+     */
+    private int ownerGeneration;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * The index of default cells used by {@link #findRandomDefaultCoordinate(Random)},
+     * or {@code null} if it is not enabled (see {@link #enableFreeCellIndex()}).
      */
-    private final Object[][] data;
+    private @Nullable FreeCellIndex freeCellIndex;
 
     /**
      * Constructs a new {@code ArrayGridModel} with the given structure and default entity.
@@ -37,10 +87,57 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
      * @param defaultEntity the default entity for all cells
      */
     public ArrayGridModel(GridStructure structure, T defaultEntity) {
+        this(structure, defaultEntity, defaultPages(structure.size().area(), defaultEntity));
+    }
+
+    /**
+     * Constructs a new {@code ArrayGridModel} with pages it does not own, so each page is duplicated
+     * on the first write into it.
+     */
+    private ArrayGridModel(GridStructure structure, T defaultEntity, Object[][] pages) {
         this.structure = structure;
         this.defaultEntity = defaultEntity;
-        data = new Object[structure.size().height()][structure.size().width()];
-        clear();
+        this.pages = pages;
+        directoryShared = true;
+        pageOwners = new int[pages.length];
+        Arrays.fill(pageOwners, -1);
+    }
+
+    /**
+     * Constructs a new {@code ArrayGridModel} that shares the pages of the given model with a snapshot.
+     * The returned instance is never written, so it does not need its own page owners.
+     */
+    private ArrayGridModel(ArrayGridModel<T> source) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        pages = source.pages;
+        directoryShared = true;
+        pageOwners = source.pageOwners;
+    }
+
+    /**
+     * Enables an index of the cells holding the default entity, so that
+     * {@link #findRandomDefaultCoordinate(Random)} selects a uniformly random default cell in O(1)
+     * at any density instead of scanning the grid.
+     * <p>
+     * The index is built once from the current grid state, costs two {@code int} arrays of the grid area
+     * and adds O(1) work to every single-cell write. Copies of this model keep the index.
+     * Calling this method again has no effect.
+     */
+    public void enableFreeCellIndex() {
+        if (freeCellIndex == null) {
+            freeCellIndex = new FreeCellIndex(structure.cellCount());
+            rebuildFreeCellIndex();
+        }
+    }
+
+    /**
+     * Returns whether the index of default cells is enabled.
+     *
+     * @return {@code true} if {@link #enableFreeCellIndex()} was called
+     */
+    public boolean isFreeCellIndexEnabled() {
+        return freeCellIndex != null;
     }
 
     @Override
@@ -59,7 +156,7 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        return (T) data[coordinate.y()][coordinate.x()];
+        return (T) element(structure.indexOf(coordinate));
     }
 
     @Override
@@ -67,7 +164,24 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        return Objects.equals(data[coordinate.y()][coordinate.x()], defaultEntity);
+        return Objects.equals(element(structure.indexOf(coordinate)), defaultEntity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return (T) element(index);
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return Objects.equals(element(index), defaultEntity);
     }
 
     @Override
@@ -77,13 +191,11 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
 
     @Override
     public long countEntities(Predicate<? super T> predicate) {
-        int width = structure.size().width();
-        int height = structure.size().height();
         long count = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
+        for (Object[] page : pages) {
+            for (Object element : page) {
                 @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
+                T entity = (T) element;
                 if (predicate.test(entity)) {
                     count++;
                 }
@@ -100,11 +212,10 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         int width = structure.size().width();
         int height = structure.size().height();
         Set<GridCoordinate> result = new HashSet<>();
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
-                if (!Objects.equals(entity, defaultEntity)) {
+                if (!Objects.equals(element(index++), defaultEntity)) {
                     result.add(new GridCoordinate(x, y));
                 }
             }
@@ -112,6 +223,40 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         return result;
     }
 
+    @Override
+    public int[] nonDefaultIndices() {
+        int[] buffer = new int[structure.cellCount()];
+        int count = 0;
+        int index = 0;
+        for (Object[] page : pages) {
+            for (Object element : page) {
+                if (!Objects.equals(element, defaultEntity)) {
+                    buffer[count++] = index;
+                }
+                index++;
+            }
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        int[] buffer = new int[structure.cellCount()];
+        int count = 0;
+        int index = 0;
+        for (Object[] page : pages) {
+            for (Object element : page) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) element;
+                if (entityPredicate.test(entity)) {
+                    buffer[count++] = index;
+                }
+                index++;
+            }
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
     @Override
     public List<GridCoordinate> filteredCoordinates(Predicate<T> entityPredicate) {
         int width = structure.size().width();
@@ -119,10 +264,11 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         // Pre-size with full grid area: ArrayGridModel is for dense grids where the predicate typically
         // matches most cells, so pre-sizing avoids repeated ArrayList resizing (up to ~20 resizes for 1M cells).
         List<GridCoordinate> result = new ArrayList<>(width * height);
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
+                T entity = (T) element(index++);
                 if (entityPredicate.test(entity)) {
                     result.add(new GridCoordinate(x, y));
                 }
@@ -133,16 +279,21 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
 
     @Override
     public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
-        // Reservoir sampling (k=1): O(N) time, O(1) extra space.
-        // Direct array access avoids the bounds check overhead of isDefaultEntity().
+        if (freeCellIndex != null) {
+            int freeIndex = freeCellIndex.randomFreeIndex(random);
+            return (freeIndex < 0) ? Optional.empty() : Optional.of(structure.coordinateOf(freeIndex));
+        }
+        // Without the free-cell index: reservoir sampling (k=1), O(N) time, O(1) extra space.
+        // Direct page access avoids the bounds check overhead of isDefaultEntity().
         int width = structure.size().width();
         int height = structure.size().height();
         GridCoordinate selected = null;
         int count = 0;
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
+                T entity = (T) element(index++);
                 if (Objects.equals(entity, defaultEntity)) {
                     count++;
                     // Replace current candidate with probability 1/count.
@@ -155,18 +306,65 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         return Optional.ofNullable(selected);
     }
 
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) element(index++);
+                visitor.visit(x, y, entity);
+            }
+        }
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) element(index++);
+                if (!Objects.equals(entity, defaultEntity)) {
+                    visitor.visit(x, y, entity);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) element(index++);
+                if (entityPredicate.test(entity)) {
+                    visitor.visit(x, y, entity);
+                }
+            }
+        }
+    }
+
     @Override
     public List<GridCell<T>> allCells() {
-        // Direct array access to skip the redundant bounds check of getEntity(),
+        // Direct page access to skip the redundant bounds check of getEntity(),
         // which is safe because all (x, y) pairs produced here are guaranteed to be valid.
         // Pre-size with full grid area: ArrayGridModel is for dense grids, so all cells are included.
         int width = structure.size().width();
         int height = structure.size().height();
         List<GridCell<T>> result = new ArrayList<>(width * height);
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
+                T entity = (T) element(index++);
                 result.add(new GridCell<>(new GridCoordinate(x, y), entity));
             }
         }
@@ -182,10 +380,11 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         int width = structure.size().width();
         int height = structure.size().height();
         List<GridCell<T>> result = new ArrayList<>();
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
+                T entity = (T) element(index++);
                 if (!Objects.equals(entity, defaultEntity)) {
                     result.add(new GridCell<>(new GridCoordinate(x, y), entity));
                 }
@@ -201,10 +400,11 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         // Pre-size with full grid area: ArrayGridModel is for dense grids where the predicate typically
         // matches most cells, so pre-sizing avoids repeated ArrayList resizing (up to ~20 resizes for 1M cells).
         List<GridCell<T>> result = new ArrayList<>(width * height);
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 @SuppressWarnings("unchecked")
-                T entity = (T) data[y][x];
+                T entity = (T) element(index++);
                 if (entityPredicate.test(entity)) {
                     result.add(new GridCell<>(new GridCoordinate(x, y), entity));
                 }
@@ -224,18 +424,21 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
     public ArrayGridModel<T> copy() {
         // Entity instances in the copy share the same references as this model (shallow copy).
         // This is safe because GridEntity implementations are treated as immutable value types.
-        ArrayGridModel<T> clone = new ArrayGridModel<>(structure, defaultEntity);
-        int width = structure.size().width();
-        int height = structure.size().height();
-        for (int y = 0; y < height; y++) {
-            System.arraycopy(data[y], 0, clone.data[y], 0, width);
+        ArrayGridModel<T> clone = new ArrayGridModel<>(structure, defaultEntity, pages);
+        releasePages();
+        if (freeCellIndex != null) {
+            clone.freeCellIndex = freeCellIndex.copy();
         }
         return clone;
     }
 
     @Override
     public ArrayGridModel<T> copyWithDefaultEntity() {
-        return new ArrayGridModel<>(structure, defaultEntity);
+        ArrayGridModel<T> clone = new ArrayGridModel<>(structure, defaultEntity);
+        if (freeCellIndex != null) {
+            clone.enableFreeCellIndex();
+        }
+        return clone;
     }
 
     @Override
@@ -243,7 +446,20 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        data[coordinate.y()][coordinate.x()] = entity;
+        int index = structure.indexOf(coordinate);
+        setElement(index, entity);
+        updateFreeCell(index, Objects.equals(entity, defaultEntity));
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntity(int index, T entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setElement(index, entity);
+        updateFreeCell(index, Objects.equals(entity, defaultEntity));
+        recordChange(index);
     }
 
     @Override
@@ -251,44 +467,66 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        data[coordinate.y()][coordinate.x()] = defaultEntity;
+        int index = structure.indexOf(coordinate);
+        setElement(index, defaultEntity);
+        updateFreeCell(index, true);
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setElement(index, defaultEntity);
+        updateFreeCell(index, true);
+        recordChange(index);
     }
 
     @Override
     public void fill(T entity) {
-        for (Object[] row : data) {
-            Arrays.fill(row, entity);
+        for (int p = 0; p < pages.length; p++) {
+            Arrays.fill(overwritablePage(p), entity);
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
     public void fill(Supplier<T> supplier) {
-        int width = structure.size().width();
-        int height = structure.size().height();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                data[y][x] = supplier.get();
+        for (int p = 0; p < pages.length; p++) {
+            Object[] page = overwritablePage(p);
+            for (int offset = 0; offset < page.length; offset++) {
+                page[offset] = supplier.get();
             }
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
     public void fill(Function<GridCoordinate, T> mapper) {
         int width = structure.size().width();
         int height = structure.size().height();
+        int index = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                data[y][x] = mapper.apply(new GridCoordinate(x, y));
+                // Row-major order writes each page completely, so it is never copied.
+                overwritablePage(index >>> PAGE_SHIFT)[index & PAGE_MASK] = mapper.apply(new GridCoordinate(x, y));
+                index++;
             }
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
     public void clear() {
-        int height = structure.size().height();
-        for (int y = 0; y < height; y++) {
-            Arrays.fill(data[y], defaultEntity);
+        for (int p = 0; p < pages.length; p++) {
+            Arrays.fill(overwritablePage(p), defaultEntity);
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
@@ -301,8 +539,56 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         if (!structure.isCoordinateValid(coordinateB)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
         }
-        data[coordinateA.y()][coordinateA.x()] = cellB.entity();
-        data[coordinateB.y()][coordinateB.x()] = cellA.entity();
+        int indexA = structure.indexOf(coordinateA);
+        int indexB = structure.indexOf(coordinateB);
+        setElement(indexA, cellB.entity());
+        setElement(indexB, cellA.entity());
+        updateFreeCell(indexA, Objects.equals(cellB.entity(), defaultEntity));
+        updateFreeCell(indexB, Objects.equals(cellA.entity(), defaultEntity));
+        recordChange(indexA);
+        recordChange(indexB);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the page directory and all pages. Only the directory and the pages written
+     * after the snapshot are duplicated.
+     */
+    @Override
+    public GridModelSnapshot<T> snapshot() {
+        GridModelSnapshot<T> snapshot = new GridModelSnapshot<>(new ArrayGridModel<>(this));
+        releasePages();
+        return snapshot;
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Supported if neither a change journal nor a free cell index is attached,
+     * because every cell is stored in its own array element. Shared pages
+     * are duplicated before the concurrent writes begin.
+     */
+    @Override
+    public boolean beginConcurrentRowBandWrites() {
+        if ((changeJournal != null) || (freeCellIndex != null)) {
+            return false;
+        }
+        for (int p = 0; p < pages.length; p++) {
+            writablePage(p);
+        }
+        return true;
     }
 
     @Override
@@ -310,8 +596,111 @@ public final class ArrayGridModel<T extends GridEntity> implements WritableGridM
         return "ArrayGridModel{" +
                 "structure=" + structure +
                 ", defaultEntity=" + defaultEntity +
-                ", data.length=" + data.length +
+                ", pages.length=" + pages.length +
                 '}';
     }
 
+    private Object element(int index) {
+        return pages[index >>> PAGE_SHIFT][index & PAGE_MASK];
+    }
+
+    private void setElement(int index, Object entity) {
+        writablePage(index >>> PAGE_SHIFT)[index & PAGE_MASK] = entity;
+    }
+
+    /**
+     * Returns the page for a partial write, duplicating it first if it is shared.
+     */
+    private Object[] writablePage(int pageIndex) {
+        prepareDirectory();
+        Object[] page = pages[pageIndex];
+        if (pageOwners[pageIndex] != ownerGeneration) {
+            page = page.clone();
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the page for a write of all its cells, replacing it first if it is shared.
+     */
+    private Object[] overwritablePage(int pageIndex) {
+        prepareDirectory();
+        Object[] page = pages[pageIndex];
+        if (pageOwners[pageIndex] != ownerGeneration) {
+            page = new Object[page.length];
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Gives up the directory and all pages after sharing them, so they are duplicated before they are written.
+     */
+    private void releasePages() {
+        directoryShared = true;
+        ownerGeneration++;
+        if (ownerGeneration == 0) {
+            // The generation counter wrapped around; mark all pages as foreign once.
+            Arrays.fill(pageOwners, -1);
+        }
+    }
+
+    /**
+     * Returns the pages of a grid holding only the default entity. All full pages are the same array,
+     * so the pages must be duplicated before they are written.
+     */
+    private static Object[][] defaultPages(int cellCount, Object defaultEntity) {
+        Object[][] result = new Object[(cellCount + PAGE_MASK) >>> PAGE_SHIFT][];
+        Object[] fullPage = new Object[Math.min(PAGE_SIZE, cellCount)];
+        Arrays.fill(fullPage, defaultEntity);
+        for (int p = 0; p < result.length; p++) {
+            int length = Math.min(PAGE_SIZE, cellCount - (p << PAGE_SHIFT));
+            result[p] = (length == fullPage.length) ? fullPage : Arrays.copyOf(fullPage, length);
+        }
+        return result;
+    }
+
+    /**
+     * Duplicates the page directory before a write if it is shared with a snapshot or copy.
+     */
+    private void prepareDirectory() {
+        if (directoryShared) {
+            pages = pages.clone();
+            directoryShared = false;
+        }
+    }
+
+    private void updateFreeCell(int index, boolean free) {
+        if (freeCellIndex != null) {
+            freeCellIndex.update(index, free);
+        }
+    }
+
+    /**
+     * Rebuilds the index of default cells after a bulk write.
+     */
+    private void rebuildFreeCellIndex() {
+        if (freeCellIndex != null) {
+            freeCellIndex.markAllFree();
+            for (int index : nonDefaultIndices()) {
+                freeCellIndex.update(index, false);
+            }
+        }
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
 }
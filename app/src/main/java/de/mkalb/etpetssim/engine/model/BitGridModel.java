@@ -0,0 +1,789 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An implementation of {@link WritableGridModel} for binary-state grids whose cells hold either the
+ * default entity or one single active entity (e.g. dead/alive or free/occupied).
+ * <p>
+ * Each cell is stored as one bit, packed 64 cells per {@code long} word. Every grid row starts at a new word
+ * ({@link #wordsPerRow()} words per row, unused high bits of the last word of a row are always zero), so rows
+ * can be processed word by word with bitwise operations via {@link #rowWord(int, int)} and
+ * {@link #setRowWord(int, int, long)}. Counting uses {@link Long#bitCount(long)}, and
+ * {@link #clear()} is an array operation per page.
+ * <p>
+ * The words are stored in pages of {@value #PAGE_WORDS} consecutive words, that is, in blocks of rows,
+ * addressed by a shift and a mask of the word offset. {@link #snapshot()} and {@link #copy()} share the pages
+ * with the snapshot or copy. After that, the page directory is duplicated on the first write and each page is
+ * duplicated on the first write into it, so only the pages written afterward are copied. A new model and
+ * {@link #copyWithDefaultEntity()} share one page of cleared words until a page is written.
+ * <p>
+ * Writing any entity other than the default entity or the active entity throws an
+ * {@link IllegalArgumentException}.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
+ */
+public final class BitGridModel<T extends GridEntity> implements WritableGridModel<T> {
+
+    /**
+     * The number of words per page.
+     */
+    public static final int PAGE_WORDS = 64;
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_MASK = PAGE_WORDS - 1;
+
+    /**
+     * The structure describing the grid's dimensions and valid coordinates.
+     */
+    private final GridStructure structure;
+
+    /**
+     * The default entity for all grid cells, represented by a cleared bit.
+     */
+    private final T defaultEntity;
+
+    /**
+     * The active entity, represented by a set bit.
+     */
+    private final T activeEntity;
+
+    /**
+     * The number of words per grid row.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * The bit mask of the valid bits in the last word of each row.
+     */
+    private final long lastWordMask;
+
+    /**
+     * The pages holding the cell bits, row by row; bit {@code x % 64} of the word at offset
+     * {@code y * wordsPerRow + x / 64} represents the cell (x, y), and the word at offset {@code o} is stored
+     * at position {@code o & PAGE_MASK} of page {@code o >>> PAGE_SHIFT}. All pages are full except the last one.
+     * The directory and its pages may be shared with snapshots and copies
+     * (see {@link #directoryShared} and {@link #pageOwners}).
+     */
+    private long[][] pages;
+
+    /**
+     * Whether {@link #pages} is shared with a snapshot or copy and must be duplicated before the next write.
+     */
+    private boolean directoryShared;
+
+    /**
+     * The owner generation of each page. A page may be written in place only if its owner generation
+     * equals {@link #ownerGeneration}; otherwise it is shared and duplicated first.
+     */
+    private final int[] pageOwners;
+
+    /**
+     * The current owner generation, incremented by every snapshot and copy.
+     */
+    private int ownerGeneration;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * Constructs a new {@code BitGridModel} with the given structure, default entity and active entity.
+     * All cells are initialized to the default entity.
+     *
+     * @param structure     the grid structure
+     * @param defaultEntity the default entity for all cells (cleared bit)
+     * @param activeEntity  the only other entity that can be stored (set bit)
+     * @throws IllegalArgumentException if the default entity and the active entity are equal
+     */
+    public BitGridModel(GridStructure structure, T defaultEntity, T activeEntity) {
+        if (defaultEntity.equals(activeEntity)) {
+            throw new IllegalArgumentException("Default entity and active entity must differ: " + defaultEntity);
+        }
+        this.structure = structure;
+        this.defaultEntity = defaultEntity;
+        this.activeEntity = activeEntity;
+        int width = structure.size().width();
+        wordsPerRow = (width + WORD_MASK) >>> WORD_SHIFT;
+        int lastWordBits = width & WORD_MASK;
+        lastWordMask = (lastWordBits == 0) ? -1L : ((1L << lastWordBits) - 1L);
+        pages = defaultPages(wordsPerRow * structure.size().height());
+        directoryShared = true;
+        pageOwners = new int[pages.length];
+        Arrays.fill(pageOwners, -1);
+    }
+
+    /**
+     * Constructs a new {@code BitGridModel} with the configuration of the given model and pages it does not own,
+     * so each page is duplicated on the first write into it.
+     */
+    private BitGridModel(BitGridModel<T> source, long[][] pages) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        activeEntity = source.activeEntity;
+        wordsPerRow = source.wordsPerRow;
+        lastWordMask = source.lastWordMask;
+        this.pages = pages;
+        directoryShared = true;
+        pageOwners = new int[pages.length];
+        Arrays.fill(pageOwners, -1);
+    }
+
+    /**
+     * Constructs a new {@code BitGridModel} that shares the pages of the given model with a snapshot.
+     * The returned instance is never written, so it does not need its own page owners.
+     */
+    private BitGridModel(BitGridModel<T> source) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        activeEntity = source.activeEntity;
+        wordsPerRow = source.wordsPerRow;
+        lastWordMask = source.lastWordMask;
+        pages = source.pages;
+        directoryShared = true;
+        pageOwners = source.pageOwners;
+    }
+
+    @Override
+    public GridStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public T defaultEntity() {
+        return defaultEntity;
+    }
+
+    /**
+     * Returns the active entity, which is stored as a set bit.
+     *
+     * @return the active entity
+     */
+    public T activeEntity() {
+        return activeEntity;
+    }
+
+    /**
+     * Returns the number of {@code long} words per grid row.
+     *
+     * @return the number of words per row
+     */
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Returns the word at the given position of a grid row.
+     * Bit {@code b} of word {@code w} represents the cell at x-coordinate {@code w * 64 + b}.
+     *
+     * @param y         the row (y-coordinate)
+     * @param wordIndex the word position within the row, from {@code 0} to {@link #wordsPerRow()} (exclusive)
+     * @return the word; unused high bits of the last word of a row are zero
+     * @throws IndexOutOfBoundsException if the row or word position is invalid
+     */
+    public long rowWord(int y, int wordIndex) {
+        return word(wordOffset(y, wordIndex));
+    }
+
+    /**
+     * Replaces the word at the given position of a grid row.
+     * Bits beyond the grid width are ignored.
+     * An attached {@link GridChangeJournal} records only the cells whose bit actually changes.
+     *
+     * @param y         the row (y-coordinate)
+     * @param wordIndex the word position within the row, from {@code 0} to {@link #wordsPerRow()} (exclusive)
+     * @param word      the new word
+     * @throws IndexOutOfBoundsException if the row or word position is invalid
+     */
+    public void setRowWord(int y, int wordIndex, long word) {
+        int offset = wordOffset(y, wordIndex);
+        long[] page = writablePage(offset >>> PAGE_SHIFT);
+        long newWord = (wordIndex == (wordsPerRow - 1)) ? (word & lastWordMask) : word;
+        long changedBits = page[offset & PAGE_MASK] ^ newWord;
+        page[offset & PAGE_MASK] = newWord;
+        if (changeJournal != null) {
+            int baseIndex = structure.indexOf(wordIndex << WORD_SHIFT, y);
+            while (changedBits != 0L) {
+                changeJournal.record(baseIndex + Long.numberOfTrailingZeros(changedBits));
+                changedBits &= changedBits - 1L;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cells holding the active entity.
+     *
+     * @return the number of active cells
+     */
+    public long activeCount() {
+        long count = 0;
+        for (long[] page : pages) {
+            for (long word : page) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public T getEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return isActive(coordinate.x(), coordinate.y()) ? activeEntity : defaultEntity;
+    }
+
+    @Override
+    public boolean isDefaultEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return !isActive(coordinate.x(), coordinate.y());
+    }
+
+    @Override
+    public T getEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return isActive(structure.xOf(index), structure.yOf(index)) ? activeEntity : defaultEntity;
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return !isActive(structure.xOf(index), structure.yOf(index));
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public long countEntities(Predicate<? super T> predicate) {
+        long active = activeCount();
+        long count = 0;
+        if (predicate.test(activeEntity)) {
+            count += active;
+        }
+        if (predicate.test(defaultEntity)) {
+            count += structure.size().area() - active;
+        }
+        return count;
+    }
+
+    @Override
+    public Set<GridCoordinate> nonDefaultCoordinates() {
+        Set<GridCoordinate> result = new HashSet<>();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                long word = word((y * wordsPerRow) + w);
+                while (word != 0) {
+                    result.add(new GridCoordinate((w << WORD_SHIFT) + Long.numberOfTrailingZeros(word), y));
+                    word &= word - 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        return indicesOf(false, true);
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        return indicesOf(entityPredicate.test(defaultEntity), entityPredicate.test(activeEntity));
+    }
+
+    @Override
+    public List<GridCoordinate> filteredCoordinates(Predicate<T> entityPredicate) {
+        int[] indices = filteredIndices(entityPredicate);
+        List<GridCoordinate> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(structure.coordinateOf(index));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
+        // The default count is known from the popcount, so a single random draw selects the n-th cleared bit.
+        long defaultCount = structure.size().area() - activeCount();
+        if (defaultCount <= 0) {
+            return Optional.empty();
+        }
+        int remaining = random.nextInt(Math.toIntExact(defaultCount));
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                long mask = (w == (wordsPerRow - 1)) ? lastWordMask : -1L;
+                long free = ~word((y * wordsPerRow) + w) & mask;
+                int freeBits = Long.bitCount(free);
+                if (remaining < freeBits) {
+                    for (int skip = 0; skip < remaining; skip++) {
+                        free &= free - 1;
+                    }
+                    return Optional.of(new GridCoordinate((w << WORD_SHIFT) + Long.numberOfTrailingZeros(free), y));
+                }
+                remaining -= freeBits;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                visitor.visit(x, y, isActive(x, y) ? activeEntity : defaultEntity);
+            }
+        }
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        forEachBit(true, visitor);
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        boolean includeDefault = entityPredicate.test(defaultEntity);
+        boolean includeActive = entityPredicate.test(activeEntity);
+        if (includeDefault && includeActive) {
+            forEachCell(visitor);
+        } else if (includeActive) {
+            forEachBit(true, visitor);
+        } else if (includeDefault) {
+            forEachBit(false, visitor);
+        }
+    }
+
+    @Override
+    public List<GridCell<T>> allCells() {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        List<GridCell<T>> result = new ArrayList<>(width * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                result.add(new GridCell<>(new GridCoordinate(x, y), isActive(x, y) ? activeEntity : defaultEntity));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> nonDefaultCells() {
+        int[] indices = nonDefaultIndices();
+        List<GridCell<T>> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(new GridCell<>(structure.coordinateOf(index), activeEntity));
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCells(Predicate<T> entityPredicate) {
+        boolean includeDefault = entityPredicate.test(defaultEntity);
+        boolean includeActive = entityPredicate.test(activeEntity);
+        int[] indices = indicesOf(includeDefault, includeActive);
+        List<GridCell<T>> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            GridCoordinate coordinate = structure.coordinateOf(index);
+            boolean active = !includeDefault || (includeActive && isActive(coordinate.x(), coordinate.y()));
+            result.add(new GridCell<>(coordinate, active ? activeEntity : defaultEntity));
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCellsSortedBy(Predicate<T> entityPredicate, Comparator<GridCell<T>> cellOrdering) {
+        List<GridCell<T>> result = filteredCells(entityPredicate);
+        result.sort(cellOrdering);
+        return result;
+    }
+
+    @Override
+    public BitGridModel<T> copy() {
+        BitGridModel<T> clone = new BitGridModel<>(this, pages);
+        releasePages();
+        return clone;
+    }
+
+    @Override
+    public BitGridModel<T> copyWithDefaultEntity() {
+        return new BitGridModel<>(this, defaultPages(wordsPerRow * structure.size().height()));
+    }
+
+    @Override
+    public void setEntity(GridCoordinate coordinate, T entity) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setActive(coordinate.x(), coordinate.y(), isActiveEntity(entity));
+        recordChange(structure.indexOf(coordinate));
+    }
+
+    @Override
+    public void setEntity(int index, T entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setActive(structure.xOf(index), structure.yOf(index), isActiveEntity(entity));
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntityToDefault(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setActive(coordinate.x(), coordinate.y(), false);
+        recordChange(structure.indexOf(coordinate));
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setActive(structure.xOf(index), structure.yOf(index), false);
+        recordChange(index);
+    }
+
+    @Override
+    public void fill(T entity) {
+        long fillWord = isActiveEntity(entity) ? -1L : 0L;
+        for (int p = 0; p < pages.length; p++) {
+            Arrays.fill(overwritablePage(p), fillWord);
+        }
+        if (fillWord != 0L) {
+            for (int y = 0; y < structure.size().height(); y++) {
+                int offset = (y * wordsPerRow) + wordsPerRow - 1;
+                pages[offset >>> PAGE_SHIFT][offset & PAGE_MASK] = lastWordMask;
+            }
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void fill(Supplier<T> supplier) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                setActive(x, y, isActiveEntity(supplier.get()));
+            }
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void fill(Function<GridCoordinate, T> mapper) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                setActive(x, y, isActiveEntity(mapper.apply(new GridCoordinate(x, y))));
+            }
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void clear() {
+        for (int p = 0; p < pages.length; p++) {
+            Arrays.fill(overwritablePage(p), 0L);
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void swapInputCellEntities(GridCell<T> cellA, GridCell<T> cellB) {
+        GridCoordinate coordinateA = cellA.coordinate();
+        GridCoordinate coordinateB = cellB.coordinate();
+        if (!structure.isCoordinateValid(coordinateA)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateA + " for structure: " + structure);
+        }
+        if (!structure.isCoordinateValid(coordinateB)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
+        }
+        boolean activeA = isActiveEntity(cellA.entity());
+        boolean activeB = isActiveEntity(cellB.entity());
+        setActive(coordinateA.x(), coordinateA.y(), activeB);
+        setActive(coordinateB.x(), coordinateB.y(), activeA);
+        recordChange(structure.indexOf(coordinateA));
+        recordChange(structure.indexOf(coordinateB));
+    }
+
+    /**
+     * Maps an entity to its bit value.
+     *
+     * @throws IllegalArgumentException if the entity is neither the default entity nor the active entity
+     */
+    private boolean isActiveEntity(T entity) {
+        if (entity.equals(activeEntity)) {
+            return true;
+        }
+        if (entity.equals(defaultEntity)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Entity " + entity + " is neither the default entity " + defaultEntity
+                + " nor the active entity " + activeEntity);
+    }
+
+    private boolean isActive(int x, int y) {
+        return (word((y * wordsPerRow) + (x >>> WORD_SHIFT)) & (1L << (x & WORD_MASK))) != 0;
+    }
+
+    private void setActive(int x, int y, boolean active) {
+        int offset = (y * wordsPerRow) + (x >>> WORD_SHIFT);
+        long[] page = writablePage(offset >>> PAGE_SHIFT);
+        if (active) {
+            page[offset & PAGE_MASK] |= 1L << (x & WORD_MASK);
+        } else {
+            page[offset & PAGE_MASK] &= ~(1L << (x & WORD_MASK));
+        }
+    }
+
+    private int wordOffset(int y, int wordIndex) {
+        if ((y < 0) || (y >= structure.size().height()) || (wordIndex < 0) || (wordIndex >= wordsPerRow)) {
+            throw new IndexOutOfBoundsException("Row word out of bounds: y=" + y + ", wordIndex=" + wordIndex
+                    + " for structure: " + structure);
+        }
+        return (y * wordsPerRow) + wordIndex;
+    }
+
+    /**
+     * Visits the cells with a set bit (if {@code active}) or with a cleared bit (otherwise) in row-major order.
+     */
+    private void forEachBit(boolean active, CellVisitor<? super T> visitor) {
+        T entity = active ? activeEntity : defaultEntity;
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                long word = word((y * wordsPerRow) + w);
+                if (!active) {
+                    word = ~word & ((w == (wordsPerRow - 1)) ? lastWordMask : -1L);
+                }
+                while (word != 0) {
+                    visitor.visit((w << WORD_SHIFT) + Long.numberOfTrailingZeros(word), y, entity);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ascending flat indices of the cells with a cleared bit (if {@code includeDefault})
+     * and with a set bit (if {@code includeActive}).
+     */
+    private int[] indicesOf(boolean includeDefault, boolean includeActive) {
+        if (!includeDefault && !includeActive) {
+            return new int[0];
+        }
+        long active = activeCount();
+        long expected = (includeDefault ? (structure.size().area() - active) : 0) + (includeActive ? active : 0);
+        int[] result = new int[Math.toIntExact(expected)];
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int count = 0;
+        for (int y = 0; y < height; y++) {
+            int rowIndex = y * width;
+            for (int w = 0; w < wordsPerRow; w++) {
+                long word = word((y * wordsPerRow) + w);
+                if (!includeActive) {
+                    word = ~word & ((w == (wordsPerRow - 1)) ? lastWordMask : -1L);
+                } else if (includeDefault) {
+                    word = (w == (wordsPerRow - 1)) ? lastWordMask : -1L;
+                }
+                int base = rowIndex + (w << WORD_SHIFT);
+                while (word != 0) {
+                    result[count++] = base + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the words of all rows as a new array.
+     */
+    long[] words() {
+        long[] words = new long[wordsPerRow * structure.size().height()];
+        for (int p = 0; p < pages.length; p++) {
+            System.arraycopy(pages[p], 0, words, p << PAGE_SHIFT, pages[p].length);
+        }
+        return words;
+    }
+
+    /**
+     * Replaces the words of all rows.
+     *
+     * @throws IllegalArgumentException if the array length does not match the grid or bits beyond the grid width are set
+     */
+    void restoreWords(long[] newWords) {
+        int wordCount = wordsPerRow * structure.size().height();
+        if (newWords.length != wordCount) {
+            throw new IllegalArgumentException("Expected " + wordCount + " words, but got: " + newWords.length);
+        }
+        for (int offset = wordsPerRow - 1; offset < newWords.length; offset += wordsPerRow) {
+            if ((newWords[offset] & ~lastWordMask) != 0L) {
+                throw new IllegalArgumentException("Bits beyond the grid width are set in row: " + (offset / wordsPerRow));
+            }
+        }
+        for (int p = 0; p < pages.length; p++) {
+            long[] page = overwritablePage(p);
+            System.arraycopy(newWords, p << PAGE_SHIFT, page, 0, page.length);
+        }
+        recordAllChanged();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the page directory and all pages. Only the directory and the pages written
+     * after the snapshot are duplicated.
+     */
+    @Override
+    public GridModelSnapshot<T> snapshot() {
+        GridModelSnapshot<T> snapshot = new GridModelSnapshot<>(new BitGridModel<>(this));
+        releasePages();
+        return snapshot;
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Supported if no change journal is attached, because every row starts at a new word.
+     * Shared pages are duplicated before the concurrent writes begin.
+     */
+    @Override
+    public boolean beginConcurrentRowBandWrites() {
+        if (changeJournal != null) {
+            return false;
+        }
+        for (int p = 0; p < pages.length; p++) {
+            writablePage(p);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BitGridModel{" +
+                "structure=" + structure +
+                ", defaultEntity=" + defaultEntity +
+                ", activeEntity=" + activeEntity +
+                ", pages.length=" + pages.length +
+                '}';
+    }
+
+    private long word(int offset) {
+        return pages[offset >>> PAGE_SHIFT][offset & PAGE_MASK];
+    }
+
+    /**
+     * Returns the page for a partial write, duplicating it first if it is shared.
+     */
+    private long[] writablePage(int pageIndex) {
+        prepareDirectory();
+        long[] page = pages[pageIndex];
+        if (pageOwners[pageIndex] != ownerGeneration) {
+            page = page.clone();
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the page for a write of all its words, replacing it first if it is shared.
+     */
+    private long[] overwritablePage(int pageIndex) {
+        prepareDirectory();
+        long[] page = pages[pageIndex];
+        if (pageOwners[pageIndex] != ownerGeneration) {
+            page = new long[page.length];
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Gives up the directory and all pages after sharing them, so they are duplicated before they are written.
+     */
+    private void releasePages() {
+        directoryShared = true;
+        ownerGeneration++;
+        if (ownerGeneration == 0) {
+            // The generation counter wrapped around; mark all pages as foreign once.
+            Arrays.fill(pageOwners, -1);
+        }
+    }
+
+    /**
+     * Returns the pages of a grid holding only the default entity (cleared bits). All full pages are
+     * the same array, so the pages must be duplicated before they are written.
+     */
+    private static long[][] defaultPages(int wordCount) {
+        long[][] result = new long[(wordCount + PAGE_MASK) >>> PAGE_SHIFT][];
+        long[] fullPage = new long[Math.min(PAGE_WORDS, wordCount)];
+        for (int p = 0; p < result.length; p++) {
+            int length = Math.min(PAGE_WORDS, wordCount - (p << PAGE_SHIFT));
+            result[p] = (length == fullPage.length) ? fullPage : new long[length];
+        }
+        return result;
+    }
+
+    /**
+     * Duplicates the page directory before a write if it is shared with a snapshot or copy.
+     */
+    private void prepareDirectory() {
+        if (directoryShared) {
+            pages = pages.clone();
+            directoryShared = false;
+        }
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
+}
@@ -0,0 +1,296 @@
+package de.mkalb.etpetssim.engine.model;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A primitive open-addressing hash table mapping flat cell indices to values.
+ * <p>
+ * Keys are non-negative flat cell indices (see {@link de.mkalb.etpetssim.engine.GridStructure#indexOf(int, int)})
+ * stored in a parallel {@code int[] keys} / {@code Object[] values} layout. Collisions are resolved by
+ * linear probing, and removals use backward-shift deletion, so no tombstones accumulate and lookups stay
+ * short even under heavy insert/remove churn.
+ * <p>
+ * The slot order depends only on the key values and the insertion history, never on object hash codes.
+ * Callers that need a stable, seed-reproducible order use {@link #sortedKeys()}, which returns the keys in
+ * ascending (row-major) order. The sorted keys are cached until a key is inserted or removed, so repeated
+ * ordered scans of an unchanged key set do not sort again; replacing the value of an existing key keeps the cache.
+ * <p>
+ * Values must not be {@code null}; a {@code null} result from {@link #get(int)} means "no entry".
+ * This class is not thread-safe for writes. Concurrent reads are safe, including the lazy creation of the
+ * sorted keys, which are published through a volatile field.
+ *
+ * @param <V> the type of the stored values
+ */
+final class CellIndexTable<V> {
+
+    /**
+     * Marker for an unused slot. Valid flat cell indices are never negative.
+     */
+    private static final int EMPTY_KEY = -1;
+
+    /**
+     * Initial and minimum number of slots. Must be a power of two.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Multiplier for Fibonacci hashing; spreads consecutive cell indices across the table.
+     */
+    private static final int HASH_MULTIPLIER = 0x9E37_79B9;
+
+    private int[] keys;
+    private @Nullable Object[] values;
+    private int shift;
+    private int size;
+
+    /**
+     * The keys in ascending order, or {@code null} if they must be sorted again. The array is never modified,
+     * so it can be shared by copies of this table and returned to callers that do not modify it.
+     */
+    private volatile int @Nullable [] sortedKeys;
+
+    /**
+     * Creates an empty table with the minimum capacity.
+     */
+    CellIndexTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the table contains no entries.
+     *
+     * @return {@code true} if the table is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value stored for the given key, or {@code null} if there is none.
+     *
+     * @param key the flat cell index
+     * @return the stored value, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) {
+                return (V) values[slot];
+            }
+            if (current == EMPTY_KEY) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns whether an entry exists for the given key.
+     *
+     * @param key the flat cell index
+     * @return {@code true} if an entry exists
+     */
+    boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores the value for the given key, replacing any previous value.
+     *
+     * @param key   the flat cell index, must not be negative
+     * @param value the value, must not be {@code null}
+     */
+    void put(int key, V value) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (true) {
+            int current = keys[slot];
+            if (current == key) {
+                values[slot] = value;
+                return;
+            }
+            if (current == EMPTY_KEY) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        invalidateSortedKeys();
+        // Keep the load factor at or below 1/2 so linear probe sequences stay short.
+        if ((size << 1) > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes the entry for the given key, if present.
+     * <p>
+     * Uses backward-shift deletion: following entries of the same probe cluster are moved
+     * into the freed slot, so no tombstones are left behind.
+     *
+     * @param key the flat cell index
+     */
+    void remove(int key) {
+        int mask = keys.length - 1;
+        int gap = slotOf(key);
+        while (keys[gap] != key) {
+            if (keys[gap] == EMPTY_KEY) {
+                return;
+            }
+            gap = (gap + 1) & mask;
+        }
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY_KEY) {
+            int home = slotOf(keys[next]);
+            // Move the entry back if the gap lies on its probe path from home to next.
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY_KEY;
+        values[gap] = null;
+        size--;
+        invalidateSortedKeys();
+    }
+
+    /**
+     * Removes all entries. The capacity is retained.
+     */
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY_KEY);
+            Arrays.fill(values, null);
+            size = 0;
+            invalidateSortedKeys();
+        }
+    }
+
+    /**
+     * Replaces the content of this table with the content of the given table.
+     *
+     * @param source the table to copy from
+     */
+    void copyFrom(CellIndexTable<V> source) {
+        keys = source.keys.clone();
+        values = source.values.clone();
+        shift = source.shift;
+        size = source.size;
+        sortedKeys = source.sortedKeys;
+    }
+
+    /**
+     * Returns the number of slots. Used together with {@link #keyAt(int)} and {@link #valueAt(int)}
+     * for unordered scans such as counting.
+     *
+     * @return the number of slots
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key in the given slot, or a negative value if the slot is unused.
+     *
+     * @param slot the slot position
+     * @return the key or a negative value
+     */
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Returns the value in the given slot. Only meaningful if {@link #keyAt(int)} is not negative.
+     *
+     * @param slot the slot position
+     * @return the value, or {@code null} for an unused slot
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * Returns all keys in ascending order.
+     * <p>
+     * The array is cached until a key is inserted or removed and must not be modified.
+     * It stays valid after later changes of this table, but no longer reflects them.
+     *
+     * @return the sorted keys
+     */
+    int[] sortedKeys() {
+        int[] result = sortedKeys;
+        if (result == null) {
+            result = new int[size];
+            int count = 0;
+            for (int key : keys) {
+                if (key != EMPTY_KEY) {
+                    result[count++] = key;
+                }
+            }
+            Arrays.sort(result);
+            sortedKeys = result;
+        }
+        return result;
+    }
+
+    private void invalidateSortedKeys() {
+        if (sortedKeys != null) {
+            sortedKeys = null;
+        }
+    }
+
+    private int slotOf(int key) {
+        return (key * HASH_MULTIPLIER) >>> shift;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        values = new Object[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        @Nullable Object[] oldValues = values;
+        allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != EMPTY_KEY) {
+                int slot = slotOf(key);
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CellIndexTable{" +
+                "size=" + size +
+                ", capacity=" + keys.length +
+                '}';
+    }
+
+}
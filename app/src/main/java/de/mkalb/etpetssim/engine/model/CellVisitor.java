@@ -0,0 +1,26 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+/**
+ * Functional interface for visiting grid cells without materializing {@link GridCell} or
+ * {@link de.mkalb.etpetssim.engine.GridCoordinate} instances.
+ * <p>
+ * Used by {@link ReadableGridModel#forEachCell(CellVisitor)}, {@link ReadableGridModel#forEachNonDefault(CellVisitor)}
+ * and {@link ReadableGridModel#forEachMatching(java.util.function.Predicate, CellVisitor)}.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
+ */
+@FunctionalInterface
+public interface CellVisitor<T extends GridEntity> {
+
+    /**
+     * Visits one grid cell.
+     *
+     * @param x      the x-coordinate (column) of the cell
+     * @param y      the y-coordinate (row) of the cell
+     * @param entity the entity stored in the cell
+     */
+    void visit(int x, int y, T entity);
+
+}
@@ -0,0 +1,99 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+/**
+ * A reusable, mutable view of one cell across all layers of a {@link CompositeGridModel}.
+ * <p>
+ * All layers of a composite model share the same {@link GridStructure} and therefore the same flat cell index
+ * (see {@link GridStructure#indexOf(GridCoordinate)}). Moving the cursor validates the coordinate and computes
+ * the index once, then {@link #load(int)} reads every layer by index. With the layers of a
+ * {@link FusedGridLayers} storage, all layers of a cell are read at one offset of a single array.
+ * <p>
+ * Reading many cells through one cursor avoids allocating a snapshot per cell. The values of a cursor change
+ * with every move, so callers that need to keep a cell must copy it into an immutable snapshot.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T> the common entity type of all layers, must implement {@link GridEntity}
+ */
+public abstract class CompositeCellCursor<T extends GridEntity> implements GridCellView<T> {
+
+    private final GridStructure structure;
+    private GridCoordinate coordinate;
+    private int index;
+
+    /**
+     * Constructs a new cursor at the first cell (index {@code 0}) without reading the layers.
+     * Subclasses call {@link #moveTo(int)} at the end of their constructor, once their layer fields are initialized.
+     *
+     * @param structure the grid structure shared by all layers
+     */
+    protected CompositeCellCursor(GridStructure structure) {
+        this.structure = structure;
+        coordinate = structure.coordinateOf(0);
+        index = 0;
+    }
+
+    /**
+     * Moves the cursor to the given coordinate and reads the values of all layers.
+     *
+     * @param newCoordinate the coordinate to move to
+     * @throws IndexOutOfBoundsException if the coordinate is not valid
+     */
+    public final void moveTo(GridCoordinate newCoordinate) {
+        if (!structure.isCoordinateValid(newCoordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + newCoordinate + " for structure: " + structure);
+        }
+        coordinate = newCoordinate;
+        index = structure.indexOf(newCoordinate);
+        load(index);
+    }
+
+    /**
+     * Moves the cursor to the given flat cell index and reads the values of all layers.
+     *
+     * @param newIndex the flat cell index to move to
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    public final void moveTo(int newIndex) {
+        if (!structure.isIndexValid(newIndex)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + newIndex + " for structure: " + structure);
+        }
+        coordinate = structure.coordinateOf(newIndex);
+        index = newIndex;
+        load(newIndex);
+    }
+
+    /**
+     * Reads the values of all layers at the given (already validated) flat cell index.
+     *
+     * @param cellIndex the flat cell index
+     */
+    protected abstract void load(int cellIndex);
+
+    /**
+     * Returns the grid structure shared by all layers.
+     *
+     * @return the grid structure
+     */
+    public final GridStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public final GridCoordinate coordinate() {
+        return coordinate;
+    }
+
+    /**
+     * Returns the flat cell index of the current position.
+     *
+     * @return the flat cell index
+     */
+    public final int index() {
+        return index;
+    }
+
+}
@@ -0,0 +1,736 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An implementation of {@link WritableGridModel} for grids whose entities are constants of a single enum type.
+ * Efficient for dense grids of pure constant states (e.g. terrain or cell states).
+ * <p>
+ * Each cell is stored as one byte (the constant's position in the enum) in row-major order
+ * (see {@link GridStructure#indexOf(int, int)}), which needs an eighth of the memory of an object reference
+ * array and keeps full-grid scans cache friendly. The bytes are stored in pages of {@value #PAGE_SIZE}
+ * consecutive cells, that is, in blocks of rows, addressed by a shift and a mask of the cell index.
+ * The number of cells per constant is maintained on every
+ * write, so {@link #countEntities(Predicate)} only evaluates the predicate once per enum constant and runs in
+ * time independent of the grid size.
+ * <p>
+ * Predicates passed to the filter and count methods are evaluated per enum constant, not per cell,
+ * and must therefore be side-effect free.
+ * The byte codes are an internal representation and are never exposed. {@link GridCheckpoint} persists them
+ * together with the descriptor IDs of the constants, so checkpoints stay readable if the constants are reordered.
+ * <p>
+ * {@link #snapshot()} and {@link #copy()} share the pages with the snapshot or copy. After that, the page
+ * directory is duplicated on the first write and each page is duplicated on the first write into it, so only
+ * the pages written afterward are copied. A new model and {@link #copyWithDefaultEntity()} share one page of
+ * default codes until a page is written.
+ *
+ * @param <E> the enum type of the entities stored in the grid, must implement {@link GridEntity}
+ */
+public final class EnumGridModel<E extends Enum<E> & GridEntity> implements WritableGridModel<E> {
+
+    /**
+     * The number of cells per page.
+     */
+    public static final int PAGE_SIZE = 4096;
+
+    /**
+     * Maximum number of enum constants that can be encoded in one unsigned byte.
+     */
+    private static final int MAX_CONSTANTS = 256;
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * The structure describing the grid's dimensions and valid coordinates.
+     */
+    private final GridStructure structure;
+
+    /**
+     * The default entity for all grid cells.
+     */
+    private final E defaultEntity;
+
+    /**
+     * All constants of the enum type, indexed by their byte code.
+     */
+    private final E[] constants;
+
+    /**
+     * The byte code of the default entity.
+     */
+    private final byte defaultCode;
+
+    /**
+     * The pages holding the byte codes of the grid entities in row-major order; the cell with flat index {@code i}
+     * is stored at position {@code i & PAGE_MASK} of page {@code i >>> PAGE_SHIFT}. All pages are full except
+     * the last one. The directory and its pages may be shared with snapshots and copies
+     * (see {@link #directoryShared} and {@link #pageOwners}).
+     */
+    private byte[][] pages;
+
+    /**
+     * Whether {@link #pages} is shared with a snapshot or copy and must be duplicated before the next write.
+     */
+    private boolean directoryShared;
+
+    /**
+     * The owner generation of each page. A page may be written in place only if its owner generation
+     * equals {@link #ownerGeneration}; otherwise it is shared and duplicated first.
+     */
+    private final int[] pageOwners;
+
+    /**
+     * The current owner generation, incremented by every snapshot and copy.
+     */
+    private int ownerGeneration;
+
+    /**
+     * The number of cells per byte code.
+     */
+    private final int[] counts;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * Whether concurrent row band writes are in progress, so the counts are recounted afterward.
+     */
+    private boolean concurrentWrites;
+
+    /**
+     * Constructs a new {@code EnumGridModel} with the given structure and default entity.
+     * All cells are initialized to the default entity.
+     *
+     * @param structure     the grid structure
+     * @param defaultEntity the default entity for all cells; its enum type defines the storable entities
+     * @throws IllegalArgumentException if the enum type has more than 256 constants
+     */
+    public EnumGridModel(GridStructure structure, E defaultEntity) {
+        this.structure = structure;
+        this.defaultEntity = defaultEntity;
+        constants = defaultEntity.getDeclaringClass().getEnumConstants();
+        if (constants.length > MAX_CONSTANTS) {
+            throw new IllegalArgumentException("Enum type " + defaultEntity.getDeclaringClass().getName()
+                    + " has more than " + MAX_CONSTANTS + " constants: " + constants.length);
+        }
+        defaultCode = (byte) defaultEntity.ordinal();
+        int cellCount = structure.size().area();
+        pages = defaultPages(cellCount, defaultCode);
+        directoryShared = true;
+        pageOwners = new int[pages.length];
+        Arrays.fill(pageOwners, -1);
+        counts = new int[constants.length];
+        counts[defaultCode & 0xFF] = cellCount;
+    }
+
+    /**
+     * Constructs a new {@code EnumGridModel} with the configuration of the given model and pages it does not own,
+     * so each page is duplicated on the first write into it.
+     */
+    private EnumGridModel(EnumGridModel<E> source, byte[][] pages, int[] counts) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        constants = source.constants;
+        defaultCode = source.defaultCode;
+        this.pages = pages;
+        directoryShared = true;
+        pageOwners = new int[pages.length];
+        Arrays.fill(pageOwners, -1);
+        this.counts = counts;
+    }
+
+    /**
+     * Constructs a new {@code EnumGridModel} that shares the pages of the given model with a snapshot.
+     * The returned instance is never written, so it does not need its own page owners.
+     */
+    private EnumGridModel(EnumGridModel<E> source) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        constants = source.constants;
+        defaultCode = source.defaultCode;
+        pages = source.pages;
+        directoryShared = true;
+        pageOwners = source.pageOwners;
+        counts = source.counts.clone();
+    }
+
+    @Override
+    public GridStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public E defaultEntity() {
+        return defaultEntity;
+    }
+
+    @Override
+    public E getEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return constants[code(structure.indexOf(coordinate)) & 0xFF];
+    }
+
+    @Override
+    public boolean isDefaultEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return code(structure.indexOf(coordinate)) == defaultCode;
+    }
+
+    @Override
+    public E getEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return constants[code(index) & 0xFF];
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return code(index) == defaultCode;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    /**
+     * Returns the number of cells holding the given entity, in constant time.
+     *
+     * @param entity the entity to count
+     * @return the number of cells holding the entity
+     */
+    public long countEntity(E entity) {
+        return counts[entity.ordinal()];
+    }
+
+    @Override
+    public long countEntities(Predicate<? super E> predicate) {
+        // Evaluated once per enum constant using the maintained counts; independent of the grid size.
+        long count = 0;
+        for (int code = 0; code < constants.length; code++) {
+            if ((counts[code] > 0) && predicate.test(constants[code])) {
+                count += counts[code];
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Set<GridCoordinate> nonDefaultCoordinates() {
+        int cellCount = structure.cellCount();
+        Set<GridCoordinate> result = HashSet.newHashSet(cellCount - counts[defaultCode & 0xFF]);
+        for (int index = 0; index < cellCount; index++) {
+            if (code(index) != defaultCode) {
+                result.add(structure.coordinateOf(index));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        int cellCount = structure.cellCount();
+        int[] result = new int[cellCount - counts[defaultCode & 0xFF]];
+        int count = 0;
+        for (int index = 0; (index < cellCount) && (count < result.length); index++) {
+            if (code(index) != defaultCode) {
+                result[count++] = index;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<E> entityPredicate) {
+        boolean[] matches = matchingCodes(entityPredicate);
+        int[] result = new int[matchingCount(matches)];
+        int count = 0;
+        int cellCount = structure.cellCount();
+        for (int index = 0; (index < cellCount) && (count < result.length); index++) {
+            if (matches[code(index) & 0xFF]) {
+                result[count++] = index;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCoordinate> filteredCoordinates(Predicate<E> entityPredicate) {
+        boolean[] matches = matchingCodes(entityPredicate);
+        int expected = matchingCount(matches);
+        List<GridCoordinate> result = new ArrayList<>(expected);
+        int cellCount = structure.cellCount();
+        for (int index = 0; (index < cellCount) && (result.size() < expected); index++) {
+            if (matches[code(index) & 0xFF]) {
+                result.add(structure.coordinateOf(index));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
+        // The default count is known, so a single random draw selects the n-th default cell.
+        int defaultCount = counts[defaultCode & 0xFF];
+        if (defaultCount == 0) {
+            return Optional.empty();
+        }
+        int remaining = random.nextInt(defaultCount);
+        int cellCount = structure.cellCount();
+        for (int index = 0; index < cellCount; index++) {
+            if ((code(index) == defaultCode) && (remaining-- == 0)) {
+                return Optional.of(structure.coordinateOf(index));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void forEachCell(CellVisitor<? super E> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                visitor.visit(x, y, constants[code(index++) & 0xFF]);
+            }
+        }
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super E> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                byte code = code(index++);
+                if (code != defaultCode) {
+                    visitor.visit(x, y, constants[code & 0xFF]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super E> entityPredicate, CellVisitor<? super E> visitor) {
+        boolean[] matches = matchingCodes(entityPredicate);
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int code = code(index++) & 0xFF;
+                if (matches[code]) {
+                    visitor.visit(x, y, constants[code]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<GridCell<E>> allCells() {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        List<GridCell<E>> result = new ArrayList<>(structure.cellCount());
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                result.add(new GridCell<>(new GridCoordinate(x, y), constants[code(index++) & 0xFF]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCell<E>> nonDefaultCells() {
+        int cellCount = structure.cellCount();
+        int expected = cellCount - counts[defaultCode & 0xFF];
+        List<GridCell<E>> result = new ArrayList<>(expected);
+        for (int index = 0; (index < cellCount) && (result.size() < expected); index++) {
+            byte code = code(index);
+            if (code != defaultCode) {
+                result.add(new GridCell<>(structure.coordinateOf(index), constants[code & 0xFF]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCell<E>> filteredCells(Predicate<E> entityPredicate) {
+        boolean[] matches = matchingCodes(entityPredicate);
+        int expected = matchingCount(matches);
+        List<GridCell<E>> result = new ArrayList<>(expected);
+        int cellCount = structure.cellCount();
+        for (int index = 0; (index < cellCount) && (result.size() < expected); index++) {
+            int code = code(index) & 0xFF;
+            if (matches[code]) {
+                result.add(new GridCell<>(structure.coordinateOf(index), constants[code]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<GridCell<E>> filteredCellsSortedBy(Predicate<E> entityPredicate, Comparator<GridCell<E>> cellOrdering) {
+        List<GridCell<E>> result = filteredCells(entityPredicate);
+        result.sort(cellOrdering);
+        return result;
+    }
+
+    @Override
+    public EnumGridModel<E> copy() {
+        EnumGridModel<E> clone = new EnumGridModel<>(this, pages, counts.clone());
+        releasePages();
+        return clone;
+    }
+
+    @Override
+    public EnumGridModel<E> copyWithDefaultEntity() {
+        int[] defaultCounts = new int[constants.length];
+        defaultCounts[defaultCode & 0xFF] = structure.cellCount();
+        return new EnumGridModel<>(this, defaultPages(structure.cellCount(), defaultCode), defaultCounts);
+    }
+
+    @Override
+    public void setEntity(GridCoordinate coordinate, E entity) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setCodeUnchecked(structure.indexOf(coordinate), entity.ordinal());
+    }
+
+    @Override
+    public void setEntity(int index, E entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setCodeUnchecked(index, entity.ordinal());
+    }
+
+    @Override
+    public void setEntityToDefault(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setCodeUnchecked(structure.indexOf(coordinate), defaultCode & 0xFF);
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setCodeUnchecked(index, defaultCode & 0xFF);
+    }
+
+    @Override
+    public void fill(E entity) {
+        int code = entity.ordinal();
+        for (int p = 0; p < pages.length; p++) {
+            Arrays.fill(overwritablePage(p), (byte) code);
+        }
+        Arrays.fill(counts, 0);
+        counts[code] = structure.cellCount();
+        recordAllChanged();
+    }
+
+    @Override
+    public void fill(Supplier<E> supplier) {
+        Arrays.fill(counts, 0);
+        for (int p = 0; p < pages.length; p++) {
+            byte[] page = overwritablePage(p);
+            for (int offset = 0; offset < page.length; offset++) {
+                int code = supplier.get().ordinal();
+                page[offset] = (byte) code;
+                counts[code]++;
+            }
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void fill(Function<GridCoordinate, E> mapper) {
+        Arrays.fill(counts, 0);
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int code = mapper.apply(new GridCoordinate(x, y)).ordinal();
+                // Row-major order writes each page completely, so it is never copied.
+                overwritablePage(index >>> PAGE_SHIFT)[index & PAGE_MASK] = (byte) code;
+                index++;
+                counts[code]++;
+            }
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void clear() {
+        fill(defaultEntity);
+    }
+
+    @Override
+    public void swapInputCellEntities(GridCell<E> cellA, GridCell<E> cellB) {
+        GridCoordinate coordinateA = cellA.coordinate();
+        GridCoordinate coordinateB = cellB.coordinate();
+        if (!structure.isCoordinateValid(coordinateA)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateA + " for structure: " + structure);
+        }
+        if (!structure.isCoordinateValid(coordinateB)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
+        }
+        setCodeUnchecked(structure.indexOf(coordinateA), cellB.entity().ordinal());
+        setCodeUnchecked(structure.indexOf(coordinateB), cellA.entity().ordinal());
+    }
+
+    /**
+     * Stores the byte code at the given (already validated) index and updates the counts.
+     */
+    private void setCodeUnchecked(int index, int code) {
+        byte[] page = writablePage(index >>> PAGE_SHIFT);
+        int offset = index & PAGE_MASK;
+        if (!concurrentWrites) {
+            counts[page[offset] & 0xFF]--;
+            counts[code]++;
+        }
+        page[offset] = (byte) code;
+        recordChange(index);
+    }
+
+    /**
+     * Evaluates the predicate once per enum constant and returns the matching byte codes.
+     */
+    private boolean[] matchingCodes(Predicate<? super E> entityPredicate) {
+        boolean[] matches = new boolean[constants.length];
+        for (int code = 0; code < constants.length; code++) {
+            matches[code] = entityPredicate.test(constants[code]);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of cells whose byte code is marked as matching.
+     */
+    private int matchingCount(boolean[] matches) {
+        int count = 0;
+        for (int code = 0; code < matches.length; code++) {
+            if (matches[code]) {
+                count += counts[code];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the descriptor IDs of the enum constants in byte code order.
+     */
+    String[] codeDescriptorIds() {
+        String[] descriptorIds = new String[constants.length];
+        for (int code = 0; code < constants.length; code++) {
+            descriptorIds[code] = constants[code].descriptorId();
+        }
+        return descriptorIds;
+    }
+
+    /**
+     * Returns the byte codes of all cells in row-major order as a new array.
+     */
+    byte[] codes() {
+        byte[] codes = new byte[structure.cellCount()];
+        for (int p = 0; p < pages.length; p++) {
+            System.arraycopy(pages[p], 0, codes, p << PAGE_SHIFT, pages[p].length);
+        }
+        return codes;
+    }
+
+    /**
+     * Replaces the byte codes of all cells and recounts them.
+     *
+     * @throws IllegalArgumentException if the array length does not match the grid or a byte code is invalid
+     */
+    void restoreCodes(byte[] codes) {
+        if (codes.length != structure.cellCount()) {
+            throw new IllegalArgumentException("Expected " + structure.cellCount() + " byte codes, but got: " + codes.length);
+        }
+        int[] newCounts = new int[constants.length];
+        for (byte code : codes) {
+            int unsignedCode = code & 0xFF;
+            if (unsignedCode >= constants.length) {
+                throw new IllegalArgumentException("Invalid byte code: " + unsignedCode + " for enum constants: " + constants.length);
+            }
+            newCounts[unsignedCode]++;
+        }
+        for (int p = 0; p < pages.length; p++) {
+            byte[] page = overwritablePage(p);
+            System.arraycopy(codes, p << PAGE_SHIFT, page, 0, page.length);
+        }
+        System.arraycopy(newCounts, 0, counts, 0, counts.length);
+        recordAllChanged();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the page directory and all pages. Only the directory and the pages written
+     * after the snapshot are duplicated.
+     */
+    @Override
+    public GridModelSnapshot<E> snapshot() {
+        GridModelSnapshot<E> snapshot = new GridModelSnapshot<>(new EnumGridModel<>(this));
+        releasePages();
+        return snapshot;
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Supported if no change journal is attached. The entity counts are not maintained
+     * during concurrent writes and are recounted by {@link #endConcurrentRowBandWrites()}.
+     * Shared pages are duplicated before the concurrent writes begin.
+     */
+    @Override
+    public boolean beginConcurrentRowBandWrites() {
+        if (changeJournal != null) {
+            return false;
+        }
+        for (int p = 0; p < pages.length; p++) {
+            writablePage(p);
+        }
+        concurrentWrites = true;
+        return true;
+    }
+
+    @Override
+    public void endConcurrentRowBandWrites() {
+        if (concurrentWrites) {
+            concurrentWrites = false;
+            Arrays.fill(counts, 0);
+            for (byte[] page : pages) {
+                for (byte code : page) {
+                    counts[code & 0xFF]++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EnumGridModel{" +
+                "structure=" + structure +
+                ", defaultEntity=" + defaultEntity +
+                ", counts=" + Arrays.toString(counts) +
+                '}';
+    }
+
+    private byte code(int index) {
+        return pages[index >>> PAGE_SHIFT][index & PAGE_MASK];
+    }
+
+    /**
+     * Returns the page for a partial write, duplicating it first if it is shared.
+     */
+    private byte[] writablePage(int pageIndex) {
+        prepareDirectory();
+        byte[] page = pages[pageIndex];
+        if (pageOwners[pageIndex] != ownerGeneration) {
+            page = page.clone();
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the page for a write of all its cells, replacing it first if it is shared.
+     */
+    private byte[] overwritablePage(int pageIndex) {
+        prepareDirectory();
+        byte[] page = pages[pageIndex];
+        if (pageOwners[pageIndex] != ownerGeneration) {
+            page = new byte[page.length];
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Gives up the directory and all pages after sharing them, so they are duplicated before they are written.
+     */
+    private void releasePages() {
+        directoryShared = true;
+        ownerGeneration++;
+        if (ownerGeneration == 0) {
+            // The generation counter wrapped around; mark all pages as foreign once.
+            Arrays.fill(pageOwners, -1);
+        }
+    }
+
+    /**
+     * Returns the pages of a grid holding only the default code. All full pages are the same array,
+     * so the pages must be duplicated before they are written.
+     */
+    private static byte[][] defaultPages(int cellCount, byte defaultCode) {
+        byte[][] result = new byte[(cellCount + PAGE_MASK) >>> PAGE_SHIFT][];
+        byte[] fullPage = new byte[Math.min(PAGE_SIZE, cellCount)];
+        Arrays.fill(fullPage, defaultCode);
+        for (int p = 0; p < result.length; p++) {
+            int length = Math.min(PAGE_SIZE, cellCount - (p << PAGE_SHIFT));
+            result[p] = (length == fullPage.length) ? fullPage : Arrays.copyOf(fullPage, length);
+        }
+        return result;
+    }
+
+    /**
+     * Duplicates the page directory before a write if it is shared with a snapshot or copy.
+     */
+    private void prepareDirectory() {
+        if (directoryShared) {
+            pages = pages.clone();
+            directoryShared = false;
+        }
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package de.mkalb.etpetssim.engine.model;
+
+import java.util.*;
+
+/**
+ * Index of the flat cell indices that hold the default entity, supporting uniform random selection in O(1).
+ * <p>
+ * The free indices are kept in a dense array; a second array maps each cell index to its position
+ * in the dense array, or {@code -1} if the cell is occupied. Occupying a cell moves the last free index
+ * into the vacated position (swap-remove), so every update is O(1).
+ * <p>
+ * The order of the dense array depends only on the sequence of updates, so random selection with a
+ * seeded {@link Random} is reproducible.
+ */
+final class FreeCellIndex {
+
+    /**
+     * The free cell indices; only the first {@link #size} entries are valid.
+     */
+    private final int[] freeCells;
+
+    /**
+     * The position of each cell index in {@link #freeCells}, or {@code -1} if the cell is occupied.
+     */
+    private final int[] positions;
+
+    /**
+     * The number of free cells.
+     */
+    private int size;
+
+    /**
+     * Constructs a new index in which all cells are free.
+     *
+     * @param cellCount the number of cells of the grid
+     */
+    FreeCellIndex(int cellCount) {
+        freeCells = new int[cellCount];
+        positions = new int[cellCount];
+        markAllFree();
+    }
+
+    private FreeCellIndex(FreeCellIndex source) {
+        freeCells = source.freeCells.clone();
+        positions = source.positions.clone();
+        size = source.size;
+    }
+
+    /**
+     * Returns an independent copy of this index.
+     */
+    FreeCellIndex copy() {
+        return new FreeCellIndex(this);
+    }
+
+    /**
+     * Marks all cells as free, in ascending index order.
+     */
+    void markAllFree() {
+        for (int index = 0; index < freeCells.length; index++) {
+            freeCells[index] = index;
+            positions[index] = index;
+        }
+        size = freeCells.length;
+    }
+
+    /**
+     * Marks the cell as free or occupied.
+     *
+     * @param index the flat cell index
+     * @param free  {@code true} if the cell holds the default entity
+     */
+    void update(int index, boolean free) {
+        int position = positions[index];
+        if (free) {
+            if (position < 0) {
+                positions[index] = size;
+                freeCells[size++] = index;
+            }
+        } else if (position >= 0) {
+            int lastIndex = freeCells[--size];
+            freeCells[position] = lastIndex;
+            positions[lastIndex] = position;
+            positions[index] = -1;
+        }
+    }
+
+    /**
+     * Returns whether the cell is free.
+     */
+    boolean isFree(int index) {
+        return positions[index] >= 0;
+    }
+
+    /**
+     * Returns the number of free cells.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a uniformly selected free cell index, or {@code -1} if no cell is free.
+     * Consumes exactly one random number if at least one cell is free.
+     */
+    int randomFreeIndex(Random random) {
+        return (size == 0) ? -1 : freeCells[random.nextInt(size)];
+    }
+
+}
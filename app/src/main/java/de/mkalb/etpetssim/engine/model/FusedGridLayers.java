@@ -0,0 +1,168 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.GridStructure;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+/**
+ * Shared storage of several grid layers in one array, with all layers of a cell stored next to each other.
+ * <p>
+ * The entity of layer {@code l} at flat cell index {@code i} (see {@link GridStructure#indexOf(int, int)})
+ * is stored at position {@code i * layerCount + l}. All layers therefore share one index space, and
+ * {@link #cellOffset(int)} computes the position of a cell once for all its layers. A
+ * {@link CompositeCellCursor} reading every layer of a cell touches one contiguous block of the array
+ * instead of one array per layer.
+ * <p>
+ * Each layer is accessed as a {@link FusedLayerGridModel} created by {@link #addLayer(GridEntity)}.
+ * A snapshot of any layer shares the array with this storage; the whole array is duplicated before the
+ * next write to any layer.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class FusedGridLayers {
+
+    /**
+     * The structure shared by all layers.
+     */
+    private final GridStructure structure;
+
+    /**
+     * The number of layers stored per cell.
+     */
+    private final int layerCount;
+
+    /**
+     * The entities of all layers, cell by cell in row-major order.
+     */
+    private Object[] cells;
+
+    /**
+     * Whether {@link #cells} is shared with a snapshot and must be duplicated before the next write.
+     */
+    private boolean cellsShared;
+
+    /**
+     * The number of layers created by {@link #addLayer(GridEntity)}.
+     */
+    private int addedLayerCount;
+
+    /**
+     * Constructs a new storage for the given number of layers. The layers are created with
+     * {@link #addLayer(GridEntity)}.
+     *
+     * @param structure  the grid structure shared by all layers
+     * @param layerCount the number of layers, at least 1
+     * @throws IllegalArgumentException if the layer count is less than 1
+     *                                  or the grid is too large to store all layers in one array
+     */
+    public FusedGridLayers(GridStructure structure, int layerCount) {
+        if (layerCount < 1) {
+            throw new IllegalArgumentException("Layer count must be at least 1: " + layerCount);
+        }
+        if (((long) structure.cellCount() * layerCount) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many cells for " + layerCount + " fused layers: " + structure);
+        }
+        this.structure = structure;
+        this.layerCount = layerCount;
+        cells = new Object[structure.cellCount() * layerCount];
+    }
+
+    /**
+     * Constructs a frozen storage that shares the array of the given storage with a snapshot.
+     * The returned instance is never written.
+     */
+    private FusedGridLayers(FusedGridLayers source) {
+        structure = source.structure;
+        layerCount = source.layerCount;
+        cells = source.cells;
+        cellsShared = true;
+        addedLayerCount = source.addedLayerCount;
+    }
+
+    /**
+     * Creates the next layer and sets all its cells to the default entity.
+     * Layers are numbered in the order they are added, starting at {@code 0}.
+     *
+     * @param defaultEntity the default entity of the new layer
+     * @param <T>           the type of entities stored in the layer
+     * @return the new layer
+     * @throws IllegalStateException if all layers have already been added
+     */
+    public <T extends GridEntity> FusedLayerGridModel<T> addLayer(T defaultEntity) {
+        if (addedLayerCount == layerCount) {
+            throw new IllegalStateException("All " + layerCount + " layers have already been added");
+        }
+        int layer = addedLayerCount++;
+        Object[] writableCells = writableCells();
+        for (int offset = layer; offset < writableCells.length; offset += layerCount) {
+            writableCells[offset] = defaultEntity;
+        }
+        return new FusedLayerGridModel<>(this, layer, defaultEntity);
+    }
+
+    /**
+     * Returns the grid structure shared by all layers.
+     *
+     * @return the grid structure
+     */
+    public GridStructure structure() {
+        return structure;
+    }
+
+    /**
+     * Returns the number of layers stored per cell.
+     *
+     * @return the layer count
+     */
+    public int layerCount() {
+        return layerCount;
+    }
+
+    /**
+     * Returns the position of the first layer of a cell in the shared array.
+     * The entity of a layer is read with {@link FusedLayerGridModel#getEntityAtCellOffset(int)}.
+     * The index is not validated.
+     *
+     * @param index the flat cell index
+     * @return the cell offset, {@code index * layerCount()}
+     */
+    public int cellOffset(int index) {
+        return index * layerCount;
+    }
+
+    /**
+     * Returns the array for reading. It must not be written and may be replaced by the next write.
+     */
+    Object[] cells() {
+        return cells;
+    }
+
+    /**
+     * Returns the array for writing, duplicating it first if it is shared with a snapshot.
+     */
+    Object[] writableCells() {
+        if (cellsShared) {
+            cells = cells.clone();
+            cellsShared = false;
+        }
+        return cells;
+    }
+
+    /**
+     * Returns a frozen storage sharing the array with this storage for a snapshot.
+     */
+    FusedGridLayers share() {
+        FusedGridLayers frozen = new FusedGridLayers(this);
+        cellsShared = true;
+        return frozen;
+    }
+
+    @Override
+    public String toString() {
+        return "FusedGridLayers{" +
+                "structure=" + structure +
+                ", layerCount=" + layerCount +
+                ", addedLayerCount=" + addedLayerCount +
+                '}';
+    }
+
+}
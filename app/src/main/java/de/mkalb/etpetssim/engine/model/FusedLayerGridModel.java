@@ -0,0 +1,484 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An implementation of {@link WritableGridModel} that stores one layer of a {@link FusedGridLayers} storage.
+ * Efficient for dense layers that are read together with the other layers of the same cell.
+ * <p>
+ * The entity at flat cell index {@code i} is stored at position {@code i * layerCount + layer} of the array
+ * shared by all layers (see {@link FusedGridLayers}). Single-cell access costs one array dereference;
+ * bulk operations visit every {@code layerCount}-th element of the shared array.
+ * <p>
+ * {@link #snapshot()} shares the array of all layers with the snapshot, and the array is duplicated before
+ * the next write. {@link #copy()} and {@link #copyWithDefaultEntity()} return a stand-alone
+ * {@link ArrayGridModel}, because a copy of one layer does not belong to the storage of the other layers.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
+ */
+public final class FusedLayerGridModel<T extends GridEntity> implements WritableGridModel<T> {
+
+    /**
+     * The storage shared with the other layers.
+     */
+    private final FusedGridLayers layers;
+
+    /**
+     * The position of this layer within each cell of the shared array.
+     */
+    private final int layer;
+
+    /**
+     * The number of layers of the shared storage, the distance between two cells of this layer.
+     */
+    private final int stride;
+
+    /**
+     * The structure describing the grid's dimensions and valid coordinates.
+     */
+    private final GridStructure structure;
+
+    /**
+     * The default entity for all grid cells.
+     */
+    private final T defaultEntity;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * Constructs a new layer view. Layers are created by {@link FusedGridLayers#addLayer(GridEntity)}.
+     */
+    FusedLayerGridModel(FusedGridLayers layers, int layer, T defaultEntity) {
+        this.layers = layers;
+        this.layer = layer;
+        stride = layers.layerCount();
+        structure = layers.structure();
+        this.defaultEntity = defaultEntity;
+    }
+
+    /**
+     * Returns the storage shared with the other layers.
+     *
+     * @return the fused storage of this layer
+     */
+    public FusedGridLayers layers() {
+        return layers;
+    }
+
+    /**
+     * Returns the position of this layer within each cell of the shared storage.
+     *
+     * @return the layer number, starting at {@code 0}
+     */
+    public int layer() {
+        return layer;
+    }
+
+    /**
+     * Returns the entity of this layer at a cell offset computed by {@link FusedGridLayers#cellOffset(int)}.
+     * <p>
+     * Neither the offset nor the index it was computed from are validated, so this method is meant for
+     * callers such as a {@link CompositeCellCursor} that validate the position once for all layers.
+     *
+     * @param cellOffset the cell offset of a valid flat cell index
+     * @return the entity at the cell
+     */
+    @SuppressWarnings("unchecked")
+    public T getEntityAtCellOffset(int cellOffset) {
+        return (T) layers.cells()[cellOffset + layer];
+    }
+
+    @Override
+    public GridStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public T defaultEntity() {
+        return defaultEntity;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return (T) element(structure.indexOf(coordinate));
+    }
+
+    @Override
+    public boolean isDefaultEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return Objects.equals(element(structure.indexOf(coordinate)), defaultEntity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return (T) element(index);
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return Objects.equals(element(index), defaultEntity);
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public long countEntities(Predicate<? super T> predicate) {
+        Object[] cells = layers.cells();
+        long count = 0;
+        for (int offset = layer; offset < cells.length; offset += stride) {
+            @SuppressWarnings("unchecked")
+            T entity = (T) cells[offset];
+            if (predicate.test(entity)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Set<GridCoordinate> nonDefaultCoordinates() {
+        Set<GridCoordinate> result = new HashSet<>();
+        forEachNonDefault((x, y, _) -> result.add(new GridCoordinate(x, y)));
+        return result;
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        Object[] cells = layers.cells();
+        int[] buffer = new int[structure.cellCount()];
+        int count = 0;
+        int index = 0;
+        for (int offset = layer; offset < cells.length; offset += stride) {
+            if (!Objects.equals(cells[offset], defaultEntity)) {
+                buffer[count++] = index;
+            }
+            index++;
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        Object[] cells = layers.cells();
+        int[] buffer = new int[structure.cellCount()];
+        int count = 0;
+        int index = 0;
+        for (int offset = layer; offset < cells.length; offset += stride) {
+            @SuppressWarnings("unchecked")
+            T entity = (T) cells[offset];
+            if (entityPredicate.test(entity)) {
+                buffer[count++] = index;
+            }
+            index++;
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    @Override
+    public List<GridCoordinate> filteredCoordinates(Predicate<T> entityPredicate) {
+        List<GridCoordinate> result = new ArrayList<>();
+        forEachMatching(entityPredicate, (x, y, _) -> result.add(new GridCoordinate(x, y)));
+        return result;
+    }
+
+    @Override
+    public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
+        // Reservoir sampling (k=1), O(N) time, O(1) extra space.
+        GridCoordinate[] selected = new GridCoordinate[1];
+        int[] count = new int[1];
+        forEachMatching(entity -> Objects.equals(entity, defaultEntity), (x, y, _) -> {
+            count[0]++;
+            // Replace current candidate with probability 1/count.
+            if (random.nextInt(count[0]) == 0) {
+                selected[0] = new GridCoordinate(x, y);
+            }
+        });
+        return Optional.ofNullable(selected[0]);
+    }
+
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        Object[] cells = layers.cells();
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int offset = layer;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) cells[offset];
+                visitor.visit(x, y, entity);
+                offset += stride;
+            }
+        }
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        forEachMatching(entity -> !Objects.equals(entity, defaultEntity), visitor);
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        Object[] cells = layers.cells();
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int offset = layer;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) cells[offset];
+                if (entityPredicate.test(entity)) {
+                    visitor.visit(x, y, entity);
+                }
+                offset += stride;
+            }
+        }
+    }
+
+    @Override
+    public List<GridCell<T>> allCells() {
+        List<GridCell<T>> result = new ArrayList<>(structure.cellCount());
+        forEachCell((x, y, entity) -> result.add(new GridCell<>(new GridCoordinate(x, y), entity)));
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> nonDefaultCells() {
+        List<GridCell<T>> result = new ArrayList<>();
+        forEachNonDefault((x, y, entity) -> result.add(new GridCell<>(new GridCoordinate(x, y), entity)));
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCells(Predicate<T> entityPredicate) {
+        List<GridCell<T>> result = new ArrayList<>();
+        forEachMatching(entityPredicate, (x, y, entity) -> result.add(new GridCell<>(new GridCoordinate(x, y), entity)));
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCellsSortedBy(Predicate<T> entityPredicate, Comparator<GridCell<T>> cellOrdering) {
+        List<GridCell<T>> result = filteredCells(entityPredicate);
+        result.sort(cellOrdering);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is a stand-alone {@link ArrayGridModel} holding only this layer.
+     */
+    @Override
+    public ArrayGridModel<T> copy() {
+        // Entity instances in the copy share the same references as this model (shallow copy).
+        // This is safe because GridEntity implementations are treated as immutable value types.
+        ArrayGridModel<T> clone = new ArrayGridModel<>(structure, defaultEntity);
+        Object[] cells = layers.cells();
+        int index = 0;
+        for (int offset = layer; offset < cells.length; offset += stride) {
+            if (!Objects.equals(cells[offset], defaultEntity)) {
+                @SuppressWarnings("unchecked")
+                T entity = (T) cells[offset];
+                clone.setEntity(index, entity);
+            }
+            index++;
+        }
+        return clone;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is a stand-alone {@link ArrayGridModel} holding only this layer.
+     */
+    @Override
+    public ArrayGridModel<T> copyWithDefaultEntity() {
+        return new ArrayGridModel<>(structure, defaultEntity);
+    }
+
+    @Override
+    public void setEntity(GridCoordinate coordinate, T entity) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        int index = structure.indexOf(coordinate);
+        setElement(index, entity);
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntity(int index, T entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setElement(index, entity);
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntityToDefault(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        int index = structure.indexOf(coordinate);
+        setElement(index, defaultEntity);
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setElement(index, defaultEntity);
+        recordChange(index);
+    }
+
+    @Override
+    public void fill(T entity) {
+        Object[] cells = layers.writableCells();
+        for (int offset = layer; offset < cells.length; offset += stride) {
+            cells[offset] = entity;
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void fill(Supplier<T> supplier) {
+        Object[] cells = layers.writableCells();
+        for (int offset = layer; offset < cells.length; offset += stride) {
+            cells[offset] = supplier.get();
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void fill(Function<GridCoordinate, T> mapper) {
+        Object[] cells = layers.writableCells();
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int offset = layer;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                cells[offset] = mapper.apply(new GridCoordinate(x, y));
+                offset += stride;
+            }
+        }
+        recordAllChanged();
+    }
+
+    @Override
+    public void clear() {
+        fill(defaultEntity);
+    }
+
+    @Override
+    public void swapInputCellEntities(GridCell<T> cellA, GridCell<T> cellB) {
+        GridCoordinate coordinateA = cellA.coordinate();
+        GridCoordinate coordinateB = cellB.coordinate();
+        if (!structure.isCoordinateValid(coordinateA)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateA + " for structure: " + structure);
+        }
+        if (!structure.isCoordinateValid(coordinateB)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
+        }
+        int indexA = structure.indexOf(coordinateA);
+        int indexB = structure.indexOf(coordinateB);
+        setElement(indexA, cellB.entity());
+        setElement(indexB, cellA.entity());
+        recordChange(indexA);
+        recordChange(indexB);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the array of all layers of the storage. The whole array is duplicated
+     * before the next write to any layer.
+     */
+    @Override
+    public GridModelSnapshot<T> snapshot() {
+        return new GridModelSnapshot<>(new FusedLayerGridModel<>(layers.share(), layer, defaultEntity));
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Supported if no change journal is attached, because every cell is stored in its own array element.
+     * A shared array is duplicated before the concurrent writes begin.
+     */
+    @Override
+    public boolean beginConcurrentRowBandWrites() {
+        if (changeJournal != null) {
+            return false;
+        }
+        layers.writableCells();
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "FusedLayerGridModel{" +
+                "structure=" + structure +
+                ", defaultEntity=" + defaultEntity +
+                ", layer=" + layer +
+                ", layerCount=" + stride +
+                '}';
+    }
+
+    private Object element(int index) {
+        return layers.cells()[(index * stride) + layer];
+    }
+
+    private void setElement(int index, Object entity) {
+        layers.writableCells()[(index * stride) + layer] = entity;
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Keeps the flat cell indices of all agents of a {@link WritableGridModel} in ascending order
+ * (row-major, see {@link de.mkalb.etpetssim.engine.GridStructure#indexOf(int, int)}) without scanning the grid.
+ * <p>
+ * The index attaches its own {@link GridChangeJournal} to the model with
+ * {@link WritableGridModel#attachChangeJournal(GridChangeJournal)}, so it can share the model with other
+ * journal consumers such as a {@link de.mkalb.etpetssim.engine.support.GridSpatialIndex}. {@link #agentIndices()} evaluates
+ * the agent predicate only for the cells written since the previous call and merges them into the sorted
+ * indices, so the cost is proportional to the number of agents and changes, not to the grid area.
+ * Only a bulk operation of the model (e.g. {@link WritableGridModel#fill}) causes a full rescan.
+ * <p>
+ * The predicate must depend only on the entity, and an entity must not turn into an agent or a non-agent
+ * without being written to the model again.
+ * <p>
+ * While a change journal is attached, the model does not support
+ * {@link WritableGridModel#beginConcurrentRowBandWrites()}, so the parallel step runners process
+ * the row bands of this model sequentially.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link GridEntity}
+ */
+public final class GridAgentIndex<T extends GridEntity> {
+
+    private final WritableGridModel<T> model;
+    private final Predicate<T> agentPredicate;
+    private final GridChangeJournal journal;
+
+    /**
+     * The sorted agent indices. A new array is created for every change, so returned arrays stay unchanged.
+     */
+    private int[] agentIndices;
+
+    /**
+     * Constructs a new index for the agents of the given model and attaches a change journal to the model,
+     * in addition to an already attached journal.
+     * This disables concurrent row band writes to the model.
+     *
+     * @param model          the model whose agents are indexed
+     * @param agentPredicate predicate to identify agent entities
+     */
+    public GridAgentIndex(WritableGridModel<T> model, Predicate<T> agentPredicate) {
+        this.model = model;
+        this.agentPredicate = agentPredicate;
+        journal = new GridChangeJournal(model.structure());
+        model.attachChangeJournal(journal);
+        agentIndices = model.filteredIndices(agentPredicate);
+    }
+
+    /**
+     * Returns the model whose agents are indexed.
+     *
+     * @return the model
+     */
+    public WritableGridModel<T> model() {
+        return model;
+    }
+
+    /**
+     * Returns the flat cell indices of all agents in ascending order, including all writes to the model
+     * up to this call. The returned array must not be modified and is not changed by later writes.
+     *
+     * @return the sorted agent indices
+     */
+    public int[] agentIndices() {
+        if (journal.isAllChanged()) {
+            journal.drainChanges();
+            agentIndices = model.filteredIndices(agentPredicate);
+        } else if (!journal.isEmpty()) {
+            mergeChanges(journal.drainChanges());
+        }
+        return agentIndices;
+    }
+
+    /**
+     * Returns the number of agents, including all writes to the model up to this call.
+     *
+     * @return the number of agents
+     */
+    public int agentCount() {
+        return agentIndices().length;
+    }
+
+    /**
+     * Re-evaluates the sorted changed indices and merges them into the sorted agent indices.
+     */
+    private void mergeChanges(int[] changes) {
+        int[] merged = new int[agentIndices.length + changes.length];
+        int size = 0;
+        int position = 0;
+        for (int changedIndex : changes) {
+            while ((position < agentIndices.length) && (agentIndices[position] < changedIndex)) {
+                merged[size++] = agentIndices[position++];
+            }
+            if ((position < agentIndices.length) && (agentIndices[position] == changedIndex)) {
+                position++;
+            }
+            if (agentPredicate.test(model.getEntity(changedIndex))) {
+                merged[size++] = changedIndex;
+            }
+        }
+        while (position < agentIndices.length) {
+            merged[size++] = agentIndices[position++];
+        }
+        agentIndices = (size == merged.length) ? merged : Arrays.copyOf(merged, size);
+    }
+
+    @Override
+    public String toString() {
+        return "GridAgentIndex{" +
+                "model=" + model +
+                ", agentCount=" + agentIndices.length +
+                '}';
+    }
+
+}
@@ -0,0 +1,229 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.GridStructure;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Records the flat cell indices written to a {@link WritableGridModel} since the last drain.
+ * <p>
+ * A journal is attached with {@link WritableGridModel#setChangeJournal(GridChangeJournal)}. Each written
+ * index is recorded once per generation: an {@code int} stamp per cell remembers the generation in which
+ * the cell was last recorded, so deduplication costs one array comparison and no boxing or hashing.
+ * {@link #drainChanges()} returns the recorded indices and starts a new generation without clearing
+ * the stamps.
+ * <p>
+ * Bulk operations such as {@link WritableGridModel#fill(de.mkalb.etpetssim.engine.model.entity.GridEntity)}
+ * and {@link WritableGridModel#clear()} mark the whole grid as changed via {@link #recordAll()}
+ * instead of recording every index.
+ * <p>
+ * A model holds a single journal, but journals can be chained with {@link #chain(GridChangeJournal)}
+ * (or attached with {@link WritableGridModel#attachChangeJournal(GridChangeJournal)}), so that several
+ * consumers observe the writes of one model. Every journal of a chain deduplicates and drains independently.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class GridChangeJournal {
+
+    /**
+     * The number of cells covered by this journal.
+     */
+    private final int cellCount;
+
+    /**
+     * The generation in which each cell was last recorded, indexed by flat cell index.
+     */
+    private final int[] stamps;
+
+    /**
+     * The recorded indices of the current generation in recording order.
+     */
+    private int[] changes;
+
+    /**
+     * The number of valid entries in {@link #changes}.
+     */
+    private int size;
+
+    /**
+     * The current generation. Starts at 1 so that the initial stamps of 0 mean "not recorded".
+     */
+    private int generation;
+
+    /**
+     * Whether all cells were marked as changed in the current generation.
+     */
+    private boolean allChanged;
+
+    /**
+     * The next journal of the chain, which receives every recorded index, or {@code null}.
+     */
+    private @Nullable GridChangeJournal next;
+
+    /**
+     * Constructs a new empty {@code GridChangeJournal} for the given grid structure.
+     *
+     * @param structure the grid structure of the models this journal is attached to
+     */
+    public GridChangeJournal(GridStructure structure) {
+        cellCount = structure.cellCount();
+        stamps = new int[cellCount];
+        changes = new int[Math.min(cellCount, 16)];
+        generation = 1;
+    }
+
+    /**
+     * Returns the number of cells covered by this journal.
+     *
+     * @return the number of cells
+     */
+    public int cellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Records that the cell at the given flat cell index was written.
+     * Recording an index more than once per generation has no effect.
+     *
+     * @param index the flat cell index
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    public void record(int index) {
+        if (next != null) {
+            next.record(index);
+        }
+        if (stamps[index] == generation) {
+            return;
+        }
+        stamps[index] = generation;
+        if (size == changes.length) {
+            changes = Arrays.copyOf(changes, Math.min(cellCount, Math.max(16, size << 1)));
+        }
+        changes[size++] = index;
+    }
+
+    /**
+     * Marks all cells as written in the current generation.
+     */
+    public void recordAll() {
+        if (next != null) {
+            next.recordAll();
+        }
+        allChanged = true;
+    }
+
+    /**
+     * Appends a journal to the end of the chain of this journal. From now on, every index recorded by this journal
+     * is also recorded by the appended journal. The appended journal keeps its own generation and changes.
+     *
+     * @param journal the journal to append; must not be chained yet
+     * @throws IllegalArgumentException if the journal covers a different number of cells,
+     *                                  is already part of this chain or has a chain of its own
+     */
+    public void chain(GridChangeJournal journal) {
+        if ((journal.cellCount != cellCount) || (journal.next != null)) {
+            throw new IllegalArgumentException("Journal cannot be chained: " + journal);
+        }
+        GridChangeJournal tail = this;
+        while (true) {
+            if (tail == journal) {
+                throw new IllegalArgumentException("Journal is already chained: " + journal);
+            }
+            if (tail.next == null) {
+                break;
+            }
+            tail = tail.next;
+        }
+        tail.next = journal;
+    }
+
+    /**
+     * Returns whether all cells were marked as written in the current generation.
+     *
+     * @return {@code true} if {@link #recordAll()} was called since the last drain
+     */
+    public boolean isAllChanged() {
+        return allChanged;
+    }
+
+    /**
+     * Returns whether no cell was written in the current generation.
+     *
+     * @return {@code true} if nothing was recorded since the last drain
+     */
+    public boolean isEmpty() {
+        return !allChanged && (size == 0);
+    }
+
+    /**
+     * Returns the number of distinct cells written in the current generation.
+     *
+     * @return the number of changed cells
+     */
+    public int changeCount() {
+        return allChanged ? cellCount : size;
+    }
+
+    /**
+     * Returns whether the cell at the given flat cell index was written in the current generation.
+     *
+     * @param index the flat cell index
+     * @return {@code true} if the cell was written since the last drain
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    public boolean isChanged(int index) {
+        return allChanged ? (index >= 0) && (index < cellCount) : stamps[index] == generation;
+    }
+
+    /**
+     * Returns the flat cell indices written in the current generation in ascending order
+     * and starts a new, empty generation.
+     * <p>
+     * If all cells were marked as written, all indices of the grid are returned.
+     * Consumers that handle a full update differently should check {@link #isAllChanged()} first.
+     *
+     * @return a new array of distinct flat cell indices, sorted ascending
+     */
+    public int[] drainChanges() {
+        int[] result;
+        if (allChanged) {
+            result = new int[cellCount];
+            Arrays.setAll(result, index -> index);
+        } else {
+            result = Arrays.copyOf(changes, size);
+            Arrays.sort(result);
+        }
+        size = 0;
+        allChanged = false;
+        generation++;
+        if (generation == 0) {
+            // The generation counter wrapped around; reset stale stamps once.
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        return result;
+    }
+
+    /**
+     * Validates that the given journal, if any, covers the cells of the given structure.
+     *
+     * @throws IllegalArgumentException if the cell counts differ
+     */
+    static void checkCompatible(@Nullable GridChangeJournal journal, GridStructure structure) {
+        if ((journal != null) && (journal.cellCount != structure.cellCount())) {
+            throw new IllegalArgumentException("Change journal with " + journal.cellCount
+                    + " cells does not match structure: " + structure);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GridChangeJournal{" +
+                "cellCount=" + cellCount +
+                ", changeCount=" + changeCount() +
+                ", allChanged=" + allChanged +
+                '}';
+    }
+
+}
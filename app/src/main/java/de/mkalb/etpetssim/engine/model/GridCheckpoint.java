@@ -0,0 +1,383 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+
+import java.io.IOException;
+import java.lang.foreign.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Writes and reads checkpoint files holding the cells of one or more grid layers of the same {@link GridStructure}.
+ * <p>
+ * A checkpoint file is written and read through a memory mapping ({@link FileChannel#map}), so the cells are
+ * transferred as bulk memory copies without any per-cell encoding or parsing. The file starts with a header
+ * describing the grid structure (cell shape, edge behavior, width and height) and the encoding of every layer,
+ * followed by the data of each layer, aligned to 8 bytes. All numbers are stored in little-endian byte order.
+ * <p>
+ * Supported layers are {@link EnumGridModel} (one byte code per cell, stored together with the descriptor IDs
+ * of the enum constants, so a checkpoint stays readable if the constants are reordered) and
+ * {@link BitGridModel} (the row words, stored together with the descriptor IDs of the default and active entity).
+ * Layers of other models hold arbitrary entity objects and cannot be stored.
+ * <p>
+ * A checkpoint is read into existing layers created by the caller, with the structure returned by
+ * {@link #readStructure(Path)}. Files are usually placed in the checkpoint directory of the application
+ * (see {@link de.mkalb.etpetssim.core.AppStorage#getCheckpointFile}).
+ */
+public final class GridCheckpoint {
+
+    /**
+     * The first four bytes of every checkpoint file ("ETPC" in little-endian byte order).
+     */
+    private static final int MAGIC = 0x43505445;
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the fixed prefix: magic number, version and header size.
+     */
+    private static final int PREFIX_SIZE = 3 * Integer.BYTES;
+    private static final int DATA_ALIGNMENT = Long.BYTES;
+
+    private static final byte ENCODING_ENUM_BYTES = 1;
+    private static final byte ENCODING_BIT_WORDS = 2;
+
+    private static final ValueLayout.OfInt INT_LAYOUT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int WORD_MASK = Long.SIZE - 1;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private GridCheckpoint() {
+    }
+
+    /**
+     * Writes the given layers to a checkpoint file, replacing an existing file.
+     * <p>
+     * The checkpoint is first written to a temporary file next to the target file, which then replaces
+     * the target file, so an interrupted write never leaves a partial checkpoint behind.
+     *
+     * @param file   the checkpoint file
+     * @param layers the layers to write, all with the same structure
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if no layer is given, the layers have different structures
+     *                                  or a layer is not supported
+     */
+    public static void write(Path file, List<? extends WritableGridModel<?>> layers) throws IOException {
+        GridStructure structure = checkLayers(layers);
+        byte[] cellShape = encodeString(structure.cellShape().name());
+        byte[] gridEdgeBehavior = encodeString(structure.topology().gridEdgeBehavior().name());
+
+        List<LayerHeader> layerHeaders = new ArrayList<>(layers.size());
+        int headerSize = PREFIX_SIZE + (3 * Integer.BYTES) + stringSize(cellShape) + stringSize(gridEdgeBehavior);
+        long dataOffset = 0L;
+        for (WritableGridModel<?> layer : layers) {
+            LayerHeader layerHeader = switch (layer) {
+                case EnumGridModel<?> model -> new LayerHeader(ENCODING_ENUM_BYTES, model.codeDescriptorIds(),
+                        dataOffset, model.codes().length);
+                case BitGridModel<?> model -> new LayerHeader(ENCODING_BIT_WORDS,
+                        new String[]{model.defaultEntity().descriptorId(), model.activeEntity().descriptorId()},
+                        dataOffset, (long) model.words().length * Long.BYTES);
+                default -> throw new IllegalArgumentException("Unsupported checkpoint layer: " + layer);
+            };
+            layerHeaders.add(layerHeader);
+            headerSize += layerHeader.headerSize();
+            dataOffset = align(dataOffset + layerHeader.dataLength());
+        }
+        long dataStart = align(headerSize);
+        long fileSize = dataStart + dataOffset;
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(headerSize);
+        header.putInt(structure.size().width()).putInt(structure.size().height());
+        putString(header, cellShape);
+        putString(header, gridEdgeBehavior);
+        header.putInt(layerHeaders.size());
+        for (LayerHeader layerHeader : layerHeaders) {
+            header.put(layerHeader.encoding()).putInt(layerHeader.descriptorIds().length);
+            for (String descriptorId : layerHeader.descriptorIds()) {
+                putString(header, encodeString(descriptorId));
+            }
+            header.putLong(dataStart + layerHeader.dataOffset()).putLong(layerHeader.dataLength());
+        }
+
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0L, fileSize, arena);
+            MemorySegment.copy(header.array(), 0, segment, ValueLayout.JAVA_BYTE, 0L, headerSize);
+            for (int i = 0; i < layers.size(); i++) {
+                long offset = dataStart + layerHeaders.get(i).dataOffset();
+                switch (layers.get(i)) {
+                    case EnumGridModel<?> model -> {
+                        byte[] codes = model.codes();
+                        MemorySegment.copy(codes, 0, segment, ValueLayout.JAVA_BYTE, offset, codes.length);
+                    }
+                    case BitGridModel<?> model -> {
+                        long[] words = model.words();
+                        MemorySegment.copy(words, 0, segment, LONG_LAYOUT, offset, words.length);
+                    }
+                    default -> throw new IllegalStateException("Unsupported checkpoint layer: " + layers.get(i));
+                }
+            }
+            segment.force();
+        }
+        // The arena is closed, so the file is unmapped and can be moved on every platform.
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the grid structure stored in a checkpoint file.
+     *
+     * @param file the checkpoint file
+     * @return the grid structure of the stored layers
+     * @throws IOException if the file cannot be read or is not a valid checkpoint
+     */
+    public static GridStructure readStructure(Path file) throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            return readHeader(mapReadOnly(arena, file), file).structure();
+        }
+    }
+
+    /**
+     * Reads a checkpoint file into the given layers, replacing all their cells.
+     * <p>
+     * The layers must match the stored layers in number, order and type. Enum byte codes are mapped to the
+     * constants of the layer by descriptor ID. All layers are validated before the first one is changed,
+     * so a failure leaves every layer unchanged. An attached {@link GridChangeJournal} records all cells as changed.
+     *
+     * @param file   the checkpoint file
+     * @param layers the layers to restore, all with the structure stored in the checkpoint
+     * @throws IOException              if the file cannot be read or is not a valid checkpoint
+     * @throws IllegalArgumentException if no layer is given, the layers do not match the checkpoint
+     *                                  or a stored entity cannot be represented by a layer
+     */
+    public static void read(Path file, List<? extends WritableGridModel<?>> layers) throws IOException {
+        GridStructure structure = checkLayers(layers);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = mapReadOnly(arena, file);
+            Header header = readHeader(segment, file);
+            if (!header.structure().equals(structure)) {
+                throw new IllegalArgumentException("Checkpoint structure " + header.structure()
+                        + " does not match layer structure: " + structure);
+            }
+            if (header.layers().size() != layers.size()) {
+                throw new IllegalArgumentException("Checkpoint has " + header.layers().size()
+                        + " layers, but got: " + layers.size());
+            }
+
+            List<Runnable> restores = new ArrayList<>(layers.size());
+            for (int i = 0; i < layers.size(); i++) {
+                LayerHeader layerHeader = header.layers().get(i);
+                restores.add(switch (layers.get(i)) {
+                    case EnumGridModel<?> model -> decodeCodes(segment, layerHeader, i, model, file);
+                    case BitGridModel<?> model -> decodeWords(segment, layerHeader, i, model, file);
+                    default -> throw new IllegalArgumentException("Unsupported checkpoint layer: " + layers.get(i));
+                });
+            }
+            restores.forEach(Runnable::run);
+        }
+    }
+
+    private static Runnable decodeCodes(MemorySegment segment, LayerHeader layerHeader, int layerIndex,
+                                        EnumGridModel<?> model, Path file) throws IOException {
+        checkEncoding(layerHeader, ENCODING_ENUM_BYTES, layerIndex);
+        int cellCount = model.structure().cellCount();
+        if (layerHeader.dataLength() != cellCount) {
+            throw new IOException("Checkpoint layer " + layerIndex + " has " + layerHeader.dataLength()
+                    + " bytes, but the grid has " + cellCount + " cells in file: " + file);
+        }
+
+        String[] storedIds = layerHeader.descriptorIds();
+        String[] modelIds = model.codeDescriptorIds();
+        Map<String, Integer> modelCodes = HashMap.newHashMap(modelIds.length);
+        for (int code = 0; code < modelIds.length; code++) {
+            modelCodes.put(modelIds[code], code);
+        }
+        int[] codeMapping = new int[storedIds.length];
+        for (int storedCode = 0; storedCode < storedIds.length; storedCode++) {
+            codeMapping[storedCode] = modelCodes.getOrDefault(storedIds[storedCode], -1);
+        }
+
+        byte[] codes = new byte[cellCount];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, layerHeader.dataOffset(), codes, 0, cellCount);
+        for (int index = 0; index < cellCount; index++) {
+            int storedCode = codes[index] & 0xFF;
+            if (storedCode >= codeMapping.length) {
+                throw new IOException("Invalid byte code " + storedCode + " in checkpoint layer " + layerIndex
+                        + " of file: " + file);
+            }
+            int code = codeMapping[storedCode];
+            if (code < 0) {
+                throw new IllegalArgumentException("Entity " + storedIds[storedCode] + " of checkpoint layer "
+                        + layerIndex + " is not a constant of layer: " + model);
+            }
+            codes[index] = (byte) code;
+        }
+        return () -> model.restoreCodes(codes);
+    }
+
+    private static Runnable decodeWords(MemorySegment segment, LayerHeader layerHeader, int layerIndex,
+                                        BitGridModel<?> model, Path file) throws IOException {
+        checkEncoding(layerHeader, ENCODING_BIT_WORDS, layerIndex);
+        String[] storedIds = layerHeader.descriptorIds();
+        if ((storedIds.length != 2)
+                || !storedIds[0].equals(model.defaultEntity().descriptorId())
+                || !storedIds[1].equals(model.activeEntity().descriptorId())) {
+            throw new IllegalArgumentException("Entities " + Arrays.toString(storedIds) + " of checkpoint layer "
+                    + layerIndex + " do not match layer: " + model);
+        }
+        int wordsPerRow = model.wordsPerRow();
+        int wordCount = wordsPerRow * model.structure().size().height();
+        if (layerHeader.dataLength() != ((long) wordCount * Long.BYTES)) {
+            throw new IOException("Checkpoint layer " + layerIndex + " has " + layerHeader.dataLength()
+                    + " bytes, but the grid needs " + wordCount + " words in file: " + file);
+        }
+
+        long[] words = new long[wordCount];
+        MemorySegment.copy(segment, LONG_LAYOUT, layerHeader.dataOffset(), words, 0, wordCount);
+        int lastWordBits = model.structure().size().width() & WORD_MASK;
+        long lastWordMask = (lastWordBits == 0) ? -1L : ((1L << lastWordBits) - 1L);
+        for (int offset = wordsPerRow - 1; offset < wordCount; offset += wordsPerRow) {
+            if ((words[offset] & ~lastWordMask) != 0L) {
+                throw new IOException("Bits beyond the grid width are set in checkpoint layer " + layerIndex
+                        + " of file: " + file);
+            }
+        }
+        return () -> model.restoreWords(words);
+    }
+
+    private static void checkEncoding(LayerHeader layerHeader, byte expectedEncoding, int layerIndex) {
+        if (layerHeader.encoding() != expectedEncoding) {
+            throw new IllegalArgumentException("Checkpoint layer " + layerIndex + " has encoding "
+                    + layerHeader.encoding() + ", but the layer needs encoding: " + expectedEncoding);
+        }
+    }
+
+    private static GridStructure checkLayers(List<? extends WritableGridModel<?>> layers) {
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("At least one layer is required");
+        }
+        GridStructure structure = layers.getFirst().structure();
+        for (WritableGridModel<?> layer : layers) {
+            if (!layer.structure().equals(structure)) {
+                throw new IllegalArgumentException("Layer structure " + layer.structure()
+                        + " does not match structure: " + structure);
+            }
+        }
+        return structure;
+    }
+
+    private static MemorySegment mapReadOnly(Arena arena, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+        }
+    }
+
+    private static Header readHeader(MemorySegment segment, Path file) throws IOException {
+        if ((segment.byteSize() < PREFIX_SIZE) || (segment.get(INT_LAYOUT, 0L) != MAGIC)) {
+            throw new IOException("File is not a grid checkpoint: " + file);
+        }
+        int version = segment.get(INT_LAYOUT, Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + " in file: " + file);
+        }
+        int headerSize = segment.get(INT_LAYOUT, 2L * Integer.BYTES);
+        if ((headerSize < PREFIX_SIZE) || (headerSize > segment.byteSize())) {
+            throw new IOException("Invalid checkpoint header size " + headerSize + " in file: " + file);
+        }
+
+        ByteBuffer header = segment.asSlice(0L, headerSize).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        header.position(PREFIX_SIZE);
+        try {
+            GridSize size = new GridSize(header.getInt(), header.getInt());
+            CellShape cellShape = CellShape.valueOf(getString(header));
+            GridEdgeBehavior gridEdgeBehavior = GridEdgeBehavior.valueOf(getString(header));
+            GridStructure structure = new GridStructure(new GridTopology(cellShape, gridEdgeBehavior), size);
+
+            int layerCount = header.getInt();
+            List<LayerHeader> layers = new ArrayList<>();
+            for (int i = 0; i < layerCount; i++) {
+                byte encoding = header.get();
+                int descriptorIdCount = header.getInt();
+                if ((descriptorIdCount < 0) || (descriptorIdCount > header.remaining())) {
+                    throw new IOException("Invalid entity count " + descriptorIdCount + " of checkpoint layer "
+                            + i + " in file: " + file);
+                }
+                String[] descriptorIds = new String[descriptorIdCount];
+                for (int j = 0; j < descriptorIdCount; j++) {
+                    descriptorIds[j] = getString(header);
+                }
+                long dataOffset = header.getLong();
+                long dataLength = header.getLong();
+                if ((dataOffset < headerSize) || (dataLength < 0L)
+                        || (dataLength > (segment.byteSize() - dataOffset))) {
+                    throw new IOException("Data of checkpoint layer " + i + " lies outside of file: " + file);
+                }
+                layers.add(new LayerHeader(encoding, descriptorIds, dataOffset, dataLength));
+            }
+            return new Header(structure, layers);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Invalid checkpoint header in file: " + file, e);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + (DATA_ALIGNMENT - 1)) & -DATA_ALIGNMENT;
+    }
+
+    private static byte[] encodeString(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] encoded) {
+        return Integer.BYTES + encoded.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] encoded) {
+        buffer.putInt(encoded.length).put(encoded);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if ((length < 0) || (length > buffer.remaining())) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The parsed header of a checkpoint file.
+     */
+    private record Header(GridStructure structure, List<LayerHeader> layers) {
+    }
+
+    /**
+     * The header entry of one layer. The data offset is relative to the data section while writing
+     * and absolute while reading.
+     */
+    private record LayerHeader(byte encoding, String[] descriptorIds, long dataOffset, long dataLength) {
+
+        int headerSize() {
+            int size = Byte.BYTES + Integer.BYTES + (2 * Long.BYTES);
+            for (String descriptorId : descriptorIds) {
+                size += stringSize(encodeString(descriptorId));
+            }
+            return size;
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An immutable point-in-time view of a {@link WritableGridModel}, created by {@link WritableGridModel#snapshot()}.
+ * <p>
+ * The snapshot shares its storage with the model it was taken from. The model duplicates a shared
+ * page (a tile of a {@link TiledGridModel}, or a block of rows of the array, enum, bit and sparse models)
+ * before the first write to it, so later writes never become visible in the snapshot and creating a snapshot
+ * does not copy any cells.
+ * <p>
+ * A snapshot can be read from another thread while the model keeps changing, provided that it is
+ * handed over safely (for example through a volatile field or a concurrent queue).
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
+ */
+public final class GridModelSnapshot<T extends GridEntity> implements ReadableGridModel<T> {
+
+    /**
+     * The model instance holding the shared storage. It is never written.
+     */
+    private final ReadableGridModel<T> frozenModel;
+
+    /**
+     * Constructs a new snapshot around a model instance that shares storage with the live model
+     * and is never written.
+     *
+     * @param frozenModel the model instance holding the shared storage
+     */
+    GridModelSnapshot(ReadableGridModel<T> frozenModel) {
+        this.frozenModel = frozenModel;
+    }
+
+    @Override
+    public GridStructure structure() {
+        return frozenModel.structure();
+    }
+
+    @Override
+    public T defaultEntity() {
+        return frozenModel.defaultEntity();
+    }
+
+    @Override
+    public T getEntity(GridCoordinate coordinate) {
+        return frozenModel.getEntity(coordinate);
+    }
+
+    @Override
+    public boolean isDefaultEntity(GridCoordinate coordinate) {
+        return frozenModel.isDefaultEntity(coordinate);
+    }
+
+    @Override
+    public T getEntity(int index) {
+        return frozenModel.getEntity(index);
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        return frozenModel.isDefaultEntity(index);
+    }
+
+    @Override
+    public boolean isSparse() {
+        return frozenModel.isSparse();
+    }
+
+    @Override
+    public long countEntities(Predicate<? super T> predicate) {
+        return frozenModel.countEntities(predicate);
+    }
+
+    @Override
+    public Set<GridCoordinate> nonDefaultCoordinates() {
+        return frozenModel.nonDefaultCoordinates();
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        return frozenModel.nonDefaultIndices();
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        return frozenModel.filteredIndices(entityPredicate);
+    }
+
+    @Override
+    public List<GridCoordinate> filteredCoordinates(Predicate<T> entityPredicate) {
+        return frozenModel.filteredCoordinates(entityPredicate);
+    }
+
+    @Override
+    public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
+        return frozenModel.findRandomDefaultCoordinate(random);
+    }
+
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        frozenModel.forEachCell(visitor);
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        frozenModel.forEachNonDefault(visitor);
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        frozenModel.forEachMatching(entityPredicate, visitor);
+    }
+
+    @Override
+    public List<GridCell<T>> allCells() {
+        return frozenModel.allCells();
+    }
+
+    @Override
+    public List<GridCell<T>> nonDefaultCells() {
+        return frozenModel.nonDefaultCells();
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCells(Predicate<T> entityPredicate) {
+        return frozenModel.filteredCells(entityPredicate);
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCellsSortedBy(Predicate<T> entityPredicate, Comparator<GridCell<T>> cellOrdering) {
+        return frozenModel.filteredCellsSortedBy(entityPredicate, cellOrdering);
+    }
+
+    @Override
+    public String toString() {
+        return "GridModelSnapshot{" +
+                "frozenModel=" + frozenModel +
+                '}';
+    }
+
+}
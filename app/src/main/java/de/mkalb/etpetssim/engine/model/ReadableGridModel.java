@@ -16,7 +16,7 @@ import java.util.function.*;
  * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
  */
 public sealed interface ReadableGridModel<T extends GridEntity> extends GridModel<T>
-        permits WritableGridModel {
+        permits GridModelSnapshot, WritableGridModel {
 
     @Override
     default boolean isComposite() {
@@ -59,6 +59,27 @@ public sealed interface ReadableGridModel<T extends GridEntity> extends GridMode
      */
     boolean isDefaultEntity(GridCoordinate coordinate);
 
+    /**
+     * Returns the entity at the specified flat cell index.
+     * <p>
+     * The index is defined by {@link de.mkalb.etpetssim.engine.GridStructure#indexOf(int, int)} (row-major order).
+     * This is the allocation-free counterpart of {@link #getEntity(GridCoordinate)}.
+     *
+     * @param index the flat cell index
+     * @return the entity at the index
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    T getEntity(int index);
+
+    /**
+     * Checks whether the entity at the specified flat cell index is equal to the default entity.
+     *
+     * @param index the flat cell index to check
+     * @return {@code true} if the entity at the index is the default entity, {@code false} otherwise
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    boolean isDefaultEntity(int index);
+
     /**
      * Indicates whether this grid model is sparse (optimized for mostly default entities).
      *
@@ -86,6 +107,30 @@ public sealed interface ReadableGridModel<T extends GridEntity> extends GridMode
      */
     Set<GridCoordinate> nonDefaultCoordinates();
 
+    /**
+     * Returns the flat cell indices of all cells whose entity is not the default entity,
+     * in ascending (row-major) order.
+     * <p>
+     * The array is a snapshot of the model state taken at the time of this call
+     * and is not affected by subsequent mutations to the model.
+     *
+     * @return a new array of flat cell indices with non-default entities, sorted ascending
+     */
+    int[] nonDefaultIndices();
+
+    /**
+     * Returns the flat cell indices of all cells whose entities match the given predicate,
+     * in ascending (row-major) order.
+     * Avoids creating intermediate {@link GridCoordinate} and {@link GridCell} instances.
+     * <p>
+     * The array is a snapshot of the model state taken at the time of this call
+     * and is not affected by subsequent mutations to the model.
+     *
+     * @param entityPredicate the predicate to filter entities
+     * @return a new array of matching flat cell indices, sorted ascending
+     */
+    int[] filteredIndices(Predicate<T> entityPredicate);
+
     /**
      * Returns a list of grid coordinates whose entities match the given predicate.
      * Avoids creating intermediate {@link GridCell} instances compared to {@link #filteredCells}.
@@ -107,6 +152,38 @@ public sealed interface ReadableGridModel<T extends GridEntity> extends GridMode
      */
     Optional<GridCoordinate> findRandomDefaultCoordinate(Random random);
 
+    /**
+     * Visits all grid cells in row-major order
+     * (x-coordinate varies fastest within each row, y-coordinate varies slowest).
+     * <p>
+     * Unlike {@link #allCells()}, no list, {@link GridCell} or {@link GridCoordinate} is allocated per cell.
+     * The visitor must not modify this model.
+     *
+     * @param visitor the visitor receiving the coordinates and entity of each cell
+     */
+    void forEachCell(CellVisitor<? super T> visitor);
+
+    /**
+     * Visits all grid cells whose entity is not the default entity, in row-major order.
+     * <p>
+     * Unlike {@link #nonDefaultCells()}, no {@link GridCell} or {@link GridCoordinate} is allocated per cell.
+     * The visitor must not modify this model.
+     *
+     * @param visitor the visitor receiving the coordinates and entity of each non-default cell
+     */
+    void forEachNonDefault(CellVisitor<? super T> visitor);
+
+    /**
+     * Visits all grid cells whose entities match the given predicate, in row-major order.
+     * <p>
+     * Unlike {@link #filteredCells(Predicate)}, no {@link GridCell} or {@link GridCoordinate} is allocated per cell.
+     * The visitor must not modify this model.
+     *
+     * @param entityPredicate the predicate to filter grid cell entities
+     * @param visitor         the visitor receiving the coordinates and entity of each matching cell
+     */
+    void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor);
+
     /**
      * Returns a mutable list of all grid cells, in row-major order
      * (x-coordinate varies fastest within each row, y-coordinate varies slowest).
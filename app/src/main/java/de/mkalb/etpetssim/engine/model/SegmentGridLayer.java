@@ -0,0 +1,332 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.GridStructure;
+
+import java.io.IOException;
+import java.lang.foreign.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A grid layer of primitive values (bytes, shorts or ints) stored off-heap in a {@link MemorySegment}.
+ * <p>
+ * Intended for primitive per-cell state such as ages, energies, resource amounts or trail intensities
+ * of very large worlds: the values do not live on the Java heap, so they neither count against the heap
+ * size nor add to garbage collection pause times. The values are laid out in row-major order and
+ * addressed by flat cell index (see {@link GridStructure#indexOf(int, int)}), using little-endian byte
+ * order so that mapped files are portable.
+ * <p>
+ * The lifetime of the memory is controlled by the {@link Arena} passed to {@link #allocate} or
+ * {@link #mapFile}; accessing a layer after its arena is closed throws an {@link IllegalStateException}.
+ * Every accessor checks that it matches the {@link ElementType} of the layer.
+ * <p>
+ * This class is not thread-safe unless the arena allows shared access and callers synchronize writes.
+ */
+public final class SegmentGridLayer {
+
+    /**
+     * The primitive type of the values stored in a {@link SegmentGridLayer}.
+     */
+    public enum ElementType {
+        /**
+         * Signed 8-bit values.
+         */
+        BYTE(Byte.BYTES),
+        /**
+         * Signed 16-bit values.
+         */
+        SHORT(Short.BYTES),
+        /**
+         * Signed 32-bit values.
+         */
+        INT(Integer.BYTES);
+
+        private final int byteSize;
+
+        ElementType(int byteSize) {
+            this.byteSize = byteSize;
+        }
+
+        /**
+         * Returns the size of one value in bytes.
+         *
+         * @return the value size in bytes
+         */
+        public int byteSize() {
+            return byteSize;
+        }
+
+    }
+
+    private static final ValueLayout.OfShort SHORT_LAYOUT = ValueLayout.JAVA_SHORT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt INT_LAYOUT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final GridStructure structure;
+    private final ElementType elementType;
+    private final MemorySegment segment;
+
+    private SegmentGridLayer(GridStructure structure, ElementType elementType, MemorySegment segment) {
+        this.structure = structure;
+        this.elementType = elementType;
+        this.segment = segment;
+    }
+
+    /**
+     * Allocates a new zero-filled layer in the given arena.
+     *
+     * @param arena       the arena controlling the lifetime of the memory
+     * @param structure   the grid structure
+     * @param elementType the type of the values
+     * @return the new layer
+     */
+    public static SegmentGridLayer allocate(Arena arena, GridStructure structure, ElementType elementType) {
+        MemorySegment segment = arena.allocate(requiredByteSize(structure, elementType), elementType.byteSize());
+        return new SegmentGridLayer(structure, elementType, segment);
+    }
+
+    /**
+     * Maps a file into memory as a layer. The mapping stays valid until the arena is closed.
+     * <p>
+     * With {@link FileChannel.MapMode#READ_WRITE} the file is created if it does not exist and
+     * extended with zeros if it is shorter than the layer; writes to the layer are written back to the file.
+     * With {@link FileChannel.MapMode#READ_ONLY} the file must exist and be at least as large as the layer,
+     * and every setter throws an exception.
+     *
+     * @param arena       the arena controlling the lifetime of the mapping
+     * @param structure   the grid structure
+     * @param elementType the type of the values
+     * @param file        the file to map
+     * @param mapMode     {@link FileChannel.MapMode#READ_ONLY} or {@link FileChannel.MapMode#READ_WRITE}
+     * @return the mapped layer
+     * @throws IOException              if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if the map mode is not supported or a read-only file is too small
+     */
+    public static SegmentGridLayer mapFile(Arena arena, GridStructure structure, ElementType elementType,
+                                           Path file, FileChannel.MapMode mapMode) throws IOException {
+        long byteSize = requiredByteSize(structure, elementType);
+        Set<OpenOption> options;
+        if (mapMode == FileChannel.MapMode.READ_ONLY) {
+            options = Set.of(StandardOpenOption.READ);
+        } else if (mapMode == FileChannel.MapMode.READ_WRITE) {
+            options = Set.of(StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        } else {
+            throw new IllegalArgumentException("Unsupported map mode: " + mapMode);
+        }
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            if (channel.size() < byteSize) {
+                if (mapMode == FileChannel.MapMode.READ_ONLY) {
+                    throw new IllegalArgumentException("File " + file + " has " + channel.size()
+                            + " bytes, but the layer needs " + byteSize + " bytes");
+                }
+                // Writing the last byte extends the file; the gap reads as zeros.
+                channel.write(ByteBuffer.allocate(1), byteSize - 1);
+            }
+            MemorySegment segment = channel.map(mapMode, 0, byteSize, arena);
+            return new SegmentGridLayer(structure, elementType, segment);
+        }
+    }
+
+    private static long requiredByteSize(GridStructure structure, ElementType elementType) {
+        return (long) structure.cellCount() * elementType.byteSize();
+    }
+
+    /**
+     * Returns the grid structure of this layer.
+     *
+     * @return the grid structure
+     */
+    public GridStructure structure() {
+        return structure;
+    }
+
+    /**
+     * Returns the type of the values of this layer.
+     *
+     * @return the element type
+     */
+    public ElementType elementType() {
+        return elementType;
+    }
+
+    /**
+     * Returns the size of this layer in bytes.
+     *
+     * @return the size in bytes
+     */
+    public long byteSize() {
+        return segment.byteSize();
+    }
+
+    /**
+     * Returns whether this layer is mapped from a file.
+     *
+     * @return {@code true} if the layer was created by {@link #mapFile}
+     */
+    public boolean isMapped() {
+        return segment.isMapped();
+    }
+
+    /**
+     * Returns the byte value at the given flat cell index.
+     *
+     * @param index the flat cell index
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is not valid
+     * @throws IllegalStateException     if the layer does not store bytes
+     */
+    public byte getByte(int index) {
+        checkAccess(index, ElementType.BYTE);
+        return segment.get(ValueLayout.JAVA_BYTE, index);
+    }
+
+    /**
+     * Sets the byte value at the given flat cell index.
+     *
+     * @param index the flat cell index
+     * @param value the value
+     * @throws IndexOutOfBoundsException if the index is not valid
+     * @throws IllegalStateException     if the layer does not store bytes
+     */
+    public void setByte(int index, byte value) {
+        checkAccess(index, ElementType.BYTE);
+        segment.set(ValueLayout.JAVA_BYTE, index, value);
+    }
+
+    /**
+     * Returns the short value at the given flat cell index.
+     *
+     * @param index the flat cell index
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is not valid
+     * @throws IllegalStateException     if the layer does not store shorts
+     */
+    public short getShort(int index) {
+        checkAccess(index, ElementType.SHORT);
+        return segment.getAtIndex(SHORT_LAYOUT, index);
+    }
+
+    /**
+     * Sets the short value at the given flat cell index.
+     *
+     * @param index the flat cell index
+     * @param value the value
+     * @throws IndexOutOfBoundsException if the index is not valid
+     * @throws IllegalStateException     if the layer does not store shorts
+     */
+    public void setShort(int index, short value) {
+        checkAccess(index, ElementType.SHORT);
+        segment.setAtIndex(SHORT_LAYOUT, index, value);
+    }
+
+    /**
+     * Returns the int value at the given flat cell index.
+     *
+     * @param index the flat cell index
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is not valid
+     * @throws IllegalStateException     if the layer does not store ints
+     */
+    public int getInt(int index) {
+        checkAccess(index, ElementType.INT);
+        return segment.getAtIndex(INT_LAYOUT, index);
+    }
+
+    /**
+     * Sets the int value at the given flat cell index.
+     *
+     * @param index the flat cell index
+     * @param value the value
+     * @throws IndexOutOfBoundsException if the index is not valid
+     * @throws IllegalStateException     if the layer does not store ints
+     */
+    public void setInt(int index, int value) {
+        checkAccess(index, ElementType.INT);
+        segment.setAtIndex(INT_LAYOUT, index, value);
+    }
+
+    /**
+     * Sets all values to zero.
+     */
+    public void clear() {
+        segment.fill((byte) 0);
+    }
+
+    /**
+     * Sets all values to the given value, narrowed to the element type of this layer.
+     *
+     * @param value the value
+     */
+    public void fill(int value) {
+        int cellCount = structure.cellCount();
+        switch (elementType) {
+            case BYTE -> segment.fill((byte) value);
+            case SHORT -> {
+                for (int index = 0; index < cellCount; index++) {
+                    segment.setAtIndex(SHORT_LAYOUT, index, (short) value);
+                }
+            }
+            case INT -> {
+                for (int index = 0; index < cellCount; index++) {
+                    segment.setAtIndex(INT_LAYOUT, index, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies all values from the given layer into this layer as a single bulk memory copy.
+     *
+     * @param source the layer to copy from
+     * @throws IllegalArgumentException if the source has a different structure or element type
+     */
+    public void copyFrom(SegmentGridLayer source) {
+        if (!source.structure.equals(structure) || (source.elementType != elementType)) {
+            throw new IllegalArgumentException("Incompatible layer: " + source + " for layer: " + this);
+        }
+        MemorySegment.copy(source.segment, 0L, segment, 0L, segment.byteSize());
+    }
+
+    /**
+     * Allocates a copy of this layer in the given arena.
+     *
+     * @param arena the arena controlling the lifetime of the copy
+     * @return the copy
+     */
+    public SegmentGridLayer copy(Arena arena) {
+        SegmentGridLayer clone = allocate(arena, structure, elementType);
+        clone.copyFrom(this);
+        return clone;
+    }
+
+    /**
+     * Writes changes of a layer mapped with {@link FileChannel.MapMode#READ_WRITE} to the file.
+     * Has no effect on layers that are not mapped.
+     */
+    public void force() {
+        if (segment.isMapped() && !segment.isReadOnly()) {
+            segment.force();
+        }
+    }
+
+    private void checkAccess(int index, ElementType expectedType) {
+        if (elementType != expectedType) {
+            throw new IllegalStateException("Layer stores " + elementType + " values, not " + expectedType);
+        }
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentGridLayer{" +
+                "structure=" + structure +
+                ", elementType=" + elementType +
+                ", byteSize=" + segment.byteSize() +
+                ", mapped=" + segment.isMapped() +
+                '}';
+    }
+
+}
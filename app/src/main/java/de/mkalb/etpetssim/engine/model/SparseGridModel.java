@@ -2,6 +2,7 @@ package de.mkalb.etpetssim.engine.model;
 
 import de.mkalb.etpetssim.engine.*;
 import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.*;
@@ -9,11 +10,29 @@ import java.util.function.*;
 /**
  * An implementation of {@link WritableGridModel} that stores only non-default entities in a map.
  * Efficient for sparse grids where most cells contain the default entity.
+ * <p>
+ * The non-default entities are kept in a primitive open-addressing table keyed by flat cell index
+ * (see {@link GridStructure#indexOf(int, int)}), so lookups neither box keys nor allocate map nodes.
+ * All methods that return cells, coordinates or indices of non-default entries list them in ascending
+ * flat index (row-major) order, so results are deterministic and independent of hash codes.
+ * <p>
+ * The table is split into pages by key range: each page holds the entries of {@value #PAGE_SIZE} consecutive
+ * flat cell indices in its own table, which is created on the first entry. {@link #snapshot()} and
+ * {@link #copy()} share the pages with the snapshot or copy. After that, the page directory is duplicated on
+ * the first write and each page is duplicated on the first write into it, so only the entries of the pages
+ * written afterward are copied.
  *
  * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
  */
 public final class SparseGridModel<T extends GridEntity> implements WritableGridModel<T> {
 
+    /**
+     * The number of flat cell indices per page.
+     */
+    public static final int PAGE_SIZE = 4096;
+
+    private static final int PAGE_SHIFT = 12;
+
     /**
      * Maximum number of random probes attempted in phase 1 of {@link #findRandomDefaultCoordinate(Random)}
      * before falling back to the guaranteed linear scan in phase 2.
@@ -31,9 +50,52 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
     private final T defaultEntity;
 
     /**
-     * The map holding non-default grid entities, keyed by coordinate.
+     * The pages holding the non-default grid entities, keyed by flat cell index
+     * (see {@link GridStructure#indexOf(int, int)}); the entry of index {@code i} is stored in page
+     * {@code i >>> PAGE_SHIFT}, which is {@code null} if it has never held an entry.
+     * The directory and its pages may be shared with snapshots and copies
+     * (see {@link #directoryShared} and {@link #pageOwners}).
+     */
+    private @Nullable CellIndexTable<T>[] pages;
+
+    /**
+     * Whether {@link #pages} is shared with a snapshot or copy and must be duplicated before the next write.
+     */
+    private boolean directoryShared;
+
+    /**
+     * The owner generation of each page. A page may be written in place only if its owner generation
+     * equals {@link #ownerGeneration}; otherwise it is shared and duplicated first.
+     */
+    private final int[] pageOwners;
+
+    /**
+     * The current owner generation, incremented by every snapshot and copy.
      */
-    private final Map<GridCoordinate, T> data;
+    private int ownerGeneration;
+
+    /**
+     * The number of non-default entries in all pages.
+     */
+    private int size;
+
+    /**
+     * The flat indices of all entries in ascending order, or {@code null} if they must be collected again.
+     * Like the sorted keys of a page, the array is never modified and is cached until an entry is inserted
+     * or removed.
+     */
+    private volatile int @Nullable [] sortedKeys;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * The index of default cells used by {@link #findRandomDefaultCoordinate(Random)},
+     * or {@code null} if it is not enabled (see {@link #enableFreeCellIndex()}).
+     */
+    private @Nullable FreeCellIndex freeCellIndex;
 
     /**
      * Constructs a new {@code SparseGridModel} with the given structure and default entity.
@@ -45,7 +107,48 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
     public SparseGridModel(GridStructure structure, T defaultEntity) {
         this.structure = structure;
         this.defaultEntity = defaultEntity;
-        data = new HashMap<>();
+        pages = newDirectory(structure.cellCount());
+        pageOwners = new int[pages.length];
+    }
+
+    /**
+     * Constructs a new {@code SparseGridModel} that shares the pages of the given model.
+     * A snapshot is never written and shares the page owners of the source; a copy gets its own page owners,
+     * which do not own any page yet.
+     */
+    private SparseGridModel(SparseGridModel<T> source, int[] pageOwners) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        pages = source.pages;
+        directoryShared = true;
+        this.pageOwners = pageOwners;
+        size = source.size;
+        sortedKeys = source.sortedKeys;
+    }
+
+    /**
+     * Enables an index of the cells holding the default entity, so that
+     * {@link #findRandomDefaultCoordinate(Random)} selects a uniformly random default cell in O(1)
+     * at any density instead of scanning the grid.
+     * <p>
+     * The index is built once from the current grid state, costs two {@code int} arrays of the grid area
+     * and adds O(1) work to every single-cell write. Copies of this model keep the index.
+     * Calling this method again has no effect.
+     */
+    public void enableFreeCellIndex() {
+        if (freeCellIndex == null) {
+            freeCellIndex = new FreeCellIndex(structure.cellCount());
+            rebuildFreeCellIndex();
+        }
+    }
+
+    /**
+     * Returns whether the index of default cells is enabled.
+     *
+     * @return {@code true} if {@link #enableFreeCellIndex()} was called
+     */
+    public boolean isFreeCellIndexEnabled() {
+        return freeCellIndex != null;
     }
 
     @Override
@@ -63,7 +166,7 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        return data.getOrDefault(coordinate, defaultEntity);
+        return entityAt(structure.indexOf(coordinate));
     }
 
     @Override
@@ -71,7 +174,23 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        return !data.containsKey(coordinate);
+        return !containsEntry(structure.indexOf(coordinate));
+    }
+
+    @Override
+    public T getEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return entityAt(index);
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return !containsEntry(index);
     }
 
     @Override
@@ -85,13 +204,18 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         // All cells not present in the map hold the default entity; their count is derived arithmetically.
         // This avoids iterating all cells (e.g. 1_000_000 for a 1000x1000 grid) when only a few are non-default.
         long count = 0;
-        for (T entity : data.values()) {
-            if (predicate.test(entity)) {
-                count++;
+        for (CellIndexTable<T> page : pages) {
+            if (page != null) {
+                for (int slot = 0; slot < page.capacity(); slot++) {
+                    T entity = page.valueAt(slot);
+                    if ((entity != null) && predicate.test(entity)) {
+                        count++;
+                    }
+                }
             }
         }
         if (predicate.test(defaultEntity)) {
-            count += (long) structure.size().area() - data.size();
+            count += (long) structure.size().area() - size;
         }
         return count;
     }
@@ -104,7 +228,60 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         // structural change to the backing map during iteration, even in single-threaded code.
         // HashSet is preferred over Set.copyOf(): the latter uses ImmutableCollections.SetN with open
         // addressing that has poor hash distribution for GridCoordinate, making contains() slow.
-        return new HashSet<>(data.keySet());
+        Set<GridCoordinate> result = HashSet.newHashSet(size);
+        for (CellIndexTable<T> page : pages) {
+            if (page != null) {
+                for (int slot = 0; slot < page.capacity(); slot++) {
+                    int index = page.keyAt(slot);
+                    if (index >= 0) {
+                        result.add(structure.coordinateOf(index));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        // The sorted keys are cached, so callers get their own copy.
+        return sortedKeys().clone();
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        boolean includeDefault = entityPredicate.test(defaultEntity);
+
+        // Fast path: default does NOT match -> only stored non-default entries can match.
+        if (!includeDefault) {
+            int[] buffer = new int[size];
+            int count = 0;
+            for (CellIndexTable<T> page : pages) {
+                if (page != null) {
+                    for (int slot = 0; slot < page.capacity(); slot++) {
+                        T entity = page.valueAt(slot);
+                        if ((entity != null) && entityPredicate.test(entity)) {
+                            buffer[count++] = page.keyAt(slot);
+                        }
+                    }
+                }
+            }
+            int[] result = Arrays.copyOf(buffer, count);
+            Arrays.sort(result);
+            return result;
+        }
+
+        // Default matches: all cells not present in the map are included; non-default cells are tested.
+        int area = structure.size().area();
+        int[] buffer = new int[area];
+        int count = 0;
+        for (int index = 0; index < area; index++) {
+            T entity = entry(index);
+            if ((entity == null) || entityPredicate.test(entity)) {
+                buffer[count++] = index;
+            }
+        }
+        return Arrays.copyOf(buffer, count);
     }
 
     @Override
@@ -113,14 +290,13 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
 
         // Fast path: default does NOT match -> only stored non-default entries can match.
         if (!includeDefault) {
-            if (data.isEmpty()) {
+            if (size == 0) {
                 return List.of();
             }
-            List<GridCoordinate> result = new ArrayList<>(data.size());
-            for (Map.Entry<GridCoordinate, T> entry : data.entrySet()) {
-                T entity = entry.getValue();
-                if (entityPredicate.test(entity)) {
-                    result.add(entry.getKey());
+            List<GridCoordinate> result = new ArrayList<>(size);
+            for (int index : sortedKeys()) {
+                if (entityPredicate.test(entityAt(index))) {
+                    result.add(structure.coordinateOf(index));
                 }
             }
             return result;
@@ -133,12 +309,9 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         List<GridCoordinate> result = new ArrayList<>(width * height);
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                GridCoordinate coordinate = new GridCoordinate(x, y);
-                T entity = data.get(coordinate);
-                if (entity == null) {
-                    result.add(coordinate);
-                } else if (entityPredicate.test(entity)) {
-                    result.add(coordinate);
+                T entity = entry(structure.indexOf(x, y));
+                if ((entity == null) || entityPredicate.test(entity)) {
+                    result.add(new GridCoordinate(x, y));
                 }
             }
         }
@@ -148,10 +321,13 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
     @Override
     public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
         int area = structure.size().area();
-        int defaultCount = area - data.size();
+        int defaultCount = area - size;
         if (defaultCount <= 0) {
             return Optional.empty();
         }
+        if (freeCellIndex != null) {
+            return Optional.of(structure.coordinateOf(freeCellIndex.randomFreeIndex(random)));
+        }
 
         int width = structure.size().width();
         int height = structure.size().height();
@@ -160,9 +336,10 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         // Succeeds quickly when the grid is sparsely populated (few non-default cells).
         int maxAttempts = Math.min(area, MAX_RANDOM_DEFAULT_SAMPLING_ATTEMPTS);
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
-            GridCoordinate coordinate = new GridCoordinate(random.nextInt(width), random.nextInt(height));
-            if (!data.containsKey(coordinate)) {
-                return Optional.of(coordinate);
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (!containsEntry(structure.indexOf(x, y))) {
+                return Optional.of(new GridCoordinate(x, y));
             }
         }
 
@@ -171,28 +348,73 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         int startIndex = random.nextInt(area);
         for (int offset = 0; offset < area; offset++) {
             int index = (startIndex + offset) % area;
-            int y = index / width;
-            int x = index % width;
-            GridCoordinate coordinate = new GridCoordinate(x, y);
-            if (!data.containsKey(coordinate)) {
-                return Optional.of(coordinate);
+            if (!containsEntry(index)) {
+                return Optional.of(structure.coordinateOf(index));
             }
         }
 
         return Optional.empty();
     }
 
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                visitor.visit(x, y, entityAt(index++));
+            }
+        }
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        // Only the stored entries are visited, in ascending index order independent of the table layout.
+        for (int index : sortedKeys()) {
+            visitor.visit(structure.xOf(index), structure.yOf(index), entityAt(index));
+        }
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        // Fast path: default does NOT match -> only stored non-default entries can match.
+        if (!entityPredicate.test(defaultEntity)) {
+            for (int index : sortedKeys()) {
+                T entity = entityAt(index);
+                if (entityPredicate.test(entity)) {
+                    visitor.visit(structure.xOf(index), structure.yOf(index), entity);
+                }
+            }
+            return;
+        }
+
+        // Default matches: all cells not present in the table are visited; non-default cells are tested.
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                T entity = entry(index++);
+                if (entity == null) {
+                    visitor.visit(x, y, defaultEntity);
+                } else if (entityPredicate.test(entity)) {
+                    visitor.visit(x, y, entity);
+                }
+            }
+        }
+    }
+
     @Override
     public List<GridCell<T>> allCells() {
-        // Use data.getOrDefault() directly to skip the redundant bounds check of getEntity(),
+        // Use entityAt() directly to skip the redundant bounds check of getEntity(),
         // which is safe because all (x, y) pairs produced here are guaranteed to be valid.
         int width = structure.size().width();
         int height = structure.size().height();
         List<GridCell<T>> result = new ArrayList<>(width * height);
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                GridCoordinate coordinate = new GridCoordinate(x, y);
-                result.add(new GridCell<>(coordinate, data.getOrDefault(coordinate, defaultEntity)));
+                result.add(new GridCell<>(new GridCoordinate(x, y), entityAt(structure.indexOf(x, y))));
             }
         }
         return result;
@@ -205,9 +427,11 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         // iterating the returned list. Java's fail-fast iterators throw
         // ConcurrentModificationException on any structural change during iteration, even in
         // single-threaded code. For a sparse model the non-default set is small, so the copy is cheap.
-        List<GridCell<T>> snapshot = new ArrayList<>(data.size());
-        for (Map.Entry<GridCoordinate, T> entry : data.entrySet()) {
-            snapshot.add(new GridCell<>(entry.getKey(), entry.getValue()));
+        // Cells are listed in ascending index order, independent of the table layout.
+        int[] indices = sortedKeys();
+        List<GridCell<T>> snapshot = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            snapshot.add(new GridCell<>(structure.coordinateOf(index), entityAt(index)));
         }
         return snapshot;
     }
@@ -218,15 +442,15 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
 
         // Fast path: default does NOT match -> only stored non-default entries can match.
         if (!includeDefault) {
-            if (data.isEmpty()) {
+            if (size == 0) {
                 // Return a mutable empty list: filteredCellsSortedBy sorts the result in-place.
                 return new ArrayList<>(0);
             }
-            List<GridCell<T>> result = new ArrayList<>(data.size());
-            for (Map.Entry<GridCoordinate, T> entry : data.entrySet()) {
-                T entity = entry.getValue();
+            List<GridCell<T>> result = new ArrayList<>(size);
+            for (int index : sortedKeys()) {
+                T entity = entityAt(index);
                 if (entityPredicate.test(entity)) {
-                    result.add(new GridCell<>(entry.getKey(), entity));
+                    result.add(new GridCell<>(structure.coordinateOf(index), entity));
                 }
             }
             return result;
@@ -239,12 +463,11 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         List<GridCell<T>> result = new ArrayList<>(width * height);
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                GridCoordinate coordinate = new GridCoordinate(x, y);
-                T entity = data.get(coordinate);
+                T entity = entry(structure.indexOf(x, y));
                 if (entity == null) {
-                    result.add(new GridCell<>(coordinate, defaultEntity));
+                    result.add(new GridCell<>(new GridCoordinate(x, y), defaultEntity));
                 } else if (entityPredicate.test(entity)) {
-                    result.add(new GridCell<>(coordinate, entity));
+                    result.add(new GridCell<>(new GridCoordinate(x, y), entity));
                 }
             }
         }
@@ -261,14 +484,23 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
 
     @Override
     public SparseGridModel<T> copy() {
-        SparseGridModel<T> clone = new SparseGridModel<>(structure, defaultEntity);
-        clone.data.putAll(data);
+        int[] clonePageOwners = new int[pages.length];
+        Arrays.fill(clonePageOwners, -1);
+        SparseGridModel<T> clone = new SparseGridModel<>(this, clonePageOwners);
+        releasePages();
+        if (freeCellIndex != null) {
+            clone.freeCellIndex = freeCellIndex.copy();
+        }
         return clone;
     }
 
     @Override
     public SparseGridModel<T> copyWithDefaultEntity() {
-        return new SparseGridModel<>(structure, defaultEntity);
+        SparseGridModel<T> clone = new SparseGridModel<>(structure, defaultEntity);
+        if (freeCellIndex != null) {
+            clone.enableFreeCellIndex();
+        }
+        return clone;
     }
 
     @Override
@@ -276,11 +508,15 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        if (entity.equals(defaultEntity)) {
-            data.remove(coordinate);
-        } else {
-            data.put(coordinate, entity);
+        setEntityUnchecked(structure.indexOf(coordinate), entity);
+    }
+
+    @Override
+    public void setEntity(int index, T entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
         }
+        setEntityUnchecked(index, entity);
     }
 
     @Override
@@ -288,53 +524,73 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         if (!structure.isCoordinateValid(coordinate)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
         }
-        data.remove(coordinate);
+        int index = structure.indexOf(coordinate);
+        removeEntry(index);
+        updateFreeCell(index, true);
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        removeEntry(index);
+        updateFreeCell(index, true);
+        recordChange(index);
     }
 
     @Override
     public void fill(T entity) {
-        data.clear();
+        clearEntries();
         if (!entity.equals(defaultEntity)) {
-            structure.coordinatesStream().forEach(coordinate -> data.put(coordinate, entity));
+            int area = structure.size().area();
+            for (int index = 0; index < area; index++) {
+                putEntry(index, entity);
+            }
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
     public void fill(Supplier<T> supplier) {
-        // Inline nested loop avoids the intermediate ArrayList created by coordinatesList().
-        data.clear();
-        int width = structure.size().width();
-        int height = structure.size().height();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                T entity = supplier.get();
-                if (!entity.equals(defaultEntity)) {
-                    data.put(new GridCoordinate(x, y), entity);
-                }
+        // Index loop avoids the intermediate ArrayList created by coordinatesList().
+        clearEntries();
+        int area = structure.size().area();
+        for (int index = 0; index < area; index++) {
+            T entity = supplier.get();
+            if (!entity.equals(defaultEntity)) {
+                putEntry(index, entity);
             }
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
     public void fill(Function<GridCoordinate, T> mapper) {
         // Inline nested loop avoids the intermediate ArrayList created by coordinatesList().
-        data.clear();
+        clearEntries();
         int width = structure.size().width();
         int height = structure.size().height();
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                GridCoordinate coordinate = new GridCoordinate(x, y);
-                T entity = mapper.apply(coordinate);
+                T entity = mapper.apply(new GridCoordinate(x, y));
                 if (!entity.equals(defaultEntity)) {
-                    data.put(coordinate, entity);
+                    putEntry(structure.indexOf(x, y), entity);
                 }
             }
         }
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
     public void clear() {
-        data.clear();
+        clearEntries();
+        recordAllChanged();
+        rebuildFreeCellIndex();
     }
 
     @Override
@@ -347,20 +603,88 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         if (!structure.isCoordinateValid(coordinateB)) {
             throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
         }
-        T entityA = cellA.entity();
-        T entityB = cellB.entity();
+        setEntityUnchecked(structure.indexOf(coordinateA), cellB.entity());
+        setEntityUnchecked(structure.indexOf(coordinateB), cellA.entity());
+    }
 
-        if (entityB.equals(defaultEntity)) {
-            data.remove(coordinateA);
-        } else {
-            data.put(coordinateA, entityB);
+    /**
+     * Returns the entity at the given (already validated) index, or the default entity if there is no entry.
+     */
+    private T entityAt(int index) {
+        T entity = entry(index);
+        return (entity != null) ? entity : defaultEntity;
+    }
+
+    /**
+     * Returns the entity stored at the given (already validated) index, or {@code null} if there is no entry.
+     */
+    private @Nullable T entry(int index) {
+        CellIndexTable<T> page = pages[index >>> PAGE_SHIFT];
+        return (page != null) ? page.get(index) : null;
+    }
+
+    private boolean containsEntry(int index) {
+        CellIndexTable<T> page = pages[index >>> PAGE_SHIFT];
+        return (page != null) && page.containsKey(index);
+    }
+
+    /**
+     * Returns the flat indices of all entries in ascending order. The array is cached and must not be modified.
+     */
+    private int[] sortedKeys() {
+        int[] result = sortedKeys;
+        if (result == null) {
+            // The pages cover ascending key ranges, so their sorted keys are concatenated.
+            result = new int[size];
+            int count = 0;
+            for (CellIndexTable<T> page : pages) {
+                if ((page != null) && !page.isEmpty()) {
+                    int[] pageKeys = page.sortedKeys();
+                    System.arraycopy(pageKeys, 0, result, count, pageKeys.length);
+                    count += pageKeys.length;
+                }
+            }
+            sortedKeys = result;
         }
+        return result;
+    }
 
-        if (entityA.equals(defaultEntity)) {
-            data.remove(coordinateB);
+    /**
+     * Stores the entity at the given (already validated) index, removing the entry if it is the default entity.
+     */
+    private void setEntityUnchecked(int index, T entity) {
+        boolean isDefault = entity.equals(defaultEntity);
+        if (isDefault) {
+            removeEntry(index);
         } else {
-            data.put(coordinateB, entityA);
+            putEntry(index, entity);
         }
+        updateFreeCell(index, isDefault);
+        recordChange(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the page directory and all pages. Only the directory and the pages written
+     * after the snapshot are duplicated.
+     */
+    @Override
+    public GridModelSnapshot<T> snapshot() {
+        GridModelSnapshot<T> snapshot = new GridModelSnapshot<>(new SparseGridModel<>(this, pageOwners));
+        releasePages();
+        return snapshot;
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
     }
 
     @Override
@@ -368,8 +692,112 @@ public final class SparseGridModel<T extends GridEntity> implements WritableGrid
         return "SparseGridModel{" +
                 "structure=" + structure +
                 ", defaultEntity=" + defaultEntity +
-                ", data.size()=" + data.size() +
+                ", size=" + size +
                 '}';
     }
 
+    /**
+     * Stores a non-default entity at the given (already validated) index.
+     */
+    private void putEntry(int index, T entity) {
+        CellIndexTable<T> page = writablePage(index >>> PAGE_SHIFT);
+        int pageSize = page.size();
+        page.put(index, entity);
+        if (page.size() != pageSize) {
+            size++;
+            sortedKeys = null;
+        }
+    }
+
+    /**
+     * Removes the entry at the given (already validated) index. A page without this entry is not duplicated.
+     */
+    private void removeEntry(int index) {
+        if (containsEntry(index)) {
+            writablePage(index >>> PAGE_SHIFT).remove(index);
+            size--;
+            sortedKeys = null;
+        }
+    }
+
+    /**
+     * Removes all entries by replacing the page directory, so shared pages are neither copied nor changed.
+     */
+    private void clearEntries() {
+        pages = newDirectory(structure.cellCount());
+        directoryShared = false;
+        size = 0;
+        sortedKeys = null;
+    }
+
+    /**
+     * Returns the page for a write, creating it if it does not exist and duplicating it first if it is shared.
+     */
+    private CellIndexTable<T> writablePage(int pageIndex) {
+        if (directoryShared) {
+            pages = pages.clone();
+            directoryShared = false;
+        }
+        CellIndexTable<T> page = pages[pageIndex];
+        if (page == null) {
+            page = new CellIndexTable<>();
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        } else if (pageOwners[pageIndex] != ownerGeneration) {
+            CellIndexTable<T> exclusivePage = new CellIndexTable<>();
+            exclusivePage.copyFrom(page);
+            page = exclusivePage;
+            pages[pageIndex] = page;
+            pageOwners[pageIndex] = ownerGeneration;
+        }
+        return page;
+    }
+
+    /**
+     * Gives up the directory and all pages after sharing them, so they are duplicated before they are written.
+     */
+    private void releasePages() {
+        directoryShared = true;
+        ownerGeneration++;
+        if (ownerGeneration == 0) {
+            // The generation counter wrapped around; mark all pages as foreign once.
+            Arrays.fill(pageOwners, -1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> @Nullable CellIndexTable<T>[] newDirectory(int cellCount) {
+        return (CellIndexTable<T>[]) new CellIndexTable<?>[(cellCount + PAGE_SIZE - 1) >>> PAGE_SHIFT];
+    }
+
+    private void updateFreeCell(int index, boolean free) {
+        if (freeCellIndex != null) {
+            freeCellIndex.update(index, free);
+        }
+    }
+
+    /**
+     * Rebuilds the index of default cells after a bulk write.
+     */
+    private void rebuildFreeCellIndex() {
+        if (freeCellIndex != null) {
+            freeCellIndex.markAllFree();
+            for (int index : nonDefaultIndices()) {
+                freeCellIndex.update(index, false);
+            }
+        }
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
 }
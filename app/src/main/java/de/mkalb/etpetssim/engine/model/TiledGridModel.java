@@ -0,0 +1,602 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An implementation of {@link WritableGridModel} that splits the grid into square tiles of
+ * {@value #TILE_SIZE} × {@value #TILE_SIZE} cells. Efficient for very large grids whose non-default
+ * entities are clustered in a few regions.
+ * <p>
+ * A tile is allocated as a dense array only when a non-default entity is written into it, and released again
+ * when its last non-default entity is reset to the default entity. Unallocated tiles hold the default entity.
+ * Memory therefore scales with the number of occupied tiles instead of the grid area, while access inside an
+ * occupied tile costs a single array dereference. Cells of edge tiles that lie outside the grid always hold
+ * the default entity.
+ * <p>
+ * All methods that return or visit cells, coordinates or indices do so in row-major order.
+ * <p>
+ * {@link #snapshot()} shares the tiles with the snapshot. After a snapshot, the tile directory is
+ * duplicated on the first write and each tile is duplicated on the first write into it, so only
+ * the tiles written after the snapshot are copied.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
+ */
+public final class TiledGridModel<T extends GridEntity> implements WritableGridModel<T> {
+
+    /**
+     * The edge length of a tile in cells.
+     */
+    public static final int TILE_SIZE = 64;
+
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    private static final int TILE_AREA = TILE_SIZE * TILE_SIZE;
+
+    /**
+     * Maximum number of random probes attempted in phase 1 of {@link #findRandomDefaultCoordinate(Random)}
+     * before falling back to the guaranteed linear scan in phase 2.
+     */
+    private static final int MAX_RANDOM_DEFAULT_SAMPLING_ATTEMPTS = 64;
+
+    /**
+     * The structure describing the grid's dimensions and valid coordinates.
+     */
+    private final GridStructure structure;
+
+    /**
+     * The default entity for all grid cells.
+     */
+    private final T defaultEntity;
+
+    /**
+     * The number of tile columns.
+     */
+    private final int tilesX;
+
+    /**
+     * The tiles in row-major tile order; {@code null} for a tile that holds only default entities.
+     * Each allocated tile stores its cells in row-major order.
+     * The directory and its tiles may be shared with snapshots (see {@link #directoryShared} and {@link #tileOwners}).
+     */
+    private Object[] @Nullable [] tiles;
+
+    /**
+     * The number of non-default entities per tile. Shared with snapshots together with {@link #tiles}.
+     */
+    private int[] tileCounts;
+
+    /**
+     * Whether {@link #tiles} and {@link #tileCounts} are shared with a snapshot and must be duplicated
+     * before the next write.
+     */
+    private boolean directoryShared;
+
+    /**
+     * The owner generation of each tile. A tile may be written in place only if its owner generation
+     * equals {@link #ownerGeneration}; otherwise it is shared with a snapshot and duplicated first.
+     */
+    private final int[] tileOwners;
+
+    /**
+     * The current owner generation, incremented by every snapshot.
+     */
+    private int ownerGeneration;
+
+    /**
+     * The total number of non-default entities.
+     */
+    private int nonDefaultCount;
+
+    /**
+     * The attached change journal, or {@code null} if writes are not recorded.
+     */
+    private @Nullable GridChangeJournal changeJournal;
+
+    /**
+     * Constructs a new {@code TiledGridModel} with the given structure and default entity.
+     * All cells are initialized to the default entity and no tile is allocated.
+     *
+     * @param structure     the grid structure
+     * @param defaultEntity the default entity for all cells
+     */
+    public TiledGridModel(GridStructure structure, T defaultEntity) {
+        this.structure = structure;
+        this.defaultEntity = defaultEntity;
+        tilesX = (structure.size().width() + TILE_MASK) >>> TILE_SHIFT;
+        int tilesY = (structure.size().height() + TILE_MASK) >>> TILE_SHIFT;
+        tiles = new Object[tilesX * tilesY][];
+        tileCounts = new int[tiles.length];
+        tileOwners = new int[tiles.length];
+    }
+
+    /**
+     * Constructs a new {@code TiledGridModel} that shares the tiles of the given model with a snapshot.
+     * The returned instance is never written, so it does not need its own tile owners.
+     */
+    private TiledGridModel(TiledGridModel<T> source) {
+        structure = source.structure;
+        defaultEntity = source.defaultEntity;
+        tilesX = source.tilesX;
+        tiles = source.tiles;
+        tileCounts = source.tileCounts;
+        nonDefaultCount = source.nonDefaultCount;
+        directoryShared = true;
+        tileOwners = source.tileOwners;
+    }
+
+    @Override
+    public GridStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public T defaultEntity() {
+        return defaultEntity;
+    }
+
+    /**
+     * Returns the number of currently allocated tiles.
+     *
+     * @return the number of allocated tiles
+     */
+    public int allocatedTileCount() {
+        int count = 0;
+        for (Object @Nullable [] tile : tiles) {
+            if (tile != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public T getEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return entityAt(coordinate.x(), coordinate.y());
+    }
+
+    @Override
+    public boolean isDefaultEntity(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return isDefaultAt(coordinate.x(), coordinate.y());
+    }
+
+    @Override
+    public T getEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return entityAt(structure.xOf(index), structure.yOf(index));
+    }
+
+    @Override
+    public boolean isDefaultEntity(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        return isDefaultAt(structure.xOf(index), structure.yOf(index));
+    }
+
+    @Override
+    public boolean isSparse() {
+        return true;
+    }
+
+    @Override
+    public long countEntities(Predicate<? super T> predicate) {
+        // Only allocated tiles are scanned; all other cells hold the default entity.
+        long count = 0;
+        for (Object @Nullable [] tile : tiles) {
+            if (tile != null) {
+                for (Object element : tile) {
+                    @SuppressWarnings("unchecked")
+                    T entity = (T) element;
+                    if (!entity.equals(defaultEntity) && predicate.test(entity)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        if (predicate.test(defaultEntity)) {
+            count += (long) structure.size().area() - nonDefaultCount;
+        }
+        return count;
+    }
+
+    @Override
+    public Set<GridCoordinate> nonDefaultCoordinates() {
+        Set<GridCoordinate> result = HashSet.newHashSet(nonDefaultCount);
+        forEachNonDefault((x, y, _) -> result.add(new GridCoordinate(x, y)));
+        return result;
+    }
+
+    @Override
+    public int[] nonDefaultIndices() {
+        int[] result = new int[nonDefaultCount];
+        int[] count = {0};
+        forEachNonDefault((x, y, _) -> result[count[0]++] = structure.indexOf(x, y));
+        return result;
+    }
+
+    @Override
+    public int[] filteredIndices(Predicate<T> entityPredicate) {
+        int[] buffer = new int[entityPredicate.test(defaultEntity) ? structure.size().area() : nonDefaultCount];
+        int[] count = {0};
+        forEachMatching(entityPredicate, (x, y, _) -> buffer[count[0]++] = structure.indexOf(x, y));
+        return Arrays.copyOf(buffer, count[0]);
+    }
+
+    @Override
+    public List<GridCoordinate> filteredCoordinates(Predicate<T> entityPredicate) {
+        List<GridCoordinate> result = new ArrayList<>();
+        forEachMatching(entityPredicate, (x, y, _) -> result.add(new GridCoordinate(x, y)));
+        return result;
+    }
+
+    @Override
+    public Optional<GridCoordinate> findRandomDefaultCoordinate(Random random) {
+        int area = structure.size().area();
+        if (nonDefaultCount >= area) {
+            return Optional.empty();
+        }
+
+        int width = structure.size().width();
+        int height = structure.size().height();
+
+        // Phase 1 – random sampling: succeeds quickly when the grid is sparsely populated.
+        int maxAttempts = Math.min(area, MAX_RANDOM_DEFAULT_SAMPLING_ATTEMPTS);
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (isDefaultAt(x, y)) {
+                return Optional.of(new GridCoordinate(x, y));
+            }
+        }
+
+        // Phase 2 – linear fallback: scan the full grid from a random start position.
+        int startIndex = random.nextInt(area);
+        for (int offset = 0; offset < area; offset++) {
+            int index = (startIndex + offset) % area;
+            if (isDefaultAt(structure.xOf(index), structure.yOf(index))) {
+                return Optional.of(structure.coordinateOf(index));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void forEachCell(CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            int tileRow = (y >>> TILE_SHIFT) * tilesX;
+            int rowOffset = (y & TILE_MASK) << TILE_SHIFT;
+            for (int x = 0; x < width; x++) {
+                Object @Nullable [] tile = tiles[tileRow + (x >>> TILE_SHIFT)];
+                @SuppressWarnings("unchecked")
+                T entity = (tile == null) ? defaultEntity : (T) tile[rowOffset + (x & TILE_MASK)];
+                visitor.visit(x, y, entity);
+            }
+        }
+    }
+
+    @Override
+    public void forEachNonDefault(CellVisitor<? super T> visitor) {
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            int tileRow = (y >>> TILE_SHIFT) * tilesX;
+            int rowOffset = (y & TILE_MASK) << TILE_SHIFT;
+            for (int tx = 0; tx < tilesX; tx++) {
+                Object @Nullable [] tile = tiles[tileRow + tx];
+                if (tile == null) {
+                    continue;
+                }
+                int baseX = tx << TILE_SHIFT;
+                int tileWidth = Math.min(TILE_SIZE, width - baseX);
+                for (int dx = 0; dx < tileWidth; dx++) {
+                    @SuppressWarnings("unchecked")
+                    T entity = (T) tile[rowOffset + dx];
+                    if (!entity.equals(defaultEntity)) {
+                        visitor.visit(baseX + dx, y, entity);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachMatching(Predicate<? super T> entityPredicate, CellVisitor<? super T> visitor) {
+        if (entityPredicate.test(defaultEntity)) {
+            // Default matches: all cells must be visited; non-default cells are tested.
+            // Default cells always hold the defaultEntity reference itself (see setEntityUnchecked).
+            forEachCell((x, y, entity) -> {
+                if ((entity == defaultEntity) || entityPredicate.test(entity)) {
+                    visitor.visit(x, y, entity);
+                }
+            });
+        } else {
+            forEachNonDefault((x, y, entity) -> {
+                if (entityPredicate.test(entity)) {
+                    visitor.visit(x, y, entity);
+                }
+            });
+        }
+    }
+
+    @Override
+    public List<GridCell<T>> allCells() {
+        List<GridCell<T>> result = new ArrayList<>(structure.size().area());
+        forEachCell((x, y, entity) -> result.add(new GridCell<>(new GridCoordinate(x, y), entity)));
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> nonDefaultCells() {
+        List<GridCell<T>> result = new ArrayList<>(nonDefaultCount);
+        forEachNonDefault((x, y, entity) -> result.add(new GridCell<>(new GridCoordinate(x, y), entity)));
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCells(Predicate<T> entityPredicate) {
+        List<GridCell<T>> result = new ArrayList<>();
+        forEachMatching(entityPredicate, (x, y, entity) -> result.add(new GridCell<>(new GridCoordinate(x, y), entity)));
+        return result;
+    }
+
+    @Override
+    public List<GridCell<T>> filteredCellsSortedBy(Predicate<T> entityPredicate, Comparator<GridCell<T>> cellOrdering) {
+        List<GridCell<T>> result = filteredCells(entityPredicate);
+        result.sort(cellOrdering);
+        return result;
+    }
+
+    @Override
+    public TiledGridModel<T> copy() {
+        TiledGridModel<T> clone = new TiledGridModel<>(structure, defaultEntity);
+        for (int t = 0; t < tiles.length; t++) {
+            if (tiles[t] != null) {
+                clone.tiles[t] = tiles[t].clone();
+            }
+        }
+        System.arraycopy(tileCounts, 0, clone.tileCounts, 0, tileCounts.length);
+        clone.nonDefaultCount = nonDefaultCount;
+        return clone;
+    }
+
+    @Override
+    public TiledGridModel<T> copyWithDefaultEntity() {
+        return new TiledGridModel<>(structure, defaultEntity);
+    }
+
+    @Override
+    public void setEntity(GridCoordinate coordinate, T entity) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setEntityUnchecked(coordinate.x(), coordinate.y(), entity);
+        recordChange(structure.indexOf(coordinate));
+    }
+
+    @Override
+    public void setEntity(int index, T entity) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setEntityUnchecked(structure.xOf(index), structure.yOf(index), entity);
+        recordChange(index);
+    }
+
+    @Override
+    public void setEntityToDefault(GridCoordinate coordinate) {
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        setEntityUnchecked(coordinate.x(), coordinate.y(), defaultEntity);
+        recordChange(structure.indexOf(coordinate));
+    }
+
+    @Override
+    public void setEntityToDefault(int index) {
+        if (!structure.isIndexValid(index)) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + " for structure: " + structure);
+        }
+        setEntityUnchecked(structure.xOf(index), structure.yOf(index), defaultEntity);
+        recordChange(index);
+    }
+
+    @Override
+    public void fill(T entity) {
+        clear();
+        if (!entity.equals(defaultEntity)) {
+            fill((Supplier<T>) () -> entity);
+        }
+    }
+
+    @Override
+    public void fill(Supplier<T> supplier) {
+        clear();
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                setEntityUnchecked(x, y, supplier.get());
+            }
+        }
+    }
+
+    @Override
+    public void fill(Function<GridCoordinate, T> mapper) {
+        clear();
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                setEntityUnchecked(x, y, mapper.apply(new GridCoordinate(x, y)));
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (directoryShared) {
+            tiles = new Object[tiles.length][];
+            tileCounts = new int[tileCounts.length];
+            directoryShared = false;
+        } else {
+            Arrays.fill(tiles, null);
+            Arrays.fill(tileCounts, 0);
+        }
+        nonDefaultCount = 0;
+        recordAllChanged();
+    }
+
+    @Override
+    public void swapInputCellEntities(GridCell<T> cellA, GridCell<T> cellB) {
+        GridCoordinate coordinateA = cellA.coordinate();
+        GridCoordinate coordinateB = cellB.coordinate();
+        if (!structure.isCoordinateValid(coordinateA)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateA + " for structure: " + structure);
+        }
+        if (!structure.isCoordinateValid(coordinateB)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinateB + " for structure: " + structure);
+        }
+        setEntityUnchecked(coordinateA.x(), coordinateA.y(), cellB.entity());
+        setEntityUnchecked(coordinateB.x(), coordinateB.y(), cellA.entity());
+        recordChange(structure.indexOf(coordinateA));
+        recordChange(structure.indexOf(coordinateB));
+    }
+
+    private int tileIndex(int x, int y) {
+        return ((y >>> TILE_SHIFT) * tilesX) + (x >>> TILE_SHIFT);
+    }
+
+    private static int offsetInTile(int x, int y) {
+        return ((y & TILE_MASK) << TILE_SHIFT) + (x & TILE_MASK);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T entityAt(int x, int y) {
+        Object @Nullable [] tile = tiles[tileIndex(x, y)];
+        return (tile == null) ? defaultEntity : (T) tile[offsetInTile(x, y)];
+    }
+
+    private boolean isDefaultAt(int x, int y) {
+        Object @Nullable [] tile = tiles[tileIndex(x, y)];
+        return (tile == null) || tile[offsetInTile(x, y)].equals(defaultEntity);
+    }
+
+    /**
+     * Stores the entity at the given (already validated) position, allocating the tile on the first
+     * non-default write and releasing it when its last non-default entity is removed.
+     */
+    private void setEntityUnchecked(int x, int y, T entity) {
+        int t = tileIndex(x, y);
+        Object @Nullable [] tile = tiles[t];
+        boolean newIsDefault = entity.equals(defaultEntity);
+        if (tile == null) {
+            if (newIsDefault) {
+                return;
+            }
+            prepareDirectory();
+            tile = new Object[TILE_AREA];
+            Arrays.fill(tile, defaultEntity);
+            tiles[t] = tile;
+            tileOwners[t] = ownerGeneration;
+        } else {
+            prepareDirectory();
+            if (tileOwners[t] != ownerGeneration) {
+                tile = tile.clone();
+                tiles[t] = tile;
+                tileOwners[t] = ownerGeneration;
+            }
+        }
+        int offset = offsetInTile(x, y);
+        boolean oldIsDefault = tile[offset].equals(defaultEntity);
+        tile[offset] = newIsDefault ? defaultEntity : entity;
+        if (oldIsDefault && !newIsDefault) {
+            tileCounts[t]++;
+            nonDefaultCount++;
+        } else if (!oldIsDefault && newIsDefault) {
+            tileCounts[t]--;
+            nonDefaultCount--;
+            if (tileCounts[t] == 0) {
+                tiles[t] = null;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot shares the tile directory and all tiles. Only the directory and the tiles written
+     * after the snapshot are duplicated.
+     */
+    @Override
+    public GridModelSnapshot<T> snapshot() {
+        GridModelSnapshot<T> snapshot = new GridModelSnapshot<>(new TiledGridModel<>(this));
+        directoryShared = true;
+        ownerGeneration++;
+        if (ownerGeneration == 0) {
+            // The generation counter wrapped around; mark all tiles as foreign once.
+            Arrays.fill(tileOwners, -1);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public @Nullable GridChangeJournal changeJournal() {
+        return changeJournal;
+    }
+
+    @Override
+    public void setChangeJournal(@Nullable GridChangeJournal journal) {
+        GridChangeJournal.checkCompatible(journal, structure);
+        changeJournal = journal;
+    }
+
+    @Override
+    public String toString() {
+        return "TiledGridModel{" +
+                "structure=" + structure +
+                ", defaultEntity=" + defaultEntity +
+                ", tiles.length=" + tiles.length +
+                ", nonDefaultCount=" + nonDefaultCount +
+                '}';
+    }
+
+    /**
+     * Duplicates the tile directory and the tile counts before a write if they are shared with a snapshot.
+     */
+    private void prepareDirectory() {
+        if (directoryShared) {
+            tiles = tiles.clone();
+            tileCounts = tileCounts.clone();
+            directoryShared = false;
+        }
+    }
+
+    private void recordChange(int index) {
+        if (changeJournal != null) {
+            changeJournal.record(index);
+        }
+    }
+
+    private void recordAllChanged() {
+        if (changeJournal != null) {
+            changeJournal.recordAll();
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package de.mkalb.etpetssim.engine.model;
 
 import de.mkalb.etpetssim.engine.GridCoordinate;
 import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.jspecify.annotations.Nullable;
 
 import java.util.function.*;
 
@@ -15,7 +16,8 @@ import java.util.function.*;
  * @param <T> the type of entities stored in the grid, must implement {@link de.mkalb.etpetssim.engine.model.entity.GridEntity}
  */
 public sealed interface WritableGridModel<T extends GridEntity> extends ReadableGridModel<T>
-        permits ArrayGridModel, SparseGridModel {
+        permits AdaptiveGridModel, ArrayGridModel, BitGridModel, EnumGridModel, FusedLayerGridModel, SparseGridModel,
+        TiledGridModel {
 
     /**
      * Creates a copy of this grid model, including the current grid state.
@@ -27,6 +29,17 @@ public sealed interface WritableGridModel<T extends GridEntity> extends Readable
      */
     WritableGridModel<T> copy();
 
+    /**
+     * Returns an immutable point-in-time view of this grid model.
+     * <p>
+     * Creating a snapshot does not copy any cells. The snapshot shares its storage with this model,
+     * and this model duplicates a shared page before the first write to it (copy-on-write), so later
+     * writes never become visible in the snapshot. The page size depends on the concrete model.
+     *
+     * @return an immutable snapshot of the current grid state
+     */
+    GridModelSnapshot<T> snapshot();
+
     /**
      * Creates a copy of this grid model with all entities set to the default entity.
      *
@@ -43,6 +56,18 @@ public sealed interface WritableGridModel<T extends GridEntity> extends Readable
      */
     void setEntity(GridCoordinate coordinate, T entity);
 
+    /**
+     * Sets the entity at the specified flat cell index.
+     * <p>
+     * The index is defined by {@link de.mkalb.etpetssim.engine.GridStructure#indexOf(int, int)} (row-major order).
+     * This is the allocation-free counterpart of {@link #setEntity(GridCoordinate, GridEntity)}.
+     *
+     * @param index  the flat cell index
+     * @param entity the entity to set
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    void setEntity(int index, T entity);
+
     /**
      * Sets the entity in the grid using a {@link GridCell}.
      * <p>
@@ -64,6 +89,14 @@ public sealed interface WritableGridModel<T extends GridEntity> extends Readable
      */
     void setEntityToDefault(GridCoordinate coordinate);
 
+    /**
+     * Sets the entity at the specified flat cell index to the default entity.
+     *
+     * @param index the flat cell index
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    void setEntityToDefault(int index);
+
     /**
      * Sets all grid cells to the specified entity.
      *
@@ -106,4 +139,73 @@ public sealed interface WritableGridModel<T extends GridEntity> extends Readable
      */
     void swapInputCellEntities(GridCell<T> cellA, GridCell<T> cellB);
 
+    /**
+     * Returns the change journal attached to this model.
+     *
+     * @return the attached change journal, or {@code null} if no journal is attached
+     */
+    @Nullable GridChangeJournal changeJournal();
+
+    /**
+     * Attaches a change journal that records the flat cell indices written to this model,
+     * or detaches the current journal if {@code null} is passed.
+     * <p>
+     * Every write is recorded, even if it stores the entity that was already present.
+     * Bulk operations ({@code fill} and {@link #clear()}) mark the whole grid as changed.
+     * Copies created by {@link #copy()} and {@link #copyWithDefaultEntity()} have no journal attached.
+     * Replacing or detaching the journal also detaches the journals chained to it.
+     *
+     * @param journal the change journal to attach, or {@code null} to detach
+     * @throws IllegalArgumentException if the journal does not cover the same number of cells as this model
+     */
+    void setChangeJournal(@Nullable GridChangeJournal journal);
+
+    /**
+     * Attaches a change journal in addition to an already attached one.
+     * <p>
+     * If no journal is attached, the journal is attached with {@link #setChangeJournal(GridChangeJournal)};
+     * otherwise it is appended with {@link GridChangeJournal#chain(GridChangeJournal)} to the attached journal.
+     * Consumers such as indexes use this method, so that several of them can observe the same model.
+     *
+     * @param journal the change journal to attach; must not be chained yet
+     * @throws IllegalArgumentException if the journal does not cover the same number of cells as this model
+     *                                  or cannot be chained
+     */
+    default void attachChangeJournal(GridChangeJournal journal) {
+        GridChangeJournal attachedJournal = changeJournal();
+        if (attachedJournal == null) {
+            setChangeJournal(journal);
+        } else {
+            attachedJournal.chain(journal);
+        }
+    }
+
+    /**
+     * Prepares this model for concurrent writes to disjoint row bands and returns whether they are supported.
+     * <p>
+     * If {@code true} is returned, {@link #setEntity(int, GridEntity)} and {@link #setEntityToDefault(int)} may be
+     * called from several threads at the same time, as long as no two threads write to the same row
+     * and no other method is called until {@link #endConcurrentRowBandWrites()}.
+     * The same applies to the coordinate variants of these methods and to {@code getEntity},
+     * as long as no thread reads a row written by another thread.
+     * If {@code false} is returned, the model must be written by a single thread as usual.
+     * <p>
+     * The default implementation does not support concurrent writes.
+     *
+     * @return {@code true} if concurrent writes to disjoint row bands are supported
+     * @see #endConcurrentRowBandWrites()
+     */
+    default boolean beginConcurrentRowBandWrites() {
+        return false;
+    }
+
+    /**
+     * Ends concurrent writes to disjoint row bands started by {@link #beginConcurrentRowBandWrites()}.
+     * <p>
+     * Must be called by a single thread after all concurrent writes have completed,
+     * even if {@link #beginConcurrentRowBandWrites()} returned {@code false}.
+     */
+    default void endConcurrentRowBandWrites() {
+    }
+
 }
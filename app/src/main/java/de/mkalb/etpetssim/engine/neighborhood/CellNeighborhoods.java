@@ -3,7 +3,6 @@ package de.mkalb.etpetssim.engine.neighborhood;
 import de.mkalb.etpetssim.engine.*;
 
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -65,12 +64,52 @@ public final class CellNeighborhoods {
     public static final List<CompassDirection> HEXAGON_DIRECTION_RING =
             List.of(CompassDirection.N, CompassDirection.NE, CompassDirection.SE, CompassDirection.S, CompassDirection.SW, CompassDirection.NW);
 
-    private static final int INITIAL_CACHE_CAPACITY = 32;
+    /**
+     * Number of distinct connection variants: 4 for triangles (mode and orientation),
+     * 2 for squares (mode) and 2 for hexagons (column offset).
+     */
+    static final int CONNECTION_VARIANT_COUNT = 8;
+
+    /**
+     * Precomputed neighbor connections, indexed by {@link #connectionVariant(int, int, NeighborhoodMode, CellShape)}.
+     */
+    private static final List<List<CellNeighborConnection>> CONNECTIONS;
 
     /**
-     * Internal cache for computed cell neighbor connections.
+     * Precomputed X-offsets of the neighbor connections, indexed like {@link #CONNECTIONS}.
      */
-    private static final Map<String, List<CellNeighborConnection>> CACHE = new ConcurrentHashMap<>(INITIAL_CACHE_CAPACITY);
+    private static final int[][] CONNECTION_DX;
+
+    /**
+     * Precomputed Y-offsets of the neighbor connections, indexed like {@link #CONNECTIONS}.
+     */
+    private static final int[][] CONNECTION_DY;
+
+    static {
+        List<List<CellNeighborConnection>> connections = new ArrayList<>(CONNECTION_VARIANT_COUNT);
+        for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+            connections.add(computeTriangleCellNeighborConnections(neighborhoodMode, false));
+            connections.add(computeTriangleCellNeighborConnections(neighborhoodMode, true));
+        }
+        for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+            connections.add(computeSquareCellNeighborConnections(neighborhoodMode));
+        }
+        connections.add(computeHexagonCellNeighborConnections(false));
+        connections.add(computeHexagonCellNeighborConnections(true));
+        CONNECTIONS = List.copyOf(connections);
+
+        CONNECTION_DX = new int[CONNECTION_VARIANT_COUNT][];
+        CONNECTION_DY = new int[CONNECTION_VARIANT_COUNT][];
+        for (int variant = 0; variant < CONNECTION_VARIANT_COUNT; variant++) {
+            List<CellNeighborConnection> variantConnections = CONNECTIONS.get(variant);
+            CONNECTION_DX[variant] = new int[variantConnections.size()];
+            CONNECTION_DY[variant] = new int[variantConnections.size()];
+            for (int i = 0; i < variantConnections.size(); i++) {
+                CONNECTION_DX[variant][i] = variantConnections.get(i).offset().dx();
+                CONNECTION_DY[variant][i] = variantConnections.get(i).offset().dy();
+            }
+        }
+    }
 
     /**
      * Private constructor to prevent instantiation.
@@ -307,6 +346,59 @@ public final class CellNeighborhoods {
         return Collections.unmodifiableCollection(bestResults.values());
     }
 
+    /**
+     * Visits all theoretical neighbors of a given cell with the grid's edge behavior applied, without allocating.
+     * <p>
+     * This is the allocation-free counterpart of {@link #neighborEdgeResults(GridCoordinate, NeighborhoodMode, GridStructure)}
+     * for grids too large for a {@link NeighborTable}. It visits the same mapped coordinates with the same actions:
+     * {@link EdgeBehaviorAction#WRAPPED} neighbors are visited with their wrapped coordinate,
+     * {@link EdgeBehaviorAction#BLOCKED} and {@link EdgeBehaviorAction#ABSORBED} neighbors with their original
+     * (out-of-bounds) coordinate. Because every grid side is at least {@link GridSize#MIN_SIZE} cells long and
+     * neighbor offsets are at most {@code 2} cells, no two neighbors map to the same coordinate, so no
+     * deduplication is needed. The neighbors are visited in the deterministic direction order of the connections.
+     * <p>
+     * If the start coordinate is not valid within the structure, no neighbor is visited.
+     *
+     * @param x                the x-coordinate of the cell whose neighbors are to be visited
+     * @param y                the y-coordinate of the cell whose neighbors are to be visited
+     * @param neighborhoodMode the neighborhood mode (edges only or edges and vertices)
+     * @param structure        the grid structure defining size and topology
+     * @param visitor          the visitor called once per neighbor
+     */
+    public static void forEachNeighbor(int x, int y,
+                                       NeighborhoodMode neighborhoodMode,
+                                       GridStructure structure,
+                                       NeighborVisitor visitor) {
+        if (!structure.isCoordinateValid(x, y)) {
+            return;
+        }
+        int width = structure.size().width();
+        int height = structure.size().height();
+        EdgeBehavior edgeBehaviorX = structure.edgeBehaviorX();
+        EdgeBehavior edgeBehaviorY = structure.edgeBehaviorY();
+        int variant = connectionVariant(x, y, neighborhoodMode, structure.cellShape());
+        int[] dxs = CONNECTION_DX[variant];
+        int[] dys = CONNECTION_DY[variant];
+        for (int i = 0; i < dxs.length; i++) {
+            int neighborX = x + dxs[i];
+            int neighborY = y + dys[i];
+            boolean outX = (neighborX < 0) || (neighborX >= width);
+            boolean outY = (neighborY < 0) || (neighborY >= height);
+            if (!outX && !outY) {
+                visitor.visit(neighborX, neighborY, EdgeBehaviorAction.VALID);
+            } else if ((outX && (edgeBehaviorX == EdgeBehavior.BLOCK)) || (outY && (edgeBehaviorY == EdgeBehavior.BLOCK))) {
+                visitor.visit(neighborX, neighborY, EdgeBehaviorAction.BLOCKED);
+            } else if ((outX && (edgeBehaviorX == EdgeBehavior.ABSORB)) || (outY && (edgeBehaviorY == EdgeBehavior.ABSORB))) {
+                visitor.visit(neighborX, neighborY, EdgeBehaviorAction.ABSORBED);
+            } else {
+                // Offsets are smaller than the grid, so a single correction wraps the coordinate.
+                int wrappedX = outX ? ((neighborX < 0) ? (neighborX + width) : (neighborX - width)) : neighborX;
+                int wrappedY = outY ? ((neighborY < 0) ? (neighborY + height) : (neighborY - height)) : neighborY;
+                visitor.visit(wrappedX, wrappedY, EdgeBehaviorAction.WRAPPED);
+            }
+        }
+    }
+
     /**
      * Returns a stream of all theoretical neighbors for a given cell, based on the specified
      * neighborhood mode and cell shape, <b>ignoring grid boundaries and edge behavior</b>.
@@ -430,6 +522,9 @@ public final class CellNeighborhoods {
      * <p>
      * The returned outer map always contains all radius keys from {@code 0} up to and including {@code radius},
      * even if some higher rings are empty.
+     * <p>
+     * The rings are computed with a {@link RadiusRingBuffer}. Callers on hot paths should reuse a buffer
+     * directly instead of building the sorted maps.
      *
      * @param <C>              the generic cell value type created for each coordinate
      * @param startCoordinate  the coordinate of the center cell whose radius rings are to be determined
@@ -458,52 +553,24 @@ public final class CellNeighborhoods {
                     + startCoordinate.toDisplayString());
         }
 
-        SortedMap<Integer, SortedMap<GridCoordinate, RadiusRingCell<C>>> radiusRings = new TreeMap<>();
-        Set<GridCoordinate> visitedCoordinates = HashSet.newHashSet(1 + maxNeighborCount(structure.cellShape(), neighborhoodMode, radius));
-        Set<GridCoordinate> currentRingCoordinates = HashSet.newHashSet(1);
-
-        visitedCoordinates.add(startCoordinate);
-        currentRingCoordinates.add(startCoordinate);
-
-        SortedMap<GridCoordinate, RadiusRingCell<C>> ring0 = new TreeMap<>();
-        ring0.put(startCoordinate, new RadiusRingCell<>(0, startCoordinate, cellFactory.apply(startCoordinate), new TreeSet<>()));
-        radiusRings.put(0, Collections.unmodifiableSortedMap(ring0));
-
-        for (int currentRadius = 1; currentRadius <= radius; currentRadius++) {
-            SortedMap<GridCoordinate, SortedSet<GridCoordinate>> nextRingAccumulator = new TreeMap<>();
-
-            for (GridCoordinate currentCoordinate : currentRingCoordinates) {
-                for (EdgeBehaviorResult edgeBehaviorResult : neighborEdgeResults(currentCoordinate, neighborhoodMode, structure)) {
-                    if ((edgeBehaviorResult.action() != EdgeBehaviorAction.VALID)
-                            && (edgeBehaviorResult.action() != EdgeBehaviorAction.WRAPPED)) {
-                        continue;
-                    }
-
-                    GridCoordinate mappedCoordinate = edgeBehaviorResult.mapped();
-                    if (visitedCoordinates.contains(mappedCoordinate)) {
-                        continue;
-                    }
-
-                    nextRingAccumulator
-                            .computeIfAbsent(mappedCoordinate, _ -> new TreeSet<>())
-                            .add(currentCoordinate);
-                }
-            }
+        RadiusRingBuffer buffer = new RadiusRingBuffer();
+        buffer.fill(startCoordinate, neighborhoodMode, structure, radius);
 
+        SortedMap<Integer, SortedMap<GridCoordinate, RadiusRingCell<C>>> radiusRings = new TreeMap<>();
+        for (int ring = 0; ring <= radius; ring++) {
             SortedMap<GridCoordinate, RadiusRingCell<C>> currentRing = new TreeMap<>();
-            for (Map.Entry<GridCoordinate, SortedSet<GridCoordinate>> entry : nextRingAccumulator.entrySet()) {
-                GridCoordinate ringCoordinate = entry.getKey();
+            for (int position = buffer.ringStart(ring); position < buffer.ringEnd(ring); position++) {
+                GridCoordinate ringCoordinate = structure.coordinateOf(buffer.cellIndexAt(position));
+                SortedSet<GridCoordinate> reachedFromPreviousRing = new TreeSet<>();
+                for (int entry = buffer.predecessorStart(position); entry < buffer.predecessorEnd(position); entry++) {
+                    reachedFromPreviousRing.add(structure.coordinateOf(buffer.cellIndexAt(buffer.predecessorAt(entry))));
+                }
                 currentRing.put(ringCoordinate, new RadiusRingCell<>(
-                        currentRadius, ringCoordinate,
+                        ring, ringCoordinate,
                         cellFactory.apply(ringCoordinate),
-                        entry.getValue()));
+                        reachedFromPreviousRing));
             }
-
-            visitedCoordinates.addAll(currentRing.keySet());
-            currentRingCoordinates = HashSet.newHashSet(currentRing.size());
-            currentRingCoordinates.addAll(currentRing.keySet());
-
-            radiusRings.put(currentRadius, Collections.unmodifiableSortedMap(currentRing));
+            radiusRings.put(ring, Collections.unmodifiableSortedMap(currentRing));
         }
 
         return Collections.unmodifiableSortedMap(radiusRings);
@@ -574,7 +641,7 @@ public final class CellNeighborhoods {
      * and therefore does not perform any boundary checks or apply edge behavior. The returned
      * directions represent neighbors in an infinite grid. Note that {@code startCoordinate} is
      * relevant for triangle parity and hexagon Y-offsets but is effectively ignored for square cells
-     * (consistent with the cache key strategy).
+     * (consistent with the connection variants).
      *
      * @param startCoordinate  the coordinate of the cell whose neighbor directions are requested (not validated)
      * @param neighborhoodMode the neighborhood mode (edges only or edges and vertices)
@@ -592,10 +659,7 @@ public final class CellNeighborhoods {
     }
 
     /**
-     * Returns cached neighbor connection definitions for the specified configuration.
-     * <p>
-     * The cache key is generated by {@link #generateCacheKey(GridCoordinate, NeighborhoodMode, CellShape)}
-     * and includes only parity/offset information that affects the geometry.
+     * Returns the precomputed neighbor connection definitions for the specified configuration.
      *
      * @param startCoordinate  the source coordinate (used for parity/offset-dependent shapes)
      * @param neighborhoodMode the neighborhood mode to evaluate
@@ -605,30 +669,27 @@ public final class CellNeighborhoods {
     static List<CellNeighborConnection> getCellNeighborConnections(GridCoordinate startCoordinate,
                                                                    NeighborhoodMode neighborhoodMode,
                                                                    CellShape cellShape) {
-        return CACHE.computeIfAbsent(
-                generateCacheKey(startCoordinate, neighborhoodMode, cellShape),
-                _ -> computeCellNeighborConnections(startCoordinate, neighborhoodMode, cellShape));
+        return CONNECTIONS.get(connectionVariant(startCoordinate.x(), startCoordinate.y(), neighborhoodMode, cellShape));
     }
 
     /**
-     * Generates the cache key for a neighbor-connection configuration.
+     * Returns the index of the precomputed neighbor connections for a configuration.
      * <p>
-     * The key contains only shape-specific properties that influence adjacency:
-     * triangle orientation for triangles, no coordinate component for squares,
+     * The index depends only on the shape-specific properties that influence adjacency:
+     * neighborhood mode and triangle orientation for triangles, neighborhood mode for squares,
      * and column-based vertical offset for hexagons.
      *
-     * @param startCoordinate  the source coordinate (used only where relevant)
+     * @param x                the x-coordinate of the source cell (used only where relevant)
+     * @param y                the y-coordinate of the source cell (used only where relevant)
      * @param neighborhoodMode the neighborhood mode
      * @param cellShape        the cell shape
-     * @return a deterministic cache key for the given configuration
+     * @return the connection variant index, between {@code 0} (inclusive) and {@code 8} (exclusive)
      */
-    static String generateCacheKey(GridCoordinate startCoordinate,
-                                   NeighborhoodMode neighborhoodMode,
-                                   CellShape cellShape) {
+    static int connectionVariant(int x, int y, NeighborhoodMode neighborhoodMode, CellShape cellShape) {
         return switch (cellShape) {
-            case TRIANGLE -> cellShape + "::" + neighborhoodMode + "::" + startCoordinate.isTriangleCellPointingDown();
-            case SQUARE -> cellShape + "::" + neighborhoodMode;
-            case HEXAGON -> cellShape + "::" + startCoordinate.hasHexagonCellYOffset();
+            case TRIANGLE -> (neighborhoodMode.ordinal() * 2) + ((((x % 2) != 0) == ((y % 2) != 0)) ? 1 : 0);
+            case SQUARE -> 4 + neighborhoodMode.ordinal();
+            case HEXAGON -> 6 + (((x % 2) != 0) ? 1 : 0);
         };
     }
 
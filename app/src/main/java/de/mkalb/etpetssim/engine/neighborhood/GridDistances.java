@@ -0,0 +1,343 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+
+import java.util.function.*;
+
+/**
+ * Utility class for closed-form grid distances and ring enumeration, without breadth-first search.
+ * <p>
+ * The distance between two cells is the number of steps between direct neighbors
+ * (see {@link CellNeighborhoods#forEachNeighbor(int, int, NeighborhoodMode, GridStructure, NeighborVisitor)})
+ * on the shortest path within the grid. It equals the ring index computed by
+ * {@link CellNeighborhoods#cellsByRadiusRings} and {@link RadiusRingBuffer}.
+ * <p>
+ * Offset coordinates are converted into a coordinate system in which the distance is closed-form:
+ * <ul>
+ *   <li>Square: the coordinates themselves (Manhattan distance for edges only, Chebyshev distance for edges and vertices).</li>
+ *   <li>Hexagon: axial coordinates {@code q = x} and {@code r = y - (x - (x & 1)) / 2},
+ *       matching the layout where odd columns are shifted down. The distance is
+ *       {@code max(|dq|, |dr|, |dq + dr|)}.</li>
+ *   <li>Triangle: barycentric band coordinates {@code u = y}, {@code v = floor((x - y) / 2)} and
+ *       {@code w = -floor((x + y + 1) / 2)}, one per family of parallel grid lines. Their sum is {@code 0}
+ *       for triangles pointing down and {@code -1} for triangles pointing up. The distance is
+ *       {@code |du| + |dv| + |dw|} for edges only and {@code max(|du|, |dv|, |dw|)} for edges and vertices.</li>
+ * </ul>
+ * On wrapped axes the shortest way around is used. A single translation by the grid width or height
+ * is sufficient, because the grid dimensions on wrapped axes are multiples of the cell parity period.
+ * Blocked and absorbing edges do not lengthen shortest paths, because every shortest path of the
+ * infinite grid between two cells of the grid can be chosen to stay inside the grid.
+ *
+ * @see RadiusRingBuffer
+ */
+public final class GridDistances {
+
+    /**
+     * Axial direction offsets of the hexagon ring walk, each side of the ring following one direction.
+     */
+    private static final int[] HEXAGON_RING_DQ = {1, 1, 0, -1, -1, 0};
+    private static final int[] HEXAGON_RING_DR = {0, -1, -1, 0, 1, 1};
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private GridDistances() {
+    }
+
+    /**
+     * Returns the distance between two cells of the grid.
+     *
+     * @param from             the coordinate of the first cell
+     * @param to               the coordinate of the second cell
+     * @param neighborhoodMode the neighborhood mode (edges only or edges and vertices)
+     * @param structure        the grid structure defining size, cell shape, and edge behavior
+     * @return the number of steps between direct neighbors on a shortest path
+     * @throws IllegalArgumentException if one of the coordinates is not valid within the grid structure
+     */
+    public static int distance(GridCoordinate from,
+                               GridCoordinate to,
+                               NeighborhoodMode neighborhoodMode,
+                               GridStructure structure) {
+        return distance(from.x(), from.y(), to.x(), to.y(), neighborhoodMode, structure);
+    }
+
+    /**
+     * Returns the distance between two cells of the grid.
+     *
+     * @param fromX            the x-coordinate of the first cell
+     * @param fromY            the y-coordinate of the first cell
+     * @param toX              the x-coordinate of the second cell
+     * @param toY              the y-coordinate of the second cell
+     * @param neighborhoodMode the neighborhood mode (edges only or edges and vertices)
+     * @param structure        the grid structure defining size, cell shape, and edge behavior
+     * @return the number of steps between direct neighbors on a shortest path
+     * @throws IllegalArgumentException if one of the coordinates is not valid within the grid structure
+     */
+    public static int distance(int fromX, int fromY,
+                               int toX, int toY,
+                               NeighborhoodMode neighborhoodMode,
+                               GridStructure structure) {
+        if (!structure.isCoordinateValid(fromX, fromY)) {
+            throw new IllegalArgumentException("Coordinate must be valid within the grid structure, but was: ("
+                    + fromX + ", " + fromY + ")");
+        }
+        if (!structure.isCoordinateValid(toX, toY)) {
+            throw new IllegalArgumentException("Coordinate must be valid within the grid structure, but was: ("
+                    + toX + ", " + toY + ")");
+        }
+        CellShape cellShape = structure.cellShape();
+        int width = structure.size().width();
+        int height = structure.size().height();
+        int maxShiftX = (structure.edgeBehaviorX() == EdgeBehavior.WRAP) ? 1 : 0;
+        int maxShiftY = (structure.edgeBehaviorY() == EdgeBehavior.WRAP) ? 1 : 0;
+        int distance = Integer.MAX_VALUE;
+        for (int shiftX = -maxShiftX; shiftX <= maxShiftX; shiftX++) {
+            for (int shiftY = -maxShiftY; shiftY <= maxShiftY; shiftY++) {
+                distance = Math.min(distance, planeDistance(fromX, fromY,
+                        toX + (shiftX * width), toY + (shiftY * height), neighborhoodMode, cellShape));
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Calls the consumer with the cell index of every cell at exactly the given distance from the center.
+     * <p>
+     * The ring is enumerated directly from the closed-form coordinate system, so the work is proportional
+     * to the size of the ring in the infinite grid. Each cell is reported once, even if the ring wraps
+     * around the grid. The cells are equal to ring {@code distance} of {@link RadiusRingBuffer}, but the
+     * order is not specified.
+     *
+     * @param center            the coordinate of the center cell
+     * @param distance          the distance of the ring (non-negative)
+     * @param neighborhoodMode  the neighborhood mode (edges only or edges and vertices)
+     * @param structure         the grid structure defining size, cell shape, and edge behavior
+     * @param cellIndexConsumer the consumer receiving the cell indices (see {@link GridStructure#indexOf(int, int)})
+     * @throws IllegalArgumentException if the distance is negative or if the center is not valid within the grid structure
+     */
+    public static void forEachCellAtDistance(GridCoordinate center,
+                                             int distance,
+                                             NeighborhoodMode neighborhoodMode,
+                                             GridStructure structure,
+                                             IntConsumer cellIndexConsumer) {
+        if (distance < 0) {
+            throw new IllegalArgumentException("Distance must be greater than or equal to 0, but was: " + distance);
+        }
+        if (!structure.isCoordinateValid(center)) {
+            throw new IllegalArgumentException("Center coordinate must be valid within the grid structure, but was: "
+                    + center.toDisplayString());
+        }
+        if (distance == 0) {
+            cellIndexConsumer.accept(structure.indexOf(center));
+            return;
+        }
+        RingCandidateSink sink = new RingCandidateSink(center.x(), center.y(), neighborhoodMode, structure, cellIndexConsumer);
+        switch (structure.cellShape()) {
+            case SQUARE -> enumerateSquareRing(center.x(), center.y(), distance, neighborhoodMode, sink);
+            case HEXAGON -> enumerateHexagonRing(center.x(), center.y(), distance, sink);
+            case TRIANGLE -> enumerateTriangleRing(center.x(), center.y(), distance, neighborhoodMode, sink);
+        }
+    }
+
+    /**
+     * Returns the distance between two cells of the infinite grid.
+     */
+    private static int planeDistance(int fromX, int fromY,
+                                     int toX, int toY,
+                                     NeighborhoodMode neighborhoodMode,
+                                     CellShape cellShape) {
+        return switch (cellShape) {
+            case SQUARE -> {
+                int dx = Math.abs(toX - fromX);
+                int dy = Math.abs(toY - fromY);
+                yield (neighborhoodMode == NeighborhoodMode.EDGES_ONLY) ? (dx + dy) : Math.max(dx, dy);
+            }
+            case HEXAGON -> {
+                int dq = toX - fromX;
+                int dr = hexagonAxialR(toX, toY) - hexagonAxialR(fromX, fromY);
+                yield Math.max(Math.max(Math.abs(dq), Math.abs(dr)), Math.abs(dq + dr));
+            }
+            case TRIANGLE -> {
+                int du = Math.abs(toY - fromY);
+                int dv = Math.abs(triangleBandV(toX, toY) - triangleBandV(fromX, fromY));
+                int dw = Math.abs(triangleBandW(toX, toY) - triangleBandW(fromX, fromY));
+                yield (neighborhoodMode == NeighborhoodMode.EDGES_ONLY) ? (du + dv + dw) : Math.max(Math.max(du, dv), dw);
+            }
+        };
+    }
+
+    private static int hexagonAxialR(int x, int y) {
+        return y - ((x - (x & 1)) / 2);
+    }
+
+    private static int hexagonOffsetY(int q, int r) {
+        return r + ((q - (q & 1)) / 2);
+    }
+
+    private static int triangleBandV(int x, int y) {
+        return Math.floorDiv(x - y, 2);
+    }
+
+    private static int triangleBandW(int x, int y) {
+        return -Math.floorDiv(x + y + 1, 2);
+    }
+
+    private static void enumerateSquareRing(int centerX, int centerY, int distance,
+                                            NeighborhoodMode neighborhoodMode,
+                                            RingCandidateSink sink) {
+        if (neighborhoodMode == NeighborhoodMode.EDGES_ONLY) {
+            for (int i = 0; i < distance; i++) {
+                int j = distance - i;
+                sink.accept(centerX + j, centerY + i);
+                sink.accept(centerX - i, centerY + j);
+                sink.accept(centerX - j, centerY - i);
+                sink.accept(centerX + i, centerY - j);
+            }
+        } else {
+            for (int i = -distance; i < distance; i++) {
+                sink.accept(centerX + i, centerY - distance);
+                sink.accept(centerX + distance, centerY + i);
+                sink.accept(centerX - i, centerY + distance);
+                sink.accept(centerX - distance, centerY - i);
+            }
+        }
+    }
+
+    private static void enumerateHexagonRing(int centerX, int centerY, int distance,
+                                             RingCandidateSink sink) {
+        // Start at the corner in direction 4 and walk the six sides of the ring.
+        int q = centerX + (HEXAGON_RING_DQ[4] * distance);
+        int r = hexagonAxialR(centerX, centerY) + (HEXAGON_RING_DR[4] * distance);
+        for (int side = 0; side < HEXAGON_RING_DQ.length; side++) {
+            for (int step = 0; step < distance; step++) {
+                sink.accept(q, hexagonOffsetY(q, r));
+                q += HEXAGON_RING_DQ[side];
+                r += HEXAGON_RING_DR[side];
+            }
+        }
+    }
+
+    private static void enumerateTriangleRing(int centerX, int centerY, int distance,
+                                              NeighborhoodMode neighborhoodMode,
+                                              RingCandidateSink sink) {
+        int centerV = triangleBandV(centerX, centerY);
+        int centerSum = centerY + centerV + triangleBandW(centerX, centerY);
+        // Band sums are 0 (pointing down) or -1 (pointing up).
+        for (int targetSum = 0; targetSum >= -1; targetSum--) {
+            int sumDelta = targetSum - centerSum;
+            for (int du = -distance; du <= distance; du++) {
+                int y = centerY + du;
+                // dv + dw is fixed by the target orientation.
+                int p = sumDelta - du;
+                if (neighborhoodMode == NeighborhoodMode.EDGES_ONLY) {
+                    // |dv| + |dw| == m
+                    int m = distance - Math.abs(du);
+                    if ((Math.abs(p) > m) || (((m - p) % 2) != 0)) {
+                        continue;
+                    }
+                    if (Math.abs(p) == m) {
+                        int step = (p >= 0) ? 1 : -1;
+                        for (int dv = 0; dv != (p + step); dv += step) {
+                            sink.accept(triangleOffsetX(centerV + dv, y, targetSum), y);
+                        }
+                    } else {
+                        sink.accept(triangleOffsetX(centerV + ((p + m) / 2), y, targetSum), y);
+                        sink.accept(triangleOffsetX(centerV + ((p - m) / 2), y, targetSum), y);
+                    }
+                } else {
+                    // max(|du|, |dv|, |dw|) == distance
+                    int low = Math.max(-distance, p - distance);
+                    int high = Math.min(distance, p + distance);
+                    if (Math.abs(du) == distance) {
+                        for (int dv = low; dv <= high; dv++) {
+                            sink.accept(triangleOffsetX(centerV + dv, y, targetSum), y);
+                        }
+                    } else if (low <= high) {
+                        // Only the ends of the range reach the distance with dv or dw.
+                        sink.accept(triangleOffsetX(centerV + low, y, targetSum), y);
+                        if (high != low) {
+                            sink.accept(triangleOffsetX(centerV + high, y, targetSum), y);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int triangleOffsetX(int v, int y, int bandSum) {
+        return (2 * v) + y - bandSum;
+    }
+
+    /**
+     * Maps ring candidates of the infinite grid onto the grid and reports each cell once.
+     * <p>
+     * A candidate is reported only if it is the preferred translation of its cell, which is the first
+     * translation with minimal distance in the same order as {@link #distance(int, int, int, int, NeighborhoodMode, GridStructure)}.
+     * Candidates of other translations are either closer on another way around or duplicates.
+     */
+    private static final class RingCandidateSink {
+
+        private final int centerX;
+        private final int centerY;
+        private final NeighborhoodMode neighborhoodMode;
+        private final GridStructure structure;
+        private final IntConsumer cellIndexConsumer;
+        private final int width;
+        private final int height;
+        private final boolean wrapX;
+        private final boolean wrapY;
+
+        RingCandidateSink(int centerX, int centerY,
+                          NeighborhoodMode neighborhoodMode,
+                          GridStructure structure,
+                          IntConsumer cellIndexConsumer) {
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.neighborhoodMode = neighborhoodMode;
+            this.structure = structure;
+            this.cellIndexConsumer = cellIndexConsumer;
+            width = structure.size().width();
+            height = structure.size().height();
+            wrapX = structure.edgeBehaviorX() == EdgeBehavior.WRAP;
+            wrapY = structure.edgeBehaviorY() == EdgeBehavior.WRAP;
+        }
+
+        void accept(int x, int y) {
+            boolean outX = (x < 0) || (x >= width);
+            boolean outY = (y < 0) || (y >= height);
+            if ((outX && !wrapX) || (outY && !wrapY)) {
+                return;
+            }
+            int mappedX = outX ? Math.floorMod(x, width) : x;
+            int mappedY = outY ? Math.floorMod(y, height) : y;
+            if ((wrapX || wrapY) && !isPreferredTranslation(x, y, mappedX, mappedY)) {
+                return;
+            }
+            cellIndexConsumer.accept(structure.indexOf(mappedX, mappedY));
+        }
+
+        private boolean isPreferredTranslation(int x, int y, int mappedX, int mappedY) {
+            int maxShiftX = wrapX ? 1 : 0;
+            int maxShiftY = wrapY ? 1 : 0;
+            int bestDistance = Integer.MAX_VALUE;
+            int bestX = mappedX;
+            int bestY = mappedY;
+            for (int shiftX = -maxShiftX; shiftX <= maxShiftX; shiftX++) {
+                for (int shiftY = -maxShiftY; shiftY <= maxShiftY; shiftY++) {
+                    int translatedX = mappedX + (shiftX * width);
+                    int translatedY = mappedY + (shiftY * height);
+                    int candidateDistance = planeDistance(centerX, centerY, translatedX, translatedY,
+                            neighborhoodMode, structure.cellShape());
+                    if (candidateDistance < bestDistance) {
+                        bestDistance = candidateDistance;
+                        bestX = translatedX;
+                        bestY = translatedY;
+                    }
+                }
+            }
+            return (bestX == x) && (bestY == y);
+        }
+
+    }
+
+}
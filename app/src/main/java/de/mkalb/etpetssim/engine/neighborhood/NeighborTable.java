@@ -0,0 +1,209 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+
+import java.util.*;
+
+/**
+ * A precomputed adjacency table holding the flat cell indices of the direct neighbors of every cell
+ * of a {@link GridStructure} for one {@link NeighborhoodMode}.
+ * <p>
+ * The table is stored in compressed sparse row form: the neighbors of cell {@code i} are the entries
+ * {@code start(i)} (inclusive) to {@code end(i)} (exclusive) of one flat array. The edge behavior of the
+ * structure is already applied: neighbors resulting in {@link EdgeBehaviorAction#BLOCKED} or
+ * {@link EdgeBehaviorAction#ABSORBED} are omitted, wrapped neighbors are stored with their mapped index
+ * and can be recognized with {@link #isWrapped(int)}. Triangle orientation and hexagon column offset are
+ * resolved per cell as well.
+ * <p>
+ * The neighbors of a cell are ordered like the connections of
+ * {@link CellNeighborhoods#cellNeighborsIgnoringEdgeBehavior(GridCoordinate, NeighborhoodMode, CellShape)},
+ * and each mapped index appears at most once (preferring the {@link EdgeBehaviorAction#VALID} connection),
+ * which matches the results of
+ * {@link CellNeighborhoods#neighborEdgeResults(GridCoordinate, NeighborhoodMode, GridStructure)}
+ * with action {@code VALID} or {@code WRAPPED}.
+ * <p>
+ * Lookups do not allocate. Tables are immutable and thread-safe. They are not cached: the owner (for example
+ * an update strategy or step logic) builds its table once with {@link #build(GridStructure, NeighborhoodMode)}
+ * and keeps it for the lifetime of the simulation, so the table is released together with the simulation.
+ * A table needs about {@code 4 * (1 + maxNeighborCount)} bytes per cell.
+ *
+ * @see CellNeighborhoods
+ */
+public final class NeighborTable {
+
+    private final GridStructure structure;
+    private final NeighborhoodMode neighborhoodMode;
+
+    /**
+     * The start position of the neighbors of each cell in {@link #neighbors}, with one additional end entry.
+     */
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final BitSet wrapped;
+    private final int maxNeighborCount;
+
+    private NeighborTable(GridStructure structure, NeighborhoodMode neighborhoodMode) {
+        this.structure = structure;
+        this.neighborhoodMode = neighborhoodMode;
+        int cellCount = structure.cellCount();
+        int connectionCount = CellNeighborhoods.maxNeighborCount(structure.cellShape(), neighborhoodMode);
+        offsets = new int[cellCount + 1];
+        int[] entries = new int[Math.multiplyExact(cellCount, connectionCount)];
+        wrapped = new BitSet();
+        int size = 0;
+        int maxCount = 0;
+        for (int index = 0; index < cellCount; index++) {
+            GridCoordinate coordinate = structure.coordinateOf(index);
+            offsets[index] = size;
+            for (CellNeighborhoods.CellNeighborConnection connection
+                    : CellNeighborhoods.getCellNeighborConnections(coordinate, neighborhoodMode, structure.cellShape())) {
+                int neighborX = coordinate.x() + connection.offset().dx();
+                int neighborY = coordinate.y() + connection.offset().dy();
+                EdgeBehaviorAction action = CellNeighborhoods.edgeActionForCoordinate(new GridCoordinate(neighborX, neighborY), structure);
+                if ((action == EdgeBehaviorAction.BLOCKED) || (action == EdgeBehaviorAction.ABSORBED)) {
+                    continue;
+                }
+                int neighborIndex = structure.indexOf(
+                        Math.floorMod(neighborX, structure.size().width()),
+                        Math.floorMod(neighborY, structure.size().height()));
+                boolean isWrapped = action == EdgeBehaviorAction.WRAPPED;
+                int existing = findEntry(entries, offsets[index], size, neighborIndex);
+                if (existing < 0) {
+                    entries[size] = neighborIndex;
+                    wrapped.set(size, isWrapped);
+                    size++;
+                } else if (!isWrapped) {
+                    wrapped.clear(existing);
+                }
+            }
+            maxCount = Math.max(maxCount, size - offsets[index]);
+        }
+        offsets[cellCount] = size;
+        neighbors = (size == entries.length) ? entries : Arrays.copyOf(entries, size);
+        maxNeighborCount = maxCount;
+    }
+
+    /**
+     * Builds a new table for the given structure and neighborhood mode.
+     * <p>
+     * Building visits every cell once, so callers should build the table once and reuse it for every step.
+     *
+     * @param structure        the grid structure defining size, cell shape and edge behavior
+     * @param neighborhoodMode the neighborhood mode (edges only or edges and vertices)
+     * @return the neighbor table
+     */
+    public static NeighborTable build(GridStructure structure, NeighborhoodMode neighborhoodMode) {
+        return new NeighborTable(structure, neighborhoodMode);
+    }
+
+    private static int findEntry(int[] entries, int from, int to, int neighborIndex) {
+        for (int position = from; position < to; position++) {
+            if (entries[position] == neighborIndex) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the grid structure of this table.
+     *
+     * @return the grid structure
+     */
+    public GridStructure structure() {
+        return structure;
+    }
+
+    /**
+     * Returns the neighborhood mode of this table.
+     *
+     * @return the neighborhood mode
+     */
+    public NeighborhoodMode neighborhoodMode() {
+        return neighborhoodMode;
+    }
+
+    /**
+     * Returns the largest number of neighbors of any cell, useful for sizing reusable buffers.
+     *
+     * @return the maximum neighbor count
+     */
+    public int maxNeighborCount() {
+        return maxNeighborCount;
+    }
+
+    /**
+     * Returns the position of the first neighbor entry of a cell.
+     *
+     * @param cellIndex the flat cell index
+     * @return the first entry position (inclusive)
+     * @throws IndexOutOfBoundsException if the cell index is not valid
+     */
+    public int start(int cellIndex) {
+        checkCellIndex(cellIndex);
+        return offsets[cellIndex];
+    }
+
+    /**
+     * Returns the position after the last neighbor entry of a cell.
+     *
+     * @param cellIndex the flat cell index
+     * @return the last entry position (exclusive)
+     * @throws IndexOutOfBoundsException if the cell index is not valid
+     */
+    public int end(int cellIndex) {
+        checkCellIndex(cellIndex);
+        return offsets[cellIndex + 1];
+    }
+
+    /**
+     * Returns the number of neighbors of a cell.
+     *
+     * @param cellIndex the flat cell index
+     * @return the neighbor count
+     * @throws IndexOutOfBoundsException if the cell index is not valid
+     */
+    public int neighborCount(int cellIndex) {
+        checkCellIndex(cellIndex);
+        return offsets[cellIndex + 1] - offsets[cellIndex];
+    }
+
+    /**
+     * Returns the flat cell index of the neighbor stored at the given entry position.
+     *
+     * @param entry the entry position, between {@link #start(int)} and {@link #end(int)} of a cell
+     * @return the flat cell index of the neighbor (edge behavior applied)
+     * @throws IndexOutOfBoundsException if the entry position is not valid
+     */
+    public int neighborAt(int entry) {
+        return neighbors[entry];
+    }
+
+    /**
+     * Returns whether the neighbor stored at the given entry position was reached by wrapping around a grid edge.
+     *
+     * @param entry the entry position, between {@link #start(int)} and {@link #end(int)} of a cell
+     * @return {@code true} if the neighbor is {@link EdgeBehaviorAction#WRAPPED}, {@code false} if it is {@link EdgeBehaviorAction#VALID}
+     * @throws IndexOutOfBoundsException if the entry position is not valid
+     */
+    public boolean isWrapped(int entry) {
+        Objects.checkIndex(entry, neighbors.length);
+        return wrapped.get(entry);
+    }
+
+    private void checkCellIndex(int cellIndex) {
+        if ((cellIndex < 0) || (cellIndex >= (offsets.length - 1))) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + cellIndex + " for structure: " + structure);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NeighborTable{" +
+                "structure=" + structure +
+                ", neighborhoodMode=" + neighborhoodMode +
+                ", entryCount=" + neighbors.length +
+                '}';
+    }
+
+}
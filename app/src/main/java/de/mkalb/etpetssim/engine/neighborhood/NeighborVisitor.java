@@ -0,0 +1,21 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+/**
+ * Functional interface for visiting the direct neighbors of a cell without materializing
+ * {@link de.mkalb.etpetssim.engine.GridCoordinate} or {@link EdgeBehaviorResult} instances.
+ * <p>
+ * Used by {@link CellNeighborhoods#forEachNeighbor(int, int, NeighborhoodMode, de.mkalb.etpetssim.engine.GridStructure, NeighborVisitor)}.
+ */
+@FunctionalInterface
+public interface NeighborVisitor {
+
+    /**
+     * Visits one neighbor.
+     *
+     * @param mappedX the x-coordinate (column) of the neighbor after applying the edge behavior
+     * @param mappedY the y-coordinate (row) of the neighbor after applying the edge behavior
+     * @param action  the edge behavior action applied to the neighbor
+     */
+    void visit(int mappedX, int mappedY, EdgeBehaviorAction action);
+
+}
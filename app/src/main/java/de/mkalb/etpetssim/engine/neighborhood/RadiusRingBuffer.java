@@ -0,0 +1,374 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+
+import java.util.*;
+
+/**
+ * A reusable buffer holding the cells of the radius rings around a center as flat cell indices.
+ * <p>
+ * {@link #fill(GridCoordinate, NeighborhoodMode, GridStructure, int)} computes the same rings as
+ * {@link CellNeighborhoods#cellsByRadiusRings(GridCoordinate, NeighborhoodMode, GridStructure, int, java.util.function.Function)}:
+ * ring {@code 0} contains the center, each following ring the cells first reached at that radius, following
+ * only neighbors with action {@link EdgeBehaviorAction#VALID} or {@link EdgeBehaviorAction#WRAPPED}.
+ * The cells are stored ring by ring at consecutive positions, ordered within each ring like
+ * {@link GridCoordinate#compareTo(GridCoordinate)}. For every cell of ring {@code r > 0}, the positions of the
+ * cells of ring {@code r - 1} through which it was reached are stored in ascending order.
+ * <p>
+ * If the rings of the center lie completely inside the grid, the buffer only translates a shared precomputed
+ * stencil of relative offsets. Near the borders, the rings are computed with edge behavior using flat arrays.
+ * Once the buffer has grown to the largest radius used, filling it does not allocate.
+ * <p>
+ * The content is only valid until the next call of {@code fill}. This class is not thread-safe.
+ *
+ * @see CellNeighborhoods#cellsByRadiusRings(GridCoordinate, NeighborhoodMode, GridStructure, int, java.util.function.Function)
+ */
+public final class RadiusRingBuffer {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int COORDINATE_BITS = 21;
+    private static final long LOCAL_MASK = (1L << COORDINATE_BITS) - 1L;
+    private static final int HASH_MULTIPLIER = 0x9E37_79B9;
+
+    private final NeighborVisitor neighborCollector = this::collectNeighbor;
+
+    private int radius;
+    private int size;
+    private int[] cellIndices = new int[INITIAL_CAPACITY];
+
+    /**
+     * The ring and predecessor arrays currently in use, either those of a shared stencil (read-only) or the own arrays.
+     */
+    private int[] ringStarts = new int[2];
+    private int[] predecessorStarts = new int[1];
+    private int[] predecessors = new int[0];
+
+    // Own arrays and scratch space of the computation near the borders.
+    private int[] ownRingStarts = new int[2];
+    private int[] ownPredecessorStarts = new int[INITIAL_CAPACITY + 1];
+    private int[] ownPredecessors = new int[INITIAL_CAPACITY];
+    private int[] xs = new int[INITIAL_CAPACITY];
+    private int[] ys = new int[INITIAL_CAPACITY];
+    private int[] newCellIndices = new int[INITIAL_CAPACITY];
+    private long[] newCellKeys = new long[INITIAL_CAPACITY];
+    private int[] newCellRanks = new int[INITIAL_CAPACITY];
+    private int[] edgeCells = new int[INITIAL_CAPACITY];
+    private int[] edgePredecessors = new int[INITIAL_CAPACITY];
+    private int[] hashKeys = new int[INITIAL_CAPACITY * 2];
+    private int[] hashValues = new int[INITIAL_CAPACITY * 2];
+    private int[] hashStamps = new int[INITIAL_CAPACITY * 2];
+    private int hashStamp;
+
+    // State of the current ring expansion, used by the neighbor visitor.
+    private int currentWidth;
+    private int currentPredecessor;
+    private int newCellCount;
+    private int edgeCount;
+
+    /**
+     * Constructs a new, empty buffer.
+     */
+    public RadiusRingBuffer() {
+        // Empty until the first fill.
+    }
+
+    /**
+     * Computes the radius rings around the center and replaces the content of this buffer.
+     *
+     * @param center           the center coordinate
+     * @param neighborhoodMode the neighborhood mode (edges only or edges and vertices)
+     * @param structure        the grid structure defining size, cell shape, and edge behavior
+     * @param maxRadius        the maximum radius ring to compute (non-negative and less than or equal to {@link CellNeighborhoods#MAX_RADIUS})
+     * @throws IllegalArgumentException if the radius is negative, greater than {@link CellNeighborhoods#MAX_RADIUS},
+     *                                  or if the center is not valid within the grid structure
+     */
+    public void fill(GridCoordinate center, NeighborhoodMode neighborhoodMode, GridStructure structure, int maxRadius) {
+        if (maxRadius < 0) {
+            throw new IllegalArgumentException("Radius must be greater than or equal to 0, but was: " + maxRadius);
+        }
+        if (maxRadius > CellNeighborhoods.MAX_RADIUS) {
+            throw new IllegalArgumentException("Radius must be less than or equal to " + CellNeighborhoods.MAX_RADIUS + ", but was: " + maxRadius);
+        }
+        if (!structure.isCoordinateValid(center)) {
+            throw new IllegalArgumentException("Start coordinate must be valid within the grid structure, but was: "
+                    + center.toDisplayString());
+        }
+        RadiusRingStencil stencil = RadiusRingStencil.of(center.x(), center.y(), neighborhoodMode, structure.cellShape(), maxRadius);
+        radius = maxRadius;
+        size = stencil.size();
+        ensureCapacity(size);
+        if (stencil.fitsInside(center.x(), center.y(), structure)) {
+            int width = structure.size().width();
+            int centerIndex = structure.indexOf(center);
+            for (int position = 0; position < size; position++) {
+                cellIndices[position] = centerIndex + (stencil.dys[position] * width) + stencil.dxs[position];
+            }
+            ringStarts = stencil.ringStarts;
+            predecessorStarts = stencil.predecessorStarts;
+            predecessors = stencil.predecessors;
+        } else {
+            fillWithEdgeBehavior(center, neighborhoodMode, structure);
+        }
+    }
+
+    /**
+     * Returns the maximum radius of the last fill.
+     *
+     * @return the radius
+     */
+    public int radius() {
+        return radius;
+    }
+
+    /**
+     * Returns the number of cells of all rings.
+     *
+     * @return the number of cells
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the first cell of a ring.
+     *
+     * @param ring the ring, between {@code 0} and {@link #radius()}
+     * @return the first position (inclusive)
+     * @throws IndexOutOfBoundsException if the ring is not valid
+     */
+    public int ringStart(int ring) {
+        Objects.checkIndex(ring, radius + 1);
+        return ringStarts[ring];
+    }
+
+    /**
+     * Returns the position after the last cell of a ring.
+     *
+     * @param ring the ring, between {@code 0} and {@link #radius()}
+     * @return the last position (exclusive)
+     * @throws IndexOutOfBoundsException if the ring is not valid
+     */
+    public int ringEnd(int ring) {
+        Objects.checkIndex(ring, radius + 1);
+        return ringStarts[ring + 1];
+    }
+
+    /**
+     * Returns the flat cell index of the cell at a position.
+     *
+     * @param position the position, between {@code 0} and {@link #size()}
+     * @return the flat cell index
+     * @throws IndexOutOfBoundsException if the position is not valid
+     */
+    public int cellIndexAt(int position) {
+        Objects.checkIndex(position, size);
+        return cellIndices[position];
+    }
+
+    /**
+     * Returns the first predecessor entry of the cell at a position.
+     *
+     * @param position the position, between {@code 0} and {@link #size()}
+     * @return the first predecessor entry (inclusive)
+     * @throws IndexOutOfBoundsException if the position is not valid
+     */
+    public int predecessorStart(int position) {
+        Objects.checkIndex(position, size);
+        return predecessorStarts[position];
+    }
+
+    /**
+     * Returns the entry after the last predecessor entry of the cell at a position.
+     *
+     * @param position the position, between {@code 0} and {@link #size()}
+     * @return the last predecessor entry (exclusive)
+     * @throws IndexOutOfBoundsException if the position is not valid
+     */
+    public int predecessorEnd(int position) {
+        Objects.checkIndex(position, size);
+        return predecessorStarts[position + 1];
+    }
+
+    /**
+     * Returns the position of the predecessor stored at an entry.
+     * The predecessor belongs to the previous ring and was used to reach the cell.
+     *
+     * @param entry the predecessor entry, between {@link #predecessorStart(int)} and {@link #predecessorEnd(int)} of a cell
+     * @return the position of the predecessor
+     * @throws IndexOutOfBoundsException if the entry is not valid
+     */
+    public int predecessorAt(int entry) {
+        Objects.checkIndex(entry, predecessorStarts[size]);
+        return predecessors[entry];
+    }
+
+    /**
+     * Computes the rings ring by ring with edge behavior, mirroring the breadth-first search of
+     * {@link CellNeighborhoods#cellsByRadiusRings}.
+     */
+    private void fillWithEdgeBehavior(GridCoordinate center, NeighborhoodMode neighborhoodMode, GridStructure structure) {
+        // The rings within the grid never contain more cells than the stencil.
+        ensureOwnCapacity(size, size * CellNeighborhoods.maxNeighborCount(structure.cellShape(), neighborhoodMode));
+        currentWidth = structure.size().width();
+        startHash();
+        int centerIndex = structure.indexOf(center);
+        cellIndices[0] = centerIndex;
+        xs[0] = center.x();
+        ys[0] = center.y();
+        hashPut(centerIndex, 0);
+        ownRingStarts[0] = 0;
+        ownPredecessorStarts[0] = 0;
+        int filled = 1;
+        int predecessorCount = 0;
+        for (int ring = 1; ring <= radius; ring++) {
+            ownRingStarts[ring] = filled;
+            newCellCount = 0;
+            edgeCount = 0;
+            for (int position = ownRingStarts[ring - 1]; position < filled; position++) {
+                currentPredecessor = position;
+                CellNeighborhoods.forEachNeighbor(xs[position], ys[position], neighborhoodMode, structure, neighborCollector);
+            }
+
+            // Order the new cells like GridCoordinate.compareTo (x, then y).
+            for (int local = 0; local < newCellCount; local++) {
+                int cellIndex = newCellIndices[local];
+                newCellKeys[local] = ((long) (cellIndex % currentWidth) << (2 * COORDINATE_BITS))
+                        | ((long) (cellIndex / currentWidth) << COORDINATE_BITS) | local;
+            }
+            Arrays.sort(newCellKeys, 0, newCellCount);
+            for (int rank = 0; rank < newCellCount; rank++) {
+                int local = (int) (newCellKeys[rank] & LOCAL_MASK);
+                int position = filled + rank;
+                newCellRanks[local] = rank;
+                cellIndices[position] = newCellIndices[local];
+                xs[position] = (int) (newCellKeys[rank] >>> (2 * COORDINATE_BITS));
+                ys[position] = (int) ((newCellKeys[rank] >>> COORDINATE_BITS) & LOCAL_MASK);
+                hashPut(newCellIndices[local], position);
+            }
+
+            // Group the predecessors by cell. They were collected in ascending order, which is kept.
+            for (int rank = 0; rank < newCellCount; rank++) {
+                ownPredecessorStarts[filled + rank] = 0;
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                ownPredecessorStarts[filled + newCellRanks[edgeCells[edge]]]++;
+            }
+            for (int rank = 0; rank < newCellCount; rank++) {
+                int count = ownPredecessorStarts[filled + rank];
+                ownPredecessorStarts[filled + rank] = predecessorCount;
+                newCellIndices[rank] = predecessorCount; // reused as insertion cursor
+                predecessorCount += count;
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                int rank = newCellRanks[edgeCells[edge]];
+                ownPredecessors[newCellIndices[rank]++] = edgePredecessors[edge];
+            }
+            filled += newCellCount;
+        }
+        ownRingStarts[radius + 1] = filled;
+        ownPredecessorStarts[filled] = predecessorCount;
+        size = filled;
+        ringStarts = ownRingStarts;
+        predecessorStarts = ownPredecessorStarts;
+        predecessors = ownPredecessors;
+    }
+
+    private void collectNeighbor(int mappedX, int mappedY, EdgeBehaviorAction action) {
+        if ((action != EdgeBehaviorAction.VALID) && (action != EdgeBehaviorAction.WRAPPED)) {
+            return;
+        }
+        int neighborIndex = (mappedY * currentWidth) + mappedX;
+        int value = hashGet(neighborIndex);
+        if (value >= 0) {
+            // Cell of an earlier ring.
+            return;
+        }
+        int local;
+        if (value == Integer.MIN_VALUE) {
+            local = newCellCount++;
+            newCellIndices[local] = neighborIndex;
+            hashPut(neighborIndex, -(local + 1));
+        } else {
+            local = -(value + 1);
+        }
+        edgeCells[edgeCount] = local;
+        edgePredecessors[edgeCount] = currentPredecessor;
+        edgeCount++;
+    }
+
+    private void startHash() {
+        hashStamp++;
+        if (hashStamp == 0) {
+            Arrays.fill(hashStamps, 0);
+            hashStamp = 1;
+        }
+    }
+
+    /**
+     * Returns the value stored for the key, or {@link Integer#MIN_VALUE} if the key is absent.
+     */
+    private int hashGet(int key) {
+        int mask = hashKeys.length - 1;
+        for (int slot = (key * HASH_MULTIPLIER) & mask; ; slot = (slot + 1) & mask) {
+            if (hashStamps[slot] != hashStamp) {
+                return Integer.MIN_VALUE;
+            }
+            if (hashKeys[slot] == key) {
+                return hashValues[slot];
+            }
+        }
+    }
+
+    private void hashPut(int key, int value) {
+        int mask = hashKeys.length - 1;
+        for (int slot = (key * HASH_MULTIPLIER) & mask; ; slot = (slot + 1) & mask) {
+            if ((hashStamps[slot] != hashStamp) || (hashKeys[slot] == key)) {
+                hashStamps[slot] = hashStamp;
+                hashKeys[slot] = key;
+                hashValues[slot] = value;
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int cellCapacity) {
+        if (cellIndices.length < cellCapacity) {
+            cellIndices = new int[cellCapacity];
+        }
+    }
+
+    private void ensureOwnCapacity(int cellCapacity, int predecessorCapacity) {
+        if (ownRingStarts.length < (radius + 2)) {
+            ownRingStarts = new int[radius + 2];
+        }
+        if (xs.length < cellCapacity) {
+            ownPredecessorStarts = new int[cellCapacity + 1];
+            xs = new int[cellCapacity];
+            ys = new int[cellCapacity];
+            newCellIndices = new int[cellCapacity];
+            newCellKeys = new long[cellCapacity];
+            newCellRanks = new int[cellCapacity];
+        }
+        if (ownPredecessors.length < predecessorCapacity) {
+            ownPredecessors = new int[predecessorCapacity];
+            edgeCells = new int[predecessorCapacity];
+            edgePredecessors = new int[predecessorCapacity];
+        }
+        int hashCapacity = Integer.highestOneBit(Math.max(1, cellCapacity) * 2) * 2;
+        if (hashKeys.length < hashCapacity) {
+            hashKeys = new int[hashCapacity];
+            hashValues = new int[hashCapacity];
+            hashStamps = new int[hashCapacity];
+            hashStamp = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RadiusRingBuffer{" +
+                "radius=" + radius +
+                ", size=" + size +
+                '}';
+    }
+
+}
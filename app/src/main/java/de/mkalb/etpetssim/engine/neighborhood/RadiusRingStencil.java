@@ -0,0 +1,138 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * An immutable, precomputed set of radius rings around a cell in an infinite grid, stored as relative offsets.
+ * <p>
+ * The rings of a cell depend only on the cell shape, the neighborhood mode, the radius and the parity
+ * of the center (triangle orientation or hexagon column offset), so one stencil serves every center
+ * with the same connection variant (see {@link CellNeighborhoods#connectionVariant(int, int, NeighborhoodMode, CellShape)}).
+ * <p>
+ * The cells are stored ring by ring, ordered within each ring like {@link GridCoordinate#compareTo(GridCoordinate)}.
+ * For every cell of ring {@code r > 0}, the positions of the cells of ring {@code r - 1} through which it is reached
+ * are stored in ascending order. Translated by a center whose stencil lies completely inside the grid,
+ * the stencil equals the radius rings computed with edge behavior.
+ *
+ * @see RadiusRingBuffer
+ */
+final class RadiusRingStencil {
+
+    /**
+     * Shared stencils, indexed by connection variant and radius.
+     */
+    private static final AtomicReferenceArray<RadiusRingStencil> STENCILS =
+            new AtomicReferenceArray<>(CellNeighborhoods.CONNECTION_VARIANT_COUNT * (CellNeighborhoods.MAX_RADIUS + 1));
+
+    final int[] ringStarts;
+    final int[] dxs;
+    final int[] dys;
+    final int[] predecessorStarts;
+    final int[] predecessors;
+    final int extentX;
+    final int extentY;
+
+    private RadiusRingStencil(GridCoordinate origin, NeighborhoodMode neighborhoodMode, CellShape cellShape, int radius) {
+        List<GridCoordinate> cells = new ArrayList<>();
+        Map<GridCoordinate, Integer> positions = new HashMap<>();
+        List<SortedSet<Integer>> cellPredecessors = new ArrayList<>();
+        ringStarts = new int[radius + 2];
+
+        cells.add(origin);
+        positions.put(origin, 0);
+        cellPredecessors.add(Collections.emptySortedSet());
+        for (int ring = 1; ring <= radius; ring++) {
+            ringStarts[ring] = cells.size();
+            SortedMap<GridCoordinate, SortedSet<Integer>> nextRing = new TreeMap<>();
+            for (int position = ringStarts[ring - 1]; position < ringStarts[ring]; position++) {
+                GridCoordinate current = cells.get(position);
+                for (CellNeighborhoods.CellNeighborConnection connection
+                        : CellNeighborhoods.getCellNeighborConnections(current, neighborhoodMode, cellShape)) {
+                    GridCoordinate neighbor = current.offset(connection.offset());
+                    if (!positions.containsKey(neighbor)) {
+                        nextRing.computeIfAbsent(neighbor, _ -> new TreeSet<>()).add(position);
+                    }
+                }
+            }
+            for (Map.Entry<GridCoordinate, SortedSet<Integer>> entry : nextRing.entrySet()) {
+                positions.put(entry.getKey(), cells.size());
+                cells.add(entry.getKey());
+                cellPredecessors.add(entry.getValue());
+            }
+        }
+        ringStarts[radius + 1] = cells.size();
+
+        int size = cells.size();
+        dxs = new int[size];
+        dys = new int[size];
+        predecessorStarts = new int[size + 1];
+        int predecessorCount = 0;
+        int maxX = 0;
+        int maxY = 0;
+        for (int position = 0; position < size; position++) {
+            dxs[position] = cells.get(position).x() - origin.x();
+            dys[position] = cells.get(position).y() - origin.y();
+            maxX = Math.max(maxX, Math.abs(dxs[position]));
+            maxY = Math.max(maxY, Math.abs(dys[position]));
+            predecessorStarts[position] = predecessorCount;
+            predecessorCount += cellPredecessors.get(position).size();
+        }
+        predecessorStarts[size] = predecessorCount;
+        predecessors = new int[predecessorCount];
+        int entry = 0;
+        for (SortedSet<Integer> cellPredecessorSet : cellPredecessors) {
+            for (int predecessor : cellPredecessorSet) {
+                predecessors[entry++] = predecessor;
+            }
+        }
+        extentX = maxX;
+        extentY = maxY;
+    }
+
+    /**
+     * Returns the shared stencil for the connection variant of the given center, building it on first use.
+     *
+     * @param x                the x-coordinate of a center (only its parity is relevant)
+     * @param y                the y-coordinate of a center (only its parity is relevant)
+     * @param neighborhoodMode the neighborhood mode
+     * @param cellShape        the cell shape
+     * @param radius           the radius, between {@code 0} and {@link CellNeighborhoods#MAX_RADIUS}
+     * @return the stencil
+     */
+    static RadiusRingStencil of(int x, int y, NeighborhoodMode neighborhoodMode, CellShape cellShape, int radius) {
+        int slot = (CellNeighborhoods.connectionVariant(x, y, neighborhoodMode, cellShape) * (CellNeighborhoods.MAX_RADIUS + 1)) + radius;
+        RadiusRingStencil stencil = STENCILS.get(slot);
+        if (stencil == null) {
+            // Concurrent builds produce equal stencils, so the first one wins.
+            STENCILS.compareAndSet(slot, null, new RadiusRingStencil(new GridCoordinate(x, y), neighborhoodMode, cellShape, radius));
+            stencil = STENCILS.get(slot);
+        }
+        return stencil;
+    }
+
+    /**
+     * Returns the number of cells of all rings.
+     *
+     * @return the number of cells
+     */
+    int size() {
+        return dxs.length;
+    }
+
+    /**
+     * Returns whether the translated stencil lies completely inside the grid, so no edge behavior applies.
+     *
+     * @param x         the x-coordinate of the center
+     * @param y         the y-coordinate of the center
+     * @param structure the grid structure
+     * @return {@code true} if all cells of the translated stencil are valid coordinates
+     */
+    boolean fitsInside(int x, int y, GridStructure structure) {
+        return ((x - extentX) >= 0) && ((x + extentX) < structure.size().width())
+                && ((y - extentY) >= 0) && ((y + extentY) < structure.size().height());
+    }
+
+}
@@ -0,0 +1,493 @@
+package de.mkalb.etpetssim.engine.support;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import de.mkalb.etpetssim.engine.neighborhood.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A bucketed spatial index over the cells of a {@link WritableGridModel} whose entity matches a predicate,
+ * answering radius and k-nearest queries without scanning the grid.
+ * <p>
+ * The grid is divided into square buckets of {@code bucketSize × bucketSize} cells, each holding the flat cell
+ * indices of its matching cells. A query only visits the buckets that can contain a result, so its cost depends
+ * on the number of matching cells near the center instead of the grid area.
+ * <p>
+ * The index attaches its own {@link GridChangeJournal} to the model with
+ * {@link WritableGridModel#attachChangeJournal(GridChangeJournal)}, so it can share the model with other journal
+ * consumers such as a {@link GridAgentIndex}. It applies the written cells lazily at the
+ * start of the next query; only bulk operations of the model cause a full rebuild. The predicate must depend only
+ * on the entity, and an entity must not start or stop matching without being written to the model again.
+ * <p>
+ * Distances are grid distances as defined by {@link GridDistances}: the number of steps between direct neighbors
+ * of the {@link NeighborhoodMode} of the index, for every {@link CellShape} (for example Manhattan distance for square
+ * cells with edges only and Chebyshev distance with edges and vertices). They equal the radius rings used by the
+ * simulations, so a query with the vision range of an agent finds exactly the cells the agent can see.
+ * On axes with {@link EdgeBehavior#WRAP} the shorter way around the grid is used. Results are ordered by distance,
+ * ties by flat cell index, so they are deterministic.
+ * <p>
+ * Buckets are pruned with a conservative bound: one step changes a coordinate by at most the largest neighbor
+ * offset along its axis, so a cell whose offset exceeds that many steps is never closer than the bound.
+ * <p>
+ * While a change journal is attached, the model does not support
+ * {@link WritableGridModel#beginConcurrentRowBandWrites()}, so the parallel step runners process
+ * the row bands of this model sequentially.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of entities stored in the grid, must implement {@link GridEntity}
+ */
+public final class GridSpatialIndex<T extends GridEntity> {
+
+    /**
+     * The default bucket edge length in cells.
+     */
+    public static final int DEFAULT_BUCKET_SIZE = 8;
+
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+    private static final long INDEX_MASK = 0xFFFF_FFFFL;
+
+    private final WritableGridModel<T> model;
+    private final Predicate<T> entityPredicate;
+    private final GridChangeJournal journal;
+    private final NeighborhoodMode neighborhoodMode;
+    private final int width;
+    private final int height;
+    private final boolean wrapX;
+    private final boolean wrapY;
+    private final int bucketSize;
+    private final int bucketColumns;
+    private final int bucketRows;
+
+    /**
+     * The largest change of the x- and y-coordinate by a single step between direct neighbors.
+     */
+    private final int maxStepX;
+    private final int maxStepY;
+
+    /**
+     * The amount by which a partial last bucket column or row makes wrapped cells closer than the bucket
+     * distance suggests.
+     */
+    private final int wrapSlack;
+
+    private final int[][] bucketCells;
+    private final int[] bucketCounts;
+
+    /**
+     * The position of each cell index in its bucket, or {@code -1} if the cell does not match.
+     */
+    private final int[] positions;
+
+    /**
+     * The query stamp of each bucket, used to visit every bucket at most once per query.
+     */
+    private final int[] bucketStamps;
+    private int queryStamp;
+    private int size;
+
+    /**
+     * Constructs a new index with buckets of {@link #DEFAULT_BUCKET_SIZE} cells and attaches a change journal
+     * to the model, in addition to an already attached journal.
+     * This disables concurrent row band writes to the model.
+     *
+     * @param model            the model whose matching cells are indexed
+     * @param entityPredicate  predicate selecting the indexed entities
+     * @param neighborhoodMode the neighborhood mode defining the distance
+     */
+    public GridSpatialIndex(WritableGridModel<T> model, Predicate<T> entityPredicate, NeighborhoodMode neighborhoodMode) {
+        this(model, entityPredicate, neighborhoodMode, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Constructs a new index and attaches a change journal to the model, in addition to an already attached journal.
+     * This disables concurrent row band writes to the model.
+     *
+     * @param model            the model whose matching cells are indexed
+     * @param entityPredicate  predicate selecting the indexed entities
+     * @param neighborhoodMode the neighborhood mode defining the distance
+     * @param bucketSize       the bucket edge length in cells, at least {@code 1}
+     * @throws IllegalArgumentException if the bucket size is less than {@code 1}
+     */
+    public GridSpatialIndex(WritableGridModel<T> model, Predicate<T> entityPredicate,
+                            NeighborhoodMode neighborhoodMode, int bucketSize) {
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("Bucket size must be at least 1, but was: " + bucketSize);
+        }
+        GridStructure structure = model.structure();
+        this.model = model;
+        this.entityPredicate = entityPredicate;
+        this.neighborhoodMode = neighborhoodMode;
+        this.bucketSize = bucketSize;
+        width = structure.size().width();
+        height = structure.size().height();
+        wrapX = structure.topology().gridEdgeBehavior().edgeBehaviorX() == EdgeBehavior.WRAP;
+        wrapY = structure.topology().gridEdgeBehavior().edgeBehaviorY() == EdgeBehavior.WRAP;
+        bucketColumns = ((width + bucketSize) - 1) / bucketSize;
+        bucketRows = ((height + bucketSize) - 1) / bucketSize;
+        int slackX = wrapX ? ((bucketSize - (width % bucketSize)) % bucketSize) : 0;
+        int slackY = wrapY ? ((bucketSize - (height % bucketSize)) % bucketSize) : 0;
+        wrapSlack = Math.max(slackX, slackY);
+        int stepX = 1;
+        int stepY = 1;
+        // Neighbor offsets depend on the parity of the cell (triangle orientation, hexagon column offset).
+        for (int parity = 0; parity < 4; parity++) {
+            GridCoordinate origin = new GridCoordinate(2 + (parity & 1), 2 + (parity >> 1));
+            for (CellNeighbor neighbor : CellNeighborhoods.cellNeighborsIgnoringEdgeBehavior(
+                    origin, neighborhoodMode, structure.cellShape()).toList()) {
+                stepX = Math.max(stepX, Math.abs(neighbor.neighborCoordinate().x() - origin.x()));
+                stepY = Math.max(stepY, Math.abs(neighbor.neighborCoordinate().y() - origin.y()));
+            }
+        }
+        maxStepX = stepX;
+        maxStepY = stepY;
+        bucketCells = new int[bucketColumns * bucketRows][];
+        bucketCounts = new int[bucketCells.length];
+        bucketStamps = new int[bucketCells.length];
+        positions = new int[structure.cellCount()];
+        journal = new GridChangeJournal(structure);
+        model.attachChangeJournal(journal);
+        rebuild();
+    }
+
+    /**
+     * Returns the model whose matching cells are indexed.
+     *
+     * @return the model
+     */
+    public WritableGridModel<T> model() {
+        return model;
+    }
+
+    /**
+     * Returns the number of indexed cells, including all writes to the model up to this call.
+     *
+     * @return the number of matching cells
+     */
+    public int size() {
+        synchronizeWithModel();
+        return size;
+    }
+
+    /**
+     * Returns whether the cell at the given coordinate is indexed, including all writes to the model up to this call.
+     *
+     * @param coordinate the coordinate
+     * @return {@code true} if the entity at the coordinate matches the predicate
+     * @throws IndexOutOfBoundsException if the coordinate is not valid
+     */
+    public boolean contains(GridCoordinate coordinate) {
+        int index = checkedIndexOf(coordinate);
+        synchronizeWithModel();
+        return positions[index] >= 0;
+    }
+
+    /**
+     * Returns the coordinates of all indexed cells within the given distance of the center, nearest first.
+     * The center itself is included if it is indexed.
+     *
+     * @param center      the center coordinate
+     * @param maxDistance the maximum distance in steps (inclusive), at least {@code 0}
+     * @return the coordinates ordered by distance, then by flat cell index
+     * @throws IndexOutOfBoundsException if the center is not valid
+     * @throws IllegalArgumentException  if the maximum distance is negative
+     */
+    public List<GridCoordinate> withinDistance(GridCoordinate center, int maxDistance) {
+        checkedIndexOf(center);
+        checkMaxDistance(maxDistance);
+        synchronizeWithModel();
+        int reachX = (int) Math.min(width, (long) maxDistance * maxStepX);
+        int reachY = (int) Math.min(height, (long) maxDistance * maxStepY);
+        CandidateList candidates = new CandidateList();
+        startQuery();
+        for (int bucketRow : bucketRange(center.y(), reachY, height, wrapY)) {
+            for (int bucketColumn : bucketRange(center.x(), reachX, width, wrapX)) {
+                collectBucket((bucketRow * bucketColumns) + bucketColumn, center, maxDistance, candidates);
+            }
+        }
+        return candidates.sortedCoordinates(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the coordinates of the {@code k} indexed cells nearest to the center, nearest first.
+     * The center itself is included if it is indexed.
+     *
+     * @param center the center coordinate
+     * @param k      the maximum number of results, at least {@code 1}
+     * @return up to {@code k} coordinates ordered by distance, then by flat cell index
+     * @throws IndexOutOfBoundsException if the center is not valid
+     * @throws IllegalArgumentException  if {@code k} is less than {@code 1}
+     */
+    public List<GridCoordinate> nearest(GridCoordinate center, int k) {
+        return nearest(center, k, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the coordinates of the {@code k} indexed cells nearest to the center within the given distance,
+     * nearest first. The center itself is included if it is indexed.
+     * <p>
+     * The buckets are visited in rings of growing distance around the bucket of the center, and the search
+     * stops as soon as no unvisited bucket can contain a nearer cell.
+     *
+     * @param center      the center coordinate
+     * @param k           the maximum number of results, at least {@code 1}
+     * @param maxDistance the maximum distance in steps (inclusive), at least {@code 0}
+     * @return up to {@code k} coordinates ordered by distance, then by flat cell index
+     * @throws IndexOutOfBoundsException if the center is not valid
+     * @throws IllegalArgumentException  if {@code k} is less than {@code 1} or the maximum distance is negative
+     */
+    public List<GridCoordinate> nearest(GridCoordinate center, int k, int maxDistance) {
+        checkedIndexOf(center);
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1, but was: " + k);
+        }
+        checkMaxDistance(maxDistance);
+        synchronizeWithModel();
+        int maxStep = Math.max(maxStepX, maxStepY);
+        int centerColumn = center.x() / bucketSize;
+        int centerRow = center.y() / bucketSize;
+        int maxRing = Math.max(bucketColumns, bucketRows);
+        CandidateList candidates = new CandidateList();
+        startQuery();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int rowOffset = -ring; rowOffset <= ring; rowOffset++) {
+                // Inner rows of the ring only contain its leftmost and rightmost bucket.
+                int columnStep = (Math.abs(rowOffset) == ring) ? 1 : (2 * ring);
+                for (int columnOffset = -ring; columnOffset <= ring; columnOffset += columnStep) {
+                    int bucket = bucketAt(centerColumn + columnOffset, centerRow + rowOffset);
+                    if (bucket >= 0) {
+                        collectBucket(bucket, center, maxDistance, candidates);
+                    }
+                }
+            }
+            // Every cell in an unvisited bucket is at least this many cells away along one axis,
+            // and therefore at least unvisitedDistance steps away from the center.
+            long unvisitedOffset = ((long) ring * bucketSize) + 1L - wrapSlack;
+            long unvisitedDistance = (unvisitedOffset > 0L) ? (((unvisitedOffset + maxStep) - 1L) / maxStep) : 0L;
+            if (unvisitedDistance > maxDistance) {
+                break;
+            }
+            if ((candidates.size() >= k) && (candidates.kthDistance(k) < unvisitedDistance)) {
+                break;
+            }
+        }
+        return candidates.sortedCoordinates(k);
+    }
+
+    /**
+     * Returns the coordinate of the indexed cell nearest to the center within the given distance.
+     *
+     * @param center      the center coordinate
+     * @param maxDistance the maximum distance in steps (inclusive), at least {@code 0}
+     * @return the nearest coordinate, or {@link Optional#empty()} if no indexed cell is within the distance
+     * @throws IndexOutOfBoundsException if the center is not valid
+     * @throws IllegalArgumentException  if the maximum distance is negative
+     */
+    public Optional<GridCoordinate> findNearest(GridCoordinate center, int maxDistance) {
+        List<GridCoordinate> result = nearest(center, 1, maxDistance);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.getFirst());
+    }
+
+    private int checkedIndexOf(GridCoordinate coordinate) {
+        GridStructure structure = model.structure();
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        return structure.indexOf(coordinate);
+    }
+
+    private static void checkMaxDistance(int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Maximum distance must be at least 0, but was: " + maxDistance);
+        }
+    }
+
+    /**
+     * Applies the cells written to the model since the previous query.
+     */
+    private void synchronizeWithModel() {
+        if (journal.isAllChanged()) {
+            journal.drainChanges();
+            rebuild();
+        } else if (!journal.isEmpty()) {
+            for (int index : journal.drainChanges()) {
+                boolean matches = entityPredicate.test(model.getEntity(index));
+                if (matches && (positions[index] < 0)) {
+                    add(index);
+                } else if (!matches && (positions[index] >= 0)) {
+                    remove(index);
+                }
+            }
+        }
+    }
+
+    private void rebuild() {
+        Arrays.fill(positions, -1);
+        Arrays.fill(bucketCounts, 0);
+        size = 0;
+        for (int index : model.filteredIndices(entityPredicate)) {
+            add(index);
+        }
+    }
+
+    private void add(int index) {
+        int bucket = bucketOfIndex(index);
+        int[] cells = bucketCells[bucket];
+        int count = bucketCounts[bucket];
+        if (cells == null) {
+            cells = new int[INITIAL_BUCKET_CAPACITY];
+            bucketCells[bucket] = cells;
+        } else if (count == cells.length) {
+            cells = Arrays.copyOf(cells, count * 2);
+            bucketCells[bucket] = cells;
+        }
+        cells[count] = index;
+        positions[index] = count;
+        bucketCounts[bucket] = count + 1;
+        size++;
+    }
+
+    /**
+     * Removes the cell index from its bucket by moving the last entry of the bucket into its position.
+     */
+    private void remove(int index) {
+        int bucket = bucketOfIndex(index);
+        int[] cells = Objects.requireNonNull(bucketCells[bucket]);
+        int position = positions[index];
+        int lastPosition = --bucketCounts[bucket];
+        int lastIndex = cells[lastPosition];
+        cells[position] = lastIndex;
+        positions[lastIndex] = position;
+        positions[index] = -1;
+        size--;
+    }
+
+    private int bucketOfIndex(int index) {
+        int x = index % width;
+        int y = index / width;
+        return ((y / bucketSize) * bucketColumns) + (x / bucketSize);
+    }
+
+    /**
+     * Returns the bucket at the given (possibly out-of-range) bucket position, wrapped on wrapping axes,
+     * or {@code -1} if the position lies outside a non-wrapping axis.
+     */
+    private int bucketAt(int bucketColumn, int bucketRow) {
+        int column = wrapX ? Math.floorMod(bucketColumn, bucketColumns) : bucketColumn;
+        int row = wrapY ? Math.floorMod(bucketRow, bucketRows) : bucketRow;
+        if ((column < 0) || (column >= bucketColumns) || (row < 0) || (row >= bucketRows)) {
+            return -1;
+        }
+        return (row * bucketColumns) + column;
+    }
+
+    /**
+     * Returns the distinct bucket positions along one axis covering the cells within {@code reach} of {@code center}.
+     */
+    private int[] bucketRange(int center, int reach, int length, boolean wrap) {
+        int from = center - reach;
+        int to = center + reach;
+        if (wrap && ((to - from) >= (length - 1))) {
+            from = 0;
+            to = length - 1;
+        } else if (!wrap) {
+            from = Math.max(from, 0);
+            to = Math.min(to, length - 1);
+        }
+        BitSet buckets = new BitSet();
+        int cell = from;
+        while (cell <= to) {
+            // Map the cell into the grid and skip to the end of its bucket, which is cut off at the grid edge.
+            int wrapped = Math.floorMod(cell, length);
+            int bucket = wrapped / bucketSize;
+            buckets.set(bucket);
+            cell += Math.min((bucket + 1) * bucketSize, length) - wrapped;
+        }
+        return buckets.stream().toArray();
+    }
+
+    private void startQuery() {
+        queryStamp++;
+        if (queryStamp == 0) {
+            Arrays.fill(bucketStamps, 0);
+            queryStamp = 1;
+        }
+    }
+
+    private void collectBucket(int bucket, GridCoordinate center, int maxDistance, CandidateList candidates) {
+        if (bucketStamps[bucket] == queryStamp) {
+            return;
+        }
+        bucketStamps[bucket] = queryStamp;
+        int[] cells = bucketCells[bucket];
+        int count = bucketCounts[bucket];
+        for (int i = 0; i < count; i++) {
+            int index = Objects.requireNonNull(cells)[i];
+            int distance = GridDistances.distance(center.x(), center.y(), index % width, index / width,
+                    neighborhoodMode, model.structure());
+            if (distance <= maxDistance) {
+                candidates.add(distance, index);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GridSpatialIndex{" +
+                "model=" + model +
+                ", neighborhoodMode=" + neighborhoodMode +
+                ", bucketSize=" + bucketSize +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * Candidates of a query, each packed as distance (high 32 bits) and flat cell index (low 32 bits),
+     * so sorting the packed values orders them by distance, then by index.
+     */
+    private final class CandidateList {
+
+        private long[] keys = new long[INITIAL_BUCKET_CAPACITY];
+        private int count;
+        private boolean sorted = true;
+
+        void add(int distance, int index) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            keys[count++] = ((long) distance << Integer.SIZE) | index;
+            sorted = false;
+        }
+
+        int size() {
+            return count;
+        }
+
+        long kthDistance(int k) {
+            sort();
+            return keys[k - 1] >>> Integer.SIZE;
+        }
+
+        List<GridCoordinate> sortedCoordinates(int limit) {
+            sort();
+            int resultCount = Math.min(limit, count);
+            List<GridCoordinate> coordinates = new ArrayList<>(resultCount);
+            for (int i = 0; i < resultCount; i++) {
+                coordinates.add(model.structure().coordinateOf((int) (keys[i] & INDEX_MASK)));
+            }
+            return coordinates;
+        }
+
+        private void sort() {
+            if (!sorted) {
+                Arrays.sort(keys, 0, count);
+                sorted = true;
+            }
+        }
+
+    }
+
+}
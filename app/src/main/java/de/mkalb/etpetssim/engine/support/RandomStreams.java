@@ -0,0 +1,236 @@
+package de.mkalb.etpetssim.engine.support;
+
+import java.util.*;
+import java.util.random.*;
+
+/**
+ * Derives deterministic random values and generators from a simulation seed.
+ * <p>
+ * Besides a sequential generator for the simulation setup, this class provides random values keyed by
+ * (step index, index, draw), where the index is typically a flat cell index or an agent index.
+ * A keyed value is computed from the key alone (counter-based), so it does not depend on the order in which
+ * cells or agents are processed or on the number of threads. Parallel and sequential runs therefore produce
+ * bit-identical results.
+ * <p>
+ * Generators use the LXM algorithm {@value #ALGORITHM}, which is faster than the
+ * compare-and-set based {@link Random} and has a much longer period.
+ * <p>
+ * Instances are immutable and thread-safe. The generators returned by this class are not thread-safe.
+ */
+public final class RandomStreams {
+
+    /**
+     * The name of the random generator algorithm used for all generators.
+     */
+    public static final String ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<RandomGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+
+    /**
+     * Odd constants (golden ratio and its square root, scaled to 64 bits) separating the key components.
+     */
+    private static final long STEP_INCREMENT = 0x9E3779B97F4A7C15L;
+    private static final long INDEX_INCREMENT = 0xD1B54A32D192ED03L;
+    private static final long DRAW_INCREMENT = 0xAEF17502108EF2D9L;
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final long seed;
+    private final long seedHash;
+
+    /**
+     * Constructs random streams for the given seed.
+     *
+     * @param seed the simulation seed
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+        seedHash = mix64(seed);
+    }
+
+    /**
+     * Returns the seed of these random streams.
+     *
+     * @return the seed
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Creates a new sequential generator seeded with the seed.
+     * Every call returns a new generator producing the same sequence.
+     *
+     * @return a new generator
+     */
+    public RandomGenerator generator() {
+        return FACTORY.create(seed);
+    }
+
+    /**
+     * Creates a new sequential generator seeded with the seed and wraps it as a {@link Random},
+     * for APIs that require a {@code Random}. The returned instance produces the same values as
+     * {@link #generator()}. {@link Random#setSeed(long)} replaces the wrapped generator by a new one
+     * seeded with the given seed, so re-seeding with {@link #seed()} restarts the sequence.
+     *
+     * @return a new {@code Random} backed by a new generator
+     * @see #generator()
+     */
+    public Random random() {
+        return new SeededRandom(seed);
+    }
+
+    /**
+     * Creates a new generator for the given step and index, for consumers needing many or a variable number of values.
+     * Every call with the same arguments returns a new generator producing the same sequence.
+     *
+     * @param stepIndex the index of the simulation step
+     * @param index     the index within the step, for example a flat cell index or an agent index
+     * @return a new generator
+     */
+    public RandomGenerator stream(int stepIndex, int index) {
+        return FACTORY.create(streamKey(stepIndex, index));
+    }
+
+    /**
+     * Returns a pseudorandom {@code long} value for the given key, without creating a generator.
+     *
+     * @param stepIndex the index of the simulation step
+     * @param index     the index within the step, for example a flat cell index or an agent index
+     * @param draw      the number of the value for the same step and index, starting at {@code 0}
+     * @return a pseudorandom value, uniformly distributed over all {@code long} values
+     */
+    public long nextLong(int stepIndex, int index, int draw) {
+        return mix64(streamKey(stepIndex, index) + (draw * DRAW_INCREMENT));
+    }
+
+    /**
+     * Returns a pseudorandom {@code double} value for the given key, without creating a generator.
+     *
+     * @param stepIndex the index of the simulation step
+     * @param index     the index within the step, for example a flat cell index or an agent index
+     * @param draw      the number of the value for the same step and index, starting at {@code 0}
+     * @return a pseudorandom value between {@code 0.0} (inclusive) and {@code 1.0} (exclusive)
+     */
+    public double nextDouble(int stepIndex, int index, int draw) {
+        return (nextLong(stepIndex, index, draw) >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Finalization function of SplitMix64, a bijective mix with good avalanche behavior.
+     */
+    private static long mix64(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private long streamKey(int stepIndex, int index) {
+        return mix64(mix64(seedHash + (stepIndex * STEP_INCREMENT)) + (index * INDEX_INCREMENT));
+    }
+
+    /**
+     * A {@link Random} delegating to a generator of {@value #ALGORITHM}, which is replaced on every
+     * {@link #setSeed(long)}. Unlike {@link Random#from(RandomGenerator)}, it can be re-seeded.
+     */
+    @SuppressWarnings("serial")
+    private static final class SeededRandom extends Random {
+
+        /**
+         * The wrapped generator. It is assigned by {@link #setSeed(long)}, which the {@link Random}
+         * constructor calls, so the field must not have an initializer.
+         */
+        private RandomGenerator generator;
+
+        SeededRandom(long seed) {
+            super(seed);
+        }
+
+        @Override
+        public synchronized void setSeed(long seed) {
+            super.setSeed(seed);
+            generator = FACTORY.create(seed);
+        }
+
+        @Override
+        protected int next(int bits) {
+            return generator.nextInt() >>> (Integer.SIZE - bits);
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            generator.nextBytes(bytes);
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return generator.nextBoolean();
+        }
+
+        @Override
+        public int nextInt() {
+            return generator.nextInt();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return generator.nextInt(bound);
+        }
+
+        @Override
+        public int nextInt(int origin, int bound) {
+            return generator.nextInt(origin, bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return generator.nextLong();
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return generator.nextLong(bound);
+        }
+
+        @Override
+        public long nextLong(long origin, long bound) {
+            return generator.nextLong(origin, bound);
+        }
+
+        @Override
+        public float nextFloat() {
+            return generator.nextFloat();
+        }
+
+        @Override
+        public double nextDouble() {
+            return generator.nextDouble();
+        }
+
+        @Override
+        public double nextDouble(double bound) {
+            return generator.nextDouble(bound);
+        }
+
+        @Override
+        public double nextDouble(double origin, double bound) {
+            return generator.nextDouble(origin, bound);
+        }
+
+        @Override
+        public double nextGaussian() {
+            return generator.nextGaussian();
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        return "RandomStreams{" +
+                "seed=" + seed +
+                ", algorithm=" + ALGORITHM +
+                '}';
+    }
+
+}
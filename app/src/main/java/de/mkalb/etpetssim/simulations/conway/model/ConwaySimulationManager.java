@@ -3,11 +3,12 @@ package de.mkalb.etpetssim.simulations.conway.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.engine.executor.*;
 import de.mkalb.etpetssim.engine.model.*;
-import de.mkalb.etpetssim.engine.support.GridInitializers;
+import de.mkalb.etpetssim.engine.support.*;
 import de.mkalb.etpetssim.simulations.conway.model.entity.ConwayEntity;
 import de.mkalb.etpetssim.simulations.core.model.AbstractTimedSimulationManager;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public final class ConwaySimulationManager
         extends AbstractTimedSimulationManager<ConwayEntity, WritableGridModel<ConwayEntity>, ConwayConfig,
@@ -18,14 +19,26 @@ public final class ConwaySimulationManager
     private final TimedSimulationExecutor<ConwayEntity, WritableGridModel<ConwayEntity>> executor;
 
     public ConwaySimulationManager(ConwayConfig config) {
+        this(config, true);
+    }
+
+    /**
+     * Constructs a new simulation manager.
+     *
+     * @param config        the configuration of the simulation
+     * @param parallelSteps {@code true} to process the row bands of each step on the common pool,
+     *                      {@code false} to process them one after another on the calling thread
+     */
+    public ConwaySimulationManager(ConwayConfig config, boolean parallelSteps) {
         super(config);
 
         structure = config.createGridStructure();
         statistics = new ConwayStatistics(structure);
-        var random = new Random(config.seed());
-        var model = new SparseGridModel<>(structure, ConwayEntity.DEAD);
+        var random = new RandomStreams(config.seed()).random();
+        var model = new BitGridModel<>(structure, ConwayEntity.DEAD, ConwayEntity.ALIVE);
 
-        var runner = new SynchronousStepRunner<>(model, new ConwayUpdateStrategy(structure, config));
+        var runner = new ParallelSynchronousStepRunner<>(model, new ConwayUpdateStrategy(structure, config),
+                parallelSteps ? ForkJoinPool.commonPool() : null, ParallelSynchronousStepRunner.DEFAULT_MAX_BAND_COUNT);
         var terminationCondition = new ConwayTerminationCondition();
         executor = new TimedSimulationExecutor<>(new DefaultSimulationExecutor<>(runner, runner::currentModel, terminationCondition, statistics));
 
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.conway.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -62,6 +64,16 @@ public final class ConwayStatistics
         return changedCells;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("maxAliveCells", maxAliveCells);
+        values.put("aliveCells", aliveCells);
+        values.put("deadCells", deadCells);
+        values.put("changedCells", changedCells);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "ConwayStatistics{" +
@@ -1,63 +1,238 @@
 package de.mkalb.etpetssim.simulations.conway.model;
 
 import de.mkalb.etpetssim.engine.*;
-import de.mkalb.etpetssim.engine.executor.SynchronousStepLogic;
+import de.mkalb.etpetssim.engine.executor.*;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.neighborhood.*;
 import de.mkalb.etpetssim.simulations.conway.model.entity.ConwayEntity;
+import org.jspecify.annotations.Nullable;
 
 import java.util.*;
 
-public final class ConwayUpdateStrategy implements SynchronousStepLogic<ConwayEntity, ConwayStatistics> {
+public final class ConwayUpdateStrategy
+        implements BandedSynchronousStepLogic<ConwayEntity, ConwayStatistics, ConwayUpdateStrategy.CellCounts> {
+
+    /**
+     * A live cell costs about {@code maxNeighborCount + 1} neighbor scans on the live-cell-driven path,
+     * a cell of the band one scan on the cell-driven path. The factor covers the candidate collection and sorting.
+     */
+    private static final int LIVE_CELL_COST_FACTOR = 2;
 
     private final GridStructure structure;
     private final ConwayConfig config;
+    private final NeighborTable neighborTable;
+    private final int rowReach;
+    private final int liveCellThreshold;
+    private @Nullable AliveIndices stepAliveIndices;
 
     public ConwayUpdateStrategy(GridStructure structure, ConwayConfig config) {
         this.structure = structure;
         this.config = config;
+        neighborTable = NeighborTable.build(structure, config.neighborhoodMode());
+        rowReach = computeRowReach(structure, neighborTable);
+        liveCellThreshold = structure.cellCount() / (LIVE_CELL_COST_FACTOR * (neighborTable.maxNeighborCount() + 1));
+    }
+
+    /**
+     * Returns the maximum number of rows between a cell and its neighbors, counting across a wrapped edge.
+     */
+    private static int computeRowReach(GridStructure structure, NeighborTable neighborTable) {
+        int height = structure.size().height();
+        int reach = 0;
+        for (int index = 0; index < structure.cellCount(); index++) {
+            int y = structure.yOf(index);
+            for (int entry = neighborTable.start(index), end = neighborTable.end(index); entry < end; entry++) {
+                int dy = Math.abs(structure.yOf(neighborTable.neighborAt(entry)) - y);
+                reach = Math.max(reach, Math.min(dy, height - dy));
+            }
+        }
+        return reach;
     }
 
     @Override
-    public void performSynchronousStep(ReadableGridModel<ConwayEntity> currentModel,
-                                       WritableGridModel<ConwayEntity> nextModel,
-                                       int stepIndex,
-                                       ConwayStatistics statistics) {
-        // Counter for ConwayStatistics
-        int aliveCells = 0;
-        int changedCells = 0;
+    public CellCounts createBandResult(GridRowBand band, int stepIndex, ConwayStatistics statistics) {
+        // The alive cells of the previous step decide the path for all bands of this step.
+        if (statistics.getAliveCells() >= liveCellThreshold) {
+            return new CellCounts(null);
+        }
+        // The bands are created in band order, so the first band starts a new step.
+        if ((band.bandIndex() == 0) || (stepAliveIndices == null)) {
+            stepAliveIndices = new AliveIndices();
+        }
+        return new CellCounts(stepAliveIndices);
+    }
+
+    @Override
+    public void performBandStep(ReadableGridModel<ConwayEntity> currentModel,
+                                WritableGridModel<ConwayEntity> nextModel,
+                                GridRowBand band,
+                                int stepIndex,
+                                CellCounts counts) {
+        AliveIndices aliveIndices = counts.aliveIndices;
+        if (aliveIndices != null) {
+            performLiveCellBandStep(currentModel, nextModel, band, aliveIndices.get(currentModel), counts);
+        } else {
+            for (int index = band.startIndex(), endIndex = band.endIndex(); index < endIndex; index++) {
+                updateCell(currentModel, nextModel, index, counts);
+            }
+        }
+    }
 
-        Map<GridCoordinate, Integer> deadNeighborCounts = new HashMap<>();
-        Set<GridCoordinate> alive = currentModel.nonDefaultCoordinates();
-
-        for (var coordinate : alive) {
-            int aliveNeighbors = 0;
-            for (var result : CellNeighborhoods.neighborEdgeResults(coordinate, config.neighborhoodMode(), structure)) {
-                if ((result.action() == EdgeBehaviorAction.VALID) || (result.action() == EdgeBehaviorAction.WRAPPED)) {
-                    if (alive.contains(result.mapped())) {
-                        aliveNeighbors++;
-                    } else {
-                        deadNeighborCounts.merge(result.mapped(), 1, Integer::sum);
+    /**
+     * Updates only the alive cells of the band and the cells of the band next to an alive cell.
+     * All other cells are dead without alive neighbors and stay dead. The neighbor relation is symmetric,
+     * so the cells next to an alive cell are found through the neighbors of the alive cell.
+     */
+    private void performLiveCellBandStep(ReadableGridModel<ConwayEntity> currentModel,
+                                         WritableGridModel<ConwayEntity> nextModel,
+                                         GridRowBand band,
+                                         int[] aliveIndices,
+                                         CellCounts counts) {
+        int[] ranges = nearbyIndexRanges(band);
+        int nearbyAliveCount = 0;
+        for (int range = 0; range < ranges.length; range += 2) {
+            ranges[range] = lowerBound(aliveIndices, ranges[range]);
+            ranges[range + 1] = lowerBound(aliveIndices, ranges[range + 1]);
+            nearbyAliveCount += ranges[range + 1] - ranges[range];
+        }
+
+        int startIndex = band.startIndex();
+        int endIndex = band.endIndex();
+        int[] candidates = new int[nearbyAliveCount * (neighborTable.maxNeighborCount() + 1)];
+        int candidateCount = 0;
+        for (int range = 0; range < ranges.length; range += 2) {
+            for (int position = ranges[range]; position < ranges[range + 1]; position++) {
+                int aliveIndex = aliveIndices[position];
+                if ((aliveIndex >= startIndex) && (aliveIndex < endIndex)) {
+                    candidates[candidateCount++] = aliveIndex;
+                }
+                for (int entry = neighborTable.start(aliveIndex), end = neighborTable.end(aliveIndex); entry < end; entry++) {
+                    int neighborIndex = neighborTable.neighborAt(entry);
+                    if ((neighborIndex >= startIndex) && (neighborIndex < endIndex)) {
+                        candidates[candidateCount++] = neighborIndex;
                     }
                 }
             }
-            if (config.transitionRules().shouldSurvive(aliveNeighbors)) {
-                nextModel.setEntity(coordinate, ConwayEntity.ALIVE);
-                aliveCells++;
-            } else {
-                changedCells++;
+        }
+
+        // Sorting removes duplicates cheaply and writes the next model in row-major order.
+        Arrays.sort(candidates, 0, candidateCount);
+        for (int position = 0; position < candidateCount; position++) {
+            int index = candidates[position];
+            if ((position == 0) || (index != candidates[position - 1])) {
+                updateCell(currentModel, nextModel, index, counts);
             }
         }
+    }
 
-        for (var entry : deadNeighborCounts.entrySet()) {
-            if (config.transitionRules().shouldBeBorn(entry.getValue())) {
-                nextModel.setEntity(entry.getKey(), ConwayEntity.ALIVE);
-                aliveCells++;
-                changedCells++;
+    /**
+     * Returns the flat index ranges {@code [from, to)} of the rows within {@link #rowReach} of the band,
+     * as consecutive pairs. Rows across a wrapped edge are included, rows outside a bounded grid do no harm.
+     */
+    private int[] nearbyIndexRanges(GridRowBand band) {
+        int height = structure.size().height();
+        int cellCount = structure.cellCount();
+        if ((band.rowCount() + (2 * rowReach)) >= height) {
+            return new int[]{0, cellCount};
+        }
+        int from = (band.startRow() - rowReach) * band.width();
+        int to = (band.endRow() + rowReach) * band.width();
+        if (from < 0) {
+            return new int[]{0, to, from + cellCount, cellCount};
+        }
+        if (to > cellCount) {
+            return new int[]{0, to - cellCount, from, cellCount};
+        }
+        return new int[]{from, to};
+    }
+
+    /**
+     * Returns the position of the first index in the sorted array that is not less than the given index.
+     */
+    private static int lowerBound(int[] sortedIndices, int index) {
+        int position = Arrays.binarySearch(sortedIndices, index);
+        return (position >= 0) ? position : (-position - 1);
+    }
+
+    private void updateCell(ReadableGridModel<ConwayEntity> currentModel,
+                            WritableGridModel<ConwayEntity> nextModel,
+                            int index,
+                            CellCounts counts) {
+        // Dead is the default entity, so every non-default cell is alive.
+        int aliveNeighbors = 0;
+        for (int entry = neighborTable.start(index), end = neighborTable.end(index); entry < end; entry++) {
+            if (!currentModel.isDefaultEntity(neighborTable.neighborAt(entry))) {
+                aliveNeighbors++;
             }
         }
+        boolean alive = !currentModel.isDefaultEntity(index);
+        // Dead cells without alive neighbors stay dead.
+        boolean nextAlive = alive
+                ? config.transitionRules().shouldSurvive(aliveNeighbors)
+                : ((aliveNeighbors > 0) && config.transitionRules().shouldBeBorn(aliveNeighbors));
+        if (nextAlive) {
+            nextModel.setEntity(index, ConwayEntity.ALIVE);
+            counts.aliveCells++;
+        }
+        if (nextAlive != alive) {
+            counts.changedCells++;
+        }
+    }
+
+    @Override
+    public void completeStep(List<CellCounts> bandCounts, int stepIndex, ConwayStatistics statistics) {
+        // Counter for ConwayStatistics
+        int aliveCells = 0;
+        int changedCells = 0;
+        for (CellCounts counts : bandCounts) {
+            aliveCells += counts.aliveCells;
+            changedCells += counts.changedCells;
+        }
 
         statistics.updateCellCounts(aliveCells, changedCells);
     }
 
-}
\ No newline at end of file
+    /**
+     * Cell counts of one row band, merged into the {@link ConwayStatistics} after each step.
+     * <p>
+     * At a low density of alive cells, the band visits only the alive cells and their neighbors instead of
+     * all its cells. Both paths produce the same next model and counts.
+     */
+    static final class CellCounts {
+
+        private final @Nullable AliveIndices aliveIndices;
+        private int aliveCells;
+        private int changedCells;
+
+        /**
+         * Creates the counts of one band.
+         *
+         * @param aliveIndices the alive cells shared by the bands of the step on the live-cell-driven path,
+         *                     or {@code null} on the cell-driven path
+         */
+        CellCounts(@Nullable AliveIndices aliveIndices) {
+            this.aliveIndices = aliveIndices;
+        }
+
+    }
+
+    /**
+     * The sorted alive cells of the current model, collected once per step by the first band that needs them
+     * and shared by all bands of the step.
+     */
+    private static final class AliveIndices {
+
+        private int @Nullable [] indices;
+
+        synchronized int[] get(ReadableGridModel<ConwayEntity> currentModel) {
+            int[] result = indices;
+            if (result == null) {
+                result = currentModel.nonDefaultIndices();
+                indices = result;
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package de.mkalb.etpetssim.simulations.conway.view;
 
 import de.mkalb.etpetssim.core.*;
+import de.mkalb.etpetssim.engine.GridCoordinate;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.model.entity.GridEntityDescriptorRegistry;
 import de.mkalb.etpetssim.simulations.conway.model.*;
@@ -145,9 +146,8 @@ public final class ConwayMainView
 
         dynamicPainter.clearCanvasBackground();
 
-        currentModel.nonDefaultCoordinates()
-                    .forEach(coordinate -> coordinateDrawer.draw(
-                            dynamicPainter, coordinate, stepCount));
+        currentModel.forEachNonDefault((x, y, _) -> coordinateDrawer.draw(
+                dynamicPainter, new GridCoordinate(x, y), stepCount));
     }
 
     @Override
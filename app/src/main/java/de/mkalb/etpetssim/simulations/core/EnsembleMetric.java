@@ -0,0 +1,41 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import de.mkalb.etpetssim.simulations.core.model.SimulationStatistics;
+
+import java.util.function.*;
+
+/**
+ * A named numeric value extracted from the statistics of a simulation, sampled by an {@link EnsembleRunner}.
+ *
+ * @param name      the name of the metric, used as column value in the aggregate table
+ * @param extractor the function extracting the value from the statistics
+ * @see EnsembleRunner
+ */
+public record EnsembleMetric(String name, ToDoubleFunction<SimulationStatistics> extractor) {
+
+    /**
+     * Creates a metric for statistics of a specific type.
+     *
+     * @param name            the name of the metric
+     * @param statisticsClass the class of the statistics
+     * @param extractor       the function extracting the value from the statistics
+     * @param <S>             the type of the statistics
+     * @return the metric, which throws a {@link ClassCastException} for statistics of another type
+     */
+    public static <S extends SimulationStatistics> EnsembleMetric of(String name,
+                                                                     Class<S> statisticsClass,
+                                                                     ToDoubleFunction<? super S> extractor) {
+        return new EnsembleMetric(name, statistics -> extractor.applyAsDouble(statisticsClass.cast(statistics)));
+    }
+
+    /**
+     * Extracts the value of this metric from the statistics.
+     *
+     * @param statistics the statistics of a simulation
+     * @return the value
+     */
+    public double valueOf(SimulationStatistics statistics) {
+        return extractor.applyAsDouble(statistics);
+    }
+
+}
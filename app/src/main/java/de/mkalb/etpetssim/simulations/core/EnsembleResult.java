@@ -0,0 +1,147 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The sampled metric values of all runs of an ensemble, created by {@link EnsembleRunner}.
+ * <p>
+ * The values are indexed by parameter point, metric, sample and run. The runs of a parameter point are
+ * in the order of the seeds, the samples in the order of {@link #sampleSteps()}.
+ */
+public final class EnsembleResult {
+
+    private static final String COLUMN_SEPARATOR = "\t";
+
+    private final List<Map<String, String>> parameterPoints;
+    private final List<Long> seeds;
+    private final List<Integer> sampleSteps;
+    private final List<String> metricNames;
+    private final double[][][][] values;
+
+    /**
+     * Constructs a new result. The arrays are not copied.
+     *
+     * @param values the values indexed by parameter point, metric, sample and run
+     */
+    EnsembleResult(List<Map<String, String>> parameterPoints,
+                   List<Long> seeds,
+                   List<Integer> sampleSteps,
+                   List<String> metricNames,
+                   double[][][][] values) {
+        this.parameterPoints = List.copyOf(parameterPoints);
+        this.seeds = List.copyOf(seeds);
+        this.sampleSteps = List.copyOf(sampleSteps);
+        this.metricNames = List.copyOf(metricNames);
+        this.values = values;
+    }
+
+    /**
+     * Returns the parameter points of the ensemble.
+     *
+     * @return an unmodifiable list of the configuration values of each parameter point
+     */
+    public List<Map<String, String>> parameterPoints() {
+        return parameterPoints;
+    }
+
+    /**
+     * Returns the seeds of the runs of each parameter point.
+     *
+     * @return an unmodifiable list of seeds
+     */
+    public List<Long> seeds() {
+        return seeds;
+    }
+
+    /**
+     * Returns the steps at which the metrics were sampled, starting with step {@code 0} (the initial state).
+     *
+     * @return an unmodifiable list of step counts in ascending order
+     */
+    public List<Integer> sampleSteps() {
+        return sampleSteps;
+    }
+
+    /**
+     * Returns the names of the sampled metrics.
+     *
+     * @return an unmodifiable list of metric names
+     */
+    public List<String> metricNames() {
+        return metricNames;
+    }
+
+    /**
+     * Returns the values of a metric at a sample step for all runs of a parameter point.
+     *
+     * @param pointIndex  the index of the parameter point
+     * @param metricIndex the index of the metric
+     * @param sampleIndex the index of the sample step
+     * @return a new array with one value per seed
+     * @throws IndexOutOfBoundsException if an index is out of bounds
+     */
+    public double[] values(int pointIndex, int metricIndex, int sampleIndex) {
+        return values[pointIndex][metricIndex][sampleIndex].clone();
+    }
+
+    /**
+     * Returns the summary statistics of a metric at a sample step over all runs of a parameter point.
+     *
+     * @param pointIndex  the index of the parameter point
+     * @param metricIndex the index of the metric
+     * @param sampleIndex the index of the sample step
+     * @return the summary statistics
+     * @throws IndexOutOfBoundsException if an index is out of bounds
+     */
+    public SampleSummary summary(int pointIndex, int metricIndex, int sampleIndex) {
+        return SampleSummary.of(values[pointIndex][metricIndex][sampleIndex]);
+    }
+
+    /**
+     * Writes the aggregate table as tab-separated values with a header line.
+     * <p>
+     * Each row contains the summary statistics of one metric at one sample step over all runs
+     * of one parameter point.
+     *
+     * @param appendable the output target
+     * @throws IOException if writing fails
+     */
+    public void writeTable(Appendable appendable) throws IOException {
+        appendable.append(String.join(COLUMN_SEPARATOR, "point", "parameters", "metric", "step", "count",
+                          "mean", "standardDeviation", "min", "lowerQuartile", "median", "upperQuartile", "max"))
+                  .append(System.lineSeparator());
+        for (int pointIndex = 0; pointIndex < parameterPoints.size(); pointIndex++) {
+            for (int metricIndex = 0; metricIndex < metricNames.size(); metricIndex++) {
+                for (int sampleIndex = 0; sampleIndex < sampleSteps.size(); sampleIndex++) {
+                    SampleSummary summary = summary(pointIndex, metricIndex, sampleIndex);
+                    appendable.append(String.join(COLUMN_SEPARATOR,
+                                      Integer.toString(pointIndex),
+                                      parameterPoints.get(pointIndex).toString(),
+                                      metricNames.get(metricIndex),
+                                      Integer.toString(sampleSteps.get(sampleIndex)),
+                                      Integer.toString(summary.count()),
+                                      Double.toString(summary.mean()),
+                                      Double.toString(summary.standardDeviation()),
+                                      Double.toString(summary.min()),
+                                      Double.toString(summary.lowerQuartile()),
+                                      Double.toString(summary.median()),
+                                      Double.toString(summary.upperQuartile()),
+                                      Double.toString(summary.max())))
+                              .append(System.lineSeparator());
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EnsembleResult{" +
+                "parameterPoints=" + parameterPoints +
+                ", seeds=" + seeds.size() +
+                ", sampleSteps=" + sampleSteps.size() +
+                ", metricNames=" + metricNames +
+                '}';
+    }
+
+}
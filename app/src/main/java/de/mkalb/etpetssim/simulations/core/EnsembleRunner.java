@@ -0,0 +1,274 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import de.mkalb.etpetssim.SimulationType;
+import de.mkalb.etpetssim.core.AppLogger;
+import de.mkalb.etpetssim.simulations.core.model.SimulationManager;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Runs an ensemble of headless simulations: every parameter point of a sweep is run once per seed,
+ * and the metrics are sampled at regular step intervals.
+ * <p>
+ * Each run creates its own {@link SimulationManager}, so runs share no mutable state and are executed
+ * concurrently on an {@link ExecutorService}. The values of a run depend only on its parameter point and seed,
+ * so the result is reproducible and independent of the executor and the order in which the runs complete.
+ * <p>
+ * A run that finishes logically before the last sample step keeps its final values for the remaining samples.
+ *
+ * @see EnsembleResult
+ */
+public final class EnsembleRunner {
+
+    private final Function<HeadlessConfigValues, SimulationManager<?, ?, ?, ?>> managerFactory;
+    private final List<EnsembleMetric> metrics;
+    private final List<Integer> sampleSteps;
+
+    /**
+     * Constructs a new ensemble runner.
+     *
+     * @param managerFactory the factory creating a manager from the configuration values of one run
+     * @param metrics        the metrics to sample
+     * @param steps          the number of steps of each run
+     * @param sampleInterval the number of steps between two samples; the last step is always sampled
+     * @throws IllegalArgumentException if {@code metrics} is empty, {@code steps} is negative
+     *                                  or {@code sampleInterval} is not positive
+     */
+    public EnsembleRunner(Function<HeadlessConfigValues, SimulationManager<?, ?, ?, ?>> managerFactory,
+                          List<EnsembleMetric> metrics,
+                          int steps,
+                          int sampleInterval) {
+        if (metrics.isEmpty() || (steps < 0) || (sampleInterval <= 0)) {
+            throw new IllegalArgumentException("Invalid ensemble: metrics=" + metrics.size()
+                    + ", steps=" + steps + ", sampleInterval=" + sampleInterval);
+        }
+        this.managerFactory = managerFactory;
+        this.metrics = List.copyOf(metrics);
+        sampleSteps = computeSampleSteps(steps, sampleInterval);
+    }
+
+    /**
+     * Creates an ensemble runner for a simulation type supported by {@link HeadlessSimulationFactory}.
+     * <p>
+     * The runs already use one thread per processor, so each run processes its steps sequentially
+     * (see {@link HeadlessSimulationFactory#createManager(SimulationType, HeadlessConfigValues, boolean)}).
+     *
+     * @param type           the simulation type
+     * @param metrics        the metrics to sample
+     * @param steps          the number of steps of each run
+     * @param sampleInterval the number of steps between two samples
+     * @return the ensemble runner
+     * @throws IllegalArgumentException if the simulation type is not supported or an argument is invalid
+     */
+    public static EnsembleRunner forType(SimulationType type,
+                                         List<EnsembleMetric> metrics,
+                                         int steps,
+                                         int sampleInterval) {
+        if (!HeadlessSimulationFactory.isSupported(type)) {
+            throw new IllegalArgumentException("Simulation type is not supported: " + type);
+        }
+        return new EnsembleRunner(values -> HeadlessSimulationFactory.createManager(type, values, false),
+                metrics, steps, sampleInterval);
+    }
+
+    /**
+     * Returns the cartesian product of the given parameter values.
+     * <p>
+     * The first parameter varies slowest. Without parameters, the grid contains a single empty point.
+     *
+     * @param parameters the values of each parameter, in iteration order
+     * @return an unmodifiable list of parameter points
+     * @throws IllegalArgumentException if a parameter has no values
+     */
+    public static List<Map<String, String>> parameterGrid(SequencedMap<String, List<String>> parameters) {
+        List<Map<String, String>> points = List.of(Map.of());
+        for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+            if (parameter.getValue().isEmpty()) {
+                throw new IllegalArgumentException("Parameter has no values: " + parameter.getKey());
+            }
+            List<Map<String, String>> newPoints = new ArrayList<>(points.size() * parameter.getValue().size());
+            for (Map<String, String> point : points) {
+                for (String value : parameter.getValue()) {
+                    Map<String, String> newPoint = new LinkedHashMap<>(point);
+                    newPoint.put(parameter.getKey(), value);
+                    newPoints.add(Collections.unmodifiableMap(newPoint));
+                }
+            }
+            points = newPoints;
+        }
+        return List.copyOf(points);
+    }
+
+    /**
+     * Returns consecutive seeds.
+     *
+     * @param firstSeed the first seed
+     * @param count     the number of seeds
+     * @return an unmodifiable list of seeds
+     * @throws IllegalArgumentException if {@code count} is not positive
+     */
+    public static List<Long> seeds(long firstSeed, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Seed count must be positive: " + count);
+        }
+        List<Long> seeds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seeds.add(firstSeed + i);
+        }
+        return List.copyOf(seeds);
+    }
+
+    private static List<Integer> computeSampleSteps(int steps, int sampleInterval) {
+        List<Integer> result = new ArrayList<>();
+        for (int step = 0; step < steps; step += sampleInterval) {
+            result.add(step);
+        }
+        result.add(steps);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Returns the steps at which the metrics are sampled, starting with step {@code 0}.
+     *
+     * @return an unmodifiable list of step counts in ascending order
+     */
+    public List<Integer> sampleSteps() {
+        return sampleSteps;
+    }
+
+    /**
+     * Runs the ensemble on a fixed thread pool with one thread per available processor.
+     * <p>
+     * The simulation steps are CPU-bound, so more threads than processors would not speed up the ensemble.
+     *
+     * @param baseValues      the configuration values shared by all runs
+     * @param parameterPoints the parameter points, each overriding some of the base values
+     * @param seeds           the seeds; every parameter point is run once per seed
+     * @return the ensemble result
+     * @throws InterruptedException     if the current thread is interrupted while waiting for the runs
+     * @throws IllegalArgumentException if the parameter points or seeds are empty, or a configuration is invalid
+     */
+    public EnsembleResult run(HeadlessConfigValues baseValues,
+                              List<Map<String, String>> parameterPoints,
+                              List<Long> seeds) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return run(baseValues, parameterPoints, seeds, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the ensemble on the given executor, which is not shut down.
+     *
+     * @param baseValues      the configuration values shared by all runs
+     * @param parameterPoints the parameter points, each overriding some of the base values
+     * @param seeds           the seeds; every parameter point is run once per seed
+     * @param executor        the executor running the simulations
+     * @return the ensemble result
+     * @throws InterruptedException     if the current thread is interrupted while waiting for the runs
+     * @throws IllegalArgumentException if the parameter points or seeds are empty, or a configuration is invalid
+     */
+    public EnsembleResult run(HeadlessConfigValues baseValues,
+                              List<Map<String, String>> parameterPoints,
+                              List<Long> seeds,
+                              ExecutorService executor) throws InterruptedException {
+        if (parameterPoints.isEmpty() || seeds.isEmpty()) {
+            throw new IllegalArgumentException("Invalid ensemble: parameterPoints=" + parameterPoints.size()
+                    + ", seeds=" + seeds.size());
+        }
+        AppLogger.info("EnsembleRunner: Running " + (parameterPoints.size() * seeds.size()) + " simulations with "
+                + sampleSteps.size() + " samples each.");
+
+        List<List<Future<double[][]>>> futures = new ArrayList<>(parameterPoints.size());
+        for (Map<String, String> parameterPoint : parameterPoints) {
+            HeadlessConfigValues pointValues = baseValues;
+            for (Map.Entry<String, String> parameter : parameterPoint.entrySet()) {
+                pointValues = pointValues.with(parameter.getKey(), parameter.getValue());
+            }
+            List<Future<double[][]>> pointFutures = new ArrayList<>(seeds.size());
+            for (int seedIndex = 0; seedIndex < seeds.size(); seedIndex++) {
+                HeadlessConfigValues runValues = pointValues.with(HeadlessSimulationFactory.SEED_KEY,
+                        Long.toString(seeds.get(seedIndex)));
+                boolean reportUnusedKeys = (seedIndex == 0);
+                pointFutures.add(executor.submit(() -> runSimulation(runValues, reportUnusedKeys)));
+            }
+            futures.add(pointFutures);
+        }
+
+        double[][][][] values = new double[parameterPoints.size()][metrics.size()][sampleSteps.size()][seeds.size()];
+        try {
+            for (int pointIndex = 0; pointIndex < parameterPoints.size(); pointIndex++) {
+                for (int seedIndex = 0; seedIndex < seeds.size(); seedIndex++) {
+                    double[][] runValues = await(futures.get(pointIndex).get(seedIndex));
+                    for (int metricIndex = 0; metricIndex < metrics.size(); metricIndex++) {
+                        for (int sampleIndex = 0; sampleIndex < sampleSteps.size(); sampleIndex++) {
+                            values[pointIndex][metricIndex][sampleIndex][seedIndex] = runValues[metricIndex][sampleIndex];
+                        }
+                    }
+                }
+            }
+        } finally {
+            // Stops the remaining runs if a run failed or the current thread was interrupted
+            for (List<Future<double[][]>> pointFutures : futures) {
+                for (Future<double[][]> future : pointFutures) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        return new EnsembleResult(parameterPoints, seeds, sampleSteps,
+                metrics.stream().map(EnsembleMetric::name).toList(), values);
+    }
+
+    private static double[][] await(Future<double[][]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Ensemble run failed", e.getCause());
+        }
+    }
+
+    /**
+     * Runs one simulation and returns its sampled values indexed by metric and sample.
+     */
+    private double[][] runSimulation(HeadlessConfigValues runValues, boolean reportUnusedKeys) {
+        SimulationManager<?, ?, ?, ?> manager = managerFactory.apply(runValues);
+        if (reportUnusedKeys) {
+            for (String unusedKey : runValues.unusedKeys()) {
+                AppLogger.warn("EnsembleRunner: Unknown configuration key: '" + unusedKey + "'");
+            }
+        }
+
+        double[][] runResult = new double[metrics.size()][sampleSteps.size()];
+        for (int sampleIndex = 0; sampleIndex < sampleSteps.size(); sampleIndex++) {
+            int remainingSteps = sampleSteps.get(sampleIndex) - manager.stepCount();
+            if ((remainingSteps > 0) && !manager.isFinished() && !manager.isExecutorFinished()) {
+                manager.executeSteps(remainingSteps, true, () -> {
+                });
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Ensemble run interrupted");
+            }
+            for (int metricIndex = 0; metricIndex < metrics.size(); metricIndex++) {
+                runResult[metricIndex][sampleIndex] = metrics.get(metricIndex).valueOf(manager.statistics());
+            }
+        }
+        return runResult;
+    }
+
+    @Override
+    public String toString() {
+        return "EnsembleRunner{" +
+                "metrics=" + metrics.stream().map(EnsembleMetric::name).toList() +
+                ", sampleSteps=" + sampleSteps +
+                '}';
+    }
+
+}
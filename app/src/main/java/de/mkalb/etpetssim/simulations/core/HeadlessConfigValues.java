@@ -0,0 +1,187 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Configuration values for a simulation run without the user interface.
+ * <p>
+ * The keys are the names of the components of the simulation configuration record,
+ * for example {@code gridWidth} or {@code treeGrowthProbability}. Missing keys use the defaults of the
+ * simulation's constraints. Enum values are given by their constant name (case-insensitive).
+ * <p>
+ * The values are typically loaded from a properties file. The keys read by the typed getters are tracked,
+ * so keys that are not used by a simulation (for example, misspelled keys) can be reported.
+ *
+ * @see HeadlessSimulationFactory
+ */
+public final class HeadlessConfigValues {
+
+    private final Map<String, String> values;
+    private final Set<String> usedKeys = new HashSet<>();
+
+    private HeadlessConfigValues(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates configuration values from a map.
+     *
+     * @param values the values by key
+     * @return the configuration values
+     */
+    public static HeadlessConfigValues of(Map<String, String> values) {
+        return new HeadlessConfigValues(new TreeMap<>(values));
+    }
+
+    /**
+     * Creates empty configuration values, so all defaults are used.
+     *
+     * @return the empty configuration values
+     */
+    public static HeadlessConfigValues empty() {
+        return of(Map.of());
+    }
+
+    /**
+     * Loads configuration values from a properties file (UTF-8 encoded).
+     *
+     * @param file the properties file
+     * @return the configuration values
+     * @throws IOException if the file cannot be read
+     */
+    public static HeadlessConfigValues load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, String> values = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key).trim());
+        }
+        return new HeadlessConfigValues(values);
+    }
+
+    /**
+     * Returns a copy of these configuration values with the given value added or replaced.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the new configuration values
+     */
+    public HeadlessConfigValues with(String key, String value) {
+        Map<String, String> newValues = new TreeMap<>(values);
+        newValues.put(key, value);
+        return new HeadlessConfigValues(newValues);
+    }
+
+    /**
+     * Returns the value of a key as a string, or {@code null} if the key is missing.
+     *
+     * @param key the key
+     * @return the value, or {@code null}
+     */
+    public @Nullable String getString(String key) {
+        usedKeys.add(key);
+        return values.get(key);
+    }
+
+    /**
+     * Returns the value of a key as a string.
+     *
+     * @param key          the key
+     * @param defaultValue the value if the key is missing
+     * @return the value, or {@code defaultValue}
+     */
+    public String getString(String key, String defaultValue) {
+        String value = getString(key);
+        return (value == null) ? defaultValue : value;
+    }
+
+    /**
+     * Returns the value of a key as an integer.
+     *
+     * @param key          the key
+     * @param defaultValue the value if the key is missing
+     * @return the value, or {@code defaultValue}
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid integer value for key '" + key + "': '" + value + "'", e);
+        }
+    }
+
+    /**
+     * Returns the value of a key as a double.
+     *
+     * @param key          the key
+     * @param defaultValue the value if the key is missing
+     * @return the value, or {@code defaultValue}
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = getString(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid double value for key '" + key + "': '" + value + "'", e);
+        }
+    }
+
+    /**
+     * Returns the value of a key as an enum constant, matched by name (case-insensitive).
+     *
+     * @param key          the key
+     * @param enumClass    the enum class
+     * @param defaultValue the value if the key is missing
+     * @param <E>          the enum type
+     * @return the value, or {@code defaultValue}
+     * @throws IllegalArgumentException if the value is not the name of a constant
+     */
+    public <E extends Enum<E>> E getEnum(String key, Class<E> enumClass, E defaultValue) {
+        String value = getString(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        for (E constant : enumClass.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Invalid value for key '" + key + "': '" + value
+                + "'. Expected one of " + Arrays.toString(enumClass.getEnumConstants()));
+    }
+
+    /**
+     * Returns the keys that have not been read by any getter, in alphabetical order.
+     *
+     * @return the unused keys
+     */
+    public List<String> unusedKeys() {
+        return values.keySet().stream()
+                     .filter(key -> !usedKeys.contains(key))
+                     .toList();
+    }
+
+    @Override
+    public String toString() {
+        return "HeadlessConfigValues{" +
+                "values=" + values +
+                '}';
+    }
+
+}
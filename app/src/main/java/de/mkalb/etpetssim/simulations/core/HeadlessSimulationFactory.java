@@ -0,0 +1,257 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import de.mkalb.etpetssim.SimulationType;
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.neighborhood.NeighborhoodMode;
+import de.mkalb.etpetssim.simulations.conway.model.*;
+import de.mkalb.etpetssim.simulations.conway.shared.ConwayTransitionRules;
+import de.mkalb.etpetssim.simulations.core.model.*;
+import de.mkalb.etpetssim.simulations.core.shared.CellDisplayMode;
+import de.mkalb.etpetssim.simulations.core.viewmodel.SeedProperty;
+import de.mkalb.etpetssim.simulations.etpets.model.*;
+import de.mkalb.etpetssim.simulations.forest.model.*;
+import de.mkalb.etpetssim.simulations.langton.model.*;
+import de.mkalb.etpetssim.simulations.langton.shared.LangtonMovementRules;
+import de.mkalb.etpetssim.simulations.rebounding.model.*;
+import de.mkalb.etpetssim.simulations.snake.model.*;
+import de.mkalb.etpetssim.simulations.snake.shared.SnakeDeathMode;
+import de.mkalb.etpetssim.simulations.sugar.model.*;
+import de.mkalb.etpetssim.simulations.wator.model.*;
+
+/**
+ * Factory for creating simulation managers without the user interface, for example for batch runs on a server.
+ * <p>
+ * The configuration record of a simulation is created from {@link HeadlessConfigValues}, using the defaults
+ * of the simulation's constraints for missing values. The key {@value #SEED_KEY} accepts the same seed texts
+ * as the seed input of the user interface: a number, any other text (hashed), or no value for a random seed.
+ */
+public final class HeadlessSimulationFactory {
+
+    /**
+     * The configuration key of the seed.
+     */
+    public static final String SEED_KEY = "seed";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private HeadlessSimulationFactory() {
+    }
+
+    /**
+     * Returns whether the simulation type can be run without the user interface.
+     * The start screen and the interactive simulation lab are not supported.
+     *
+     * @param type the type of simulation
+     * @return {@code true} if the simulation type is supported
+     */
+    public static boolean isSupported(SimulationType type) {
+        return switch (type) {
+            case STARTSCREEN, SIMULATION_LAB -> false;
+            case ET_PETS, WATOR, CONWAYS_LIFE, LANGTONS_ANT, FOREST_FIRE, SUGARSCAPE, SNAKE, REBOUNDING_ENTITIES -> true;
+        };
+    }
+
+    /**
+     * Creates a new simulation manager with a configuration created from the given values.
+     *
+     * @param type   the type of simulation to create
+     * @param values the configuration values
+     * @return a new simulation manager, initialized and ready to execute steps
+     * @throws IllegalArgumentException if the simulation type is not supported,
+     *                                  or a value is invalid or the configuration is not valid
+     */
+    public static SimulationManager<?, ?, ?, ?> createManager(SimulationType type, HeadlessConfigValues values) {
+        return createManager(type, values, true);
+    }
+
+    /**
+     * Creates a new simulation manager with a configuration created from the given values.
+     * <p>
+     * Conway's Life, Forest Fire and Rebounding Entities can process the row bands of a step in parallel
+     * on the common pool. Callers that already run several simulations concurrently should disable this,
+     * so the processors are not oversubscribed. The result of a simulation does not depend on this flag.
+     * The other simulations always process their steps on the calling thread.
+     *
+     * @param type          the type of simulation to create
+     * @param values        the configuration values
+     * @param parallelSteps {@code true} to process the row bands of each step in parallel, if supported
+     * @return a new simulation manager, initialized and ready to execute steps
+     * @throws IllegalArgumentException if the simulation type is not supported,
+     *                                  or a value is invalid or the configuration is not valid
+     */
+    public static SimulationManager<?, ?, ?, ?> createManager(SimulationType type,
+                                                              HeadlessConfigValues values,
+                                                              boolean parallelSteps) {
+        return switch (type) {
+            case STARTSCREEN, SIMULATION_LAB ->
+                    throw new IllegalArgumentException("Simulation type is not supported without user interface: " + type);
+            case ET_PETS -> new EtpetsSimulationManager(validate(createEtpetsConfig(values)));
+            case WATOR -> new WatorSimulationManager(validate(createWatorConfig(values)));
+            case CONWAYS_LIFE -> new ConwaySimulationManager(validate(createConwayConfig(values)), parallelSteps);
+            case LANGTONS_ANT -> new LangtonSimulationManager(validate(createLangtonConfig(values)));
+            case FOREST_FIRE -> new ForestSimulationManager(validate(createForestConfig(values)), parallelSteps);
+            case SUGARSCAPE -> new SugarSimulationManager(validate(createSugarConfig(values)));
+            case SNAKE -> new SnakeSimulationManager(validate(createSnakeConfig(values)));
+            case REBOUNDING_ENTITIES -> new ReboundingSimulationManager(validate(createReboundingConfig(values)), parallelSteps);
+        };
+    }
+
+    private static <C extends SimulationConfig> C validate(C config) {
+        if (!config.isValid()) {
+            throw new IllegalArgumentException("Invalid configuration: " + config);
+        }
+        return config;
+    }
+
+    private static long computeSeed(HeadlessConfigValues values) {
+        return SeedProperty.computeSeed(values.getString(SEED_KEY));
+    }
+
+    private static ConwayConfig createConwayConfig(HeadlessConfigValues values) {
+        return new ConwayConfig(
+                values.getEnum("cellShape", CellShape.class, ConwayConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, ConwayConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", ConwayConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", ConwayConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", ConwayConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, ConwayConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getDouble("alivePercent", ConwayConstraints.ALIVE_PERCENT_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, ConwayConstraints.NEIGHBORHOOD_MODE_DEFAULT),
+                ConwayTransitionRules.of(values.getString("transitionRules", ConwayConstraints.TRANSITION_RULES_DEFAULT.toDisplayString()))
+        );
+    }
+
+    private static EtpetsConfig createEtpetsConfig(HeadlessConfigValues values) {
+        return new EtpetsConfig(
+                values.getEnum("cellShape", CellShape.class, EtpetsConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, EtpetsConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", EtpetsConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", EtpetsConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", EtpetsConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, EtpetsConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getDouble("rockPercent", EtpetsConstraints.ROCK_PERCENT_DEFAULT),
+                values.getDouble("waterPercent", EtpetsConstraints.WATER_PERCENT_DEFAULT),
+                values.getDouble("plantPercent", EtpetsConstraints.PLANT_PERCENT_DEFAULT),
+                values.getDouble("insectPercent", EtpetsConstraints.INSECT_PERCENT_DEFAULT),
+                values.getInt("petCount", EtpetsConstraints.PET_COUNT_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, EtpetsConstraints.NEIGHBORHOOD_MODE_DEFAULT)
+        );
+    }
+
+    private static ForestConfig createForestConfig(HeadlessConfigValues values) {
+        return new ForestConfig(
+                values.getEnum("cellShape", CellShape.class, ForestConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, ForestConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", ForestConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", ForestConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", ForestConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, ForestConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getDouble("treeDensity", ForestConstraints.TREE_DENSITY_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, ForestConstraints.NEIGHBORHOOD_MODE_DEFAULT),
+                values.getDouble("treeGrowthProbability", ForestConstraints.TREE_GROWTH_PROBABILITY_DEFAULT),
+                values.getDouble("lightningIgnitionProbability", ForestConstraints.LIGHTNING_IGNITION_PROBABILITY_DEFAULT)
+        );
+    }
+
+    private static LangtonConfig createLangtonConfig(HeadlessConfigValues values) {
+        return new LangtonConfig(
+                values.getEnum("cellShape", CellShape.class, LangtonConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, LangtonConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", LangtonConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", LangtonConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", LangtonConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, LangtonConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, LangtonConstraints.NEIGHBORHOOD_MODE_DEFAULT),
+                LangtonMovementRules.fromString(values.getString("langtonMovementRules", LangtonConstraints.RULE_DEFAULT))
+        );
+    }
+
+    private static ReboundingConfig createReboundingConfig(HeadlessConfigValues values) {
+        return new ReboundingConfig(
+                values.getEnum("cellShape", CellShape.class, ReboundingConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, ReboundingConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", ReboundingConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", ReboundingConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", ReboundingConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, ReboundingConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getInt("verticalWalls", ReboundingConstraints.VERTICAL_WALLS_DEFAULT),
+                values.getDouble("movingEntityPercent", ReboundingConstraints.MOVING_ENTITY_PERCENT_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, ReboundingConstraints.NEIGHBORHOOD_MODE_DEFAULT)
+        );
+    }
+
+    private static SnakeConfig createSnakeConfig(HeadlessConfigValues values) {
+        return new SnakeConfig(
+                values.getEnum("cellShape", CellShape.class, SnakeConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, SnakeConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", SnakeConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", SnakeConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", SnakeConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, SnakeConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getInt("verticalWalls", SnakeConstraints.VERTICAL_WALLS_DEFAULT),
+                values.getInt("foodCells", SnakeConstraints.FOOD_CELLS_DEFAULT),
+                values.getInt("snakes", SnakeConstraints.SNAKES_DEFAULT),
+                values.getInt("initialPendingGrowth", SnakeConstraints.INITIAL_PENDING_GROWTH_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, SnakeConstraints.NEIGHBORHOOD_MODE_DEFAULT),
+                values.getEnum("deathMode", SnakeDeathMode.class, SnakeConstraints.SNAKE_DEATH_MODE_DEFAULT),
+                values.getInt("growthPerFood", SnakeConstraints.GROWTH_PER_FOOD_DEFAULT),
+                values.getInt("basePointsPerFood", SnakeConstraints.BASE_POINTS_PER_FOOD_DEFAULT),
+                values.getDouble("segmentLengthMultiplier", SnakeConstraints.SEGMENT_LENGTH_MULTIPLIER_DEFAULT)
+        );
+    }
+
+    private static SugarConfig createSugarConfig(HeadlessConfigValues values) {
+        return new SugarConfig(
+                values.getEnum("cellShape", CellShape.class, SugarConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, SugarConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", SugarConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", SugarConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", SugarConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, SugarConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getDouble("agentPercent", SugarConstraints.AGENT_PERCENT_DEFAULT),
+                values.getInt("sugarPeaks", SugarConstraints.SUGAR_PEAKS_DEFAULT),
+                values.getInt("sugarRadiusLimit", SugarConstraints.SUGAR_RADIUS_LIMIT_DEFAULT),
+                values.getInt("minSugarAmount", SugarConstraints.MIN_SUGAR_AMOUNT_DEFAULT),
+                values.getInt("maxSugarAmount", SugarConstraints.MAX_SUGAR_AMOUNT_DEFAULT),
+                values.getInt("agentInitialEnergy", SugarConstraints.AGENT_INITIAL_ENERGY_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, SugarConstraints.NEIGHBORHOOD_MODE_DEFAULT),
+                values.getInt("sugarRegenerationRate", SugarConstraints.SUGAR_REGENERATION_RATE_DEFAULT),
+                values.getInt("agentMetabolismRate", SugarConstraints.AGENT_METABOLISM_RATE_DEFAULT),
+                values.getInt("agentVisionRange", SugarConstraints.AGENT_VISION_RANGE_DEFAULT),
+                values.getInt("agentMaxAge", SugarConstraints.AGENT_MAX_AGE_DEFAULT)
+        );
+    }
+
+    private static WatorConfig createWatorConfig(HeadlessConfigValues values) {
+        return new WatorConfig(
+                values.getEnum("cellShape", CellShape.class, WatorConstraints.CELL_SHAPE_DEFAULT),
+                values.getEnum("gridEdgeBehavior", GridEdgeBehavior.class, WatorConstraints.GRID_EDGE_BEHAVIOR_DEFAULT),
+                values.getInt("gridWidth", WatorConstraints.GRID_WIDTH_DEFAULT),
+                values.getInt("gridHeight", WatorConstraints.GRID_HEIGHT_DEFAULT),
+                values.getDouble("cellEdgeLength", WatorConstraints.CELL_EDGE_LENGTH_DEFAULT),
+                values.getEnum("cellDisplayMode", CellDisplayMode.class, WatorConstraints.CELL_DISPLAY_MODE_DEFAULT),
+                computeSeed(values),
+                values.getDouble("fishPercent", WatorConstraints.FISH_PERCENT_DEFAULT),
+                values.getDouble("sharkPercent", WatorConstraints.SHARK_PERCENT_DEFAULT),
+                values.getEnum("neighborhoodMode", NeighborhoodMode.class, WatorConstraints.NEIGHBORHOOD_MODE_DEFAULT),
+                values.getInt("fishMaxAge", WatorConstraints.FISH_MAX_AGE_DEFAULT),
+                values.getInt("fishMinReproductionAge", WatorConstraints.FISH_MIN_REPRODUCTION_AGE_DEFAULT),
+                values.getInt("fishMinReproductionInterval", WatorConstraints.FISH_MIN_REPRODUCTION_INTERVAL_DEFAULT),
+                values.getInt("sharkMaxAge", WatorConstraints.SHARK_MAX_AGE_DEFAULT),
+                values.getInt("sharkBirthEnergy", WatorConstraints.SHARK_BIRTH_ENERGY_DEFAULT),
+                values.getInt("sharkEnergyLossPerStep", WatorConstraints.SHARK_ENERGY_LOSS_PER_STEP_DEFAULT),
+                values.getInt("sharkEnergyGainPerFish", WatorConstraints.SHARK_ENERGY_GAIN_PER_FISH_DEFAULT),
+                values.getInt("sharkMinReproductionAge", WatorConstraints.SHARK_MIN_REPRODUCTION_AGE_DEFAULT),
+                values.getInt("sharkMinReproductionEnergy", WatorConstraints.SHARK_MIN_REPRODUCTION_ENERGY_DEFAULT),
+                values.getInt("sharkMinReproductionInterval", WatorConstraints.SHARK_MIN_REPRODUCTION_INTERVAL_DEFAULT)
+        );
+    }
+}
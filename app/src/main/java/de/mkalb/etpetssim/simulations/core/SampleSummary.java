@@ -0,0 +1,92 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import java.util.*;
+
+/**
+ * Summary statistics of a sample of values, for example the values of one metric at one step over all runs
+ * of an ensemble.
+ * <p>
+ * Quantiles are computed by linear interpolation between the closest ranks of the sorted sample.
+ *
+ * @param count             the number of values (positive)
+ * @param mean              the arithmetic mean
+ * @param standardDeviation the sample standard deviation (with {@code count - 1} degrees of freedom),
+ *                          or {@code 0.0} for a single value
+ * @param min               the minimum value
+ * @param lowerQuartile     the 25% quantile
+ * @param median            the 50% quantile
+ * @param upperQuartile     the 75% quantile
+ * @param max               the maximum value
+ * @see EnsembleResult
+ */
+public record SampleSummary(
+        int count,
+        double mean,
+        double standardDeviation,
+        double min,
+        double lowerQuartile,
+        double median,
+        double upperQuartile,
+        double max) {
+
+    private static final double LOWER_QUARTILE = 0.25d;
+    private static final double MEDIAN = 0.5d;
+    private static final double UPPER_QUARTILE = 0.75d;
+
+    /**
+     * Computes the summary statistics of the given values.
+     *
+     * @param values the values; not modified
+     * @return the summary statistics
+     * @throws IllegalArgumentException if {@code values} is empty
+     */
+    public static SampleSummary of(double[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Values must not be empty");
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        double sum = 0.0d;
+        for (double value : sorted) {
+            sum += value;
+        }
+        double mean = sum / sorted.length;
+        double squaredDeviationSum = 0.0d;
+        for (double value : sorted) {
+            double deviation = value - mean;
+            squaredDeviationSum += deviation * deviation;
+        }
+        double standardDeviation = (sorted.length > 1) ? Math.sqrt(squaredDeviationSum / (sorted.length - 1)) : 0.0d;
+
+        return new SampleSummary(
+                sorted.length,
+                mean,
+                standardDeviation,
+                sorted[0],
+                quantile(sorted, LOWER_QUARTILE),
+                quantile(sorted, MEDIAN),
+                quantile(sorted, UPPER_QUARTILE),
+                sorted[sorted.length - 1]);
+    }
+
+    /**
+     * Returns the quantile of sorted values, interpolating linearly between the closest ranks.
+     *
+     * @param sorted      the values in ascending order (not empty)
+     * @param probability the probability of the quantile, between {@code 0.0} and {@code 1.0}
+     * @return the quantile
+     * @throws IllegalArgumentException if {@code sorted} is empty or the probability is out of range
+     */
+    public static double quantile(double[] sorted, double probability) {
+        if ((sorted.length == 0) || !(probability >= 0.0d) || (probability > 1.0d)) {
+            throw new IllegalArgumentException("Invalid quantile: length=" + sorted.length + ", probability=" + probability);
+        }
+        double position = probability * (sorted.length - 1);
+        int lowerIndex = (int) Math.floor(position);
+        int upperIndex = Math.min(lowerIndex + 1, sorted.length - 1);
+        double fraction = position - lowerIndex;
+        return sorted[lowerIndex] + (fraction * (sorted[upperIndex] - sorted[lowerIndex]));
+    }
+
+}
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.core.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.engine.executor.StepTimingStatistics;
 
+import java.util.*;
+
 /**
  * Base class for simulation statistics that track step timing metrics.
  *
@@ -66,6 +68,19 @@ public class BaseTimedSimulationStatistics
         stepTimingStatistics = newStepTimingStatistics;
     }
 
+    /**
+     * Returns the counters of the shared statistics fields for use in {@link #values()} implementations
+     * of subclasses, which append their own counters.
+     *
+     * @return a new map containing the step count and the total cell count
+     */
+    protected final SequencedMap<String, Number> baseValues() {
+        SequencedMap<String, Number> values = new LinkedHashMap<>();
+        values.put("stepCount", stepCount);
+        values.put("totalCells", getTotalCells());
+        return values;
+    }
+
     /**
      * Returns a formatted string of the common statistics fields for use in
      * {@link Object#toString()} implementations of subclasses.
@@ -2,6 +2,8 @@ package de.mkalb.etpetssim.simulations.core.model;
 
 import de.mkalb.etpetssim.engine.GridStructure;
 
+import java.util.*;
+
 /**
  * Provides shared counters that describe a simulation snapshot.
  */
@@ -31,4 +33,18 @@ public interface SimulationStatistics {
         return getGridStructure().cellCount();
     }
 
+    /**
+     * Returns the counters of the simulation snapshot by name, without timing values.
+     * The values depend only on the simulation state, so they are reproducible for a seeded simulation.
+     * The default implementation returns the step count and the total cell count.
+     *
+     * @return a new map of counter names to values, in display order
+     */
+    default SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = new LinkedHashMap<>();
+        values.put("stepCount", getStepCount());
+        values.put("totalCells", getTotalCells());
+        return values;
+    }
+
 }
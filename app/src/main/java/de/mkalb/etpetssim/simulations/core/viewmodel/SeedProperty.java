@@ -113,7 +113,7 @@ public final class SeedProperty {
      * @param text the seed string (may be null or blank for random)
      * @return the computed seed as a long
      */
-    static long computeSeed(@Nullable String text) {
+    public static long computeSeed(@Nullable String text) {
         if (isRandomSeed(text)) {
             // Use a random long if no seed is provided
             return ThreadLocalRandom.current().nextLong();
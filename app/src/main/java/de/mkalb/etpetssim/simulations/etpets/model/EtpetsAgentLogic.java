@@ -23,19 +23,22 @@ public final class EtpetsAgentLogic {
 
     public static void apply(Random random,
                              EtpetsGridModel gridModel,
+                             NeighborTable neighborTable,
                              EtpetsIdSequence idSequence,
                              int stepIndex,
                              EtpetsStatistics statistics) {
         int activePetCountChange = 0;
         int eggCountChange = 0;
         int cumulativeDeadPetCountChange = 0;
-        GridStructure structure = gridModel.structure();
         WritableGridModel<AgentEntity> agentModel = gridModel.agentModel();
 
         // Snapshot of all non-default agent cells, sorted by id to ensure deterministic processing order.
         List<GridCell<AgentEntity>> agentCells = agentModel.nonDefaultCells();
         agentCells.sort(AGENT_ORDERING_STRATEGY);
 
+        // Reused by all pets of this step for their radius-2 neighborhood.
+        RadiusRingBuffer ringBuffer = new RadiusRingBuffer();
+
         for (GridCell<AgentEntity> cell : agentCells) {
             GridCoordinate currentCoordinate = cell.coordinate();
             AgentEntity entity = cell.entity();
@@ -92,7 +95,8 @@ public final class EtpetsAgentLogic {
                         pet,
                         currentCoordinate,
                         gridModel,
-                        structure,
+                        neighborTable,
+                        ringBuffer,
                         stepIndex,
                         random,
                         idSequence);
@@ -107,7 +111,8 @@ public final class EtpetsAgentLogic {
     private static ActionEffect selectAndExecuteAction(Pet pet,
                                                        GridCoordinate currentCoordinate,
                                                        EtpetsGridModel gridModel,
-                                                       GridStructure structure,
+                                                       NeighborTable neighborTable,
+                                                       RadiusRingBuffer ringBuffer,
                                                        int stepIndex,
                                                        Random random,
                                                        EtpetsIdSequence idSequence) {
@@ -115,7 +120,8 @@ public final class EtpetsAgentLogic {
                 pet,
                 currentCoordinate,
                 gridModel,
-                structure,
+                neighborTable,
+                ringBuffer,
                 stepIndex,
                 random);
 
@@ -141,36 +147,28 @@ public final class EtpetsAgentLogic {
     private static List<ActionCandidate> collectActionCandidates(Pet pet,
                                                                  GridCoordinate currentCoordinate,
                                                                  EtpetsGridModel gridModel,
-                                                                 GridStructure structure,
+                                                                 NeighborTable neighborTable,
+                                                                 RadiusRingBuffer ringBuffer,
                                                                  int stepIndex,
                                                                  Random random) {
-        SortedMap<Integer, SortedMap<GridCoordinate, RadiusRingCell<EtpetsCell>>> neighborhoodCellsByRing =
-                CellNeighborhoods.cellsByRadiusRings(currentCoordinate,
-                        NeighborhoodMode.EDGES_ONLY,
-                        structure,
-                        2,
-                        c -> EtpetsCell.of(gridModel, c));
-
-        // Flat map used by egg-placement search (needs all rings merged).
-        SortedMap<GridCoordinate, RadiusRingCell<EtpetsCell>> snapshotCellsByCoordinate = new TreeMap<>();
-        for (SortedMap<GridCoordinate, RadiusRingCell<EtpetsCell>> ringCells : neighborhoodCellsByRing.values()) {
-            snapshotCellsByCoordinate.putAll(ringCells);
-        }
+        ringBuffer.fill(currentCoordinate, NeighborhoodMode.EDGES_ONLY, neighborTable.structure(), 2);
+        EtpetsCellCursor cursor = gridModel.cellCursor();
+        int ring1Start = ringBuffer.ringStart(1);
+        int ring1Size = ringBuffer.ringEnd(1) - ring1Start;
 
         boolean canSelfReproduce = pet.isReproductionEligibleByState(stepIndex);
 
         // Pass 1: Ring 2 → determine which ring-1 cells gain look-ahead score bonuses.
-        Set<GridCoordinate> ring1HasResourceBonus = new HashSet<>();
-        Set<GridCoordinate> ring1HasPartnerBonus = new HashSet<>();
-        SortedMap<GridCoordinate, RadiusRingCell<EtpetsCell>> ring2Cells =
-                neighborhoodCellsByRing.getOrDefault(2, Collections.emptySortedMap());
-        for (RadiusRingCell<EtpetsCell> ring2Cell : ring2Cells.values()) {
-            EtpetsCell cell = ring2Cell.cell();
-            if (toConsumableResource(cell.resourceEntity()).isPresent()) {
-                ring1HasResourceBonus.addAll(ring2Cell.reachedFromPreviousRing());
-            }
-            if (canSelfReproduce && isValidReproductionPartner(pet, cell, stepIndex)) {
-                ring1HasPartnerBonus.addAll(ring2Cell.reachedFromPreviousRing());
+        boolean[] ring1HasResourceBonus = new boolean[ring1Size];
+        boolean[] ring1HasPartnerBonus = new boolean[ring1Size];
+        for (int position = ringBuffer.ringStart(2); position < ringBuffer.ringEnd(2); position++) {
+            cursor.moveTo(ringBuffer.cellIndexAt(position));
+            boolean hasResource = toConsumableResource(cursor.resourceEntity()).isPresent();
+            boolean hasPartner = canSelfReproduce && isValidReproductionPartner(pet, cursor.agentEntity(), stepIndex);
+            for (int entry = ringBuffer.predecessorStart(position); entry < ringBuffer.predecessorEnd(position); entry++) {
+                int ring1Offset = ringBuffer.predecessorAt(entry) - ring1Start;
+                ring1HasResourceBonus[ring1Offset] |= hasResource;
+                ring1HasPartnerBonus[ring1Offset] |= hasPartner;
             }
         }
 
@@ -180,13 +178,10 @@ public final class EtpetsAgentLogic {
         //         collect EAT/REPRODUCE data for ring 0.
         List<EtpetsCell> ring0Consumables = new ArrayList<>();
         List<ReproductionOption> ring0ReproductionOptions = new ArrayList<>();
-        Set<GridCoordinate> ring1HasLowMobilityPenalty = new HashSet<>();
-        Set<GridCoordinate> ring1HasCrowdingPenalty = new HashSet<>();
-        SortedMap<GridCoordinate, RadiusRingCell<EtpetsCell>> ring1Cells =
-                neighborhoodCellsByRing.getOrDefault(1, Collections.emptySortedMap());
-        for (RadiusRingCell<EtpetsCell> ring1Cell : ring1Cells.values()) {
-            EtpetsCell cell = ring1Cell.cell();
-            GridCoordinate coordinate = ring1Cell.coordinate();
+        for (int ring1Offset = 0; ring1Offset < ring1Size; ring1Offset++) {
+            cursor.moveTo(ringBuffer.cellIndexAt(ring1Start + ring1Offset));
+            EtpetsCell cell = cursor.toCell();
+            GridCoordinate coordinate = cell.coordinate();
 
             // EAT candidates adjacent to the current position (ring 0).
             if (toConsumableResource(cell.resourceEntity()).isPresent()) {
@@ -194,29 +189,22 @@ public final class EtpetsAgentLogic {
             }
 
             // REPRODUCE candidates adjacent to the current position (ring 0).
-            if (canSelfReproduce && isValidReproductionPartner(pet, cell, stepIndex)) {
-                computeEggPlacementCoordinate(structure, currentCoordinate, coordinate, snapshotCellsByCoordinate)
+            if (canSelfReproduce && isValidReproductionPartner(pet, cell.agentEntity(), stepIndex)) {
+                computeEggPlacementCoordinate(neighborTable, currentCoordinate, coordinate, cursor)
                         .ifPresent(eggCoord -> ring0ReproductionOptions.add(new ReproductionOption(cell, eggCoord)));
             }
 
             // MOVE candidates: only walkable ring-1 cells.
             if (cell.isWalkable()) {
-                List<GridCoordinate> neighborCoordinates = computeValidNeighborCoordinates(structure, coordinate);
-                if (hasLowMobilityPenalty(gridModel, neighborCoordinates)) {
-                    ring1HasLowMobilityPenalty.add(coordinate);
-                }
-                if (hasCrowdingPenalty(gridModel, neighborCoordinates)) {
-                    ring1HasCrowdingPenalty.add(coordinate);
-                }
-
+                List<GridCoordinate> neighborCoordinates = computeValidNeighborCoordinates(neighborTable, coordinate);
                 int moveScore = computeMoveScore(
                         pet,
                         coordinate,
                         cell,
-                        ring1HasResourceBonus,
-                        ring1HasPartnerBonus,
-                        ring1HasLowMobilityPenalty,
-                        ring1HasCrowdingPenalty,
+                        ring1HasResourceBonus[ring1Offset],
+                        ring1HasPartnerBonus[ring1Offset],
+                        hasLowMobilityPenalty(cursor, neighborCoordinates),
+                        hasCrowdingPenalty(cursor, neighborCoordinates),
                         random);
                 candidates.add(new ActionCandidate(PetActionType.MOVE, moveScore,
                         coordinate, coordinate, null));
@@ -387,10 +375,10 @@ public final class EtpetsAgentLogic {
     private static int computeMoveScore(Pet pet,
                                         GridCoordinate coordinate,
                                         EtpetsCell cell,
-                                        Set<GridCoordinate> ring1HasResourceBonus,
-                                        Set<GridCoordinate> ring1HasPartnerBonus,
-                                        Set<GridCoordinate> ring1HasLowMobilityPenalty,
-                                        Set<GridCoordinate> ring1HasCrowdingPenalty,
+                                        boolean hasResourceBonus,
+                                        boolean hasPartnerBonus,
+                                        boolean hasLowMobilityPenalty,
+                                        boolean hasCrowdingPenalty,
                                         Random random) {
         double energyRatio = clampToUnitRange((double) pet.currentEnergy() / pet.traits().maxEnergy());
         boolean isGroundWithoutTrail = false;
@@ -406,10 +394,10 @@ public final class EtpetsAgentLogic {
         double rawScore = EtpetsScoreMath.computeRawMoveScore(
                 energyRatio,
                 pet.traits().movementCostModifier(),
-                ring1HasResourceBonus.contains(coordinate),
-                ring1HasPartnerBonus.contains(coordinate),
-                ring1HasLowMobilityPenalty.contains(coordinate),
-                ring1HasCrowdingPenalty.contains(coordinate),
+                hasResourceBonus,
+                hasPartnerBonus,
+                hasLowMobilityPenalty,
+                hasCrowdingPenalty,
                 isGroundWithoutTrail,
                 trailIntensity,
                 hasOscillationHistoryMatch);
@@ -497,9 +485,9 @@ public final class EtpetsAgentLogic {
     }
 
     private static boolean isValidReproductionPartner(Pet pet,
-                                                      EtpetsCell partnerCell,
+                                                      AgentEntity partnerEntity,
                                                       int stepIndex) {
-        if (!(partnerCell.agentEntity() instanceof Pet partnerPet)) {
+        if (!(partnerEntity instanceof Pet partnerPet)) {
             return false;
         }
         return canReproduce(pet, partnerPet, stepIndex);
@@ -532,14 +520,14 @@ public final class EtpetsAgentLogic {
         return (secondPet.parentBId() != null) && idsA.contains(secondPet.parentBId());
     }
 
-    private static Optional<GridCoordinate> computeEggPlacementCoordinate(GridStructure gridStructure,
+    private static Optional<GridCoordinate> computeEggPlacementCoordinate(NeighborTable neighborTable,
                                                                           GridCoordinate sourceCoordinate,
                                                                           GridCoordinate partnerCoordinate,
-                                                                          Map<GridCoordinate, RadiusRingCell<EtpetsCell>> snapshotCellsByCoordinate) {
+                                                                          EtpetsCellCursor cursor) {
         // TODO Optimize method
-        List<GridCoordinate> sourceNeighbors = computeValidNeighborCoordinates(gridStructure, sourceCoordinate);
+        List<GridCoordinate> sourceNeighbors = computeValidNeighborCoordinates(neighborTable, sourceCoordinate);
         Set<GridCoordinate> sourceNeighborSet = new HashSet<>(sourceNeighbors);
-        List<GridCoordinate> partnerNeighbors = computeValidNeighborCoordinates(gridStructure, partnerCoordinate);
+        List<GridCoordinate> partnerNeighbors = computeValidNeighborCoordinates(neighborTable, partnerCoordinate);
 
         List<GridCoordinate> candidates = new ArrayList<>();
         for (GridCoordinate coordinate : partnerNeighbors) {
@@ -547,18 +535,14 @@ public final class EtpetsAgentLogic {
                 continue;
             }
 
-            RadiusRingCell<EtpetsCell> ringCellSnapshot = snapshotCellsByCoordinate.get(coordinate);
-            if (ringCellSnapshot == null) {
-                continue;
-            }
-            EtpetsCell cellSnapshot = ringCellSnapshot.cell();
-            if (cellSnapshot.terrainEntity() != TerrainConstant.GROUND) {
+            cursor.moveTo(coordinate);
+            if (cursor.terrainEntity() != TerrainConstant.GROUND) {
                 continue;
             }
-            if (cellSnapshot.resourceEntity().isNotEmpty()) {
+            if (cursor.resourceEntity().isNotEmpty()) {
                 continue;
             }
-            if (cellSnapshot.agentEntity().isNotEmpty()) {
+            if (cursor.agentEntity().isNotEmpty()) {
                 continue;
             }
             candidates.add(coordinate);
@@ -571,35 +555,37 @@ public final class EtpetsAgentLogic {
         return Optional.of(candidates.getFirst());
     }
 
-    private static List<GridCoordinate> computeValidNeighborCoordinates(GridStructure gridStructure,
+    private static List<GridCoordinate> computeValidNeighborCoordinates(NeighborTable neighborTable,
                                                                         GridCoordinate originCoordinate) {
-        Collection<EdgeBehaviorResult> results =
-                CellNeighborhoods.neighborEdgeResults(originCoordinate, NeighborhoodMode.EDGES_ONLY, gridStructure);
-        List<GridCoordinate> valid = new ArrayList<>(results.size());
-        for (EdgeBehaviorResult r : results) {
-            if (r.action() == EdgeBehaviorAction.VALID) {
-                valid.add(r.mapped());
+        GridStructure gridStructure = neighborTable.structure();
+        int originIndex = gridStructure.indexOf(originCoordinate);
+        List<GridCoordinate> valid = new ArrayList<>(neighborTable.neighborCount(originIndex));
+        for (int entry = neighborTable.start(originIndex), end = neighborTable.end(originIndex); entry < end; entry++) {
+            if (!neighborTable.isWrapped(entry)) {
+                valid.add(gridStructure.coordinateOf(neighborTable.neighborAt(entry)));
             }
         }
         return valid;
     }
 
-    private static boolean hasLowMobilityPenalty(EtpetsGridModel gridModel,
+    private static boolean hasLowMobilityPenalty(EtpetsCellCursor cursor,
                                                  List<GridCoordinate> neighborCoordinates) {
         int walkableCount = 0;
         for (GridCoordinate neighbor : neighborCoordinates) {
-            if (EtpetsCell.of(gridModel, neighbor).isWalkable()) {
+            cursor.moveTo(neighbor);
+            if (cursor.isWalkable()) {
                 walkableCount++;
             }
         }
         return walkableCount < EtpetsBalance.PET_MOVE_LOW_MOBILITY_THRESHOLD;
     }
 
-    private static boolean hasCrowdingPenalty(EtpetsGridModel gridModel,
+    private static boolean hasCrowdingPenalty(EtpetsCellCursor cursor,
                                               List<GridCoordinate> neighborCoordinates) {
         int petCount = 0;
         for (GridCoordinate neighbor : neighborCoordinates) {
-            AgentEntity agent = gridModel.agentModel().getEntity(neighbor);
+            cursor.moveTo(neighbor);
+            AgentEntity agent = cursor.agentEntity();
             if ((agent instanceof Pet pet) && !pet.isDead()) {
                 petCount++;
             }
@@ -27,12 +27,35 @@ public record EtpetsCell(GridCoordinate coordinate,
      * @param model      the ET-Pets grid model providing all layers
      * @param coordinate the coordinate to read
      * @return the composed cell snapshot for the coordinate
+     * @throws IndexOutOfBoundsException if the coordinate is not valid
      */
     public static EtpetsCell of(EtpetsGridModel model, GridCoordinate coordinate) {
+        if (!model.structure().isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + model.structure());
+        }
+        int cellOffset = model.layers().cellOffset(model.structure().indexOf(coordinate));
         return new EtpetsCell(coordinate,
-                model.terrainModel().getEntity(coordinate),
-                model.resourceModel().getEntity(coordinate),
-                model.agentModel().getEntity(coordinate));
+                model.terrainModel().getEntityAtCellOffset(cellOffset),
+                model.resourceModel().getEntityAtCellOffset(cellOffset),
+                model.agentModel().getEntityAtCellOffset(cellOffset));
+    }
+
+    static EtpetsEntity effectiveEntity(TerrainEntity terrainEntity,
+                                        ResourceEntity resourceEntity,
+                                        AgentEntity agentEntity) {
+        if (agentEntity.isNotEmpty()) {
+            return agentEntity;
+        } else if (resourceEntity.isNotEmpty()) {
+            return resourceEntity;
+        } else {
+            return terrainEntity;
+        }
+    }
+
+    static boolean isWalkable(TerrainEntity terrainEntity,
+                              ResourceEntity resourceEntity,
+                              AgentEntity agentEntity) {
+        return terrainEntity.isWalkable() && resourceEntity.isEmpty() && agentEntity.isEmpty();
     }
 
     /**
@@ -44,13 +67,7 @@ public record EtpetsCell(GridCoordinate coordinate,
      */
     @Override
     public EtpetsEntity entity() {
-        if (agentEntity.isNotEmpty()) {
-            return agentEntity;
-        } else if (resourceEntity.isNotEmpty()) {
-            return resourceEntity;
-        } else {
-            return terrainEntity;
-        }
+        return effectiveEntity(terrainEntity, resourceEntity, agentEntity);
     }
 
     /**
@@ -78,7 +95,7 @@ public record EtpetsCell(GridCoordinate coordinate,
      * @return true if the cell can be walked on by an agent
      */
     public boolean isWalkable() {
-        return terrainEntity.isWalkable() && resourceEntity.isEmpty() && agentEntity.isEmpty();
+        return isWalkable(terrainEntity, resourceEntity, agentEntity);
     }
 
 }
@@ -0,0 +1,101 @@
+package de.mkalb.etpetssim.simulations.etpets.model;
+
+import de.mkalb.etpetssim.engine.model.CompositeCellCursor;
+import de.mkalb.etpetssim.simulations.etpets.model.entity.*;
+
+/**
+ * Reusable, mutable view of all ET-Pets layers at one grid position.
+ * <p>
+ * Unlike {@link EtpetsCell}, the cursor is moved from cell to cell instead of being created per cell,
+ * and reads the three layers at one offset of the fused storage (see {@link EtpetsGridModel#layers()})
+ * after a single coordinate validation.
+ * Use {@link #toCell()} to keep the current values.
+ */
+public final class EtpetsCellCursor extends CompositeCellCursor<EtpetsEntity> {
+
+    private final EtpetsGridModel model;
+    private TerrainEntity terrainEntity;
+    private ResourceEntity resourceEntity;
+    private AgentEntity agentEntity;
+
+    /**
+     * Creates a cursor for the given model, positioned at the first cell.
+     *
+     * @param model the ET-Pets grid model providing all layers
+     */
+    public EtpetsCellCursor(EtpetsGridModel model) {
+        super(model.structure());
+        this.model = model;
+        terrainEntity = model.terrainModel().defaultEntity();
+        resourceEntity = model.resourceModel().defaultEntity();
+        agentEntity = model.agentModel().defaultEntity();
+        moveTo(0);
+    }
+
+    @Override
+    protected void load(int cellIndex) {
+        int cellOffset = model.layers().cellOffset(cellIndex);
+        terrainEntity = model.terrainModel().getEntityAtCellOffset(cellOffset);
+        resourceEntity = model.resourceModel().getEntityAtCellOffset(cellOffset);
+        agentEntity = model.agentModel().getEntityAtCellOffset(cellOffset);
+    }
+
+    /**
+     * Returns the terrain layer entity at the current position.
+     *
+     * @return the terrain entity of the current cell
+     */
+    public TerrainEntity terrainEntity() {
+        return terrainEntity;
+    }
+
+    /**
+     * Returns the resource layer entity at the current position.
+     *
+     * @return the resource entity of the current cell
+     */
+    public ResourceEntity resourceEntity() {
+        return resourceEntity;
+    }
+
+    /**
+     * Returns the agent layer entity at the current position.
+     *
+     * @return the agent entity of the current cell
+     */
+    public AgentEntity agentEntity() {
+        return agentEntity;
+    }
+
+    /**
+     * Returns the effective entity visible at the current position.
+     * <p>
+     * Priority order is: agent, then resource, then terrain.
+     *
+     * @return the top-most non-empty ET-Pets entity
+     */
+    @Override
+    public EtpetsEntity entity() {
+        return EtpetsCell.effectiveEntity(terrainEntity, resourceEntity, agentEntity);
+    }
+
+    /**
+     * Returns true if the current cell is traversable and currently unoccupied:
+     * walkable terrain, no resource, no agent.
+     *
+     * @return true if the cell can be walked on by an agent
+     */
+    public boolean isWalkable() {
+        return EtpetsCell.isWalkable(terrainEntity, resourceEntity, agentEntity);
+    }
+
+    /**
+     * Returns an immutable snapshot of the current position.
+     *
+     * @return the cell snapshot
+     */
+    public EtpetsCell toCell() {
+        return new EtpetsCell(coordinate(), terrainEntity, resourceEntity, agentEntity);
+    }
+
+}
@@ -8,6 +8,9 @@ import java.util.*;
 
 /**
  * Composite grid model for ET Pets with terrain, resource, and agent layers.
+ * <p>
+ * The three layers are views of one {@link FusedGridLayers} storage, so all layers of a cell are stored
+ * next to each other and are read with one cell offset (see {@link #cellCursor()}).
  *
  * @param structure     the shared grid structure of all sub-models
  * @param terrainModel  the terrain layer
@@ -16,26 +19,66 @@ import java.util.*;
  */
 public record EtpetsGridModel(
         GridStructure structure,
-        WritableGridModel<TerrainEntity> terrainModel,
-        WritableGridModel<ResourceEntity> resourceModel,
-        WritableGridModel<AgentEntity> agentModel)
+        FusedLayerGridModel<TerrainEntity> terrainModel,
+        FusedLayerGridModel<ResourceEntity> resourceModel,
+        FusedLayerGridModel<AgentEntity> agentModel)
         implements CompositeGridModel<EtpetsEntity> {
 
     public EtpetsGridModel {
-        if (!structure.equals(terrainModel.structure())
-                || !structure.equals(resourceModel.structure())
-                || !structure.equals(agentModel.structure())) {
+        if (!structure.equals(terrainModel.structure())) {
             throw new IllegalArgumentException("All structures must be the same");
         }
+        if ((resourceModel.layers() != terrainModel.layers())
+                || (agentModel.layers() != terrainModel.layers())) {
+            throw new IllegalArgumentException("All layers must share the same fused storage");
+        }
+    }
+
+    /**
+     * Creates a new model with all cells set to the default entities
+     * {@link TerrainConstant#GROUND}, {@link NoResource#NO_RESOURCE} and {@link NoAgent#NO_AGENT}.
+     *
+     * @param structure the grid structure of all layers
+     */
+    public EtpetsGridModel(GridStructure structure) {
+        this(new FusedGridLayers(structure, 3));
+    }
+
+    private EtpetsGridModel(FusedGridLayers layers) {
+        // The arguments are evaluated from left to right, so the layers are numbered in this order.
+        this(layers.structure(),
+                layers.addLayer(TerrainConstant.GROUND),
+                layers.addLayer(NoResource.NO_RESOURCE),
+                layers.addLayer(NoAgent.NO_AGENT));
+    }
+
+    /**
+     * Returns the fused storage shared by the three layers.
+     *
+     * @return the fused storage of all layers
+     */
+    public FusedGridLayers layers() {
+        return terrainModel.layers();
     }
 
     @Override
     public List<EtpetsEntity> getEntities(GridCoordinate coordinate) {
-        return List.of(
-                terrainModel.getEntity(coordinate),
-                resourceModel.getEntity(coordinate),
-                agentModel.getEntity(coordinate)
-        );
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        int cellOffset = layers().cellOffset(structure.indexOf(coordinate));
+        return List.of(terrainModel.getEntityAtCellOffset(cellOffset),
+                resourceModel.getEntityAtCellOffset(cellOffset),
+                agentModel.getEntityAtCellOffset(cellOffset));
+    }
+
+    /**
+     * Creates a reusable cursor reading all three layers of this model at one position.
+     *
+     * @return a new cursor positioned at the first cell
+     */
+    public EtpetsCellCursor cellCursor() {
+        return new EtpetsCellCursor(this);
     }
 
     @Override
@@ -2,7 +2,7 @@ package de.mkalb.etpetssim.simulations.etpets.model;
 
 import de.mkalb.etpetssim.engine.*;
 import de.mkalb.etpetssim.engine.executor.*;
-import de.mkalb.etpetssim.engine.model.SparseGridModel;
+import de.mkalb.etpetssim.engine.support.RandomStreams;
 import de.mkalb.etpetssim.simulations.core.model.AbstractTimedSimulationManager;
 import de.mkalb.etpetssim.simulations.etpets.model.entity.*;
 
@@ -20,13 +20,8 @@ public final class EtpetsSimulationManager
 
         structure = config.createGridStructure();
         statistics = new EtpetsStatistics(structure);
-        var random = new Random(config.seed());
-        var model = new EtpetsGridModel(
-                structure,
-                new SparseGridModel<>(structure, TerrainConstant.GROUND),
-                new SparseGridModel<>(structure, NoResource.NO_RESOURCE),
-                new SparseGridModel<>(structure, NoAgent.NO_AGENT)
-        );
+        var random = new RandomStreams(config.seed()).random();
+        var model = new EtpetsGridModel(structure);
 
         var idSequence = new EtpetsIdSequence(1);
 
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.etpets.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -46,6 +48,15 @@ public final class EtpetsStatistics extends BaseTimedSimulationStatistics {
         return cumulativePetDeathCount;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("activePetCells", activePetCells);
+        values.put("eggCells", eggCells);
+        values.put("cumulativePetDeathCount", cumulativePetDeathCount);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "EtpetsStatistics{" +
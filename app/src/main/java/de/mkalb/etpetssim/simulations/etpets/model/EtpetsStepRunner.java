@@ -1,6 +1,7 @@
 package de.mkalb.etpetssim.simulations.etpets.model;
 
 import de.mkalb.etpetssim.engine.executor.SimulationStepRunner;
+import de.mkalb.etpetssim.engine.neighborhood.*;
 
 import java.util.*;
 
@@ -10,6 +11,7 @@ public final class EtpetsStepRunner
     private final Random random;
     private final EtpetsGridModel model;
     private final EtpetsIdSequence idSequence;
+    private final NeighborTable neighborTable;
 
     public EtpetsStepRunner(Random random,
                             EtpetsGridModel model,
@@ -17,6 +19,7 @@ public final class EtpetsStepRunner
         this.random = random;
         this.model = model;
         this.idSequence = idSequence;
+        neighborTable = NeighborTable.build(model.structure(), NeighborhoodMode.EDGES_ONLY);
     }
 
     public EtpetsGridModel model() {
@@ -25,7 +28,7 @@ public final class EtpetsStepRunner
 
     @Override
     public void performStep(int stepIndex, EtpetsStatistics statistics) {
-        EtpetsAgentLogic.apply(random, model, idSequence, stepIndex, statistics);
+        EtpetsAgentLogic.apply(random, model, neighborTable, idSequence, stepIndex, statistics);
         EtpetsResourceLogic.apply(model);
         EtpetsTerrainLogic.apply(model);
     }
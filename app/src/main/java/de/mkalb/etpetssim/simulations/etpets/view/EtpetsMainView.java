@@ -1,6 +1,8 @@
 package de.mkalb.etpetssim.simulations.etpets.view;
 
 import de.mkalb.etpetssim.core.*;
+import de.mkalb.etpetssim.engine.GridCoordinate;
+import de.mkalb.etpetssim.engine.model.GridCell;
 import de.mkalb.etpetssim.engine.model.entity.*;
 import de.mkalb.etpetssim.simulations.core.shared.SimulationUserActionScope;
 import de.mkalb.etpetssim.simulations.core.view.*;
@@ -313,35 +315,30 @@ public final class EtpetsMainView extends AbstractDefaultMainView<
         var agentModel = currentModel.agentModel();
 
         var rockDescriptor = entityDescriptorRegistry.requireByDescriptorId(EtpetsEntity.DESCRIPTOR_ID_ROCK);
-        terrainModel.filteredCoordinates(e -> EtpetsEntity.DESCRIPTOR_ID_ROCK.equals(e.descriptorId()))
-                    .forEach(coordinate ->
-                            dynamicPainter.drawCell(coordinate, rockDescriptor.color(), rockDescriptor.borderColor(), NO_STROKE_LINE_WIDTH));
+        terrainModel.forEachMatching(e -> EtpetsEntity.DESCRIPTOR_ID_ROCK.equals(e.descriptorId()), (x, y, _) ->
+                dynamicPainter.drawCell(new GridCoordinate(x, y), rockDescriptor.color(), rockDescriptor.borderColor(), NO_STROKE_LINE_WIDTH));
 
         var waterDescriptor = entityDescriptorRegistry.requireByDescriptorId(EtpetsEntity.DESCRIPTOR_ID_WATER);
-        terrainModel.filteredCoordinates(e -> EtpetsEntity.DESCRIPTOR_ID_WATER.equals(e.descriptorId()))
-                    .forEach(coordinate ->
-                            dynamicPainter.drawCell(coordinate, waterDescriptor.color(), waterDescriptor.borderColor(), NO_STROKE_LINE_WIDTH));
-
-        terrainModel.filteredCells(e -> e instanceof Trail)
-                    .forEach(cell -> cellTerrainDrawer.draw(
-                            entityDescriptorRegistry.requireByDescriptorId(cell.descriptorId()),
-                            dynamicPainter,
-                            cell,
-                            stepCount));
-
-        resourceModel.nonDefaultCells()
-                     .forEach(cell -> cellResourceDrawer.draw(
-                             entityDescriptorRegistry.requireByDescriptorId(cell.descriptorId()),
-                             dynamicPainter,
-                             cell,
-                             stepCount));
-
-        agentModel.nonDefaultCells()
-                  .forEach(cell -> cellAgentDrawer.draw(
-                          entityDescriptorRegistry.requireByDescriptorId(cell.descriptorId()),
-                          dynamicPainter,
-                          cell,
-                          stepCount));
+        terrainModel.forEachMatching(e -> EtpetsEntity.DESCRIPTOR_ID_WATER.equals(e.descriptorId()), (x, y, _) ->
+                dynamicPainter.drawCell(new GridCoordinate(x, y), waterDescriptor.color(), waterDescriptor.borderColor(), NO_STROKE_LINE_WIDTH));
+
+        terrainModel.forEachMatching(e -> e instanceof Trail, (x, y, terrain) -> cellTerrainDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(terrain.descriptorId()),
+                dynamicPainter,
+                new GridCell<>(new GridCoordinate(x, y), terrain),
+                stepCount));
+
+        resourceModel.forEachNonDefault((x, y, resource) -> cellResourceDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(resource.descriptorId()),
+                dynamicPainter,
+                new GridCell<>(new GridCoordinate(x, y), resource),
+                stepCount));
+
+        agentModel.forEachNonDefault((x, y, agent) -> cellAgentDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(agent.descriptorId()),
+                dynamicPainter,
+                new GridCell<>(new GridCoordinate(x, y), agent),
+                stepCount));
     }
 
     @Override
@@ -3,11 +3,12 @@ package de.mkalb.etpetssim.simulations.forest.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.engine.executor.*;
 import de.mkalb.etpetssim.engine.model.*;
-import de.mkalb.etpetssim.engine.support.GridInitializers;
+import de.mkalb.etpetssim.engine.support.*;
 import de.mkalb.etpetssim.simulations.core.model.AbstractTimedSimulationManager;
 import de.mkalb.etpetssim.simulations.forest.model.entity.ForestEntity;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public final class ForestSimulationManager
         extends AbstractTimedSimulationManager<ForestEntity, WritableGridModel<ForestEntity>, ForestConfig,
@@ -18,14 +19,27 @@ public final class ForestSimulationManager
     private final TimedSimulationExecutor<ForestEntity, WritableGridModel<ForestEntity>> executor;
 
     public ForestSimulationManager(ForestConfig config) {
+        this(config, true);
+    }
+
+    /**
+     * Constructs a new simulation manager.
+     *
+     * @param config        the configuration of the simulation
+     * @param parallelSteps {@code true} to process the row bands of each step on the common pool,
+     *                      {@code false} to process them one after another on the calling thread
+     */
+    public ForestSimulationManager(ForestConfig config, boolean parallelSteps) {
         super(config);
 
         structure = config.createGridStructure();
         statistics = new ForestStatistics(structure);
-        var random = new Random(config.seed());
-        var model = new ArrayGridModel<>(structure, ForestEntity.EMPTY);
+        var randomStreams = new RandomStreams(config.seed());
+        var random = randomStreams.random();
+        var model = new EnumGridModel<>(structure, ForestEntity.EMPTY);
 
-        var runner = new SynchronousStepRunner<>(model, new ForestUpdateStrategy(structure, config, random));
+        var runner = new ParallelSynchronousStepRunner<>(model, new ForestUpdateStrategy(structure, config, randomStreams),
+                parallelSteps ? ForkJoinPool.commonPool() : null, ParallelSynchronousStepRunner.DEFAULT_MAX_BAND_COUNT);
         var terminationCondition = new ForestTerminationCondition();
         executor = new TimedSimulationExecutor<>(new DefaultSimulationExecutor<>(runner, runner::currentModel, terminationCondition, statistics));
 
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.forest.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -59,6 +61,17 @@ public final class ForestStatistics
         return burningCells;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("maxTreeCells", maxTreeCells);
+        values.put("maxBurningCells", maxBurningCells);
+        values.put("emptyCells", emptyCells);
+        values.put("treeCells", treeCells);
+        values.put("burningCells", burningCells);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "ForestStatistics{" +
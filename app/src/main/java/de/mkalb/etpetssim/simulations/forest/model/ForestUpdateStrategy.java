@@ -1,68 +1,102 @@
 package de.mkalb.etpetssim.simulations.forest.model;
 
-import de.mkalb.etpetssim.engine.GridStructure;
-import de.mkalb.etpetssim.engine.executor.SynchronousStepLogic;
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.executor.*;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.neighborhood.*;
+import de.mkalb.etpetssim.engine.support.RandomStreams;
 import de.mkalb.etpetssim.simulations.forest.model.entity.ForestEntity;
 
 import java.util.*;
 
-public final class ForestUpdateStrategy implements SynchronousStepLogic<ForestEntity, ForestStatistics> {
+public final class ForestUpdateStrategy
+        implements BandedSynchronousStepLogic<ForestEntity, ForestStatistics, ForestUpdateStrategy.CellCounts> {
 
-    private final GridStructure structure;
     private final ForestConfig config;
-    private final Random random;
+    private final RandomStreams randomStreams;
+    private final NeighborTable neighborTable;
 
-    public ForestUpdateStrategy(GridStructure structure, ForestConfig config, Random random) {
-        this.structure = structure;
+    public ForestUpdateStrategy(GridStructure structure, ForestConfig config, RandomStreams randomStreams) {
         this.config = config;
-        this.random = random;
+        this.randomStreams = randomStreams;
+        neighborTable = NeighborTable.build(structure, config.neighborhoodMode());
     }
 
     @Override
-    public void performSynchronousStep(ReadableGridModel<ForestEntity> currentModel,
-                                       WritableGridModel<ForestEntity> nextModel,
-                                       int stepIndex,
-                                       ForestStatistics statistics) {
-        currentModel.allCells()
-                    .stream()
-                    .map(c -> processCell(c, currentModel))
-                    .filter(c -> !c.entity().isEmpty())
-                    .forEach(nextModel::setEntity);
-        int treeCells = Math.toIntExact(nextModel.countEntities(ForestEntity::isTree));
-        int burningCells = Math.toIntExact(nextModel.countEntities(ForestEntity::isBurning));
+    public CellCounts createBandResult(GridRowBand band, int stepIndex, ForestStatistics statistics) {
+        return new CellCounts();
+    }
+
+    @Override
+    public void performBandStep(ReadableGridModel<ForestEntity> currentModel,
+                                WritableGridModel<ForestEntity> nextModel,
+                                GridRowBand band,
+                                int stepIndex,
+                                CellCounts counts) {
+        for (int index = band.startIndex(), endIndex = band.endIndex(); index < endIndex; index++) {
+            ForestEntity nextEntity = processCell(index, currentModel.getEntity(index), currentModel, stepIndex);
+            if (!nextEntity.isEmpty()) {
+                nextModel.setEntity(index, nextEntity);
+                if (nextEntity.isTree()) {
+                    counts.treeCells++;
+                } else if (nextEntity.isBurning()) {
+                    counts.burningCells++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void completeStep(List<CellCounts> bandCounts, int stepIndex, ForestStatistics statistics) {
+        int treeCells = 0;
+        int burningCells = 0;
+        for (CellCounts counts : bandCounts) {
+            treeCells += counts.treeCells;
+            burningCells += counts.burningCells;
+        }
 
         statistics.updateCellCounts(treeCells, burningCells);
     }
 
-    private GridCell<ForestEntity> processCell(GridCell<ForestEntity> cell,
-                                               ReadableGridModel<ForestEntity> model) {
-        return switch (cell.entity()) {
+    private ForestEntity processCell(int index, ForestEntity entity,
+                                     ReadableGridModel<ForestEntity> model,
+                                     int stepIndex) {
+        // One random value per cell and step, independent of the processing order.
+        return switch (entity) {
             case EMPTY -> {
-                if (random.nextDouble() < config.treeGrowthProbability()) {
-                    yield new GridCell<>(cell.coordinate(), ForestEntity.TREE);
+                if (randomStreams.nextDouble(stepIndex, index, 0) < config.treeGrowthProbability()) {
+                    yield ForestEntity.TREE;
                 }
-                yield cell;
+                yield entity;
             }
             case TREE -> {
-                if (hasBurningNeighbor(cell, model)
-                        || (random.nextDouble() < config.lightningIgnitionProbability())) {
-                    yield new GridCell<>(cell.coordinate(), ForestEntity.BURNING);
+                if (hasBurningNeighbor(index, model)
+                        || (randomStreams.nextDouble(stepIndex, index, 0) < config.lightningIgnitionProbability())) {
+                    yield ForestEntity.BURNING;
                 }
-                yield cell;
+                yield entity;
             }
-            case BURNING -> new GridCell<>(cell.coordinate(), ForestEntity.EMPTY);
+            case BURNING -> ForestEntity.EMPTY;
         };
     }
 
-    private boolean hasBurningNeighbor(GridCell<ForestEntity> cell, ReadableGridModel<ForestEntity> model) {
-        return CellNeighborhoods.cellNeighborsIgnoringEdgeBehavior(cell.coordinate(), config.neighborhoodMode(), structure.cellShape())
-                                .map(neighbor -> CellNeighborhoods.applyEdgeBehaviorToCoordinate(neighbor.neighborCoordinate(), structure))
-                                .filter(r -> (r.action() == EdgeBehaviorAction.VALID) || (r.action() == EdgeBehaviorAction.WRAPPED))
-                                .map(EdgeBehaviorResult::mapped)
-                                .map(model::getEntity)
-                                .anyMatch(ForestEntity::isBurning);
+    private boolean hasBurningNeighbor(int index, ReadableGridModel<ForestEntity> model) {
+        for (int entry = neighborTable.start(index), end = neighborTable.end(index); entry < end; entry++) {
+            if (model.getEntity(neighborTable.neighborAt(entry)).isBurning()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cell counts of one row band, merged into the {@link ForestStatistics} after each step.
+     */
+    static final class CellCounts {
+
+        private int treeCells;
+        private int burningCells;
+
     }
 
-}
\ No newline at end of file
+}
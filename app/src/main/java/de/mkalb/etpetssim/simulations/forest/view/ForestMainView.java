@@ -1,6 +1,7 @@
 package de.mkalb.etpetssim.simulations.forest.view;
 
 import de.mkalb.etpetssim.core.AppLogger;
+import de.mkalb.etpetssim.engine.GridCoordinate;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.model.entity.GridEntityDescriptorRegistry;
 import de.mkalb.etpetssim.simulations.core.shared.*;
@@ -14,7 +15,6 @@ import javafx.scene.shape.StrokeType;
 import org.jspecify.annotations.Nullable;
 
 import java.util.*;
-import java.util.function.*;
 
 public final class ForestMainView
         extends AbstractDefaultMainView<
@@ -136,18 +136,16 @@ public final class ForestMainView
 
         dynamicPainter.clearCanvasBackground();
 
-        // small helper lambda to avoid code duplication when drawing different entity types
-        Consumer<GridCell<ForestEntity>> drawCell = cell -> cellDrawer.draw(
-                entityDescriptorRegistry.requireByDescriptorId(cell.descriptorId()),
-                dynamicPainter, cell, stepCount);
+        // small helper visitor to avoid code duplication when drawing different entity types
+        CellVisitor<ForestEntity> drawCell = (x, y, entity) -> cellDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(entity.descriptorId()),
+                dynamicPainter, new GridCell<>(new GridCoordinate(x, y), entity), stepCount);
 
         // draw tree cells first
-        currentModel.filteredCells(ForestEntity::isTree)
-                    .forEach(drawCell);
+        currentModel.forEachMatching(ForestEntity::isTree, drawCell);
 
         // then draw burning cells on top for better visibility
-        currentModel.filteredCells(ForestEntity::isBurning)
-                    .forEach(drawCell);
+        currentModel.forEachMatching(ForestEntity::isBurning, drawCell);
     }
 
     @Override
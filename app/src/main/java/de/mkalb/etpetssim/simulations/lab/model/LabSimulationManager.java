@@ -30,7 +30,7 @@ public final class LabSimulationManager
         GridInitializers.placeRandomCount(INITIAL_HIGHLIGHTED_COUNT,
                                 () -> LabEntity.HIGHLIGHTED,
                                 e -> e == LabEntity.NORMAL,
-                                new Random(config.seed()))
+                                new RandomStreams(config.seed()).random())
                         .initialize(model);
 
         // Place a symmetric small cross pattern of highlighted entities
@@ -380,8 +380,7 @@ public final class LabMainView
 
         Color fillColor = FXPaintFactory.adjustColorAlpha(Color.RED, MODEL_FILL_ALPHA);
         viewModel.getCurrentModel()
-                 .nonDefaultCells()
-                 .forEach((GridCell<LabEntity> cell) -> basePainter.drawCell(cell.coordinate(), fillColor, null, NO_STROKE_LINE_WIDTH));
+                 .forEachNonDefault((x, y, _) -> basePainter.drawCell(new GridCoordinate(x, y), fillColor, null, NO_STROKE_LINE_WIDTH));
     }
 
     private void drawTest() {
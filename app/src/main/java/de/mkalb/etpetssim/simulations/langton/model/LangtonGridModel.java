@@ -27,7 +27,11 @@ public record LangtonGridModel(
 
     @Override
     public List<LangtonEntity> getEntities(GridCoordinate coordinate) {
-        return List.of(groundModel.getEntity(coordinate), antModel.getEntity(coordinate));
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        int index = structure.indexOf(coordinate);
+        return List.of(groundModel.getEntity(index), antModel.getEntity(index));
     }
 
     @Override
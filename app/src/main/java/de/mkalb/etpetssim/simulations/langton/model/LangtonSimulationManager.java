@@ -21,7 +21,7 @@ public final class LangtonSimulationManager
         structure = config.createGridStructure();
         statistics = new LangtonStatistics(structure);
         var model = new LangtonGridModel(structure,
-                new ArrayGridModel<>(structure, TerrainConstant.UNVISITED),
+                new EnumGridModel<>(structure, TerrainConstant.UNVISITED),
                 new SparseGridModel<>(structure, NoAgent.NO_AGENT));
 
         var runner = new LangtonStepRunner(config, model);
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.langton.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -37,6 +39,14 @@ public final class LangtonStatistics
         return visitedCells;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("antCells", antCells);
+        values.put("visitedCells", visitedCells);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "LangtonStatistics{" +
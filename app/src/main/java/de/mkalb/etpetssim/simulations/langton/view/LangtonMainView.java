@@ -150,15 +150,13 @@ public final class LangtonMainView
 
         if ((lastDrawnStepCount + 1) < stepCount) {
             // draw ground
-            groundModel.nonDefaultCells()
-                       .forEach(groundCell -> cellGroundDrawer.draw(
-                               entityDescriptorRegistry.requireByDescriptorId(groundCell.descriptorId()),
-                               basePainter, groundCell, stepCount));
+            groundModel.forEachNonDefault((x, y, ground) -> cellGroundDrawer.draw(
+                    entityDescriptorRegistry.requireByDescriptorId(ground.descriptorId()),
+                    basePainter, new GridCell<>(new GridCoordinate(x, y), ground), stepCount));
             // draw ant
-            antModel.nonDefaultCells()
-                    .forEach(antCell -> cellAntDrawer.draw(
-                            entityDescriptorRegistry.requireByDescriptorId(antCell.descriptorId()),
-                            dynamicPainter, antCell, stepCount));
+            antModel.forEachNonDefault((x, y, ant) -> cellAntDrawer.draw(
+                    entityDescriptorRegistry.requireByDescriptorId(ant.descriptorId()),
+                    dynamicPainter, new GridCell<>(new GridCoordinate(x, y), ant), stepCount));
         } else {
             antModel.nonDefaultCells()
                     .forEach(antCell -> {
@@ -9,6 +9,7 @@ import de.mkalb.etpetssim.simulations.core.model.AbstractTimedSimulationManager;
 import de.mkalb.etpetssim.simulations.rebounding.model.entity.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public final class ReboundingSimulationManager
         extends AbstractTimedSimulationManager<ReboundingEntity, WritableGridModel<ReboundingEntity>, ReboundingConfig,
@@ -19,15 +20,32 @@ public final class ReboundingSimulationManager
     private final TimedSimulationExecutor<ReboundingEntity, WritableGridModel<ReboundingEntity>> executor;
 
     public ReboundingSimulationManager(ReboundingConfig config) {
+        this(config, true);
+    }
+
+    /**
+     * Constructs a new simulation manager.
+     * <p>
+     * The rebounders are moved by a {@link ParallelAsynchronousStepRunner}, color class by color class and
+     * band by band, in position order within a band. This order differs from the global position order of
+     * {@link AsynchronousStepRunner}, but it does not depend on {@code parallelSteps}: a seeded run produces
+     * the same trajectories with and without parallel steps.
+     *
+     * @param config        the configuration of the simulation
+     * @param parallelSteps {@code true} to process the row bands of each step on the common pool,
+     *                      {@code false} to process them one after another on the calling thread
+     */
+    public ReboundingSimulationManager(ReboundingConfig config, boolean parallelSteps) {
         super(config);
 
         structure = config.createGridStructure();
         statistics = new ReboundingStatistics(structure);
-        var random = new Random(config.seed());
-        var model = new SparseGridModel<ReboundingEntity>(structure, TerrainConstant.GROUND);
+        var random = new RandomStreams(config.seed()).random();
+        var model = new ArrayGridModel<ReboundingEntity>(structure, TerrainConstant.GROUND);
 
         var agentStepLogic = new ReboundingStepLogic(structure, config);
-        var runner = new AsynchronousStepRunner<>(model, ReboundingEntity::isRebounder, AgentOrderingStrategies.byPosition(), agentStepLogic);
+        var runner = new ParallelAsynchronousStepRunner<>(model, ReboundingEntity::isRebounder, agentStepLogic,
+                parallelSteps ? ForkJoinPool.commonPool() : null, ParallelAsynchronousStepRunner.DEFAULT_MAX_BAND_COUNT);
         var terminationCondition = new ReboundingTerminationCondition();
         executor = new TimedSimulationExecutor<>(new DefaultSimulationExecutor<>(runner, runner::model, terminationCondition, statistics));
 
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.rebounding.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -40,6 +42,11 @@ public final class ReboundingStatistics
         movingEntityCells += 1;
     }
 
+    void decreaseCellCounts(int removedWallCells, int removedMovingEntityCells) {
+        wallCells -= removedWallCells;
+        movingEntityCells -= removedMovingEntityCells;
+    }
+
     public int getWallCells() {
         return wallCells;
     }
@@ -48,6 +55,14 @@ public final class ReboundingStatistics
         return movingEntityCells;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("wallCells", wallCells);
+        values.put("movingEntityCells", movingEntityCells);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "ReboundingStatistics{" +
@@ -1,12 +1,15 @@
 package de.mkalb.etpetssim.simulations.rebounding.model;
 
 import de.mkalb.etpetssim.engine.*;
-import de.mkalb.etpetssim.engine.executor.AgentStepLogic;
+import de.mkalb.etpetssim.engine.executor.*;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.neighborhood.*;
 import de.mkalb.etpetssim.simulations.rebounding.model.entity.*;
 
-public final class ReboundingStepLogic implements AgentStepLogic<ReboundingEntity, ReboundingStatistics> {
+import java.util.*;
+
+public final class ReboundingStepLogic
+        implements BandedAgentStepLogic<ReboundingEntity, ReboundingStatistics, ReboundingStepLogic.CellCounts> {
 
     private final GridStructure structure;
     private final ReboundingConfig config;
@@ -16,11 +19,24 @@ public final class ReboundingStepLogic implements AgentStepLogic<ReboundingEntit
         this.config = config;
     }
 
+    /**
+     * A rebounder reads and writes only its own cell and the neighbor cell in its direction.
+     */
+    @Override
+    public int interactionRadius() {
+        return 1;
+    }
+
     @Override
-    public void performAgentStep(GridCell<ReboundingEntity> agentCell,
-                                 WritableGridModel<ReboundingEntity> model,
-                                 int stepIndex,
-                                 ReboundingStatistics statistics) {
+    public CellCounts createBandResult(GridRowBand band, int stepIndex, ReboundingStatistics statistics) {
+        return new CellCounts();
+    }
+
+    @Override
+    public void performBandAgentStep(GridCell<ReboundingEntity> agentCell,
+                                     WritableGridModel<ReboundingEntity> model,
+                                     int stepIndex,
+                                     CellCounts counts) {
         if (!(agentCell.entity() instanceof Rebounder movingEntity)) {
             throw new IllegalArgumentException("Provided cell does not contain a Rebounder entity. Cell: " + agentCell);
         }
@@ -58,17 +74,29 @@ public final class ReboundingStepLogic implements AgentStepLogic<ReboundingEntit
                         neighbor.mappedNeighborCoordinate()));
                 model.setEntityToDefault(neighbor.mappedNeighborCoordinate());
 
-                statistics.decreaseWallCells();
+                counts.removedWallCells++;
             } else if (neighborEntity.isRebounder()) {
                 // Move into the neighbor cell, destroying the other rebounder
                 model.setEntity(neighbor.mappedNeighborCoordinate(), movingEntity);
                 model.setEntityToDefault(currentCoordinate);
 
-                statistics.decreaseMovingEntityCells();
+                counts.removedMovingEntityCells++;
             }
         }
     }
 
+    @Override
+    public void completeStep(List<CellCounts> bandCounts, int stepIndex, ReboundingStatistics statistics) {
+        int removedWallCells = 0;
+        int removedMovingEntityCells = 0;
+        for (CellCounts counts : bandCounts) {
+            removedWallCells += counts.removedWallCells;
+            removedMovingEntityCells += counts.removedMovingEntityCells;
+        }
+
+        statistics.decreaseCellCounts(removedWallCells, removedMovingEntityCells);
+    }
+
     private CompassDirection computeBounceDirection(CompassDirection currentDirection, GridCoordinate blockedCoordinate) {
         if (currentDirection.level() == 0) {
             return currentDirection.opposite();
@@ -103,4 +131,14 @@ public final class ReboundingStepLogic implements AgentStepLogic<ReboundingEntit
         throw new IllegalStateException("Unhandled direction level: " + currentDirection.level() + " for direction: " + currentDirection);
     }
 
+    /**
+     * Cells removed within one row band, merged into the {@link ReboundingStatistics} after each step.
+     */
+    static final class CellCounts {
+
+        private int removedWallCells;
+        private int removedMovingEntityCells;
+
+    }
+
 }
@@ -1,6 +1,7 @@
 package de.mkalb.etpetssim.simulations.rebounding.view;
 
 import de.mkalb.etpetssim.core.*;
+import de.mkalb.etpetssim.engine.GridCoordinate;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.model.entity.GridEntityDescriptorRegistry;
 import de.mkalb.etpetssim.engine.neighborhood.CompassDirection;
@@ -135,10 +136,9 @@ public final class ReboundingMainView
 
         dynamicPainter.clearCanvasBackground();
 
-        currentModel.nonDefaultCells()
-                    .forEach(cell -> cellDrawer.draw(
-                            entityDescriptorRegistry.requireByDescriptorId(cell.descriptorId()),
-                            dynamicPainter, cell, stepCount));
+        currentModel.forEachNonDefault((x, y, entity) -> cellDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(entity.descriptorId()),
+                dynamicPainter, new GridCell<>(new GridCoordinate(x, y), entity), stepCount));
     }
 
     @Override
@@ -42,10 +42,12 @@ public final class SnakeSimulationManager
 
         structure = config.createGridStructure();
         statistics = new SnakeStatistics(structure);
-        var random = new Random(config.seed());
+        var random = new RandomStreams(config.seed()).random();
         var model = new SparseGridModel<SnakeEntity>(structure, TerrainConstant.GROUND);
+        model.enableFreeCellIndex();
+        var foodIndex = new GridSpatialIndex<SnakeEntity>(model, SnakeEntity::isFood, config.neighborhoodMode());
 
-        var agentStepLogic = new SnakeStepLogic(structure, config, random);
+        var agentStepLogic = new SnakeStepLogic(structure, config, random, foodIndex);
         var runner = new AsynchronousStepRunner<>(model, SnakeEntity::isAgent, AGENT_ORDERING_STRATEGY, agentStepLogic);
         var terminationCondition = new SnakeTerminationCondition();
         executor = new TimedSimulationExecutor<>(new DefaultSimulationExecutor<>(runner, runner::model, terminationCondition, statistics));
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.snake.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -86,6 +88,17 @@ public final class SnakeStatistics
         return cumulativeSnakeDeathCount;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("snakeHeadCells", snakeHeadCells);
+        values.put("livingSnakeHeadCells", livingSnakeHeadCells);
+        values.put("wallCells", wallCells);
+        values.put("foodCells", foodCells);
+        values.put("cumulativeSnakeDeathCount", cumulativeSnakeDeathCount);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "SnakeStatistics{" +
@@ -4,6 +4,7 @@ import de.mkalb.etpetssim.engine.*;
 import de.mkalb.etpetssim.engine.executor.AgentStepLogic;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.neighborhood.*;
+import de.mkalb.etpetssim.engine.support.GridSpatialIndex;
 import de.mkalb.etpetssim.simulations.snake.model.entity.*;
 import de.mkalb.etpetssim.simulations.snake.model.strategy.*;
 
@@ -14,13 +15,16 @@ public final class SnakeStepLogic implements AgentStepLogic<SnakeEntity, SnakeSt
     private final GridStructure structure;
     private final SnakeConfig config;
     private final Random random;
+    private final GridSpatialIndex<SnakeEntity> foodIndex;
     private final int maxNeighbors;
     private final List<CompassDirection> neighborDirectionRing;
 
-    public SnakeStepLogic(GridStructure structure, SnakeConfig config, Random random) {
+    public SnakeStepLogic(GridStructure structure, SnakeConfig config, Random random,
+                          GridSpatialIndex<SnakeEntity> foodIndex) {
         this.structure = structure;
         this.config = config;
         this.random = random;
+        this.foodIndex = foodIndex;
 
         maxNeighbors = structure.cellShape().vertexCount();
         if (structure.cellShape() == CellShape.HEXAGON) {
@@ -144,6 +148,7 @@ public final class SnakeStepLogic implements AgentStepLogic<SnakeEntity, SnakeSt
                 model,
                 groundNeighbors,
                 foodNeighbors,
+                foodIndex,
                 structure,
                 neighborDirectionRing,
                 config,
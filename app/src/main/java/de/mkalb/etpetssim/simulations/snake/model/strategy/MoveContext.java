@@ -3,6 +3,7 @@ package de.mkalb.etpetssim.simulations.snake.model.strategy;
 import de.mkalb.etpetssim.engine.*;
 import de.mkalb.etpetssim.engine.model.ReadableGridModel;
 import de.mkalb.etpetssim.engine.neighborhood.*;
+import de.mkalb.etpetssim.engine.support.GridSpatialIndex;
 import de.mkalb.etpetssim.simulations.snake.model.SnakeConfig;
 import de.mkalb.etpetssim.simulations.snake.model.entity.*;
 
@@ -16,6 +17,7 @@ import java.util.*;
  * @param model                 the snake grid model to inspect
  * @param groundNeighbors       neighboring ground candidates with resolved edge behavior
  * @param foodNeighbors         neighboring food candidates with resolved edge behavior
+ * @param foodIndex             the spatial index of all food cells, for strategies looking beyond the neighbors
  * @param structure             the active grid structure
  * @param neighborDirectionRing the ordered direction ring used for local strategy decisions
  * @param config                the active snake configuration
@@ -29,6 +31,7 @@ public record MoveContext(
         ReadableGridModel<SnakeEntity> model,
         List<CellNeighborWithEdgeBehavior> groundNeighbors,
         List<CellNeighborWithEdgeBehavior> foodNeighbors,
+        GridSpatialIndex<SnakeEntity> foodIndex,
         GridStructure structure,
         List<CompassDirection> neighborDirectionRing,
         SnakeConfig config,
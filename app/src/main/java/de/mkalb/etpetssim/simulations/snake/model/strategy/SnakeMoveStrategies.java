@@ -8,6 +8,11 @@ import java.util.*;
 
 public final class SnakeMoveStrategies {
 
+    /**
+     * The distance up to which {@link #FOOD_SCENT} notices food beyond its direct neighbors.
+     */
+    public static final int FOOD_SCENT_RANGE = 10;
+
     public static final SnakeMoveStrategy MOMENTUM = new NamedMoveStrategy(
             "M",
             (context) -> scoreAndPick(context, 0, 1, 0, 3, 1, 0));
@@ -53,6 +58,9 @@ public final class SnakeMoveStrategies {
     public static final SnakeMoveStrategy FOOD_MOMENTUM_SPREAD = new NamedMoveStrategy(
             "F M C-",
             (context) -> scoreAndPick(context, 0, 3, 0, 2, 1, -2));
+    public static final SnakeMoveStrategy FOOD_SCENT = new NamedMoveStrategy(
+            "F S",
+            (context) -> moveTowardsNearestFood(context, FOOD_SCENT_RANGE));
 
     /**
      * Private constructor to prevent instantiation.
@@ -76,7 +84,8 @@ public final class SnakeMoveStrategies {
                 FOOD_VERTICAL_MOMENTUM,
                 FOOD_HORIZONTAL_MOMENTUM,
                 FOOD_MOMENTUM_CLUSTERED,
-                FOOD_MOMENTUM_SPREAD);
+                FOOD_MOMENTUM_SPREAD,
+                FOOD_SCENT);
     }
 
     private static Optional<MoveDecision> pickRandomTopScoredMove(List<ScoredMove> moves, Random random) {
@@ -161,6 +170,27 @@ public final class SnakeMoveStrategies {
         return pickRandomTopScoredMove(moves, context.random());
     }
 
+    /**
+     * Moves to a ground neighbor nearest to the nearest food within the range, found with the food index
+     * instead of scanning the surrounding cells. Walls and snakes are ignored by the distance.
+     * Without visible food, or with food or no ground next to the head, it behaves like {@link #FOOD_MOMENTUM}.
+     */
+    private static Optional<MoveDecision> moveTowardsNearestFood(MoveContext context, int range) {
+        Optional<GridCoordinate> nearestFood = (context.foodNeighbors().isEmpty() && !context.groundNeighbors().isEmpty())
+                ? context.foodIndex().findNearest(context.headCoordinate(), range)
+                : Optional.empty();
+        if (nearestFood.isEmpty()) {
+            return scoreAndPick(context, 0, 3, 0, 2, 1, 0);
+        }
+        List<ScoredMove> moves = new ArrayList<>(context.groundNeighbors().size());
+        for (var neighbor : context.groundNeighbors()) {
+            int distance = GridDistances.distance(neighbor.mappedNeighborCoordinate(), nearestFood.get(),
+                    context.config().neighborhoodMode(), context.structure());
+            moves.add(createScoredMove(-distance, neighbor, false));
+        }
+        return pickRandomTopScoredMove(moves, context.random());
+    }
+
     private static void scoreNeighbors(MoveContext context,
                                        List<CellNeighborWithEdgeBehavior> neighbors,
                                        boolean isFoodTarget,
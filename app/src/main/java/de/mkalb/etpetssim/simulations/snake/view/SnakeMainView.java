@@ -170,45 +170,42 @@ public final class SnakeMainView
         Color headDeadColor = toDeadFillColor(headAliveColor, DEAD_HEAD_HUE);
         Color headDeadBorderColor = toDeadBorderColor(headAliveBorderColor, DEAD_HEAD_HUE);
 
-        currentModel.filteredCoordinates(SnakeEntity::isWall)
-                    .forEach(coordinate ->
-                            dynamicPainter.drawCell(coordinate, wallDescriptor.color(), wallDescriptor.borderColor(), WALL_STROKE_LINE_WIDTH));
-        currentModel.filteredCoordinates(SnakeEntity::isFood)
-                    .forEach(coordinate ->
-                            dynamicPainter.drawCellInnerCircle(coordinate, growthFoodDescriptor.color(), growthFoodDescriptor.borderColor(), FOOD_STROKE_LINE_WIDTH, StrokeType.INSIDE));
-        currentModel.filteredCells(e -> e instanceof SnakeHead)
-                    .forEach(cell -> {
-                        if (cell.entity() instanceof SnakeHead head) {
-                            boolean isDead = head.isDead();
-                            // Check if last selected entity is not null and is the same instance as the current head
-                            boolean isSelected = isSelected(head);
-                            Color snakeHeadColor;
-                            Color snakeHeadColorBorder;
-                            Color snakeSegmentColor;
-                            Color snakeSegmentColorBorder;
-                            if (isDead) {
-                                snakeHeadColor = headDeadColor;
-                                snakeHeadColorBorder = headDeadBorderColor;
-                                snakeSegmentColor = segmentDeadColor;
-                                snakeSegmentColorBorder = segmentDeadBorderColor;
-                            } else if (isSelected) {
-                                snakeHeadColor = headAliveSelectedColor;
-                                snakeHeadColorBorder = headAliveSelectedBorderColor;
-                                snakeSegmentColor = segmentAliveSelectedColor;
-                                snakeSegmentColorBorder = segmentAliveSelectedBorderColor;
-                            } else {
-                                snakeHeadColor = headAliveColor;
-                                snakeHeadColorBorder = headAliveBorderColor;
-                                snakeSegmentColor = segmentAliveColor;
-                                snakeSegmentColorBorder = segmentAliveBorderColor;
-                            }
-                            for (GridCoordinate coordinate : head.currentSegments()) {
-                                dynamicPainter.drawCell(coordinate, snakeSegmentColor, snakeSegmentColorBorder, SNAKE_SEGMENT_STROKE_LINE_WIDTH);
-                            }
-                            dynamicPainter.drawCellInnerCircle(cell.coordinate(), snakeHeadColor, snakeHeadColorBorder, SNAKE_HEAD_STROKE_LINE_WIDTH,
-                                    StrokeType.OUTSIDE);
-                        }
-                    });
+        currentModel.forEachMatching(SnakeEntity::isWall, (x, y, _) ->
+                dynamicPainter.drawCell(new GridCoordinate(x, y), wallDescriptor.color(), wallDescriptor.borderColor(), WALL_STROKE_LINE_WIDTH));
+        currentModel.forEachMatching(SnakeEntity::isFood, (x, y, _) ->
+                dynamicPainter.drawCellInnerCircle(new GridCoordinate(x, y), growthFoodDescriptor.color(), growthFoodDescriptor.borderColor(), FOOD_STROKE_LINE_WIDTH, StrokeType.INSIDE));
+        currentModel.forEachMatching(e -> e instanceof SnakeHead, (x, y, entity) -> {
+            if (entity instanceof SnakeHead head) {
+                boolean isDead = head.isDead();
+                // Check if last selected entity is not null and is the same instance as the current head
+                boolean isSelected = isSelected(head);
+                Color snakeHeadColor;
+                Color snakeHeadColorBorder;
+                Color snakeSegmentColor;
+                Color snakeSegmentColorBorder;
+                if (isDead) {
+                    snakeHeadColor = headDeadColor;
+                    snakeHeadColorBorder = headDeadBorderColor;
+                    snakeSegmentColor = segmentDeadColor;
+                    snakeSegmentColorBorder = segmentDeadBorderColor;
+                } else if (isSelected) {
+                    snakeHeadColor = headAliveSelectedColor;
+                    snakeHeadColorBorder = headAliveSelectedBorderColor;
+                    snakeSegmentColor = segmentAliveSelectedColor;
+                    snakeSegmentColorBorder = segmentAliveSelectedBorderColor;
+                } else {
+                    snakeHeadColor = headAliveColor;
+                    snakeHeadColorBorder = headAliveBorderColor;
+                    snakeSegmentColor = segmentAliveColor;
+                    snakeSegmentColorBorder = segmentAliveBorderColor;
+                }
+                for (GridCoordinate coordinate : head.currentSegments()) {
+                    dynamicPainter.drawCell(coordinate, snakeSegmentColor, snakeSegmentColorBorder, SNAKE_SEGMENT_STROKE_LINE_WIDTH);
+                }
+                dynamicPainter.drawCellInnerCircle(new GridCoordinate(x, y), snakeHeadColor, snakeHeadColorBorder, SNAKE_HEAD_STROKE_LINE_WIDTH,
+                        StrokeType.OUTSIDE);
+            }
+        });
     }
 
     @Override
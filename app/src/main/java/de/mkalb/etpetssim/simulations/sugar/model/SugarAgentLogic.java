@@ -17,8 +17,6 @@ public final class SugarAgentLogic {
 
     private static final int DISTANCE_ORIGINAL = 0;
     private static final int DISTANCE_DIRECT_NEIGHBOR = 1;
-    // Fast-path limit for random spawn sampling; a guaranteed linear scan follows if this is exhausted.
-    private static final int MAX_RANDOM_SPAWN_ATTEMPTS = 20;
 
     private SugarAgentLogic() {
     }
@@ -73,7 +71,7 @@ public final class SugarAgentLogic {
         }
         for (int i = 0; i < diedAgents; i++) {
             // Find free random coordinate to spawn new agent
-            Optional<GridCoordinate> spawnCoordinate = findRandomFreeCell(structure, random, agentModel);
+            Optional<GridCoordinate> spawnCoordinate = agentModel.findRandomDefaultCoordinate(random);
             if (spawnCoordinate.isPresent()) {
                 // Spawn new agent
                 Agent newAgent = new Agent(config.agentInitialEnergy(), stepIndex);
@@ -83,36 +81,6 @@ public final class SugarAgentLogic {
         }
     }
 
-    private static Optional<GridCoordinate> findRandomFreeCell(GridStructure structure,
-                                                               Random random,
-                                                               WritableGridModel<AgentEntity> agentModel) {
-        int width = structure.size().width();
-        int height = structure.size().height();
-
-        // Fast path: random sampling works well when the grid is sparsely populated.
-        for (int i = 0; i < MAX_RANDOM_SPAWN_ATTEMPTS; i++) {
-            GridCoordinate candidate = new GridCoordinate(random.nextInt(width), random.nextInt(height));
-            if (agentModel.isDefaultEntity(candidate)) {
-                return Optional.of(candidate);
-            }
-        }
-
-        // Fallback: linear scan from a random offset guarantees a free cell is found if one exists.
-        // This handles dense grids where random sampling would likely miss the few remaining free cells.
-        int startX = random.nextInt(width);
-        int startY = random.nextInt(height);
-        for (int dy = 0; dy < height; dy++) {
-            for (int dx = 0; dx < width; dx++) {
-                GridCoordinate candidate = new GridCoordinate((startX + dx) % width, (startY + dy) % height);
-                if (agentModel.isDefaultEntity(candidate)) {
-                    return Optional.of(candidate);
-                }
-            }
-        }
-
-        return Optional.empty(); // Grid is completely full.
-    }
-
     private static List<AgentMoveCandidate> collectMoveCandidates(GridCoordinate originalCoordinate,
                                                                   SugarConfig config,
                                                                   GridStructure structure,
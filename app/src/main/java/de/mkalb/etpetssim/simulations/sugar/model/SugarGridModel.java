@@ -27,7 +27,11 @@ public record SugarGridModel(
 
     @Override
     public List<SugarEntity> getEntities(GridCoordinate coordinate) {
-        return List.of(resourceModel.getEntity(coordinate), agentModel.getEntity(coordinate));
+        if (!structure.isCoordinateValid(coordinate)) {
+            throw new IndexOutOfBoundsException("Coordinate out of bounds: " + coordinate + " for structure: " + structure);
+        }
+        int index = structure.indexOf(coordinate);
+        return List.of(resourceModel.getEntity(index), agentModel.getEntity(index));
     }
 
     @Override
@@ -23,10 +23,12 @@ public final class SugarSimulationManager
 
         structure = config.createGridStructure();
         statistics = new SugarStatistics(structure);
-        var random = new Random(config.seed());
+        var random = new RandomStreams(config.seed()).random();
+        var agentModel = new SparseGridModel<AgentEntity>(structure, NoAgent.NO_AGENT);
+        agentModel.enableFreeCellIndex();
         var model = new SugarGridModel(structure,
                 new SparseGridModel<>(structure, NoResource.NO_RESOURCE),
-                new SparseGridModel<>(structure, NoAgent.NO_AGENT));
+                agentModel);
 
         var runner = new SugarStepRunner(config, random, model);
         var terminationCondition = new SugarTerminationCondition();
@@ -101,6 +103,7 @@ public final class SugarSimulationManager
         int radiusLimit = config.sugarRadiusLimit();
         int maxSugarAmount = Math.max(minSugarAmount, config.maxSugarAmount());
         int sugarRange = maxSugarAmount - minSugarAmount;
+        NeighborTable neighborTable = NeighborTable.build(structure, config.neighborhoodMode());
 
         Set<GridCoordinate> visited = new HashSet<>();
         Queue<GridCoordinate> queue = new ArrayDeque<>();
@@ -118,16 +121,15 @@ public final class SugarSimulationManager
             int levelSize = queue.size();
             for (int i = 0; i < levelSize; i++) {
                 GridCoordinate current = queue.remove();
-                for (var result : CellNeighborhoods.neighborEdgeResults(current, config.neighborhoodMode(), structure)) {
-                    if ((result.action() == EdgeBehaviorAction.VALID) || (result.action() == EdgeBehaviorAction.WRAPPED)) {
-                        GridCoordinate mapped = result.mapped();
-                        if (!visited.contains(mapped)) {
-                            visited.add(mapped);
-                            queue.add(mapped);
-                            int sugarAmount = computeSugarAmount(minSugarAmount, sugarRange, radiusLimit, radiusLevel, random);
-                            if ((sugarAmount >= minSugarAmount) && (sugarAmount <= maxSugarAmount)) {
-                                sugarMap.put(mapped, sugarAmount);
-                            }
+                int currentIndex = structure.indexOf(current);
+                for (int entry = neighborTable.start(currentIndex), end = neighborTable.end(currentIndex); entry < end; entry++) {
+                    GridCoordinate mapped = structure.coordinateOf(neighborTable.neighborAt(entry));
+                    if (!visited.contains(mapped)) {
+                        visited.add(mapped);
+                        queue.add(mapped);
+                        int sugarAmount = computeSugarAmount(minSugarAmount, sugarRange, radiusLimit, radiusLevel, random);
+                        if ((sugarAmount >= minSugarAmount) && (sugarAmount <= maxSugarAmount)) {
+                            sugarMap.put(mapped, sugarAmount);
                         }
                     }
                 }
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.sugar.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -40,6 +42,14 @@ public final class SugarStatistics
         return agentCells;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("resourceCells", resourceCells);
+        values.put("agentCells", agentCells);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "SugarStatistics{" +
@@ -1,6 +1,8 @@
 package de.mkalb.etpetssim.simulations.sugar.view;
 
 import de.mkalb.etpetssim.core.*;
+import de.mkalb.etpetssim.engine.GridCoordinate;
+import de.mkalb.etpetssim.engine.model.GridCell;
 import de.mkalb.etpetssim.engine.model.entity.*;
 import de.mkalb.etpetssim.simulations.core.shared.SimulationUserActionScope;
 import de.mkalb.etpetssim.simulations.core.view.*;
@@ -191,15 +193,13 @@ public final class SugarMainView
         var resourceModel = currentModel.resourceModel();
         var agentModel = currentModel.agentModel();
 
-        resourceModel.nonDefaultCells()
-                     .forEach(resourceCell -> cellResourceDrawer.draw(
-                             entityDescriptorRegistry.requireByDescriptorId(resourceCell.descriptorId()),
-                             dynamicPainter, resourceCell, stepCount));
+        resourceModel.forEachNonDefault((x, y, resource) -> cellResourceDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(resource.descriptorId()),
+                dynamicPainter, new GridCell<>(new GridCoordinate(x, y), resource), stepCount));
 
-        agentModel.nonDefaultCells()
-                  .forEach(agentCell -> cellAgentDrawer.draw(
-                          entityDescriptorRegistry.requireByDescriptorId(agentCell.descriptorId()),
-                          dynamicPainter, agentCell, stepCount));
+        agentModel.forEachNonDefault((x, y, agent) -> cellAgentDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(agent.descriptorId()),
+                dynamicPainter, new GridCell<>(new GridCoordinate(x, y), agent), stepCount));
     }
 
     @Override
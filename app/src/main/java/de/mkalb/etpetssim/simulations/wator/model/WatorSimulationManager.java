@@ -23,12 +23,12 @@ public final class WatorSimulationManager
 
         structure = config.createGridStructure();
         statistics = new WatorStatistics(structure);
-        var random = new Random(config.seed());
-        var model = new ArrayGridModel<WatorEntity>(structure, TerrainConstant.WATER);
+        var random = new RandomStreams(config.seed()).random();
+        var model = new AdaptiveGridModel<WatorEntity>(structure, TerrainConstant.WATER);
 
         creatureFactory = new CreatureFactory();
         var agentStepLogic = new WatorStepLogic(config, random, creatureFactory);
-        var runner = new AsynchronousStepRunner<>(model, WatorEntity::isAgent, AgentOrderingStrategies.byPosition(), agentStepLogic);
+        var runner = new AsynchronousStepRunner<>(model, WatorEntity::isAgent, agentStepLogic);
         var terminationCondition = new WatorTerminationCondition();
         executor = new TimedSimulationExecutor<>(new DefaultSimulationExecutor<>(runner, runner::model, terminationCondition, statistics));
 
@@ -3,6 +3,8 @@ package de.mkalb.etpetssim.simulations.wator.model;
 import de.mkalb.etpetssim.engine.GridStructure;
 import de.mkalb.etpetssim.simulations.core.model.BaseTimedSimulationStatistics;
 
+import java.util.*;
+
 /**
  * Holds runtime statistics for a running simulation.
  */
@@ -115,6 +117,18 @@ public final class WatorStatistics
         return sharkCells;
     }
 
+    @Override
+    public SequencedMap<String, Number> values() {
+        SequencedMap<String, Number> values = baseValues();
+        values.put("maxFishCells", maxFishCells);
+        values.put("maxSharkCells", maxSharkCells);
+        values.put("minFishCells", minFishCells);
+        values.put("minSharkCells", minSharkCells);
+        values.put("fishCells", fishCells);
+        values.put("sharkCells", sharkCells);
+        return values;
+    }
+
     @Override
     public String toString() {
         return "WatorStatistics{" +
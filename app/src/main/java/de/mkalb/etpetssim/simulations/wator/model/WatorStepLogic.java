@@ -13,11 +13,13 @@ public final class WatorStepLogic implements AgentStepLogic<WatorEntity, WatorSt
     private final WatorConfig config;
     private final Random random;
     private final CreatureFactory entityFactory;
+    private final NeighborTable neighborTable;
 
     public WatorStepLogic(WatorConfig config, Random random, CreatureFactory entityFactory) {
         this.config = config;
         this.random = random;
         this.entityFactory = entityFactory;
+        neighborTable = NeighborTable.build(config.createGridStructure(), config.neighborhoodMode());
     }
 
     @Override
@@ -28,14 +30,14 @@ public final class WatorStepLogic implements AgentStepLogic<WatorEntity, WatorSt
         List<GridCell<WatorEntity>> fishCells = new ArrayList<>();
         List<GridCell<WatorEntity>> waterCells = new ArrayList<>();
 
-        for (var result : CellNeighborhoods.neighborEdgeResults(agentCell.coordinate(), config.neighborhoodMode(), model.structure())) {
-            if ((result.action() == EdgeBehaviorAction.VALID) || (result.action() == EdgeBehaviorAction.WRAPPED)) {
-                WatorEntity neighborEntity = model.getEntity(result.mapped());
-                if (neighborEntity.isFish()) {
-                    fishCells.add(new GridCell<>(result.mapped(), neighborEntity));
-                } else if (neighborEntity.isWater()) {
-                    waterCells.add(new GridCell<>(result.mapped(), neighborEntity));
-                }
+        int agentIndex = model.structure().indexOf(agentCell.coordinate());
+        for (int entry = neighborTable.start(agentIndex), end = neighborTable.end(agentIndex); entry < end; entry++) {
+            int neighborIndex = neighborTable.neighborAt(entry);
+            WatorEntity neighborEntity = model.getEntity(neighborIndex);
+            if (neighborEntity.isFish()) {
+                fishCells.add(new GridCell<>(model.structure().coordinateOf(neighborIndex), neighborEntity));
+            } else if (neighborEntity.isWater()) {
+                waterCells.add(new GridCell<>(model.structure().coordinateOf(neighborIndex), neighborEntity));
             }
         }
 
@@ -1,6 +1,7 @@
 package de.mkalb.etpetssim.simulations.wator.view;
 
 import de.mkalb.etpetssim.core.AppLogger;
+import de.mkalb.etpetssim.engine.GridCoordinate;
 import de.mkalb.etpetssim.engine.model.*;
 import de.mkalb.etpetssim.engine.model.entity.*;
 import de.mkalb.etpetssim.simulations.core.shared.*;
@@ -183,10 +184,9 @@ public final class WatorMainView
 
         dynamicPainter.clearCanvasBackground();
 
-        currentModel.nonDefaultCells()
-                    .forEach(cell -> cellDrawer.draw(
-                            entityDescriptorRegistry.requireByDescriptorId(cell.descriptorId()),
-                            dynamicPainter, cell, stepCount));
+        currentModel.forEachNonDefault((x, y, entity) -> cellDrawer.draw(
+                entityDescriptorRegistry.requireByDescriptorId(entity.descriptorId()),
+                dynamicPainter, new GridCell<>(new GridCoordinate(x, y), entity), stepCount));
     }
 
     @Override
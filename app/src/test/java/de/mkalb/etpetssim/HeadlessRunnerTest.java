@@ -0,0 +1,104 @@
+package de.mkalb.etpetssim;
+
+import de.mkalb.etpetssim.core.AppArgs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class HeadlessRunnerTest {
+
+    private static int run(ByteArrayOutputStream out, ByteArrayOutputStream err, String... args) {
+        return HeadlessRunner.run(new AppArgs(args),
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private static Optional<String> reportValue(String report, String key) {
+        return report.lines()
+                     .filter(line -> line.startsWith(key + "="))
+                     .map(line -> line.substring(key.length() + 1))
+                     .findFirst();
+    }
+
+    private static List<String> statisticsLines(String report) {
+        return report.lines()
+                     .filter(line -> line.startsWith(HeadlessRunner.STATISTICS_KEY_PREFIX))
+                     .toList();
+    }
+
+    @Test
+    void testRunToConsole(@TempDir Path tempDir) throws IOException {
+        Path configFile = tempDir.resolve("forest.properties");
+        Files.writeString(configFile, "gridWidth=40\ngridHeight=30\nseed=1\n", StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int status = run(out, err, "--headless", "--simulation=forest", "--steps=5",
+                "--config=" + configFile, "--seed=42");
+        String report = out.toString(StandardCharsets.UTF_8);
+
+        assertAll(
+                () -> assertEquals(HeadlessRunner.EXIT_SUCCESS, status),
+                () -> assertEquals("", err.toString(StandardCharsets.UTF_8)),
+                () -> assertEquals(Optional.of("FOREST_FIRE"), reportValue(report, "simulation")),
+                () -> assertEquals(Optional.of("5"), reportValue(report, "stepCount")),
+                () -> assertTrue(reportValue(report, "config").orElseThrow().contains("seed=42")),
+                () -> assertTrue(reportValue(report, "config").orElseThrow().contains("gridWidth=40")),
+                () -> assertTrue(reportValue(report, "stepTimingStatistics").isPresent()),
+                () -> assertEquals(Optional.of("5"), reportValue(report, "statistics.stepCount")),
+                () -> assertEquals(Optional.of("1200"), reportValue(report, "statistics.totalCells")),
+                () -> assertTrue(reportValue(report, "statistics.treeCells").isPresent()),
+                () -> assertFalse(reportValue(report, "statistics.stepTimingStatistics").isPresent())
+        );
+    }
+
+    @Test
+    void testRunToFileIsReproducible(@TempDir Path tempDir) throws IOException {
+        Path outputFile1 = tempDir.resolve("result1.txt");
+        Path outputFile2 = tempDir.resolve("result2.txt");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int status1 = run(out, err, "--headless", "--simulation=wator", "--steps=10", "--seed=7", "--output=" + outputFile1);
+        int status2 = run(out, err, "--headless", "--simulation=wator", "--steps=10", "--seed=7", "--output=" + outputFile2);
+        String report1 = Files.readString(outputFile1, StandardCharsets.UTF_8);
+        String report2 = Files.readString(outputFile2, StandardCharsets.UTF_8);
+
+        assertAll(
+                () -> assertEquals(HeadlessRunner.EXIT_SUCCESS, status1),
+                () -> assertEquals(HeadlessRunner.EXIT_SUCCESS, status2),
+                () -> assertEquals(0, out.size()),
+                () -> assertEquals(reportValue(report1, "config"), reportValue(report2, "config")),
+                () -> assertEquals(reportValue(report1, "stepCount"), reportValue(report2, "stepCount")),
+                () -> assertTrue(reportValue(report1, "statistics.fishCells").isPresent()),
+                // The statistics lines contain no timings, so they are equal for the same seed
+                () -> assertEquals(statisticsLines(report1), statisticsLines(report2)),
+                () -> assertEquals(8, statisticsLines(report1).size())
+        );
+    }
+
+    @Test
+    void testRunFailures(@TempDir Path tempDir) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        assertAll(
+                () -> assertEquals(HeadlessRunner.EXIT_FAILURE, run(out, err, "--headless")),
+                () -> assertEquals(HeadlessRunner.EXIT_FAILURE, run(out, err, "--headless", "--simulation=start")),
+                () -> assertEquals(HeadlessRunner.EXIT_FAILURE, run(out, err, "--headless", "--simulation=forest", "--steps=-1")),
+                () -> assertEquals(HeadlessRunner.EXIT_FAILURE, run(out, err, "--headless", "--simulation=forest", "--steps=1e3")),
+                () -> assertEquals(HeadlessRunner.EXIT_FAILURE, run(out, err, "--headless", "--simulation=forest", "--steps=ten")),
+                () -> assertEquals(HeadlessRunner.EXIT_FAILURE, run(out, err, "--headless", "--simulation=forest",
+                        "--config=" + tempDir.resolve("missing.properties"))),
+                () -> assertEquals(0, out.size()),
+                () -> assertTrue(err.toString(StandardCharsets.UTF_8).contains("Headless run failed"))
+        );
+    }
+
+}
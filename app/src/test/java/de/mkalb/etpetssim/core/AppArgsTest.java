@@ -241,7 +241,7 @@ final class AppArgsTest {
 
     @Test
     void testEnumCount() {
-        assertEquals(6, AppArgs.Key.values().length, "There should be exactly 6 values");
+        assertEquals(11, AppArgs.Key.values().length, "There should be exactly 11 values");
     }
 
     @Test
@@ -253,7 +253,12 @@ final class AppArgsTest {
                         AppArgs.Key.LOG_CONSOLE,
                         AppArgs.Key.LOG_FILE,
                         AppArgs.Key.LOG_LEVEL,
-                        AppArgs.Key.SIMULATION
+                        AppArgs.Key.SIMULATION,
+                        AppArgs.Key.HEADLESS,
+                        AppArgs.Key.STEPS,
+                        AppArgs.Key.CONFIG,
+                        AppArgs.Key.SEED,
+                        AppArgs.Key.OUTPUT
                 },
                 AppArgs.Key.values()
         );
@@ -272,6 +277,11 @@ final class AppArgsTest {
         assertEquals("log-file", AppArgs.Key.LOG_FILE.key());
         assertEquals("log-level", AppArgs.Key.LOG_LEVEL.key());
         assertEquals("simulation", AppArgs.Key.SIMULATION.key());
+        assertEquals("headless", AppArgs.Key.HEADLESS.key());
+        assertEquals("steps", AppArgs.Key.STEPS.key());
+        assertEquals("config", AppArgs.Key.CONFIG.key());
+        assertEquals("seed", AppArgs.Key.SEED.key());
+        assertEquals("output", AppArgs.Key.OUTPUT.key());
     }
 
     @Test
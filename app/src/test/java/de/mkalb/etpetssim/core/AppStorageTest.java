@@ -85,6 +85,19 @@ final class AppStorageTest {
         assertTrue(path.toString().endsWith(LOG_FILE_NAME));
     }
 
+    @Test
+    void testGetCheckpointFilePath() throws IOException {
+        String uniqueAppFileName = createUniqueAppFileName();
+
+        Path path = AppStorage.getCheckpointFile(uniqueAppFileName, OS);
+        assertAll(
+                () -> assertTrue(path.toString().endsWith(uniqueAppFileName)),
+                () -> assertEquals(AppStorage.CHECKPOINT_DIR_NAME, path.getParent().getFileName().toString()),
+                () -> assertTrue(Files.isDirectory(path.getParent())),
+                () -> assertEquals(AppStorage.getAppDataFile(uniqueAppFileName, OS).getParent(), path.getParent().getParent())
+        );
+    }
+
     @Test
     void testCreateTempCacheFile() throws IOException {
         String uniqueFilePrefix = FILE_PREFIX + UUID.randomUUID();
@@ -105,6 +118,7 @@ final class AppStorageTest {
         assertThrows(NullPointerException.class, () -> AppStorage.getAppDataFile(null, OS));
         assertThrows(NullPointerException.class, () -> AppStorage.createAppDataFile(null, OS));
         assertThrows(NullPointerException.class, () -> AppStorage.deleteAppDataFile(null, OS));
+        assertThrows(NullPointerException.class, () -> AppStorage.getCheckpointFile(null, OS));
         assertThrows(NullPointerException.class, () -> AppStorage.getLogFile(null, OS));
         assertThrows(NullPointerException.class, () -> AppStorage.createTempCacheFile(null, TEMP_SUFFIX, OS));
     }
@@ -129,6 +143,7 @@ final class AppStorageTest {
         assertThrows(IOException.class, () -> AppStorage.getAppDataFile(pathTraversalName, OS));
         assertThrows(IOException.class, () -> AppStorage.createAppDataFile(pathTraversalName, OS));
         assertThrows(IOException.class, () -> AppStorage.deleteAppDataFile(pathTraversalName, OS));
+        assertThrows(IOException.class, () -> AppStorage.getCheckpointFile(pathTraversalName, OS));
     }
 
     @Test
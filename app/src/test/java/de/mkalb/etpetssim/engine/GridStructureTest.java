@@ -181,6 +181,58 @@ final class GridStructureTest {
         assertFalse(structure.isCoordinateValid(new GridCoordinate(20, 30)));
     }
 
+    @Test
+    void testIsCoordinateValidWithIntValues() {
+        GridStructure structure = new GridStructure(new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(20, 30));
+
+        assertTrue(structure.isCoordinateValid(0, 0));
+        assertTrue(structure.isCoordinateValid(19, 29));
+        assertFalse(structure.isCoordinateValid(-1, 0));
+        assertFalse(structure.isCoordinateValid(0, -1));
+        assertFalse(structure.isCoordinateValid(20, 0));
+        assertFalse(structure.isCoordinateValid(0, 30));
+    }
+
+    @Test
+    void testIsIndexValid() {
+        GridStructure structure = new GridStructure(new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(20, 30));
+
+        assertTrue(structure.isIndexValid(0));
+        assertTrue(structure.isIndexValid((20 * 30) - 1));
+        assertFalse(structure.isIndexValid(-1));
+        assertFalse(structure.isIndexValid(20 * 30));
+    }
+
+    @Test
+    void testIndexOfAndInverse() {
+        GridStructure structure = new GridStructure(new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(20, 30));
+
+        assertEquals(0, structure.indexOf(0, 0));
+        assertEquals(1, structure.indexOf(1, 0));
+        assertEquals(20, structure.indexOf(0, 1));
+        assertEquals((20 * 30) - 1, structure.indexOf(19, 29));
+        assertEquals(structure.indexOf(10, 15), structure.indexOf(new GridCoordinate(10, 15)));
+
+        assertEquals(10, structure.xOf(structure.indexOf(10, 15)));
+        assertEquals(15, structure.yOf(structure.indexOf(10, 15)));
+        assertEquals(new GridCoordinate(19, 29), structure.coordinateOf((20 * 30) - 1));
+    }
+
+    @Test
+    void testIndexOrderMatchesCoordinatesList() {
+        GridStructure structure = new GridStructure(new GridTopology(CellShape.HEXAGON, GridEdgeBehavior.WRAP_XY),
+                new GridSize(10, 8));
+
+        List<GridCoordinate> coordinates = structure.coordinatesList();
+        for (int index = 0; index < coordinates.size(); index++) {
+            assertEquals(coordinates.get(index), structure.coordinateOf(index));
+            assertEquals(index, structure.indexOf(coordinates.get(index)));
+        }
+    }
+
     @Test
     void testCoordinatesStream() {
         GridStructure structure = new GridStructure(new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
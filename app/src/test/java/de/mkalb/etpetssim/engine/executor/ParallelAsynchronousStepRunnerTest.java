@@ -0,0 +1,274 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import de.mkalb.etpetssim.engine.neighborhood.*;
+import de.mkalb.etpetssim.engine.support.RandomStreams;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class ParallelAsynchronousStepRunnerTest {
+
+    private static final GridStructure HEXAGON_STRUCTURE = new GridStructure(
+            new GridTopology(CellShape.HEXAGON, GridEdgeBehavior.WRAP_XY),
+            new GridSize(40, 31));
+
+    private static void initialize(WritableGridModel<TestEntity> model) {
+        Random random = new Random(42L);
+        for (int index = 0; index < model.structure().cellCount(); index++) {
+            if (random.nextInt(4) == 0) {
+                model.setEntity(index, TestEntity.AGENT);
+            }
+        }
+    }
+
+    private static void assertSameCells(ReadableGridModel<TestEntity> expected, ReadableGridModel<TestEntity> actual) {
+        for (int index = 0; index < expected.structure().cellCount(); index++) {
+            assertEquals(expected.getEntity(index), actual.getEntity(index), "index=" + index);
+        }
+    }
+
+    private static void assertParallelMatchesSequential(Function<GridStructure, WritableGridModel<TestEntity>> modelFactory) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // The sparse model does not support concurrent row band writes, so its bands are processed sequentially.
+            WritableGridModel<TestEntity> sequentialModel = new SparseGridModel<>(HEXAGON_STRUCTURE, TestEntity.EMPTY);
+            WritableGridModel<TestEntity> parallelModel = modelFactory.apply(HEXAGON_STRUCTURE);
+            WritableGridModel<TestEntity> withoutPoolModel = modelFactory.apply(HEXAGON_STRUCTURE);
+            initialize(sequentialModel);
+            initialize(parallelModel);
+            initialize(withoutPoolModel);
+            MoveLogic logic = new MoveLogic(HEXAGON_STRUCTURE);
+            var sequentialRunner = new ParallelAsynchronousStepRunner<>(sequentialModel, TestEntity::isAgent, logic, pool, 9);
+            var parallelRunner = new ParallelAsynchronousStepRunner<>(parallelModel, TestEntity::isAgent, logic, pool, 9);
+            // Without a pool, the bands are processed one after another on the calling thread
+            var withoutPoolRunner = new ParallelAsynchronousStepRunner<>(withoutPoolModel, TestEntity::isAgent, logic, null, 9);
+            long agents = sequentialModel.countEntities(TestEntity::isAgent);
+            int[] sequentialMoves = new int[1];
+            int[] parallelMoves = new int[1];
+            int[] withoutPoolMoves = new int[1];
+
+            for (int stepIndex = 0; stepIndex < 10; stepIndex++) {
+                sequentialRunner.performStep(stepIndex, sequentialMoves);
+                parallelRunner.performStep(stepIndex, parallelMoves);
+                withoutPoolRunner.performStep(stepIndex, withoutPoolMoves);
+
+                assertSameCells(sequentialModel, parallelModel);
+                assertSameCells(sequentialModel, withoutPoolModel);
+                assertEquals(sequentialMoves[0], parallelMoves[0]);
+                assertEquals(sequentialMoves[0], withoutPoolMoves[0]);
+                assertEquals(agents, parallelModel.countEntities(TestEntity::isAgent));
+            }
+            assertTrue(parallelMoves[0] > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPartitionEvenly() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY), new GridSize(10, 101));
+        List<GridRowBand> bands = GridRowBand.partitionEvenly(structure, 64, 4);
+        List<GridRowBand> limitedBands = GridRowBand.partitionEvenly(structure, 3, 4);
+
+        assertAll(
+                // floor(101 / 4) = 25 bands with 4 or 5 rows
+                () -> assertEquals(25, bands.size()),
+                () -> assertTrue(bands.stream().allMatch(band -> (band.rowCount() == 4) || (band.rowCount() == 5))),
+                () -> assertEquals(0, bands.getFirst().startRow()),
+                () -> assertEquals(101, bands.getLast().endRow()),
+                () -> assertEquals(List.of(33, 34, 34), limitedBands.stream().map(GridRowBand::rowCount).toList()),
+                () -> assertEquals(List.of(GridRowBand.wholeGrid(structure)), GridRowBand.partitionEvenly(structure, 64, 200)),
+                () -> assertThrows(IllegalArgumentException.class, () -> GridRowBand.partitionEvenly(structure, 64, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> GridRowBand.partitionEvenly(structure, 0, 4))
+        );
+    }
+
+    @Test
+    void testColorOf() {
+        assertAll(
+                () -> assertEquals(0, ParallelAsynchronousStepRunner.colorOf(0, 1, true)),
+                () -> assertEquals(1, ParallelAsynchronousStepRunner.colorOf(3, 4, true)),
+                () -> assertEquals(0, ParallelAsynchronousStepRunner.colorOf(4, 5, false)),
+                // The last band of an odd number of wrapped bands is adjacent to the first band
+                () -> assertEquals(2, ParallelAsynchronousStepRunner.colorOf(4, 5, true)),
+                () -> assertEquals(1, ParallelAsynchronousStepRunner.colorOf(3, 5, true))
+        );
+    }
+
+    @Test
+    void testBandsAndColors() {
+        MoveLogic logic = new MoveLogic(HEXAGON_STRUCTURE);
+        var wrappedRunner = new ParallelAsynchronousStepRunner<>(
+                new ArrayGridModel<>(HEXAGON_STRUCTURE, TestEntity.EMPTY), TestEntity::isAgent, logic);
+        GridStructure blockedStructure = new GridStructure(
+                new GridTopology(CellShape.HEXAGON, GridEdgeBehavior.BLOCK_XY), new GridSize(40, 31));
+        var blockedRunner = new ParallelAsynchronousStepRunner<>(
+                new ArrayGridModel<>(blockedStructure, TestEntity.EMPTY), TestEntity::isAgent, logic);
+        var singleBandRunner = new ParallelAsynchronousStepRunner<>(
+                new ArrayGridModel<>(HEXAGON_STRUCTURE, TestEntity.EMPTY), TestEntity::isAgent, logic,
+                ForkJoinPool.commonPool(), 1);
+
+        assertAll(
+                // floor(31 / 2) = 15 bands
+                () -> assertEquals(15, wrappedRunner.bands().size()),
+                () -> assertEquals(3, wrappedRunner.colorCount()),
+                () -> assertEquals(2, blockedRunner.colorCount()),
+                () -> assertEquals(1, singleBandRunner.colorCount()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ParallelAsynchronousStepRunner<>(
+                        new ArrayGridModel<>(HEXAGON_STRUCTURE, TestEntity.EMPTY), TestEntity::isAgent, new MoveLogic(HEXAGON_STRUCTURE) {
+                            @Override
+                            public int interactionRadius() {
+                                return 0;
+                            }
+                        }))
+        );
+    }
+
+    @Test
+    void testParallelStepMatchesSequentialStep() {
+        assertAll(
+                () -> assertParallelMatchesSequential(structure -> new EnumGridModel<>(structure, TestEntity.EMPTY)),
+                () -> assertParallelMatchesSequential(structure -> new ArrayGridModel<>(structure, TestEntity.EMPTY)),
+                () -> assertParallelMatchesSequential(structure -> new BitGridModel<>(structure, TestEntity.EMPTY, TestEntity.AGENT))
+        );
+    }
+
+    @Test
+    void testAgentsAreProcessedColorClassByColorClass() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY), new GridSize(8, 8));
+        WritableGridModel<TestEntity> model = new ArrayGridModel<>(structure, TestEntity.EMPTY);
+        for (int y = 0; y < structure.size().height(); y++) {
+            model.setEntity(structure.indexOf(3 - (y % 4), y), TestEntity.AGENT);
+        }
+        List<GridCoordinate> order = new ArrayList<>();
+        // Four bands of two rows with the colors 0, 1, 0, 1
+        var runner = new ParallelAsynchronousStepRunner<>(model, TestEntity::isAgent, new RecordingLogic(order), null, 4);
+
+        runner.performStep(0, new int[1]);
+
+        // Bands 0 and 2 (color 0) before bands 1 and 3 (color 1), position order within a band
+        assertEquals(List.of(
+                new GridCoordinate(3, 0), new GridCoordinate(2, 1),
+                new GridCoordinate(3, 4), new GridCoordinate(2, 5),
+                new GridCoordinate(1, 2), new GridCoordinate(0, 3),
+                new GridCoordinate(1, 6), new GridCoordinate(0, 7)), order);
+    }
+
+    @Test
+    void testBandedLogicWithAsynchronousStepRunner() {
+        WritableGridModel<TestEntity> model = new ArrayGridModel<>(HEXAGON_STRUCTURE, TestEntity.EMPTY);
+        initialize(model);
+        long agents = model.countEntities(TestEntity::isAgent);
+        var runner = new AsynchronousStepRunner<>(model, TestEntity::isAgent, new MoveLogic(HEXAGON_STRUCTURE));
+        int[] moves = new int[1];
+
+        runner.performStep(0, moves);
+
+        assertAll(
+                () -> assertEquals(agents, model.countEntities(TestEntity::isAgent)),
+                () -> assertTrue(moves[0] > 0)
+        );
+    }
+
+    private enum TestEntity implements GridEntity {
+        EMPTY,
+        AGENT;
+
+        @Override
+        public String descriptorId() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        boolean isAgent() {
+            return this == AGENT;
+        }
+    }
+
+    /**
+     * Records the coordinates of the processed agents without changing the model.
+     */
+    private static final class RecordingLogic implements BandedAgentStepLogic<TestEntity, int[], int[]> {
+
+        private final List<GridCoordinate> order;
+
+        RecordingLogic(List<GridCoordinate> order) {
+            this.order = order;
+        }
+
+        @Override
+        public int interactionRadius() {
+            return 1;
+        }
+
+        @Override
+        public int[] createBandResult(GridRowBand band, int stepIndex, int[] context) {
+            return new int[1];
+        }
+
+        @Override
+        public void performBandAgentStep(GridCell<TestEntity> agentCell, WritableGridModel<TestEntity> model,
+                                         int stepIndex, int[] bandResult) {
+            order.add(agentCell.coordinate());
+        }
+
+        @Override
+        public void completeStep(List<int[]> bandResults, int stepIndex, int[] context) {
+        }
+
+    }
+
+    /**
+     * An agent moves to a random empty neighbor cell. The context accumulates the number of moves.
+     */
+    private static class MoveLogic implements BandedAgentStepLogic<TestEntity, int[], int[]> {
+
+        private final NeighborTable neighborTable;
+        private final RandomStreams randomStreams = new RandomStreams(7L);
+
+        MoveLogic(GridStructure structure) {
+            neighborTable = NeighborTable.build(structure, NeighborhoodMode.EDGES_ONLY);
+        }
+
+        @Override
+        public int interactionRadius() {
+            return 1;
+        }
+
+        @Override
+        public int[] createBandResult(GridRowBand band, int stepIndex, int[] context) {
+            return new int[1];
+        }
+
+        @Override
+        public void performBandAgentStep(GridCell<TestEntity> agentCell, WritableGridModel<TestEntity> model,
+                                         int stepIndex, int[] bandResult) {
+            int index = model.structure().indexOf(agentCell.coordinate());
+            int start = neighborTable.start(index);
+            int count = neighborTable.end(index) - start;
+            int target = neighborTable.neighborAt(start
+                    + (int) Math.floorMod(randomStreams.nextLong(stepIndex, index, 0), (long) count));
+            if (model.getEntity(target) == TestEntity.EMPTY) {
+                model.setEntityToDefault(index);
+                model.setEntity(target, TestEntity.AGENT);
+                bandResult[0]++;
+            }
+        }
+
+        @Override
+        public void completeStep(List<int[]> bandResults, int stepIndex, int[] context) {
+            context[0] += bandResults.stream().mapToInt(result -> result[0]).sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package de.mkalb.etpetssim.engine.executor;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import de.mkalb.etpetssim.engine.neighborhood.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class ParallelSynchronousStepRunnerTest {
+
+    private static final GridStructure TRIANGLE_STRUCTURE = new GridStructure(
+            new GridTopology(CellShape.TRIANGLE, GridEdgeBehavior.WRAP_XY),
+            new GridSize(40, 30));
+
+    private static void initialize(WritableGridModel<TestEntity> model) {
+        Random random = new Random(42L);
+        for (int index = 0; index < model.structure().cellCount(); index++) {
+            if (random.nextInt(3) == 0) {
+                model.setEntity(index, TestEntity.WALL);
+            }
+        }
+    }
+
+    private static void assertSameCells(ReadableGridModel<TestEntity> expected, ReadableGridModel<TestEntity> actual) {
+        for (int index = 0; index < expected.structure().cellCount(); index++) {
+            assertEquals(expected.getEntity(index), actual.getEntity(index), "index=" + index);
+        }
+    }
+
+    private static void assertParallelMatchesSequential(Function<GridStructure, WritableGridModel<TestEntity>> modelFactory) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WritableGridModel<TestEntity> sequentialModel = modelFactory.apply(TRIANGLE_STRUCTURE);
+            WritableGridModel<TestEntity> parallelModel = modelFactory.apply(TRIANGLE_STRUCTURE);
+            WritableGridModel<TestEntity> withoutPoolModel = modelFactory.apply(TRIANGLE_STRUCTURE);
+            initialize(sequentialModel);
+            initialize(parallelModel);
+            initialize(withoutPoolModel);
+            ParityLogic logic = new ParityLogic(TRIANGLE_STRUCTURE);
+            var sequentialRunner = new SynchronousStepRunner<>(sequentialModel, logic);
+            var parallelRunner = new ParallelSynchronousStepRunner<>(parallelModel, logic, pool, 7);
+            // Without a pool, the bands are processed one after another on the calling thread
+            var withoutPoolRunner = new ParallelSynchronousStepRunner<>(withoutPoolModel, logic, null, 7);
+            int[] sequentialWalls = new int[1];
+            int[] parallelWalls = new int[1];
+            int[] withoutPoolWalls = new int[1];
+
+            for (int stepIndex = 0; stepIndex < 10; stepIndex++) {
+                sequentialRunner.performStep(stepIndex, sequentialWalls);
+                parallelRunner.performStep(stepIndex, parallelWalls);
+                withoutPoolRunner.performStep(stepIndex, withoutPoolWalls);
+
+                assertSameCells(sequentialRunner.currentModel(), parallelRunner.currentModel());
+                assertSameCells(sequentialRunner.currentModel(), withoutPoolRunner.currentModel());
+                assertEquals(sequentialWalls[0], parallelWalls[0]);
+                assertEquals(sequentialWalls[0], withoutPoolWalls[0]);
+                assertEquals(parallelWalls[0], parallelRunner.currentModel().countEntities(TestEntity::isWall));
+                assertEquals(0, parallelRunner.nextModel().countEntities(TestEntity::isWall));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPartition() {
+        List<GridRowBand> squareBands = GridRowBand.partition(
+                new GridStructure(new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY), new GridSize(10, 100)), 8);
+        List<GridRowBand> triangleBands = GridRowBand.partition(TRIANGLE_STRUCTURE, 7);
+        List<GridRowBand> singleRowBands = GridRowBand.partition(TRIANGLE_STRUCTURE, 1000);
+
+        assertAll(
+                // ceil(100 / 8) = 13 rows per band
+                () -> assertEquals(8, squareBands.size()),
+                () -> assertEquals(new GridRowBand(0, 0, 13, 10), squareBands.getFirst()),
+                () -> assertEquals(new GridRowBand(7, 91, 100, 10), squareBands.getLast()),
+                () -> assertEquals(130, squareBands.get(1).startIndex()),
+                () -> assertEquals(1000, squareBands.getLast().endIndex()),
+                // ceil(30 / 7) = 5 rows, aligned to 6 rows for triangles
+                () -> assertEquals(5, triangleBands.size()),
+                () -> assertTrue(triangleBands.stream().allMatch(band -> (band.startRow() % 2) == 0)),
+                () -> assertTrue(triangleBands.stream().allMatch(band -> band.rowCount() == 6)),
+                // Triangle bands have at least two rows
+                () -> assertEquals(15, singleRowBands.size()),
+                () -> assertEquals(GridRowBand.wholeGrid(TRIANGLE_STRUCTURE),
+                        GridRowBand.partition(TRIANGLE_STRUCTURE, 1).getFirst()),
+                () -> assertThrows(IllegalArgumentException.class, () -> GridRowBand.partition(TRIANGLE_STRUCTURE, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new GridRowBand(0, 2, 2, 10))
+        );
+    }
+
+    @Test
+    void testParallelStepMatchesSequentialStep() {
+        assertAll(
+                () -> assertParallelMatchesSequential(structure -> new BitGridModel<>(structure, TestEntity.EMPTY, TestEntity.WALL)),
+                () -> assertParallelMatchesSequential(structure -> new EnumGridModel<>(structure, TestEntity.EMPTY)),
+                () -> assertParallelMatchesSequential(structure -> new ArrayGridModel<>(structure, TestEntity.EMPTY)),
+                // Processed sequentially, because the model does not support concurrent row band writes
+                () -> assertParallelMatchesSequential(structure -> new SparseGridModel<>(structure, TestEntity.EMPTY))
+        );
+    }
+
+    @Test
+    void testConcurrentRowBandWritesSupport() {
+        EnumGridModel<TestEntity> enumModel = new EnumGridModel<>(TRIANGLE_STRUCTURE, TestEntity.EMPTY);
+        BitGridModel<TestEntity> bitModel = new BitGridModel<>(TRIANGLE_STRUCTURE, TestEntity.EMPTY, TestEntity.WALL);
+        bitModel.setChangeJournal(new GridChangeJournal(TRIANGLE_STRUCTURE));
+
+        assertAll(
+                () -> assertTrue(enumModel.beginConcurrentRowBandWrites()),
+                () -> {
+                    enumModel.setEntity(3, TestEntity.WALL);
+                    enumModel.setEntity(TRIANGLE_STRUCTURE.cellCount() - 1, TestEntity.WALL);
+                    enumModel.endConcurrentRowBandWrites();
+                    assertEquals(2, enumModel.countEntities(TestEntity::isWall));
+                },
+                () -> assertFalse(bitModel.beginConcurrentRowBandWrites()),
+                () -> assertFalse(new SparseGridModel<>(TRIANGLE_STRUCTURE, TestEntity.EMPTY).beginConcurrentRowBandWrites())
+        );
+    }
+
+    private enum TestEntity implements GridEntity {
+        EMPTY,
+        WALL;
+
+        @Override
+        public String descriptorId() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        boolean isWall() {
+            return this == WALL;
+        }
+    }
+
+    /**
+     * A cell becomes a wall if the number of walls among itself and its neighbors is odd.
+     * The context counts the walls after each step.
+     */
+    private static final class ParityLogic implements BandedSynchronousStepLogic<TestEntity, int[], int[]> {
+
+        private final NeighborTable neighborTable;
+
+        ParityLogic(GridStructure structure) {
+            neighborTable = NeighborTable.build(structure, NeighborhoodMode.EDGES_AND_VERTICES);
+        }
+
+        @Override
+        public int[] createBandResult(GridRowBand band, int stepIndex, int[] context) {
+            return new int[1];
+        }
+
+        @Override
+        public void performBandStep(ReadableGridModel<TestEntity> currentModel,
+                                    WritableGridModel<TestEntity> nextModel,
+                                    GridRowBand band,
+                                    int stepIndex,
+                                    int[] bandResult) {
+            for (int index = band.startIndex(); index < band.endIndex(); index++) {
+                int walls = currentModel.getEntity(index).isWall() ? 1 : 0;
+                for (int entry = neighborTable.start(index); entry < neighborTable.end(index); entry++) {
+                    walls += currentModel.getEntity(neighborTable.neighborAt(entry)).isWall() ? 1 : 0;
+                }
+                if ((walls % 2) != 0) {
+                    nextModel.setEntity(index, TestEntity.WALL);
+                    bandResult[0]++;
+                }
+            }
+        }
+
+        @Override
+        public void completeStep(List<int[]> bandResults, int stepIndex, int[] context) {
+            context[0] = bandResults.stream().mapToInt(result -> result[0]).sum();
+        }
+
+    }
+
+}
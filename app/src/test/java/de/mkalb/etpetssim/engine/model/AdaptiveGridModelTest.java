@@ -0,0 +1,539 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.GridCoordinate;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class AdaptiveGridModelTest {
+
+    @Test
+    void testSetGetAndDefaultEntityHandling() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinate = coordinate(1, 1);
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinate));
+        assertTrue(model.isDefaultEntity(coordinate));
+
+        model.setEntity(coordinate, TestEntity.WALL);
+
+        assertEquals(TestEntity.WALL, model.getEntity(coordinate));
+        assertFalse(model.isDefaultEntity(coordinate));
+        assertEquals(Set.of(coordinate), model.nonDefaultCoordinates());
+
+        model.setEntityToDefault(coordinate);
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinate));
+        assertTrue(model.nonDefaultCoordinates().isEmpty());
+    }
+
+    @Test
+    void testFillAndClear() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        model.fill(TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), model.nonDefaultCoordinates().size())
+        );
+
+        model.clear();
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), model.countEntities(entity -> entity == TestEntity.EMPTY)),
+                () -> assertTrue(model.nonDefaultCoordinates().isEmpty())
+        );
+    }
+
+    @Test
+    void testFillWithSupplierInvokesSupplierPerCell() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        AtomicInteger calls = new AtomicInteger();
+
+        model.fill(() -> ((calls.getAndIncrement() % 2) == 0) ? TestEntity.WALL : TestEntity.FOOD);
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), calls.get()),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() / 2, model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() / 2, model.countEntities(entity -> entity == TestEntity.FOOD))
+        );
+    }
+
+    @Test
+    void testFillWithMapperUsesCoordinate() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        model.fill(c -> (c.x() == c.y()) ? TestEntity.WALL : TestEntity.EMPTY);
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.size().width(), model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(0, 0))),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(7, 7))),
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinate(7, 6)))
+        );
+    }
+
+    @Test
+    void testCopyAndCopyWithDefaultEntity() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinate = coordinate(2, 0);
+        model.setEntity(coordinate, TestEntity.WALL);
+
+        WritableGridModel<TestEntity> clone = model.copy();
+        WritableGridModel<TestEntity> blankClone = model.copyWithDefaultEntity();
+
+        assertEquals(TestEntity.WALL, clone.getEntity(coordinate));
+        assertEquals(TestEntity.EMPTY, blankClone.getEntity(coordinate));
+
+        clone.setEntity(coordinate, TestEntity.FOOD);
+        assertEquals(TestEntity.WALL, model.getEntity(coordinate));
+        assertEquals(TestEntity.FOOD, clone.getEntity(coordinate));
+    }
+
+    @Test
+    void testAllCellsReturnsAllCells() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(0, 0), TestEntity.WALL);
+
+        List<GridCell<TestEntity>> cells = model.allCells();
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), cells.size()),
+                () -> assertTrue(cells.contains(new GridCell<>(coordinate(0, 0), TestEntity.WALL))),
+                () -> assertTrue(cells.contains(new GridCell<>(coordinate(7, 7), TestEntity.EMPTY))),
+                () -> assertFalse(cells.contains(new GridCell<>(coordinate(0, 0), TestEntity.EMPTY)))
+        );
+    }
+
+    @Test
+    void testAllCellsIsInRowMajorOrder() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        List<GridCell<TestEntity>> cells = model.allCells();
+
+        // allCells() uses nested loop in row-major order: (x=0,y=0), (x=1,y=0), ..., (x=7,y=7)
+        assertAll(
+                () -> assertEquals(coordinate(0, 0), cells.getFirst().coordinate()),
+                () -> assertEquals(coordinate(7, 7), cells.getLast().coordinate()),
+                () -> assertEquals(coordinate(1, 0), cells.get(1).coordinate()),
+                () -> assertEquals(coordinate(0, 1), cells.get(8).coordinate())
+        );
+    }
+
+    @Test
+    void testNonDefaultCellsContainsOnlyNonDefaultEntities() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        // nonDefaultCells() uses explicit nested loop in row-major order.
+        List<GridCell<TestEntity>> nonDefaultCells = model.nonDefaultCells();
+
+        assertAll(
+                () -> assertEquals(2, nonDefaultCells.size()),
+                () -> assertTrue(nonDefaultCells.contains(new GridCell<>(coordinate(1, 1), TestEntity.WALL))),
+                () -> assertTrue(nonDefaultCells.contains(new GridCell<>(coordinate(2, 2), TestEntity.FOOD)))
+        );
+    }
+
+    @Test
+    void testNonDefaultCellsIsEmptyWhenAllDefault() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        assertTrue(model.nonDefaultCells().isEmpty());
+    }
+
+    @Test
+    void testNonDefaultCoordinatesIsMutable() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+
+        Set<GridCoordinate> coordinates = model.nonDefaultCoordinates();
+
+        assertAll(
+                () -> assertEquals(Set.of(coordinate(1, 1)), coordinates),
+                () -> assertDoesNotThrow(() -> coordinates.add(coordinate(0, 0)))
+        );
+    }
+
+    @Test
+    void testNonDefaultCoordinatesSnapshotIsIndependentOfModelMutation() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        Set<GridCoordinate> snapshot = model.nonDefaultCoordinates();
+        // Mutate the model after obtaining the snapshot.
+        model.setEntityToDefault(coordinate(1, 1));
+
+        // Snapshot must still reflect the state at the time of the call.
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void testCountEntitiesMatchesExpectedCount() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(2, model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 2, model.countEntities(entity -> entity == TestEntity.EMPTY)),
+                () -> assertEquals(0, model.countEntities(entity -> entity == TestEntity.FOOD))
+        );
+    }
+
+    @Test
+    void testFilteredCoordinatesReturnsMatchingCoordinates() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        // AdaptiveGridModel iterates in row-major order: y=1 row (x=1) comes before y=3 row (x=3).
+        List<GridCoordinate> filtered = model.filteredCoordinates(entity -> entity == TestEntity.WALL);
+
+        assertEquals(List.of(coordinate(1, 1), coordinate(3, 3)), filtered);
+    }
+
+    @Test
+    void testFilteredCellsReturnsMatchingCells() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+
+        // AdaptiveGridModel iterates in row-major order: y=1 row comes before y=3 row.
+        List<GridCell<TestEntity>> filtered = model.filteredCells(entity -> entity == TestEntity.WALL);
+
+        assertEquals(
+                List.of(
+                        new GridCell<>(coordinate(1, 1), TestEntity.WALL),
+                        new GridCell<>(coordinate(3, 3), TestEntity.WALL)
+                ),
+                filtered
+        );
+    }
+
+    @Test
+    void testFilteredCellsSortedBy() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(2, 1), TestEntity.WALL);
+        model.setEntity(coordinate(0, 0), TestEntity.WALL);
+
+        List<GridCell<TestEntity>> cells = model.filteredCellsSortedBy(
+                entity -> entity == TestEntity.WALL,
+                Comparator.comparing(GridCell::coordinate));
+
+        assertEquals(List.of(coordinate(0, 0), coordinate(2, 1)),
+                cells.stream().map(GridCell::coordinate).toList());
+    }
+
+    @Test
+    void testFindRandomDefaultCoordinateReturnsEmpty() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.fill(TestEntity.WALL);
+
+        Optional<GridCoordinate> result = model.findRandomDefaultCoordinate(new Random(7L));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testFindRandomDefaultCoordinateReturnsOnlyDefaultCells() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.fill(TestEntity.WALL);
+        GridCoordinate onlyDefaultCoordinate = coordinate(3, 5);
+        model.setEntityToDefault(onlyDefaultCoordinate);
+
+        Optional<GridCoordinate> result = model.findRandomDefaultCoordinate(new Random(13L));
+
+        assertAll(
+                () -> assertTrue(result.isPresent()),
+                () -> assertEquals(onlyDefaultCoordinate, result.orElseThrow()),
+                () -> assertTrue(model.isDefaultEntity(result.orElseThrow()))
+        );
+    }
+
+    @Test
+    void testSwapInputCellEntitiesWritesInputEntityValues() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinateA = coordinate(0, 0);
+        GridCoordinate coordinateB = coordinate(1, 0);
+
+        model.swapInputCellEntities(
+                new GridCell<>(coordinateA, TestEntity.WALL),
+                new GridCell<>(coordinateB, TestEntity.FOOD));
+
+        assertEquals(TestEntity.FOOD, model.getEntity(coordinateA));
+        assertEquals(TestEntity.WALL, model.getEntity(coordinateB));
+    }
+
+    @Test
+    void testSwapInputCellEntitiesIgnoresCurrentModelState() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinateA = coordinate(0, 0);
+        GridCoordinate coordinateB = coordinate(1, 0);
+
+        model.setEntity(coordinateA, TestEntity.WALL);
+        model.setEntity(coordinateB, TestEntity.FOOD);
+
+        model.swapInputCellEntities(
+                new GridCell<>(coordinateA, TestEntity.EMPTY),
+                new GridCell<>(coordinateB, TestEntity.EMPTY));
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinateA));
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinateB));
+    }
+
+    @Test
+    void testSwapInputCellEntitiesThrowsForInvalidCoordinate() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate valid = coordinate(0, 0);
+        GridCoordinate invalid = coordinate(8, 0);
+
+        model.setEntity(valid, TestEntity.WALL);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> model.swapInputCellEntities(
+                                new GridCell<>(invalid, TestEntity.FOOD),
+                                new GridCell<>(valid, TestEntity.EMPTY))),
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> model.swapInputCellEntities(
+                                new GridCell<>(valid, TestEntity.EMPTY),
+                                new GridCell<>(invalid, TestEntity.FOOD)))
+        );
+        assertEquals(TestEntity.WALL, model.getEntity(valid));
+    }
+
+    @Test
+    void testIndexAccessMatchesCoordinateAccess() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        int index = SQUARE_STRUCTURE_8X8.indexOf(3, 2);
+
+        model.setEntity(index, TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(index)),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(3, 2))),
+                () -> assertFalse(model.isDefaultEntity(index)),
+                () -> assertTrue(model.isDefaultEntity(index + 1))
+        );
+
+        model.setEntityToDefault(index);
+
+        assertAll(
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(index)),
+                () -> assertTrue(model.isDefaultEntity(coordinate(3, 2)))
+        );
+    }
+
+    @Test
+    void testNonDefaultIndicesAreSortedAscending() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(7, 7), TestEntity.WALL);
+        model.setEntity(coordinate(0, 0), TestEntity.FOOD);
+        model.setEntity(coordinate(5, 1), TestEntity.WALL);
+
+        assertArrayEquals(new int[]{0, 13, 63}, model.nonDefaultIndices());
+    }
+
+    @Test
+    void testFilteredIndicesReturnsMatchingIndices() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        int[] walls = model.filteredIndices(entity -> entity == TestEntity.WALL);
+        int[] nonFood = model.filteredIndices(entity -> entity != TestEntity.FOOD);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{9, 27}, walls),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 1, nonFood.length),
+                () -> assertEquals(17, nonFood[17]),
+                () -> assertEquals(19, nonFood[18])
+        );
+    }
+
+    @Test
+    void testForEachVisitorsMatchListMethods() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(6, 4), TestEntity.WALL);
+        model.setEntity(coordinate(1, 0), TestEntity.WALL);
+        model.setEntity(coordinate(3, 2), TestEntity.FOOD);
+
+        List<GridCell<TestEntity>> all = new ArrayList<>();
+        List<GridCell<TestEntity>> nonDefault = new ArrayList<>();
+        List<GridCell<TestEntity>> walls = new ArrayList<>();
+        List<GridCell<TestEntity>> nonWalls = new ArrayList<>();
+        model.forEachCell((x, y, entity) -> all.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachNonDefault((x, y, entity) -> nonDefault.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity == TestEntity.WALL, (x, y, entity) -> walls.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity != TestEntity.WALL, (x, y, entity) -> nonWalls.add(new GridCell<>(coordinate(x, y), entity)));
+
+        assertAll(
+                () -> assertEquals(model.allCells(), all),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(3, 2), TestEntity.FOOD),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), nonDefault),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), walls),
+                () -> assertEquals(model.filteredCells(entity -> entity != TestEntity.WALL), nonWalls)
+        );
+    }
+
+    @Test
+    void testInvalidIndexThrowsException() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        int invalid = SQUARE_STRUCTURE_8X8.cellCount();
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(-1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(invalid, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntityToDefault(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.isDefaultEntity(invalid))
+        );
+    }
+
+    @Test
+    void testInvalidCoordinateThrowsException() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate invalid = coordinate(8, 0);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(invalid, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.isDefaultEntity(invalid))
+        );
+    }
+
+    @Test
+    void testConstructorRejectsInvalidThresholds() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, 0.5d, 0.5d)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, -0.1d, 0.5d)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, 0.1d, 1.5d))
+        );
+    }
+
+    @Test
+    void testMigratesWithHysteresis() {
+        // 64 cells: dense at 16 non-default cells (0.25), sparse again at 8 (0.125).
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, 0.125d, 0.25d);
+
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.SPARSE, model.representation()),
+                () -> assertTrue(model.isSparse())
+        );
+
+        for (int index = 0; index < 15; index++) {
+            model.setEntity(index, TestEntity.WALL);
+        }
+        assertEquals(AdaptiveGridModel.Representation.SPARSE, model.representation());
+
+        model.setEntity(15, TestEntity.FOOD);
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.DENSE, model.representation()),
+                () -> assertFalse(model.isSparse()),
+                () -> assertEquals(1, model.migrationCount()),
+                () -> assertEquals(16, model.nonDefaultCount()),
+                () -> assertEquals(TestEntity.FOOD, model.getEntity(15)),
+                () -> assertEquals(15, model.countEntities(entity -> entity == TestEntity.WALL))
+        );
+
+        // Between both thresholds the representation is kept.
+        for (int index = 15; index > 8; index--) {
+            model.setEntityToDefault(index);
+        }
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.DENSE, model.representation()),
+                () -> assertEquals(9, model.nonDefaultCount())
+        );
+
+        model.setEntityToDefault(8);
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.SPARSE, model.representation()),
+                () -> assertEquals(2, model.migrationCount()),
+                () -> assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7}, model.nonDefaultIndices())
+        );
+    }
+
+    @Test
+    void testNonDefaultCountIgnoresOverwrites() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinate = coordinate(3, 3);
+
+        model.setEntity(coordinate, TestEntity.WALL);
+        model.setEntity(coordinate, TestEntity.FOOD);
+        model.setEntityToDefault(coordinate(4, 4));
+        model.swapInputCellEntities(
+                new GridCell<>(coordinate, TestEntity.FOOD),
+                new GridCell<>(coordinate(0, 0), TestEntity.EMPTY));
+
+        assertAll(
+                () -> assertEquals(1, model.nonDefaultCount()),
+                () -> assertEquals(TestEntity.FOOD, model.getEntity(coordinate(0, 0))),
+                () -> assertTrue(model.isDefaultEntity(coordinate))
+        );
+    }
+
+    @Test
+    void testFillAndClearAdaptRepresentation() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        model.fill(TestEntity.WALL);
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.DENSE, model.representation()),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), model.nonDefaultCount())
+        );
+
+        // Clearing keeps the representation, so refilling does not migrate again.
+        model.clear();
+        model.setEntity(0, TestEntity.WALL);
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.DENSE, model.representation()),
+                () -> assertEquals(1, model.migrationCount()),
+                () -> assertEquals(1, model.nonDefaultCount())
+        );
+
+        model.fill(coordinate -> ((coordinate.y() < 6) && (coordinate.x() == 0)) ? TestEntity.FOOD : TestEntity.EMPTY);
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.SPARSE, model.representation()),
+                () -> assertEquals(6, model.nonDefaultCount()),
+                () -> assertEquals(2, model.migrationCount())
+        );
+    }
+
+    @Test
+    void testCopiesKeepRepresentation() {
+        AdaptiveGridModel<TestEntity> model = new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.fill(TestEntity.WALL);
+
+        AdaptiveGridModel<TestEntity> clone = model.copy();
+        AdaptiveGridModel<TestEntity> blankClone = model.copyWithDefaultEntity();
+        clone.setEntityToDefault(0);
+
+        assertAll(
+                () -> assertEquals(AdaptiveGridModel.Representation.DENSE, clone.representation()),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 1, clone.nonDefaultCount()),
+                () -> assertEquals(0, clone.migrationCount()),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(0)),
+                () -> assertEquals(AdaptiveGridModel.Representation.DENSE, blankClone.representation()),
+                () -> assertEquals(0, blankClone.nonDefaultCount())
+        );
+    }
+
+}
@@ -0,0 +1,236 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class BitGridModelTest {
+
+    /**
+     * Width 70 needs two words per row with 6 valid bits in the last word.
+     */
+    private static final GridStructure SQUARE_STRUCTURE_70X8 = new GridStructure(
+            new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+            new GridSize(70, 8));
+
+    private static BitGridModel<TestEntity> newModel() {
+        return new BitGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, TestEntity.WALL);
+    }
+
+    @Test
+    void testSetGetAndDefaultEntityHandling() {
+        BitGridModel<TestEntity> model = newModel();
+        GridCoordinate coordinate = coordinate(1, 1);
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinate));
+        assertTrue(model.isDefaultEntity(coordinate));
+
+        model.setEntity(coordinate, TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate)),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(9)),
+                () -> assertFalse(model.isDefaultEntity(coordinate)),
+                () -> assertEquals(Set.of(coordinate), model.nonDefaultCoordinates())
+        );
+
+        model.setEntityToDefault(coordinate);
+
+        assertAll(
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinate)),
+                () -> assertTrue(model.nonDefaultCoordinates().isEmpty())
+        );
+    }
+
+    @Test
+    void testConstructorRejectsEqualEntities() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BitGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, TestEntity.EMPTY));
+    }
+
+    @Test
+    void testSetEntityRejectsThirdEntity() {
+        BitGridModel<TestEntity> model = newModel();
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> model.setEntity(coordinate(0, 0), TestEntity.FOOD)),
+                () -> assertThrows(IllegalArgumentException.class, () -> model.setEntity(0, TestEntity.FOOD)),
+                () -> assertThrows(IllegalArgumentException.class, () -> model.fill(TestEntity.FOOD))
+        );
+    }
+
+    @Test
+    void testFillClearAndCountEntities() {
+        BitGridModel<TestEntity> model = new BitGridModel<>(SQUARE_STRUCTURE_70X8, TestEntity.EMPTY, TestEntity.WALL);
+        int cellCount = SQUARE_STRUCTURE_70X8.cellCount();
+
+        model.fill(TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(cellCount, model.activeCount()),
+                () -> assertEquals(cellCount, model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(0, model.countEntities(entity -> entity == TestEntity.EMPTY)),
+                () -> assertTrue(model.findRandomDefaultCoordinate(new Random(3L)).isEmpty())
+        );
+
+        model.clear();
+
+        assertAll(
+                () -> assertEquals(0, model.activeCount()),
+                () -> assertEquals(cellCount, model.countEntities(entity -> entity == TestEntity.EMPTY)),
+                () -> assertEquals(0, model.nonDefaultIndices().length)
+        );
+    }
+
+    @Test
+    void testRowWordAccess() {
+        BitGridModel<TestEntity> model = new BitGridModel<>(SQUARE_STRUCTURE_70X8, TestEntity.EMPTY, TestEntity.WALL);
+        model.setEntity(coordinate(0, 2), TestEntity.WALL);
+        model.setEntity(coordinate(65, 2), TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(2, model.wordsPerRow()),
+                () -> assertEquals(1L, model.rowWord(2, 0)),
+                () -> assertEquals(2L, model.rowWord(2, 1)),
+                () -> assertEquals(0L, model.rowWord(1, 0)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.rowWord(2, 2)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.rowWord(8, 0))
+        );
+
+        // Bits beyond the grid width are dropped.
+        model.setRowWord(3, 1, -1L);
+
+        assertAll(
+                () -> assertEquals(0b11_1111L, model.rowWord(3, 1)),
+                () -> assertEquals(8, model.activeCount()),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(69, 3))),
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinate(63, 3)))
+        );
+    }
+
+    @Test
+    void testIndexListsAreInRowMajorOrder() {
+        BitGridModel<TestEntity> model = new BitGridModel<>(SQUARE_STRUCTURE_70X8, TestEntity.EMPTY, TestEntity.WALL);
+        model.setEntity(coordinate(69, 1), TestEntity.WALL);
+        model.setEntity(coordinate(3, 0), TestEntity.WALL);
+        model.setEntity(coordinate(64, 0), TestEntity.WALL);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{3, 64, 139}, model.nonDefaultIndices()),
+                () -> assertArrayEquals(new int[]{3, 64, 139}, model.filteredIndices(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_70X8.cellCount() - 3,
+                        model.filteredIndices(entity -> entity == TestEntity.EMPTY).length),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(3, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(64, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(69, 1), TestEntity.WALL)), model.nonDefaultCells()),
+                () -> assertEquals(List.of(coordinate(3, 0), coordinate(64, 0), coordinate(69, 1)),
+                        model.filteredCoordinates(entity -> entity == TestEntity.WALL))
+        );
+    }
+
+    @Test
+    void testFilteredCellsIncludingBothEntities() {
+        BitGridModel<TestEntity> model = newModel();
+        model.setEntity(coordinate(1, 0), TestEntity.WALL);
+
+        List<GridCell<TestEntity>> cells = model.filteredCells(entity -> true);
+
+        assertAll(
+                () -> assertEquals(model.allCells(), cells),
+                () -> assertEquals(new GridCell<>(coordinate(0, 0), TestEntity.EMPTY), cells.get(0)),
+                () -> assertEquals(new GridCell<>(coordinate(1, 0), TestEntity.WALL), cells.get(1))
+        );
+    }
+
+    @Test
+    void testCopyAndCopyWithDefaultEntity() {
+        BitGridModel<TestEntity> model = newModel();
+        GridCoordinate coordinate = coordinate(2, 0);
+        model.setEntity(coordinate, TestEntity.WALL);
+
+        BitGridModel<TestEntity> clone = model.copy();
+        BitGridModel<TestEntity> blankClone = model.copyWithDefaultEntity();
+        clone.setEntityToDefault(coordinate);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate)),
+                () -> assertEquals(TestEntity.EMPTY, clone.getEntity(coordinate)),
+                () -> assertEquals(TestEntity.EMPTY, blankClone.getEntity(coordinate))
+        );
+    }
+
+    @Test
+    void testFindRandomDefaultCoordinateReturnsOnlyDefaultCells() {
+        BitGridModel<TestEntity> model = new BitGridModel<>(SQUARE_STRUCTURE_70X8, TestEntity.EMPTY, TestEntity.WALL);
+        model.fill(TestEntity.WALL);
+        GridCoordinate onlyDefaultCoordinate = coordinate(67, 5);
+        model.setEntityToDefault(onlyDefaultCoordinate);
+
+        assertEquals(Optional.of(onlyDefaultCoordinate), model.findRandomDefaultCoordinate(new Random(13L)));
+    }
+
+    @Test
+    void testSwapInputCellEntitiesWritesInputEntityValues() {
+        BitGridModel<TestEntity> model = newModel();
+        GridCoordinate coordinateA = coordinate(1, 1);
+        GridCoordinate coordinateB = coordinate(2, 2);
+
+        model.swapInputCellEntities(
+                new GridCell<>(coordinateA, TestEntity.EMPTY),
+                new GridCell<>(coordinateB, TestEntity.WALL));
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinateA)),
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinateB))
+        );
+    }
+
+    @Test
+    void testForEachVisitorsMatchListMethods() {
+        BitGridModel<TestEntity> model = newModel();
+        model.setEntity(coordinate(6, 4), TestEntity.WALL);
+        model.setEntity(coordinate(1, 0), TestEntity.WALL);
+        model.setEntity(coordinate(3, 2), TestEntity.WALL);
+
+        List<GridCell<TestEntity>> all = new ArrayList<>();
+        List<GridCell<TestEntity>> nonDefault = new ArrayList<>();
+        List<GridCell<TestEntity>> walls = new ArrayList<>();
+        List<GridCell<TestEntity>> nonWalls = new ArrayList<>();
+        model.forEachCell((x, y, entity) -> all.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachNonDefault((x, y, entity) -> nonDefault.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity == TestEntity.WALL, (x, y, entity) -> walls.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity != TestEntity.WALL, (x, y, entity) -> nonWalls.add(new GridCell<>(coordinate(x, y), entity)));
+
+        assertAll(
+                () -> assertEquals(model.allCells(), all),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(3, 2), TestEntity.WALL),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), nonDefault),
+                () -> assertEquals(nonDefault, walls),
+                () -> assertEquals(model.filteredCells(entity -> entity != TestEntity.WALL), nonWalls)
+        );
+    }
+
+    @Test
+    void testInvalidIndexAndCoordinateThrowException() {
+        BitGridModel<TestEntity> model = newModel();
+        GridCoordinate invalid = coordinate(8, 0);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(64)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(-1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(64, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(invalid, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.isDefaultEntity(invalid))
+        );
+    }
+
+}
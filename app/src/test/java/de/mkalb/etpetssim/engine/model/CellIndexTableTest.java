@@ -0,0 +1,128 @@
+package de.mkalb.etpetssim.engine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class CellIndexTableTest {
+
+    @Test
+    void testPutGetAndRemove() {
+        CellIndexTable<String> table = new CellIndexTable<>();
+        table.put(3, "a");
+        table.put(42, "b");
+        table.put(3, "c");
+
+        assertAll(
+                () -> assertEquals(2, table.size()),
+                () -> assertEquals("c", table.get(3)),
+                () -> assertEquals("b", table.get(42)),
+                () -> assertNull(table.get(4)),
+                () -> assertTrue(table.containsKey(42)),
+                () -> assertFalse(table.containsKey(0))
+        );
+
+        table.remove(3);
+        table.remove(99);
+
+        assertAll(
+                () -> assertEquals(1, table.size()),
+                () -> assertNull(table.get(3)),
+                () -> assertEquals("b", table.get(42))
+        );
+    }
+
+    @Test
+    void testMatchesReferenceMapUnderRandomChurn() {
+        CellIndexTable<Integer> table = new CellIndexTable<>();
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(7L);
+
+        // Small key range forces long probe clusters, growth and backward-shift deletions.
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                table.remove(key);
+                reference.remove(key);
+            } else {
+                table.put(key, i);
+                reference.put(key, i);
+            }
+        }
+
+        assertEquals(reference.size(), table.size());
+        for (int key = 0; key < 500; key++) {
+            assertEquals(reference.get(key), table.get(key), "key " + key);
+        }
+        assertArrayEquals(reference.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), table.sortedKeys());
+    }
+
+    @Test
+    void testSortedKeysAreAscending() {
+        CellIndexTable<String> table = new CellIndexTable<>();
+        table.put(63, "x");
+        table.put(0, "y");
+        table.put(13, "z");
+
+        assertArrayEquals(new int[]{0, 13, 63}, table.sortedKeys());
+    }
+
+    @Test
+    void testSortedKeysAreCachedUntilKeysChange() {
+        CellIndexTable<String> table = new CellIndexTable<>();
+        table.put(63, "x");
+        table.put(0, "y");
+        int[] sorted = table.sortedKeys();
+        table.put(63, "z");
+        int[] afterReplace = table.sortedKeys();
+        table.put(13, "w");
+        int[] afterInsert = table.sortedKeys();
+        table.remove(99);
+        int[] afterMissingRemove = table.sortedKeys();
+        table.remove(0);
+
+        assertAll(
+                () -> assertSame(sorted, afterReplace),
+                () -> assertNotSame(sorted, afterInsert),
+                () -> assertArrayEquals(new int[]{0, 63}, sorted),
+                () -> assertArrayEquals(new int[]{0, 13, 63}, afterInsert),
+                () -> assertSame(afterInsert, afterMissingRemove),
+                () -> assertArrayEquals(new int[]{13, 63}, table.sortedKeys())
+        );
+    }
+
+    @Test
+    void testCopyFromIsIndependent() {
+        CellIndexTable<String> table = new CellIndexTable<>();
+        table.put(1, "a");
+        CellIndexTable<String> copy = new CellIndexTable<>();
+        copy.copyFrom(table);
+        copy.put(2, "b");
+        table.remove(1);
+
+        assertAll(
+                () -> assertTrue(table.isEmpty()),
+                () -> assertEquals(2, copy.size()),
+                () -> assertEquals("a", copy.get(1))
+        );
+    }
+
+    @Test
+    void testClear() {
+        CellIndexTable<String> table = new CellIndexTable<>();
+        for (int key = 0; key < 100; key++) {
+            table.put(key, "v");
+        }
+        table.clear();
+
+        assertAll(
+                () -> assertTrue(table.isEmpty()),
+                () -> assertNull(table.get(5)),
+                () -> assertEquals(0, table.sortedKeys().length)
+        );
+    }
+
+}
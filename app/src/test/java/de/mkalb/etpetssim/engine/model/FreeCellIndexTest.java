@@ -0,0 +1,107 @@
+package de.mkalb.etpetssim.engine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class FreeCellIndexTest {
+
+    @Test
+    void testUpdateMaintainsFreeCells() {
+        FreeCellIndex index = new FreeCellIndex(5);
+
+        assertEquals(5, index.size());
+
+        index.update(1, false);
+        index.update(4, false);
+        index.update(1, false);
+
+        assertAll(
+                () -> assertEquals(3, index.size()),
+                () -> assertFalse(index.isFree(1)),
+                () -> assertFalse(index.isFree(4)),
+                () -> assertTrue(index.isFree(0)),
+                () -> assertTrue(index.isFree(3))
+        );
+
+        index.update(4, true);
+        index.update(4, true);
+
+        assertAll(
+                () -> assertEquals(4, index.size()),
+                () -> assertTrue(index.isFree(4))
+        );
+    }
+
+    @Test
+    void testRandomFreeIndexReturnsOnlyFreeCells() {
+        FreeCellIndex index = new FreeCellIndex(100);
+        for (int cell = 0; cell < 100; cell++) {
+            if ((cell != 17) && (cell != 83)) {
+                index.update(cell, false);
+            }
+        }
+        Random random = new Random(7L);
+        Set<Integer> selected = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            selected.add(index.randomFreeIndex(random));
+        }
+
+        assertEquals(Set.of(17, 83), selected);
+    }
+
+    @Test
+    void testRandomFreeIndexOnFullGrid() {
+        FreeCellIndex index = new FreeCellIndex(3);
+        index.update(0, false);
+        index.update(1, false);
+        index.update(2, false);
+
+        assertEquals(-1, index.randomFreeIndex(new Random(1L)));
+    }
+
+    @Test
+    void testMatchesReferenceSetUnderRandomChurn() {
+        FreeCellIndex index = new FreeCellIndex(256);
+        Set<Integer> reference = new HashSet<>();
+        for (int cell = 0; cell < 256; cell++) {
+            reference.add(cell);
+        }
+        Random random = new Random(42L);
+        for (int i = 0; i < 10_000; i++) {
+            int cell = random.nextInt(256);
+            boolean free = random.nextBoolean();
+            index.update(cell, free);
+            if (free) {
+                reference.add(cell);
+            } else {
+                reference.remove(cell);
+            }
+        }
+
+        assertEquals(reference.size(), index.size());
+        for (int cell = 0; cell < 256; cell++) {
+            assertEquals(reference.contains(cell), index.isFree(cell));
+        }
+    }
+
+    @Test
+    void testCopyAndMarkAllFree() {
+        FreeCellIndex index = new FreeCellIndex(4);
+        index.update(2, false);
+
+        FreeCellIndex copy = index.copy();
+        copy.update(3, false);
+        index.markAllFree();
+
+        assertAll(
+                () -> assertEquals(4, index.size()),
+                () -> assertEquals(2, copy.size()),
+                () -> assertFalse(copy.isFree(2))
+        );
+    }
+
+}
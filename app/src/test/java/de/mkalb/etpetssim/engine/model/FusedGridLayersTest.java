@@ -0,0 +1,104 @@
+package de.mkalb.etpetssim.engine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class FusedGridLayersTest {
+
+    @Test
+    void testLayersAreIndependentAndShareOneCellOffset() {
+        FusedGridLayers layers = new FusedGridLayers(SQUARE_STRUCTURE_8X8, 3);
+        FusedLayerGridModel<TestEntity> first = layers.addLayer(TestEntity.EMPTY);
+        FusedLayerGridModel<TestEntity> second = layers.addLayer(TestEntity.FOOD);
+        FusedLayerGridModel<TestEntity> third = layers.addLayer(TestEntity.EMPTY);
+
+        first.setEntity(coordinate(1, 1), TestEntity.WALL);
+        second.setEntityToDefault(9);
+        third.fill(TestEntity.WALL);
+        third.setEntityToDefault(0);
+        int cellOffset = layers.cellOffset(9);
+
+        assertAll(
+                () -> assertEquals(27, cellOffset),
+                () -> assertEquals(TestEntity.WALL, first.getEntityAtCellOffset(cellOffset)),
+                () -> assertEquals(TestEntity.FOOD, second.getEntityAtCellOffset(cellOffset)),
+                () -> assertEquals(TestEntity.WALL, third.getEntityAtCellOffset(cellOffset)),
+                () -> assertArrayEquals(new int[]{9}, first.nonDefaultIndices()),
+                () -> assertEquals(0, second.nonDefaultIndices().length),
+                () -> assertEquals(63, third.nonDefaultIndices().length),
+                () -> assertEquals(Set.of(coordinate(1, 1)), first.nonDefaultCoordinates()),
+                () -> assertEquals(64, second.countEntities(entity -> entity == TestEntity.FOOD))
+        );
+    }
+
+    @Test
+    void testAddLayerBeyondLayerCountIsRejected() {
+        FusedGridLayers layers = new FusedGridLayers(SQUARE_STRUCTURE_8X8, 1);
+        layers.addLayer(TestEntity.EMPTY);
+
+        assertAll(
+                () -> assertThrows(IllegalStateException.class, () -> layers.addLayer(TestEntity.EMPTY)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new FusedGridLayers(SQUARE_STRUCTURE_8X8, 0))
+        );
+    }
+
+    @Test
+    void testSnapshotOfOneLayerIsUnaffectedByWritesToOtherLayers() {
+        FusedGridLayers layers = new FusedGridLayers(SQUARE_STRUCTURE_8X8, 2);
+        FusedLayerGridModel<TestEntity> first = layers.addLayer(TestEntity.EMPTY);
+        FusedLayerGridModel<TestEntity> second = layers.addLayer(TestEntity.EMPTY);
+        first.setEntity(5, TestEntity.WALL);
+
+        GridModelSnapshot<TestEntity> snapshot = first.snapshot();
+        second.setEntity(5, TestEntity.FOOD);
+        first.setEntityToDefault(5);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, snapshot.getEntity(5)),
+                () -> assertEquals(TestEntity.EMPTY, first.getEntity(5)),
+                () -> assertEquals(TestEntity.FOOD, second.getEntity(5))
+        );
+    }
+
+    @Test
+    void testCopyIsStandAloneArrayGridModel() {
+        FusedGridLayers layers = new FusedGridLayers(SQUARE_STRUCTURE_8X8, 2);
+        layers.addLayer(TestEntity.FOOD);
+        FusedLayerGridModel<TestEntity> layer = layers.addLayer(TestEntity.EMPTY);
+        layer.setEntity(coordinate(2, 3), TestEntity.WALL);
+
+        ArrayGridModel<TestEntity> copy = layer.copy();
+        layer.clear();
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{26}, copy.nonDefaultIndices()),
+                () -> assertEquals(TestEntity.EMPTY, copy.defaultEntity()),
+                () -> assertEquals(0, layer.nonDefaultIndices().length),
+                () -> assertEquals(0, layer.copyWithDefaultEntity().nonDefaultIndices().length)
+        );
+    }
+
+    @Test
+    void testChangeJournalRecordsWritesOfOneLayer() {
+        FusedGridLayers layers = new FusedGridLayers(SQUARE_STRUCTURE_8X8, 2);
+        FusedLayerGridModel<TestEntity> first = layers.addLayer(TestEntity.EMPTY);
+        FusedLayerGridModel<TestEntity> second = layers.addLayer(TestEntity.EMPTY);
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        first.setChangeJournal(journal);
+
+        first.setEntity(3, TestEntity.WALL);
+        second.setEntity(4, TestEntity.WALL);
+
+        assertAll(
+                () -> assertFalse(first.beginConcurrentRowBandWrites()),
+                () -> assertTrue(second.beginConcurrentRowBandWrites()),
+                () -> assertArrayEquals(new int[]{3}, journal.drainChanges())
+        );
+    }
+
+}
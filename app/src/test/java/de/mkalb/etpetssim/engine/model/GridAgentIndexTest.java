@@ -0,0 +1,108 @@
+package de.mkalb.etpetssim.engine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class GridAgentIndexTest {
+
+    private static boolean isAgent(TestEntity entity) {
+        return entity == TestEntity.FOOD;
+    }
+
+    private static List<WritableGridModel<TestEntity>> allModels() {
+        return List.of(
+                new ArrayGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY));
+    }
+
+    @Test
+    void testInitialIndicesAreSorted() {
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            model.setEntity(coordinate(7, 7), TestEntity.FOOD);
+            model.setEntity(coordinate(0, 1), TestEntity.FOOD);
+            model.setEntity(coordinate(3, 0), TestEntity.WALL);
+
+            GridAgentIndex<TestEntity> agentIndex = new GridAgentIndex<>(model, GridAgentIndexTest::isAgent);
+
+            assertAll(model.toString(),
+                    () -> assertArrayEquals(new int[]{8, 63}, agentIndex.agentIndices()),
+                    () -> assertEquals(2, agentIndex.agentCount()),
+                    () -> assertNotNull(model.changeJournal())
+            );
+        }
+    }
+
+    @Test
+    void testIndicesFollowWritesAndMoves() {
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            model.setEntity(10, TestEntity.FOOD);
+            model.setEntity(20, TestEntity.FOOD);
+            GridAgentIndex<TestEntity> agentIndex = new GridAgentIndex<>(model, GridAgentIndexTest::isAgent);
+            int[] before = agentIndex.agentIndices();
+
+            model.setEntity(5, TestEntity.FOOD);
+            model.setEntity(30, TestEntity.WALL);
+            model.setEntityToDefault(10);
+            model.swapInputCellEntities(
+                    new GridCell<>(coordinate(4, 2), TestEntity.FOOD),
+                    new GridCell<>(coordinate(0, 7), TestEntity.EMPTY));
+            model.setEntity(20, TestEntity.WALL);
+            model.setEntity(20, TestEntity.FOOD);
+
+            assertAll(model.toString(),
+                    () -> assertArrayEquals(new int[]{5, 20, 56}, agentIndex.agentIndices()),
+                    () -> assertArrayEquals(new int[]{10, 20}, before)
+            );
+        }
+    }
+
+    @Test
+    void testBulkWritesRescanTheModel() {
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            model.setEntity(10, TestEntity.FOOD);
+            GridAgentIndex<TestEntity> agentIndex = new GridAgentIndex<>(model, GridAgentIndexTest::isAgent);
+
+            model.fill(coordinate -> (coordinate.y() == 1) ? TestEntity.FOOD : TestEntity.EMPTY);
+            int[] afterFill = agentIndex.agentIndices();
+            model.clear();
+            model.setEntity(0, TestEntity.FOOD);
+
+            assertAll(model.toString(),
+                    () -> assertArrayEquals(new int[]{8, 9, 10, 11, 12, 13, 14, 15}, afterFill),
+                    () -> assertArrayEquals(new int[]{0}, agentIndex.agentIndices())
+            );
+        }
+    }
+
+    @Test
+    void testSharesModelWithAttachedJournal() {
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        model.setChangeJournal(journal);
+        GridAgentIndex<TestEntity> firstIndex = new GridAgentIndex<>(model, GridAgentIndexTest::isAgent);
+        GridAgentIndex<TestEntity> secondIndex = new GridAgentIndex<>(model, GridAgentIndexTest::isAgent);
+
+        model.setEntity(12, TestEntity.FOOD);
+        int[] firstIndices = firstIndex.agentIndices();
+        model.setEntity(3, TestEntity.FOOD);
+
+        assertAll(
+                () -> assertSame(journal, model.changeJournal()),
+                () -> assertArrayEquals(new int[]{12}, firstIndices),
+                () -> assertArrayEquals(new int[]{3, 12}, firstIndex.agentIndices()),
+                () -> assertArrayEquals(new int[]{3, 12}, secondIndex.agentIndices()),
+                () -> assertArrayEquals(new int[]{3, 12}, journal.drainChanges()),
+                () -> assertFalse(model.beginConcurrentRowBandWrites())
+        );
+        model.endConcurrentRowBandWrites();
+    }
+
+}
@@ -0,0 +1,208 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class GridChangeJournalTest {
+
+    private static List<WritableGridModel<TestEntity>> allModels() {
+        return List.of(
+                new ArrayGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new BitGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, TestEntity.WALL),
+                new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                new AdaptiveGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY));
+    }
+
+    @Test
+    void testRecordDeduplicatesAndDrainStartsNewGeneration() {
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+
+        assertTrue(journal.isEmpty());
+
+        journal.record(42);
+        journal.record(7);
+        journal.record(42);
+        journal.record(63);
+
+        assertAll(
+                () -> assertFalse(journal.isEmpty()),
+                () -> assertEquals(3, journal.changeCount()),
+                () -> assertTrue(journal.isChanged(7)),
+                () -> assertFalse(journal.isChanged(8))
+        );
+
+        assertArrayEquals(new int[]{7, 42, 63}, journal.drainChanges());
+
+        assertAll(
+                () -> assertTrue(journal.isEmpty()),
+                () -> assertFalse(journal.isChanged(42)),
+                () -> assertEquals(0, journal.drainChanges().length)
+        );
+
+        journal.record(42);
+        assertArrayEquals(new int[]{42}, journal.drainChanges());
+    }
+
+    @Test
+    void testRecordAllMarksEveryCell() {
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        journal.record(3);
+        journal.recordAll();
+
+        assertAll(
+                () -> assertTrue(journal.isAllChanged()),
+                () -> assertEquals(64, journal.changeCount()),
+                () -> assertTrue(journal.isChanged(60))
+        );
+
+        int[] changes = journal.drainChanges();
+
+        assertAll(
+                () -> assertEquals(64, changes.length),
+                () -> assertEquals(0, changes[0]),
+                () -> assertEquals(63, changes[63]),
+                () -> assertFalse(journal.isAllChanged()),
+                () -> assertTrue(journal.isEmpty())
+        );
+    }
+
+    @Test
+    void testRecordRejectsInvalidIndex() {
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> journal.record(64)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> journal.record(-1))
+        );
+    }
+
+    @Test
+    void testChainedJournalsRecordAndDrainIndependently() {
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridChangeJournal first = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        GridChangeJournal second = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        GridChangeJournal third = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        model.attachChangeJournal(first);
+        model.attachChangeJournal(second);
+        model.attachChangeJournal(third);
+
+        model.setEntity(5, TestEntity.WALL);
+        int[] firstChanges = first.drainChanges();
+        model.setEntity(5, TestEntity.EMPTY);
+        model.setEntity(2, TestEntity.WALL);
+
+        assertAll(
+                () -> assertSame(first, model.changeJournal()),
+                () -> assertArrayEquals(new int[]{5}, firstChanges),
+                () -> assertArrayEquals(new int[]{2, 5}, first.drainChanges()),
+                () -> assertArrayEquals(new int[]{2, 5}, second.drainChanges()),
+                () -> assertArrayEquals(new int[]{2, 5}, third.drainChanges())
+        );
+
+        model.fill(TestEntity.WALL);
+
+        assertAll(
+                () -> assertTrue(second.isAllChanged()),
+                () -> assertTrue(third.isAllChanged()),
+                () -> assertThrows(IllegalArgumentException.class, () -> first.chain(third)),
+                () -> assertThrows(IllegalArgumentException.class, () -> third.chain(first)),
+                () -> assertThrows(IllegalArgumentException.class, () -> first.chain(new GridChangeJournal(new GridStructure(
+                        new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+                        new GridSize(8, 10)))))
+        );
+    }
+
+    @Test
+    void testModelsRejectJournalOfDifferentSize() {
+        GridChangeJournal journal = new GridChangeJournal(new GridStructure(
+                new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(8, 10)));
+
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            assertThrows(IllegalArgumentException.class, () -> model.setChangeJournal(journal), model.toString());
+        }
+    }
+
+    @Test
+    void testModelsRecordSingleCellWrites() {
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+            model.setChangeJournal(journal);
+
+            model.setEntity(coordinate(2, 1), TestEntity.WALL);
+            model.setEntity(20, TestEntity.WALL);
+            model.setEntity(20, TestEntity.WALL);
+            model.setEntityToDefault(coordinate(5, 5));
+            model.setEntityToDefault(63);
+            model.swapInputCellEntities(
+                    new GridCell<>(coordinate(0, 0), TestEntity.EMPTY),
+                    new GridCell<>(coordinate(1, 0), TestEntity.WALL));
+
+            assertAll(model.toString(),
+                    () -> assertSame(journal, model.changeJournal()),
+                    () -> assertFalse(journal.isAllChanged()),
+                    () -> assertArrayEquals(new int[]{0, 1, 10, 20, 45, 63}, journal.drainChanges())
+            );
+        }
+    }
+
+    @Test
+    void testModelsMarkAllChangedOnBulkWrites() {
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+            model.setChangeJournal(journal);
+
+            model.fill(TestEntity.WALL);
+            assertTrue(journal.isAllChanged(), model.toString());
+            journal.drainChanges();
+
+            model.clear();
+            assertTrue(journal.isAllChanged(), model.toString());
+            journal.drainChanges();
+
+            model.fill(coordinate -> TestEntity.EMPTY);
+            assertTrue(journal.isAllChanged(), model.toString());
+        }
+    }
+
+    @Test
+    void testCopiesAndDetachedModelsDoNotRecord() {
+        for (WritableGridModel<TestEntity> model : allModels()) {
+            GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+            model.setChangeJournal(journal);
+
+            WritableGridModel<TestEntity> clone = model.copy();
+            clone.setEntity(5, TestEntity.WALL);
+            model.copyWithDefaultEntity().setEntity(6, TestEntity.WALL);
+            model.setChangeJournal(null);
+            model.setEntity(7, TestEntity.WALL);
+
+            assertAll(model.toString(),
+                    () -> assertNull(clone.changeJournal()),
+                    () -> assertNull(model.changeJournal()),
+                    () -> assertTrue(journal.isEmpty())
+            );
+        }
+    }
+
+    @Test
+    void testBitGridModelRowWordRecordsChangedBitsOnly() {
+        BitGridModel<TestEntity> model = new BitGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, TestEntity.WALL);
+        model.setEntity(coordinate(1, 2), TestEntity.WALL);
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        model.setChangeJournal(journal);
+
+        model.setRowWord(2, 0, 0b1010L);
+
+        assertArrayEquals(new int[]{19}, journal.drainChanges());
+    }
+
+}
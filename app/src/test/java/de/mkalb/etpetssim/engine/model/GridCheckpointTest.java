@@ -0,0 +1,179 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class GridCheckpointTest {
+
+    /**
+     * 70 cells per row need two words per row in a {@link BitGridModel}.
+     */
+    private static final GridStructure WRAP_STRUCTURE_70X10 = new GridStructure(
+            new GridTopology(CellShape.SQUARE, GridEdgeBehavior.WRAP_XY),
+            new GridSize(70, 10));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndReadRestoresAllLayers() throws IOException {
+        Path file = tempDir.resolve("world.checkpoint");
+        EnumGridModel<TestEntity> terrain = new EnumGridModel<>(WRAP_STRUCTURE_70X10, TestEntity.EMPTY);
+        BitGridModel<TestEntity> walls = new BitGridModel<>(WRAP_STRUCTURE_70X10, TestEntity.EMPTY, TestEntity.WALL);
+        terrain.setEntity(coordinate(0, 0), TestEntity.FOOD);
+        terrain.setEntity(coordinate(69, 9), TestEntity.WALL);
+        walls.setEntity(coordinate(65, 3), TestEntity.WALL);
+        walls.setEntity(coordinate(1, 9), TestEntity.WALL);
+
+        GridCheckpoint.write(file, List.of(terrain, walls));
+
+        EnumGridModel<TestEntity> restoredTerrain = new EnumGridModel<>(WRAP_STRUCTURE_70X10, TestEntity.EMPTY);
+        BitGridModel<TestEntity> restoredWalls = new BitGridModel<>(WRAP_STRUCTURE_70X10, TestEntity.EMPTY, TestEntity.WALL);
+        restoredTerrain.setEntity(coordinate(5, 5), TestEntity.WALL);
+        GridCheckpoint.read(file, List.of(restoredTerrain, restoredWalls));
+
+        assertAll(
+                () -> assertEquals(WRAP_STRUCTURE_70X10, GridCheckpoint.readStructure(file)),
+                () -> assertEquals(terrain.nonDefaultCells(), restoredTerrain.nonDefaultCells()),
+                () -> assertEquals(1L, restoredTerrain.countEntity(TestEntity.FOOD)),
+                () -> assertEquals(1L, restoredTerrain.countEntity(TestEntity.WALL)),
+                () -> assertArrayEquals(walls.nonDefaultIndices(), restoredWalls.nonDefaultIndices()),
+                () -> assertEquals(2L, restoredWalls.activeCount()),
+                () -> assertFalse(Files.exists(tempDir.resolve("world.checkpoint.tmp")))
+        );
+    }
+
+    @Test
+    void testWriteReplacesExistingFile() throws IOException {
+        Path file = tempDir.resolve("world.checkpoint");
+        EnumGridModel<TestEntity> model = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(10, TestEntity.FOOD);
+        GridCheckpoint.write(file, List.of(model));
+        model.setEntity(20, TestEntity.WALL);
+        GridCheckpoint.write(file, List.of(model));
+
+        EnumGridModel<TestEntity> restored = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCheckpoint.read(file, List.of(restored));
+
+        assertArrayEquals(new int[]{10, 20}, restored.nonDefaultIndices());
+    }
+
+    @Test
+    void testReadMapsEnumConstantsByDescriptorId() throws IOException {
+        Path file = tempDir.resolve("world.checkpoint");
+        EnumGridModel<TestEntity> model = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(1, TestEntity.WALL);
+        model.setEntity(2, TestEntity.FOOD);
+        GridCheckpoint.write(file, List.of(model));
+
+        EnumGridModel<ReorderedEntity> restored = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, ReorderedEntity.EMPTY);
+        GridCheckpoint.read(file, List.of(restored));
+
+        assertAll(
+                () -> assertEquals(ReorderedEntity.WALL, restored.getEntity(1)),
+                () -> assertEquals(ReorderedEntity.FOOD, restored.getEntity(2)),
+                () -> assertEquals(62L, restored.countEntity(ReorderedEntity.EMPTY))
+        );
+    }
+
+    @Test
+    void testReadRecordsAllChangesAndKeepsSnapshots() throws IOException {
+        Path file = tempDir.resolve("world.checkpoint");
+        EnumGridModel<TestEntity> model = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(3, TestEntity.FOOD);
+        GridCheckpoint.write(file, List.of(model));
+
+        model.setEntity(4, TestEntity.WALL);
+        GridModelSnapshot<TestEntity> snapshot = model.snapshot();
+        GridChangeJournal journal = new GridChangeJournal(SQUARE_STRUCTURE_8X8);
+        model.setChangeJournal(journal);
+        GridCheckpoint.read(file, List.of(model));
+
+        assertAll(
+                () -> assertTrue(journal.isAllChanged()),
+                () -> assertArrayEquals(new int[]{3}, model.nonDefaultIndices()),
+                () -> assertArrayEquals(new int[]{3, 4}, snapshot.nonDefaultIndices())
+        );
+    }
+
+    @Test
+    void testReadRejectsMismatchingLayers() throws IOException {
+        Path file = tempDir.resolve("world.checkpoint");
+        EnumGridModel<TestEntity> model = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(7, TestEntity.WALL);
+        GridCheckpoint.write(file, List.of(model, new BitGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, TestEntity.WALL)));
+
+        EnumGridModel<TestEntity> untouched = new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridCheckpoint.read(file, List.of(new EnumGridModel<>(WRAP_STRUCTURE_70X10, TestEntity.EMPTY)))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridCheckpoint.read(file, List.of(untouched))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridCheckpoint.read(file, List.of(untouched,
+                                new BitGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY, TestEntity.FOOD)))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridCheckpoint.read(file, List.of(untouched,
+                                new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY)))),
+                () -> assertEquals(0, untouched.nonDefaultIndices().length)
+        );
+    }
+
+    @Test
+    void testWriteRejectsUnsupportedLayers() {
+        Path file = tempDir.resolve("world.checkpoint");
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> GridCheckpoint.write(file, List.of())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridCheckpoint.write(file, List.of(new ArrayGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY)))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridCheckpoint.write(file, List.of(
+                                new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY),
+                                new EnumGridModel<>(WRAP_STRUCTURE_70X10, TestEntity.EMPTY)))),
+                () -> assertFalse(Files.exists(file))
+        );
+    }
+
+    @Test
+    void testReadRejectsInvalidFiles() throws IOException {
+        Path emptyFile = Files.createFile(tempDir.resolve("empty.checkpoint"));
+        Path textFile = Files.writeString(tempDir.resolve("text.checkpoint"), "This is not a grid checkpoint.");
+        Path truncatedFile = tempDir.resolve("truncated.checkpoint");
+        GridCheckpoint.write(truncatedFile, List.of(new EnumGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY)));
+        byte[] content = Files.readAllBytes(truncatedFile);
+        Files.write(truncatedFile, Arrays.copyOf(content, content.length - 8));
+
+        assertAll(
+                () -> assertThrows(IOException.class, () -> GridCheckpoint.readStructure(emptyFile)),
+                () -> assertThrows(IOException.class, () -> GridCheckpoint.readStructure(textFile)),
+                () -> assertThrows(IOException.class, () -> GridCheckpoint.readStructure(truncatedFile)),
+                () -> assertThrows(IOException.class, () -> GridCheckpoint.readStructure(tempDir.resolve("missing.checkpoint")))
+        );
+    }
+
+    /**
+     * The constants of {@link TestEntity} with the same descriptor IDs in a different order.
+     */
+    enum ReorderedEntity implements GridEntity {
+        FOOD,
+        EMPTY,
+        WALL;
+
+        @Override
+        public String descriptorId() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+}
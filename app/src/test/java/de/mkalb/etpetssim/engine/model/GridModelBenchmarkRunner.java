@@ -0,0 +1,203 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.GridModelTestSupport.TestEntity;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Manual micro-benchmark comparing the paged row-major {@link ArrayGridModel} storage with the former
+ * nested {@code Object[][]} row layout on grid sizes used by the dense simulations
+ * (Forest and Wa-Tor, up to 1000 × 1000 cells).
+ * <p>
+ * The paged model stores the cells in pages of {@value ArrayGridModel#PAGE_SIZE} consecutive cell indices,
+ * so each access looks up the page in the page directory before the array element, one indirection like
+ * the row lookup of the nested layout. Its {@code copy()} shares the pages copy-on-write, so the
+ * {@code copy+write} operation also writes one cell per row to include the duplication of the pages.
+ * <p>
+ * Each operation is measured over several warm-up and measurement rounds with {@link System#nanoTime()},
+ * and the average time per round is printed for both layouts. The numbers are only indicative
+ * (no JMH isolation, forking, or dead-code protection beyond a checksum); run from the IDE with
+ * a quiet machine and compare relative values.
+ */
+@SuppressWarnings("MagicNumber")
+public final class GridModelBenchmarkRunner {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASUREMENT_ROUNDS = 30;
+    private static final long SEED = 42L;
+    private static final double NON_DEFAULT_DENSITY = 0.5d;
+    private static final String COLUMNS = "grid          operation           nested ns     paged ns paged/nested";
+
+    private static long checksum;
+
+    private GridModelBenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmark for Forest/Wa-Tor sized grids.
+     * Intended for manual invocation from the IDE.
+     */
+    static void main() {
+        Locale.setDefault(Locale.ROOT);
+
+        System.out.println(COLUMNS);
+        runGrid(GridSize.square(200));
+        runGrid(GridSize.square(1_000));
+        System.out.printf(Locale.ROOT, "(checksum %d)%n", checksum);
+    }
+
+    private static void runGrid(GridSize size) {
+        GridStructure structure = new GridStructure(new GridTopology(CellShape.SQUARE, GridEdgeBehavior.WRAP_XY), size);
+        NestedArrayStore nested = new NestedArrayStore(size.width(), size.height(), TestEntity.EMPTY);
+        ArrayGridModel<TestEntity> paged = new ArrayGridModel<>(structure, TestEntity.EMPTY);
+        populate(nested, paged, structure);
+
+        String grid = size.toDisplayString();
+        compare(grid, "getEntity(x,y)", () -> nested.sumOrdinals(), () -> sumOrdinalsByCoordinate(paged));
+        compare(grid, "getEntity(idx)", () -> nested.sumOrdinals(), () -> sumOrdinalsByIndex(paged));
+        compare(grid, "countEntities", () -> nested.count(TestEntity.WALL), () -> paged.countEntities(e -> e == TestEntity.WALL));
+        compare(grid, "copy+write", () -> {
+            NestedArrayStore copy = nested.copy();
+            for (int y = 0; y < copy.height(); y++) {
+                copy.set(0, y, TestEntity.WALL);
+            }
+            return copy.height();
+        }, () -> {
+            ArrayGridModel<TestEntity> copy = paged.copy();
+            for (int y = 0; y < size.height(); y++) {
+                copy.setEntity(structure.indexOf(0, y), TestEntity.WALL);
+            }
+            return copy.structure().size().height();
+        });
+        compare(grid, "clear+refill", () -> {
+            nested.clear();
+            populate(nested, null, structure);
+            return nested.height();
+        }, () -> {
+            paged.clear();
+            populate(null, paged, structure);
+            return paged.structure().size().height();
+        });
+    }
+
+    private static void populate(NestedArrayStore nested, ArrayGridModel<TestEntity> paged, GridStructure structure) {
+        Random random = new Random(SEED);
+        int width = structure.size().width();
+        int height = structure.size().height();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextDouble() < NON_DEFAULT_DENSITY) {
+                    TestEntity entity = random.nextBoolean() ? TestEntity.WALL : TestEntity.FOOD;
+                    if (nested != null) {
+                        nested.set(x, y, entity);
+                    }
+                    if (paged != null) {
+                        paged.setEntity(structure.indexOf(x, y), entity);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long sumOrdinalsByCoordinate(ArrayGridModel<TestEntity> model) {
+        int width = model.structure().size().width();
+        int height = model.structure().size().height();
+        long sum = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                sum += model.getEntity(new GridCoordinate(x, y)).ordinal();
+            }
+        }
+        return sum;
+    }
+
+    private static long sumOrdinalsByIndex(ArrayGridModel<TestEntity> model) {
+        int area = model.structure().cellCount();
+        long sum = 0;
+        for (int index = 0; index < area; index++) {
+            sum += model.getEntity(index).ordinal();
+        }
+        return sum;
+    }
+
+    private static void compare(String grid, String operation, LongSupplier nested, LongSupplier paged) {
+        double nestedNanos = measure(nested);
+        double pagedNanos = measure(paged);
+        System.out.printf(Locale.ROOT, "%-13s %-16s %12.0f %12.0f %12.2f%n",
+                grid, operation, nestedNanos, pagedNanos, pagedNanos / nestedNanos);
+    }
+
+    private static double measure(LongSupplier operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            checksum += operation.getAsLong();
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+            checksum += operation.getAsLong();
+        }
+        return (double) (System.nanoTime() - start) / MEASUREMENT_ROUNDS;
+    }
+
+    /**
+     * Minimal replica of the former nested-array {@code ArrayGridModel} storage, used as the comparison baseline.
+     */
+    private static final class NestedArrayStore {
+
+        private final Object[][] data;
+        private final Object defaultEntity;
+
+        NestedArrayStore(int width, int height, Object defaultEntity) {
+            data = new Object[height][width];
+            this.defaultEntity = defaultEntity;
+            clear();
+        }
+
+        int height() {
+            return data.length;
+        }
+
+        void set(int x, int y, Object entity) {
+            data[y][x] = entity;
+        }
+
+        long sumOrdinals() {
+            long sum = 0;
+            for (Object[] row : data) {
+                for (Object element : row) {
+                    sum += ((TestEntity) element).ordinal();
+                }
+            }
+            return sum;
+        }
+
+        long count(Object entity) {
+            long count = 0;
+            for (Object[] row : data) {
+                for (Object element : row) {
+                    if (element == entity) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        NestedArrayStore copy() {
+            NestedArrayStore clone = new NestedArrayStore(data[0].length, data.length, defaultEntity);
+            for (int y = 0; y < data.length; y++) {
+                System.arraycopy(data[y], 0, clone.data[y], 0, data[y].length);
+            }
+            return clone;
+        }
+
+        void clear() {
+            for (Object[] row : data) {
+                Arrays.fill(row, defaultEntity);
+            }
+        }
+
+    }
+
+}
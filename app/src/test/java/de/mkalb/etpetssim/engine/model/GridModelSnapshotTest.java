@@ -0,0 +1,182 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class GridModelSnapshotTest {
+
+    /**
+     * 130 × 70 cells span 3 × 2 tiles of a {@link TiledGridModel}.
+     */
+    private static final GridStructure SQUARE_STRUCTURE_130X70 = new GridStructure(
+            new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+            new GridSize(130, 70));
+
+    private static List<WritableGridModel<TestEntity>> allModels(GridStructure structure) {
+        return List.of(
+                new ArrayGridModel<>(structure, TestEntity.EMPTY),
+                new SparseGridModel<>(structure, TestEntity.EMPTY),
+                new EnumGridModel<>(structure, TestEntity.EMPTY),
+                new BitGridModel<>(structure, TestEntity.EMPTY, TestEntity.WALL),
+                new TiledGridModel<>(structure, TestEntity.EMPTY),
+                new AdaptiveGridModel<>(structure, TestEntity.EMPTY),
+                fusedLayer(structure));
+    }
+
+    /**
+     * Returns the second layer of a fused storage, whose first layer holds only {@code FOOD}.
+     */
+    private static FusedLayerGridModel<TestEntity> fusedLayer(GridStructure structure) {
+        FusedGridLayers layers = new FusedGridLayers(structure, 2);
+        layers.addLayer(TestEntity.FOOD);
+        return layers.addLayer(TestEntity.EMPTY);
+    }
+
+    @Test
+    void testSnapshotIsNotWritable() {
+        ReadableGridModel<TestEntity> snapshot = new ArrayGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY).snapshot();
+
+        assertFalse(snapshot instanceof WritableGridModel<TestEntity>);
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedBySingleCellWrites() {
+        for (WritableGridModel<TestEntity> model : allModels(SQUARE_STRUCTURE_8X8)) {
+            model.setEntity(coordinate(1, 1), TestEntity.WALL);
+            model.setEntity(coordinate(2, 2), TestEntity.WALL);
+
+            GridModelSnapshot<TestEntity> snapshot = model.snapshot();
+            List<GridCell<TestEntity>> expectedCells = snapshot.nonDefaultCells();
+
+            model.setEntity(coordinate(3, 3), TestEntity.WALL);
+            model.setEntityToDefault(coordinate(1, 1));
+            model.setEntity(20, TestEntity.WALL);
+            model.swapInputCellEntities(
+                    new GridCell<>(coordinate(2, 2), TestEntity.EMPTY),
+                    new GridCell<>(coordinate(4, 4), TestEntity.WALL));
+
+            assertAll(model.toString(),
+                    () -> assertEquals(expectedCells, snapshot.nonDefaultCells()),
+                    () -> assertEquals(TestEntity.WALL, snapshot.getEntity(coordinate(1, 1))),
+                    () -> assertEquals(TestEntity.EMPTY, snapshot.getEntity(20)),
+                    () -> assertEquals(2, snapshot.countEntities(entity -> entity == TestEntity.WALL)),
+                    () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinate(1, 1))),
+                    () -> assertEquals(3, model.countEntities(entity -> entity == TestEntity.WALL))
+            );
+        }
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedByBulkWrites() {
+        for (WritableGridModel<TestEntity> model : allModels(SQUARE_STRUCTURE_8X8)) {
+            model.setEntity(coordinate(5, 6), TestEntity.WALL);
+
+            GridModelSnapshot<TestEntity> beforeFill = model.snapshot();
+            model.fill(TestEntity.WALL);
+            GridModelSnapshot<TestEntity> beforeClear = model.snapshot();
+            model.clear();
+            GridModelSnapshot<TestEntity> beforeMapperFill = model.snapshot();
+            model.fill(coordinate -> (coordinate.x() == 0) ? TestEntity.WALL : TestEntity.EMPTY);
+
+            assertAll(model.toString(),
+                    () -> assertArrayEquals(new int[]{53}, beforeFill.nonDefaultIndices()),
+                    () -> assertEquals(64, beforeClear.nonDefaultIndices().length),
+                    () -> assertEquals(0, beforeMapperFill.nonDefaultIndices().length),
+                    () -> assertEquals(8, model.nonDefaultIndices().length)
+            );
+        }
+    }
+
+    @Test
+    void testSnapshotsOfLargeGridAreIndependent() {
+        for (WritableGridModel<TestEntity> model : allModels(SQUARE_STRUCTURE_130X70)) {
+            model.setEntity(coordinate(0, 0), TestEntity.WALL);
+            model.setEntity(coordinate(129, 69), TestEntity.WALL);
+
+            GridModelSnapshot<TestEntity> first = model.snapshot();
+            model.setEntity(coordinate(70, 0), TestEntity.WALL);
+            GridModelSnapshot<TestEntity> second = model.snapshot();
+            model.setEntityToDefault(coordinate(0, 0));
+            model.setEntity(coordinate(1, 0), TestEntity.WALL);
+
+            assertAll(model.toString(),
+                    () -> assertArrayEquals(new int[]{0, 9099}, first.nonDefaultIndices()),
+                    () -> assertArrayEquals(new int[]{0, 70, 9099}, second.nonDefaultIndices()),
+                    () -> assertArrayEquals(new int[]{1, 70, 9099}, model.nonDefaultIndices())
+            );
+        }
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedByWritesAcrossPages() {
+        // 9100 cells: pages of 4096 cells for the array, enum and sparse models, 210 words in pages of 64 for the bit model
+        for (WritableGridModel<TestEntity> model : allModels(SQUARE_STRUCTURE_130X70)) {
+            model.setEntity(4095, TestEntity.WALL);
+
+            GridModelSnapshot<TestEntity> snapshot = model.snapshot();
+            model.setEntityToDefault(4095);
+            model.setEntity(4096, TestEntity.WALL);
+            model.setEntity(9099, TestEntity.WALL);
+            boolean concurrent = model.beginConcurrentRowBandWrites();
+            model.setEntity(coordinate(0, 0), TestEntity.WALL);
+            model.setEntity(coordinate(0, 69), TestEntity.WALL);
+            model.endConcurrentRowBandWrites();
+
+            assertAll(model.toString() + ", concurrent=" + concurrent,
+                    () -> assertArrayEquals(new int[]{4095}, snapshot.nonDefaultIndices()),
+                    () -> assertEquals(1, snapshot.countEntities(entity -> entity == TestEntity.WALL)),
+                    () -> assertArrayEquals(new int[]{0, 4096, 8970, 9099}, model.nonDefaultIndices())
+            );
+        }
+    }
+
+    @Test
+    void testCopiesSharingPagesAreIndependent() {
+        for (WritableGridModel<TestEntity> model : allModels(SQUARE_STRUCTURE_130X70)) {
+            model.setEntity(4095, TestEntity.WALL);
+            GridModelSnapshot<TestEntity> snapshot = model.snapshot();
+
+            WritableGridModel<TestEntity> copy = model.copy();
+            WritableGridModel<TestEntity> emptyCopy = model.copyWithDefaultEntity();
+            model.setEntity(4096, TestEntity.WALL);
+            copy.setEntityToDefault(4095);
+            copy.setEntity(9099, TestEntity.WALL);
+            emptyCopy.setEntity(0, TestEntity.WALL);
+            WritableGridModel<TestEntity> copyOfCopy = copy.copy();
+            copy.fill(TestEntity.WALL);
+
+            assertAll(model.toString(),
+                    () -> assertArrayEquals(new int[]{4095, 4096}, model.nonDefaultIndices()),
+                    () -> assertArrayEquals(new int[]{4095}, snapshot.nonDefaultIndices()),
+                    () -> assertEquals(9100, copy.countEntities(entity -> entity == TestEntity.WALL)),
+                    () -> assertArrayEquals(new int[]{9099}, copyOfCopy.nonDefaultIndices()),
+                    () -> assertArrayEquals(new int[]{0}, emptyCopy.nonDefaultIndices()),
+                    () -> assertEquals(1, emptyCopy.countEntities(entity -> entity == TestEntity.WALL))
+            );
+        }
+    }
+
+    @Test
+    void testTiledGridModelReleasesSharedTileWithoutAffectingSnapshot() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_130X70, TestEntity.EMPTY);
+        model.setEntity(coordinate(0, 0), TestEntity.WALL);
+        model.setEntity(coordinate(129, 69), TestEntity.WALL);
+
+        GridModelSnapshot<TestEntity> snapshot = model.snapshot();
+        model.setEntityToDefault(coordinate(129, 69));
+
+        assertAll(
+                () -> assertEquals(1, model.allocatedTileCount()),
+                () -> assertEquals(TestEntity.WALL, snapshot.getEntity(coordinate(129, 69))),
+                () -> assertEquals(TestEntity.WALL, snapshot.getEntity(coordinate(0, 0))),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(0, 0)))
+        );
+    }
+
+}
@@ -0,0 +1,120 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class SegmentGridLayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAllocateIsZeroFilledAndStoresValues() {
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGridLayer layer = SegmentGridLayer.allocate(arena, SQUARE_STRUCTURE_8X8, SegmentGridLayer.ElementType.INT);
+            layer.setInt(0, -7);
+            layer.setInt(63, Integer.MAX_VALUE);
+
+            assertAll(
+                    () -> assertEquals(256L, layer.byteSize()),
+                    () -> assertFalse(layer.isMapped()),
+                    () -> assertEquals(-7, layer.getInt(0)),
+                    () -> assertEquals(0, layer.getInt(1)),
+                    () -> assertEquals(Integer.MAX_VALUE, layer.getInt(63))
+            );
+        }
+    }
+
+    @Test
+    void testAccessorsCheckIndexAndElementType() {
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGridLayer layer = SegmentGridLayer.allocate(arena, SQUARE_STRUCTURE_8X8, SegmentGridLayer.ElementType.SHORT);
+
+            assertAll(
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> layer.getShort(64)),
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> layer.setShort(-1, (short) 1)),
+                    () -> assertThrows(IllegalStateException.class, () -> layer.getInt(0)),
+                    () -> assertThrows(IllegalStateException.class, () -> layer.setByte(0, (byte) 1))
+            );
+        }
+    }
+
+    @Test
+    void testFillClearAndCopy() {
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGridLayer layer = SegmentGridLayer.allocate(arena, SQUARE_STRUCTURE_8X8, SegmentGridLayer.ElementType.SHORT);
+            layer.fill(300);
+
+            SegmentGridLayer copy = layer.copy(arena);
+            layer.clear();
+
+            assertAll(
+                    () -> assertEquals(0, layer.getShort(10)),
+                    () -> assertEquals(300, copy.getShort(10)),
+                    () -> assertEquals(300, copy.getShort(63))
+            );
+
+            SegmentGridLayer bytes = SegmentGridLayer.allocate(arena, SQUARE_STRUCTURE_8X8, SegmentGridLayer.ElementType.BYTE);
+            assertThrows(IllegalArgumentException.class, () -> bytes.copyFrom(layer));
+        }
+    }
+
+    @Test
+    void testMapFileWritesThroughAndReadsBack() throws IOException {
+        Path file = tempDir.resolve("layer.bin");
+
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGridLayer layer = SegmentGridLayer.mapFile(arena, SQUARE_STRUCTURE_8X8,
+                    SegmentGridLayer.ElementType.INT, file, FileChannel.MapMode.READ_WRITE);
+            layer.setInt(9, 123_456);
+            layer.force();
+
+            assertTrue(layer.isMapped());
+        }
+
+        assertEquals(256L, Files.size(file));
+
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGridLayer layer = SegmentGridLayer.mapFile(arena, SQUARE_STRUCTURE_8X8,
+                    SegmentGridLayer.ElementType.INT, file, FileChannel.MapMode.READ_ONLY);
+
+            assertAll(
+                    () -> assertEquals(123_456, layer.getInt(9)),
+                    () -> assertEquals(0, layer.getInt(10)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> layer.setInt(9, 1))
+            );
+        }
+    }
+
+    @Test
+    void testMapFileRejectsTooSmallReadOnlyFile() throws IOException {
+        Path file = tempDir.resolve("small.bin");
+        Files.write(file, new byte[10]);
+
+        try (Arena arena = Arena.ofConfined()) {
+            assertThrows(IllegalArgumentException.class, () -> SegmentGridLayer.mapFile(arena, SQUARE_STRUCTURE_8X8,
+                    SegmentGridLayer.ElementType.BYTE, file, FileChannel.MapMode.READ_ONLY));
+        }
+    }
+
+    @Test
+    void testClosedArenaPreventsAccess() {
+        SegmentGridLayer layer;
+        try (Arena arena = Arena.ofConfined()) {
+            layer = SegmentGridLayer.allocate(arena, SQUARE_STRUCTURE_8X8, SegmentGridLayer.ElementType.BYTE);
+        }
+
+        assertThrows(IllegalStateException.class, () -> layer.getByte(0));
+    }
+
+}
@@ -100,7 +100,6 @@ final class SparseGridModelTest {
         model.setEntity(coordinate(1, 1), TestEntity.WALL);
         model.setEntity(coordinate(2, 2), TestEntity.FOOD);
 
-        // nonDefaultCells() snapshots from HashMap.entrySet(): order is not guaranteed.
         Set<GridCell<TestEntity>> nonDefaultCells = new HashSet<>(model.nonDefaultCells());
 
         assertAll(
@@ -110,6 +109,28 @@ final class SparseGridModelTest {
         );
     }
 
+    @Test
+    void testNonDefaultCellsIsInRowMajorOrderIndependentOfInsertionOrder() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(7, 7), TestEntity.WALL);
+        model.setEntity(coordinate(0, 3), TestEntity.FOOD);
+        model.setEntity(coordinate(5, 0), TestEntity.WALL);
+        model.setEntity(coordinate(1, 3), TestEntity.FOOD);
+
+        List<GridCell<TestEntity>> expected = List.of(
+                new GridCell<>(coordinate(5, 0), TestEntity.WALL),
+                new GridCell<>(coordinate(0, 3), TestEntity.FOOD),
+                new GridCell<>(coordinate(1, 3), TestEntity.FOOD),
+                new GridCell<>(coordinate(7, 7), TestEntity.WALL));
+
+        assertAll(
+                () -> assertEquals(expected, model.nonDefaultCells()),
+                () -> assertEquals(expected, model.filteredCells(e -> e != TestEntity.EMPTY)),
+                () -> assertEquals(expected.stream().map(GridCell::coordinate).toList(),
+                        model.filteredCoordinates(e -> e != TestEntity.EMPTY))
+        );
+    }
+
     @Test
     void testNonDefaultCellsIsEmptyWhenAllDefault() {
         SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
@@ -296,6 +317,114 @@ final class SparseGridModelTest {
         assertEquals(TestEntity.WALL, model.getEntity(valid));
     }
 
+    @Test
+    void testIndexAccessMatchesCoordinateAccess() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        int index = SQUARE_STRUCTURE_8X8.indexOf(3, 2);
+
+        model.setEntity(index, TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(index)),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(3, 2))),
+                () -> assertFalse(model.isDefaultEntity(index)),
+                () -> assertTrue(model.isDefaultEntity(index + 1))
+        );
+
+        model.setEntityToDefault(index);
+
+        assertAll(
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(index)),
+                () -> assertTrue(model.isDefaultEntity(coordinate(3, 2)))
+        );
+    }
+
+    @Test
+    void testNonDefaultIndicesAreSortedAscending() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(7, 7), TestEntity.WALL);
+        model.setEntity(coordinate(0, 0), TestEntity.FOOD);
+        model.setEntity(coordinate(5, 1), TestEntity.WALL);
+
+        assertArrayEquals(new int[]{0, 13, 63}, model.nonDefaultIndices());
+    }
+
+    @Test
+    void testNonDefaultIndicesReturnsIndependentArray() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(7, 7), TestEntity.WALL);
+        model.setEntity(coordinate(0, 0), TestEntity.FOOD);
+        int[] indices = model.nonDefaultIndices();
+        indices[0] = 42;
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{0, 63}, model.nonDefaultIndices()),
+                () -> assertEquals(TestEntity.FOOD, model.getEntity(coordinate(0, 0))),
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinate(2, 5)))
+        );
+    }
+
+    @Test
+    void testFilteredIndicesReturnsMatchingIndices() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        int[] walls = model.filteredIndices(entity -> entity == TestEntity.WALL);
+        int[] nonFood = model.filteredIndices(entity -> entity != TestEntity.FOOD);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{9, 27}, walls),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 1, nonFood.length),
+                () -> assertEquals(17, nonFood[17]),
+                () -> assertEquals(19, nonFood[18])
+        );
+    }
+
+    @Test
+    void testForEachVisitorsMatchListMethods() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(6, 4), TestEntity.WALL);
+        model.setEntity(coordinate(1, 0), TestEntity.WALL);
+        model.setEntity(coordinate(3, 2), TestEntity.FOOD);
+
+        List<GridCell<TestEntity>> all = new ArrayList<>();
+        List<GridCell<TestEntity>> nonDefault = new ArrayList<>();
+        List<GridCell<TestEntity>> walls = new ArrayList<>();
+        List<GridCell<TestEntity>> nonWalls = new ArrayList<>();
+        model.forEachCell((x, y, entity) -> all.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachNonDefault((x, y, entity) -> nonDefault.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity == TestEntity.WALL, (x, y, entity) -> walls.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity != TestEntity.WALL, (x, y, entity) -> nonWalls.add(new GridCell<>(coordinate(x, y), entity)));
+
+        assertAll(
+                () -> assertEquals(model.allCells(), all),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(3, 2), TestEntity.FOOD),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), nonDefault),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), walls),
+                () -> assertEquals(model.filteredCells(entity -> entity != TestEntity.WALL), nonWalls)
+        );
+    }
+
+    @Test
+    void testInvalidIndexThrowsException() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        int invalid = SQUARE_STRUCTURE_8X8.cellCount();
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(-1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(invalid, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntityToDefault(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.isDefaultEntity(invalid))
+        );
+    }
+
     @Test
     void testInvalidCoordinateThrowsException() {
         SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
@@ -308,4 +437,58 @@ final class SparseGridModelTest {
         );
     }
 
+    @Test
+    void testFreeCellIndexSelectsOnlyDefaultCells() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.fill(TestEntity.WALL);
+        model.enableFreeCellIndex();
+
+        assertAll(
+                () -> assertTrue(model.isFreeCellIndexEnabled()),
+                () -> assertTrue(model.findRandomDefaultCoordinate(new Random(1L)).isEmpty())
+        );
+
+        GridCoordinate first = coordinate(3, 5);
+        GridCoordinate second = coordinate(7, 7);
+        model.setEntityToDefault(first);
+        model.setEntity(SQUARE_STRUCTURE_8X8.indexOf(second), TestEntity.EMPTY);
+        model.swapInputCellEntities(
+                new GridCell<>(coordinate(0, 0), TestEntity.WALL),
+                new GridCell<>(first, TestEntity.EMPTY));
+
+        Random random = new Random(11L);
+        Set<GridCoordinate> selected = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            selected.add(model.findRandomDefaultCoordinate(random).orElseThrow());
+        }
+
+        assertEquals(Set.of(coordinate(0, 0), second), selected);
+    }
+
+    @Test
+    void testFreeCellIndexSurvivesBulkWritesAndCopies() {
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.enableFreeCellIndex();
+        model.fill(coordinate -> (coordinate.y() == 2) ? TestEntity.EMPTY : TestEntity.FOOD);
+
+        SparseGridModel<TestEntity> clone = model.copy();
+        SparseGridModel<TestEntity> blankClone = model.copyWithDefaultEntity();
+        clone.setEntity(coordinate(4, 2), TestEntity.FOOD);
+
+        Random random = new Random(5L);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(2, model.findRandomDefaultCoordinate(random).orElseThrow().y());
+            assertNotEquals(coordinate(4, 2), clone.findRandomDefaultCoordinate(random).orElseThrow());
+        }
+
+        model.clear();
+
+        assertAll(
+                () -> assertTrue(clone.isFreeCellIndexEnabled()),
+                () -> assertTrue(blankClone.isFreeCellIndexEnabled()),
+                () -> assertTrue(blankClone.findRandomDefaultCoordinate(random).isPresent()),
+                () -> assertTrue(model.findRandomDefaultCoordinate(random).isPresent())
+        );
+    }
+
 }
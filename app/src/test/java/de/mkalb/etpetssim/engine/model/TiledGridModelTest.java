@@ -0,0 +1,520 @@
+package de.mkalb.etpetssim.engine.model;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import static de.mkalb.etpetssim.engine.model.GridModelTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class TiledGridModelTest {
+
+    /**
+     * 130 × 70 cells span 3 × 2 tiles; the right and bottom tiles are only partly inside the grid.
+     */
+    private static final GridStructure SQUARE_STRUCTURE_130X70 = new GridStructure(
+            new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+            new GridSize(130, 70));
+
+    @Test
+    void testSetGetAndDefaultEntityHandling() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinate = coordinate(1, 1);
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinate));
+        assertTrue(model.isDefaultEntity(coordinate));
+
+        model.setEntity(coordinate, TestEntity.WALL);
+
+        assertEquals(TestEntity.WALL, model.getEntity(coordinate));
+        assertFalse(model.isDefaultEntity(coordinate));
+        assertEquals(Set.of(coordinate), model.nonDefaultCoordinates());
+
+        model.setEntity(coordinate, TestEntity.EMPTY);
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinate));
+        assertTrue(model.nonDefaultCoordinates().isEmpty());
+    }
+
+    @Test
+    void testFillAndClear() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        model.fill(TestEntity.WALL);
+        assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), model.nonDefaultCoordinates().size());
+
+        model.clear();
+        assertTrue(model.nonDefaultCoordinates().isEmpty());
+
+        model.fill(coordinate -> (coordinate.x() == coordinate.y()) ? TestEntity.FOOD : TestEntity.EMPTY);
+        Set<GridCoordinate> diagonalCoordinates = new HashSet<>();
+        for (int index = 0; index < SQUARE_STRUCTURE_8X8.size().width(); index++) {
+            diagonalCoordinates.add(coordinate(index, index));
+        }
+        assertEquals(diagonalCoordinates, model.nonDefaultCoordinates());
+    }
+
+    @Test
+    void testFillWithSupplierInvokesSupplierPerCell() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        AtomicInteger calls = new AtomicInteger();
+
+        model.fill(() -> ((calls.getAndIncrement() % 2) == 0) ? TestEntity.WALL : TestEntity.FOOD);
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), calls.get()),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() / 2, model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() / 2, model.countEntities(entity -> entity == TestEntity.FOOD))
+        );
+    }
+
+    @Test
+    void testAllCellsReturnsAllCells() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(0, 0), TestEntity.WALL);
+
+        List<GridCell<TestEntity>> cells = model.allCells();
+
+        assertAll(
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount(), cells.size()),
+                () -> assertTrue(cells.contains(new GridCell<>(coordinate(0, 0), TestEntity.WALL))),
+                () -> assertTrue(cells.contains(new GridCell<>(coordinate(7, 7), TestEntity.EMPTY))),
+                () -> assertFalse(cells.contains(new GridCell<>(coordinate(0, 0), TestEntity.EMPTY)))
+        );
+    }
+
+    @Test
+    void testAllCellsIsInRowMajorOrder() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        List<GridCell<TestEntity>> cells = model.allCells();
+
+        // allCells() uses nested loop in row-major order: (x=0,y=0), (x=1,y=0), ..., (x=7,y=7)
+        assertAll(
+                () -> assertEquals(coordinate(0, 0), cells.getFirst().coordinate()),
+                () -> assertEquals(coordinate(7, 7), cells.getLast().coordinate()),
+                () -> assertEquals(coordinate(1, 0), cells.get(1).coordinate()),
+                () -> assertEquals(coordinate(0, 1), cells.get(8).coordinate())
+        );
+    }
+
+    @Test
+    void testNonDefaultCellsContainsOnlyNonDefaultEntities() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        Set<GridCell<TestEntity>> nonDefaultCells = new HashSet<>(model.nonDefaultCells());
+
+        assertAll(
+                () -> assertEquals(2, nonDefaultCells.size()),
+                () -> assertTrue(nonDefaultCells.contains(new GridCell<>(coordinate(1, 1), TestEntity.WALL))),
+                () -> assertTrue(nonDefaultCells.contains(new GridCell<>(coordinate(2, 2), TestEntity.FOOD)))
+        );
+    }
+
+    @Test
+    void testNonDefaultCellsIsInRowMajorOrderIndependentOfInsertionOrder() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(7, 7), TestEntity.WALL);
+        model.setEntity(coordinate(0, 3), TestEntity.FOOD);
+        model.setEntity(coordinate(5, 0), TestEntity.WALL);
+        model.setEntity(coordinate(1, 3), TestEntity.FOOD);
+
+        List<GridCell<TestEntity>> expected = List.of(
+                new GridCell<>(coordinate(5, 0), TestEntity.WALL),
+                new GridCell<>(coordinate(0, 3), TestEntity.FOOD),
+                new GridCell<>(coordinate(1, 3), TestEntity.FOOD),
+                new GridCell<>(coordinate(7, 7), TestEntity.WALL));
+
+        assertAll(
+                () -> assertEquals(expected, model.nonDefaultCells()),
+                () -> assertEquals(expected, model.filteredCells(e -> e != TestEntity.EMPTY)),
+                () -> assertEquals(expected.stream().map(GridCell::coordinate).toList(),
+                        model.filteredCoordinates(e -> e != TestEntity.EMPTY))
+        );
+    }
+
+    @Test
+    void testNonDefaultCellsIsEmptyWhenAllDefault() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+
+        assertTrue(model.nonDefaultCells().isEmpty());
+    }
+
+    @Test
+    void testNonDefaultCoordinatesIsMutable() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+
+        Set<GridCoordinate> coordinates = model.nonDefaultCoordinates();
+
+        assertAll(
+                () -> assertEquals(Set.of(coordinate(1, 1)), coordinates),
+                () -> assertDoesNotThrow(() -> coordinates.add(coordinate(0, 0)))
+        );
+    }
+
+    @Test
+    void testNonDefaultCoordinatesSnapshotIsIndependentOfModelMutation() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        Set<GridCoordinate> snapshot = model.nonDefaultCoordinates();
+        // Mutate the model after obtaining the snapshot.
+        model.setEntityToDefault(coordinate(1, 1));
+
+        // Snapshot must still reflect the state at the time of the call.
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void testCountEntitiesScansOnlyAllocatedTiles() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(2, model.countEntities(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 2, model.countEntities(entity -> entity == TestEntity.EMPTY)),
+                () -> assertEquals(0, model.countEntities(entity -> entity == TestEntity.FOOD))
+        );
+    }
+
+    @Test
+    void testFilteredCoordinatesIncludeDefaultCells() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate wallCoordinate = coordinate(2, 1);
+        model.setEntity(wallCoordinate, TestEntity.WALL);
+
+        List<GridCoordinate> coordinates = model.filteredCoordinates(entity -> entity == TestEntity.EMPTY);
+
+        assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 1, coordinates.size());
+        assertFalse(coordinates.contains(wallCoordinate));
+    }
+
+    @Test
+    void testFilteredCoordinatesNonDefaultFastPath() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        List<GridCoordinate> filtered = model.filteredCoordinates(entity -> entity == TestEntity.WALL);
+
+        assertEquals(List.of(coordinate(1, 1), coordinate(3, 3)), filtered);
+    }
+
+    @Test
+    void testFilteredCellsReturnsMatchingCells() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        List<GridCell<TestEntity>> filtered = model.filteredCells(entity -> entity == TestEntity.WALL);
+
+        assertEquals(List.of(
+                new GridCell<>(coordinate(1, 1), TestEntity.WALL),
+                new GridCell<>(coordinate(3, 3), TestEntity.WALL)), filtered);
+    }
+
+    @Test
+    void testFilteredCellsSortedByReturnsSortedCells() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+
+        List<GridCell<TestEntity>> sorted = model.filteredCellsSortedBy(
+                entity -> entity == TestEntity.WALL,
+                Comparator.comparing(GridCell::coordinate));
+
+        assertEquals(
+                List.of(
+                        new GridCell<>(coordinate(1, 1), TestEntity.WALL),
+                        new GridCell<>(coordinate(3, 3), TestEntity.WALL)
+                ),
+                sorted
+        );
+    }
+
+    @Test
+    void testFindRandomDefaultCoordinateReturnsEmpty() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.fill(TestEntity.WALL);
+
+        Optional<GridCoordinate> result = model.findRandomDefaultCoordinate(new Random(7L));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testFindRandomDefaultCoordinateReturnsOnlyDefaultCells() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.fill(TestEntity.WALL);
+        GridCoordinate onlyDefaultCoordinate = coordinate(3, 5);
+        model.setEntityToDefault(onlyDefaultCoordinate);
+
+        Optional<GridCoordinate> result = model.findRandomDefaultCoordinate(new Random(13L));
+
+        assertAll(
+                () -> assertTrue(result.isPresent()),
+                () -> assertEquals(onlyDefaultCoordinate, result.orElseThrow()),
+                () -> assertTrue(model.isDefaultEntity(result.orElseThrow()))
+        );
+    }
+
+    @Test
+    void testSwapInputCellEntitiesWritesInputEntityValues() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinateA = coordinate(0, 0);
+        GridCoordinate coordinateB = coordinate(2, 1);
+
+        model.swapInputCellEntities(
+                new GridCell<>(coordinateA, TestEntity.WALL),
+                new GridCell<>(coordinateB, TestEntity.FOOD));
+
+        assertEquals(TestEntity.FOOD, model.getEntity(coordinateA));
+        assertEquals(TestEntity.WALL, model.getEntity(coordinateB));
+    }
+
+    @Test
+    void testSwapInputCellEntitiesIgnoresCurrentModelState() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate coordinateA = coordinate(0, 0);
+        GridCoordinate coordinateB = coordinate(2, 1);
+
+        model.setEntity(coordinateA, TestEntity.WALL);
+        model.setEntity(coordinateB, TestEntity.FOOD);
+
+        model.swapInputCellEntities(
+                new GridCell<>(coordinateA, TestEntity.EMPTY),
+                new GridCell<>(coordinateB, TestEntity.EMPTY));
+
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinateA));
+        assertEquals(TestEntity.EMPTY, model.getEntity(coordinateB));
+    }
+
+    @Test
+    void testSwapInputCellEntitiesThrowsForInvalidCoordinate() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate valid = coordinate(0, 0);
+        GridCoordinate invalid = coordinate(8, 0);
+
+        model.setEntity(valid, TestEntity.WALL);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> model.swapInputCellEntities(
+                                new GridCell<>(invalid, TestEntity.FOOD),
+                                new GridCell<>(valid, TestEntity.EMPTY))),
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> model.swapInputCellEntities(
+                                new GridCell<>(valid, TestEntity.EMPTY),
+                                new GridCell<>(invalid, TestEntity.FOOD)))
+        );
+        assertEquals(TestEntity.WALL, model.getEntity(valid));
+    }
+
+    @Test
+    void testIndexAccessMatchesCoordinateAccess() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        int index = SQUARE_STRUCTURE_8X8.indexOf(3, 2);
+
+        model.setEntity(index, TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(index)),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate(3, 2))),
+                () -> assertFalse(model.isDefaultEntity(index)),
+                () -> assertTrue(model.isDefaultEntity(index + 1))
+        );
+
+        model.setEntityToDefault(index);
+
+        assertAll(
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(index)),
+                () -> assertTrue(model.isDefaultEntity(coordinate(3, 2)))
+        );
+    }
+
+    @Test
+    void testNonDefaultIndicesAreSortedAscending() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(7, 7), TestEntity.WALL);
+        model.setEntity(coordinate(0, 0), TestEntity.FOOD);
+        model.setEntity(coordinate(5, 1), TestEntity.WALL);
+
+        assertArrayEquals(new int[]{0, 13, 63}, model.nonDefaultIndices());
+    }
+
+    @Test
+    void testFilteredIndicesReturnsMatchingIndices() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(3, 3), TestEntity.WALL);
+        model.setEntity(coordinate(1, 1), TestEntity.WALL);
+        model.setEntity(coordinate(2, 2), TestEntity.FOOD);
+
+        int[] walls = model.filteredIndices(entity -> entity == TestEntity.WALL);
+        int[] nonFood = model.filteredIndices(entity -> entity != TestEntity.FOOD);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{9, 27}, walls),
+                () -> assertEquals(SQUARE_STRUCTURE_8X8.cellCount() - 1, nonFood.length),
+                () -> assertEquals(17, nonFood[17]),
+                () -> assertEquals(19, nonFood[18])
+        );
+    }
+
+    @Test
+    void testForEachVisitorsMatchListMethods() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        model.setEntity(coordinate(6, 4), TestEntity.WALL);
+        model.setEntity(coordinate(1, 0), TestEntity.WALL);
+        model.setEntity(coordinate(3, 2), TestEntity.FOOD);
+
+        List<GridCell<TestEntity>> all = new ArrayList<>();
+        List<GridCell<TestEntity>> nonDefault = new ArrayList<>();
+        List<GridCell<TestEntity>> walls = new ArrayList<>();
+        List<GridCell<TestEntity>> nonWalls = new ArrayList<>();
+        model.forEachCell((x, y, entity) -> all.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachNonDefault((x, y, entity) -> nonDefault.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity == TestEntity.WALL, (x, y, entity) -> walls.add(new GridCell<>(coordinate(x, y), entity)));
+        model.forEachMatching(entity -> entity != TestEntity.WALL, (x, y, entity) -> nonWalls.add(new GridCell<>(coordinate(x, y), entity)));
+
+        assertAll(
+                () -> assertEquals(model.allCells(), all),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(3, 2), TestEntity.FOOD),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), nonDefault),
+                () -> assertEquals(List.of(
+                        new GridCell<>(coordinate(1, 0), TestEntity.WALL),
+                        new GridCell<>(coordinate(6, 4), TestEntity.WALL)), walls),
+                () -> assertEquals(model.filteredCells(entity -> entity != TestEntity.WALL), nonWalls)
+        );
+    }
+
+    @Test
+    void testInvalidIndexThrowsException() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        int invalid = SQUARE_STRUCTURE_8X8.cellCount();
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(-1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(invalid, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntityToDefault(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.isDefaultEntity(invalid))
+        );
+    }
+
+    @Test
+    void testInvalidCoordinateThrowsException() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_8X8, TestEntity.EMPTY);
+        GridCoordinate invalid = coordinate(8, 0);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.getEntity(invalid)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.setEntity(invalid, TestEntity.WALL)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> model.isDefaultEntity(invalid))
+        );
+    }
+
+    @Test
+    void testTilesAreAllocatedLazilyAndReleasedWhenDefault() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_130X70, TestEntity.EMPTY);
+        GridCoordinate first = coordinate(1, 1);
+        GridCoordinate second = coordinate(2, 1);
+        GridCoordinate edge = coordinate(129, 69);
+
+        assertEquals(0, model.allocatedTileCount());
+
+        model.setEntity(first, TestEntity.WALL);
+        model.setEntity(second, TestEntity.FOOD);
+        model.setEntity(edge, TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(2, model.allocatedTileCount()),
+                () -> assertEquals(TestEntity.WALL, model.getEntity(edge)),
+                () -> assertEquals(TestEntity.EMPTY, model.getEntity(coordinate(128, 69)))
+        );
+
+        model.setEntityToDefault(first);
+        assertEquals(2, model.allocatedTileCount());
+
+        model.setEntity(second, TestEntity.EMPTY);
+        model.setEntityToDefault(edge);
+
+        assertAll(
+                () -> assertEquals(0, model.allocatedTileCount()),
+                () -> assertEquals(0, model.nonDefaultIndices().length)
+        );
+    }
+
+    @Test
+    void testLargeGridListsAreInRowMajorOrderAcrossTiles() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_130X70, TestEntity.EMPTY);
+        model.setEntity(coordinate(129, 69), TestEntity.WALL);
+        model.setEntity(coordinate(0, 65), TestEntity.FOOD);
+        model.setEntity(coordinate(70, 0), TestEntity.WALL);
+        model.setEntity(coordinate(5, 0), TestEntity.WALL);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{5, 70, 65 * 130, (70 * 130) - 1}, model.nonDefaultIndices()),
+                () -> assertEquals(List.of(coordinate(5, 0), coordinate(70, 0), coordinate(129, 69)),
+                        model.filteredCoordinates(entity -> entity == TestEntity.WALL)),
+                () -> assertEquals(SQUARE_STRUCTURE_130X70.cellCount() - 4L,
+                        model.countEntities(entity -> entity == TestEntity.EMPTY)),
+                () -> assertEquals(SQUARE_STRUCTURE_130X70.cellCount(), model.allCells().size())
+        );
+    }
+
+    @Test
+    void testFillAndClearOnLargeGrid() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_130X70, TestEntity.EMPTY);
+
+        model.fill(TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(6, model.allocatedTileCount()),
+                () -> assertEquals(SQUARE_STRUCTURE_130X70.cellCount(), model.nonDefaultIndices().length),
+                () -> assertTrue(model.findRandomDefaultCoordinate(new Random(5L)).isEmpty())
+        );
+
+        GridCoordinate onlyDefaultCoordinate = coordinate(128, 66);
+        model.setEntityToDefault(onlyDefaultCoordinate);
+
+        assertEquals(Optional.of(onlyDefaultCoordinate), model.findRandomDefaultCoordinate(new Random(5L)));
+
+        model.clear();
+
+        assertAll(
+                () -> assertEquals(0, model.allocatedTileCount()),
+                () -> assertTrue(model.nonDefaultCoordinates().isEmpty())
+        );
+    }
+
+    @Test
+    void testCopyDoesNotShareTiles() {
+        TiledGridModel<TestEntity> model = new TiledGridModel<>(SQUARE_STRUCTURE_130X70, TestEntity.EMPTY);
+        GridCoordinate coordinate = coordinate(100, 68);
+        model.setEntity(coordinate, TestEntity.WALL);
+
+        TiledGridModel<TestEntity> clone = model.copy();
+        clone.setEntity(coordinate, TestEntity.FOOD);
+        clone.setEntity(coordinate(1, 1), TestEntity.WALL);
+
+        assertAll(
+                () -> assertEquals(TestEntity.WALL, model.getEntity(coordinate)),
+                () -> assertEquals(1, model.allocatedTileCount()),
+                () -> assertEquals(TestEntity.FOOD, clone.getEntity(coordinate)),
+                () -> assertEquals(2, clone.allocatedTileCount())
+        );
+    }
+
+}
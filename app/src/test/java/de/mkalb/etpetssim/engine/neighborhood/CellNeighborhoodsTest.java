@@ -566,29 +566,52 @@ final class CellNeighborhoodsTest {
     }
 
     @Test
-    void testStaticGenerateCacheKey() {
-        assertEquals("SQUARE::EDGES_ONLY", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 2), NeighborhoodMode.EDGES_ONLY, CellShape.SQUARE));
-        assertEquals("SQUARE::EDGES_AND_VERTICES", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 5), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.SQUARE));
-
-        assertEquals("HEXAGON::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 2), NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
-        assertEquals("HEXAGON::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 2), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
-        assertEquals("HEXAGON::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 2), NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
-        assertEquals("HEXAGON::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 2), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
-        assertEquals("HEXAGON::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 5), NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
-        assertEquals("HEXAGON::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 5), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
-        assertEquals("HEXAGON::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 5), NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
-        assertEquals("HEXAGON::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 5), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
-
-        assertEquals("TRIANGLE::EDGES_ONLY::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 2), NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
-        assertEquals("TRIANGLE::EDGES_AND_VERTICES::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 2), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
-        assertEquals("TRIANGLE::EDGES_ONLY::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 5), NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
-        assertEquals("TRIANGLE::EDGES_AND_VERTICES::true", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 5), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
-
-        assertEquals("TRIANGLE::EDGES_ONLY::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 3), NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
-        assertEquals("TRIANGLE::EDGES_AND_VERTICES::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(2, 3), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
-        assertEquals("TRIANGLE::EDGES_ONLY::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 4), NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
-        assertEquals("TRIANGLE::EDGES_AND_VERTICES::false", CellNeighborhoods.generateCacheKey(new GridCoordinate(3, 4), NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
+    void testStaticConnectionVariant() {
+        assertEquals(4, CellNeighborhoods.connectionVariant(2, 2, NeighborhoodMode.EDGES_ONLY, CellShape.SQUARE));
+        assertEquals(5, CellNeighborhoods.connectionVariant(3, 5, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.SQUARE));
+
+        assertEquals(6, CellNeighborhoods.connectionVariant(2, 2, NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
+        assertEquals(6, CellNeighborhoods.connectionVariant(2, 2, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
+        assertEquals(7, CellNeighborhoods.connectionVariant(3, 2, NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
+        assertEquals(7, CellNeighborhoods.connectionVariant(3, 2, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
+        assertEquals(6, CellNeighborhoods.connectionVariant(2, 5, NeighborhoodMode.EDGES_ONLY, CellShape.HEXAGON));
+        assertEquals(7, CellNeighborhoods.connectionVariant(3, 5, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.HEXAGON));
+
+        assertEquals(1, CellNeighborhoods.connectionVariant(2, 2, NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
+        assertEquals(3, CellNeighborhoods.connectionVariant(2, 2, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
+        assertEquals(1, CellNeighborhoods.connectionVariant(3, 5, NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
+        assertEquals(3, CellNeighborhoods.connectionVariant(3, 5, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
+
+        assertEquals(0, CellNeighborhoods.connectionVariant(2, 3, NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
+        assertEquals(2, CellNeighborhoods.connectionVariant(2, 3, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
+        assertEquals(0, CellNeighborhoods.connectionVariant(3, 4, NeighborhoodMode.EDGES_ONLY, CellShape.TRIANGLE));
+        assertEquals(2, CellNeighborhoods.connectionVariant(3, 4, NeighborhoodMode.EDGES_AND_VERTICES, CellShape.TRIANGLE));
+    }
 
+    @Test
+    void testStaticForEachNeighborMatchesNeighborEdgeResults() {
+        for (CellShape cellShape : CellShape.values()) {
+            for (GridEdgeBehavior edgeBehavior : GridEdgeBehavior.values()) {
+                GridStructure structure = new GridStructure(new GridTopology(cellShape, edgeBehavior), new GridSize(8, 8));
+                for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+                    for (int x = -1; x <= 8; x++) {
+                        for (int y = -1; y <= 8; y++) {
+                            Set<EdgeBehaviorResult> expected = new HashSet<>();
+                            for (EdgeBehaviorResult result : CellNeighborhoods.neighborEdgeResults(new GridCoordinate(x, y), neighborhoodMode, structure)) {
+                                expected.add(new EdgeBehaviorResult(result.mapped(), result.mapped(), result.action()));
+                            }
+                            List<EdgeBehaviorResult> actual = new ArrayList<>();
+                            CellNeighborhoods.forEachNeighbor(x, y, neighborhoodMode, structure,
+                                    (mappedX, mappedY, action) -> actual.add(new EdgeBehaviorResult(
+                                            new GridCoordinate(mappedX, mappedY), new GridCoordinate(mappedX, mappedY), action)));
+
+                            assertEquals(expected.size(), actual.size(), structure + " " + neighborhoodMode + " " + x + "," + y);
+                            assertEquals(expected, new HashSet<>(actual), structure + " " + neighborhoodMode + " " + x + "," + y);
+                        }
+                    }
+                }
+            }
+        }
     }
 
     @Test
@@ -0,0 +1,97 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class GridDistancesTest {
+
+    private static final int MAX_TESTED_DISTANCE = 12;
+
+    @Test
+    void testDistanceAndRingsMatchRadiusRingBuffer() {
+        RadiusRingBuffer buffer = new RadiusRingBuffer();
+        for (CellShape cellShape : CellShape.values()) {
+            for (GridEdgeBehavior edgeBehavior : GridEdgeBehavior.values()) {
+                for (GridSize size : List.of(new GridSize(8, 8), new GridSize(12, 10))) {
+                    GridStructure structure = new GridStructure(new GridTopology(cellShape, edgeBehavior), size);
+                    for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+                        for (int index = 0; index < structure.cellCount(); index += 5) {
+                            GridCoordinate center = structure.coordinateOf(index);
+                            buffer.fill(center, neighborhoodMode, structure, MAX_TESTED_DISTANCE);
+                            String message = structure + " " + neighborhoodMode + " center=" + center;
+
+                            for (int ring = 0; ring <= MAX_TESTED_DISTANCE; ring++) {
+                                Set<Integer> expected = new HashSet<>();
+                                for (int position = buffer.ringStart(ring); position < buffer.ringEnd(ring); position++) {
+                                    int cellIndex = buffer.cellIndexAt(position);
+                                    expected.add(cellIndex);
+                                    GridCoordinate coordinate = structure.coordinateOf(cellIndex);
+                                    assertEquals(ring, GridDistances.distance(center, coordinate, neighborhoodMode, structure), message);
+                                    assertEquals(ring, GridDistances.distance(coordinate, center, neighborhoodMode, structure), message);
+                                }
+                                List<Integer> actual = new ArrayList<>();
+                                GridDistances.forEachCellAtDistance(center, ring, neighborhoodMode, structure, actual::add);
+
+                                assertEquals(expected.size(), actual.size(), message + " ring=" + ring);
+                                assertEquals(expected, new HashSet<>(actual), message + " ring=" + ring);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDistance() {
+        GridStructure hexagonStructure = new GridStructure(
+                new GridTopology(CellShape.HEXAGON, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(16, 16));
+        GridStructure wrappedSquareStructure = new GridStructure(
+                new GridTopology(CellShape.SQUARE, GridEdgeBehavior.WRAP_XY),
+                new GridSize(10, 10));
+
+        assertAll(
+                () -> assertEquals(0, GridDistances.distance(new GridCoordinate(3, 4), new GridCoordinate(3, 4),
+                        NeighborhoodMode.EDGES_ONLY, hexagonStructure)),
+                // Odd columns are shifted down: (1, 0) and (1, 1) are both neighbors of (0, 0) and (2, 0) is at distance 2.
+                () -> assertEquals(1, GridDistances.distance(new GridCoordinate(0, 1), new GridCoordinate(1, 1),
+                        NeighborhoodMode.EDGES_ONLY, hexagonStructure)),
+                () -> assertEquals(2, GridDistances.distance(new GridCoordinate(0, 0), new GridCoordinate(2, 0),
+                        NeighborhoodMode.EDGES_ONLY, hexagonStructure)),
+                () -> assertEquals(10, GridDistances.distance(0, 0, 10, 0, NeighborhoodMode.EDGES_ONLY, hexagonStructure)),
+                // Shorter way around the wrapped edges
+                () -> assertEquals(2, GridDistances.distance(0, 0, 9, 9, NeighborhoodMode.EDGES_ONLY, wrappedSquareStructure)),
+                () -> assertEquals(1, GridDistances.distance(0, 0, 9, 9, NeighborhoodMode.EDGES_AND_VERTICES, wrappedSquareStructure))
+        );
+    }
+
+    @Test
+    void testInvalidArguments() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.TRIANGLE, GridEdgeBehavior.WRAP_XY),
+                new GridSize(8, 8));
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridDistances.distance(new GridCoordinate(8, 0), new GridCoordinate(0, 0),
+                                NeighborhoodMode.EDGES_ONLY, structure)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridDistances.distance(0, 0, 0, -1, NeighborhoodMode.EDGES_ONLY, structure)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridDistances.forEachCellAtDistance(new GridCoordinate(0, 0), -1,
+                                NeighborhoodMode.EDGES_ONLY, structure, _ -> {
+                                })),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> GridDistances.forEachCellAtDistance(new GridCoordinate(0, 8), 1,
+                                NeighborhoodMode.EDGES_ONLY, structure, _ -> {
+                                }))
+        );
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class NeighborTableTest {
+
+    @Test
+    void testTableMatchesNeighborEdgeResults() {
+        for (CellShape cellShape : CellShape.values()) {
+            for (GridEdgeBehavior edgeBehavior : GridEdgeBehavior.values()) {
+                for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+                    GridStructure structure = new GridStructure(new GridTopology(cellShape, edgeBehavior), new GridSize(12, 12));
+                    NeighborTable table = NeighborTable.build(structure, neighborhoodMode);
+
+                    for (int index = 0; index < structure.cellCount(); index++) {
+                        GridCoordinate coordinate = structure.coordinateOf(index);
+                        Map<GridCoordinate, Boolean> expected = new HashMap<>();
+                        for (EdgeBehaviorResult result : CellNeighborhoods.neighborEdgeResults(coordinate, neighborhoodMode, structure)) {
+                            if ((result.action() == EdgeBehaviorAction.VALID) || (result.action() == EdgeBehaviorAction.WRAPPED)) {
+                                expected.put(result.mapped(), result.action() == EdgeBehaviorAction.WRAPPED);
+                            }
+                        }
+                        Map<GridCoordinate, Boolean> actual = new HashMap<>();
+                        for (int entry = table.start(index); entry < table.end(index); entry++) {
+                            assertNull(actual.put(structure.coordinateOf(table.neighborAt(entry)), table.isWrapped(entry)));
+                        }
+
+                        assertEquals(expected, actual, structure + " " + neighborhoodMode + " " + coordinate);
+                        assertEquals(expected.size(), table.neighborCount(index));
+                        assertTrue(table.neighborCount(index) <= table.maxNeighborCount());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNeighborOrder() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.SQUARE, GridEdgeBehavior.WRAP_XY),
+                new GridSize(8, 8));
+        NeighborTable table = NeighborTable.build(structure, NeighborhoodMode.EDGES_ONLY);
+        int start = table.start(0);
+
+        assertAll(
+                () -> assertNotSame(table, NeighborTable.build(structure, NeighborhoodMode.EDGES_ONLY)),
+                () -> assertEquals(4, table.maxNeighborCount()),
+                // N, E, S, W of (0, 0)
+                () -> assertEquals(56, table.neighborAt(start)),
+                () -> assertTrue(table.isWrapped(start)),
+                () -> assertEquals(1, table.neighborAt(start + 1)),
+                () -> assertFalse(table.isWrapped(start + 1)),
+                () -> assertEquals(8, table.neighborAt(start + 2)),
+                () -> assertEquals(7, table.neighborAt(start + 3)),
+                () -> assertTrue(table.isWrapped(start + 3))
+        );
+    }
+
+    @Test
+    void testInvalidCellIndex() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.HEXAGON, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(8, 8));
+        NeighborTable table = NeighborTable.build(structure, NeighborhoodMode.EDGES_ONLY);
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> table.start(-1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> table.end(64)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> table.neighborCount(64))
+        );
+    }
+
+}
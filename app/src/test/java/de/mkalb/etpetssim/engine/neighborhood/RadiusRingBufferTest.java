@@ -0,0 +1,135 @@
+package de.mkalb.etpetssim.engine.neighborhood;
+
+import de.mkalb.etpetssim.engine.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class RadiusRingBufferTest {
+
+    /**
+     * Reference breadth-first search: ring by ring, each cell mapped to its sorted predecessors.
+     */
+    private static List<SortedMap<GridCoordinate, SortedSet<GridCoordinate>>> referenceRings(GridCoordinate center,
+                                                                                            NeighborhoodMode neighborhoodMode,
+                                                                                            GridStructure structure,
+                                                                                            int radius) {
+        List<SortedMap<GridCoordinate, SortedSet<GridCoordinate>>> rings = new ArrayList<>();
+        SortedMap<GridCoordinate, SortedSet<GridCoordinate>> ring0 = new TreeMap<>();
+        ring0.put(center, new TreeSet<>());
+        rings.add(ring0);
+        Set<GridCoordinate> visited = new HashSet<>(ring0.keySet());
+        for (int ring = 1; ring <= radius; ring++) {
+            SortedMap<GridCoordinate, SortedSet<GridCoordinate>> nextRing = new TreeMap<>();
+            for (GridCoordinate current : rings.getLast().keySet()) {
+                for (EdgeBehaviorResult result : CellNeighborhoods.neighborEdgeResults(current, neighborhoodMode, structure)) {
+                    if (((result.action() == EdgeBehaviorAction.VALID) || (result.action() == EdgeBehaviorAction.WRAPPED))
+                            && !visited.contains(result.mapped())) {
+                        nextRing.computeIfAbsent(result.mapped(), _ -> new TreeSet<>()).add(current);
+                    }
+                }
+            }
+            visited.addAll(nextRing.keySet());
+            rings.add(nextRing);
+        }
+        return rings;
+    }
+
+    private static List<SortedMap<GridCoordinate, SortedSet<GridCoordinate>>> bufferRings(RadiusRingBuffer buffer,
+                                                                                         GridStructure structure) {
+        List<SortedMap<GridCoordinate, SortedSet<GridCoordinate>>> rings = new ArrayList<>();
+        for (int ring = 0; ring <= buffer.radius(); ring++) {
+            SortedMap<GridCoordinate, SortedSet<GridCoordinate>> cells = new TreeMap<>();
+            GridCoordinate previous = null;
+            for (int position = buffer.ringStart(ring); position < buffer.ringEnd(ring); position++) {
+                GridCoordinate coordinate = structure.coordinateOf(buffer.cellIndexAt(position));
+                // Cells within a ring are ordered by coordinate.
+                assertTrue((previous == null) || (previous.compareTo(coordinate) < 0));
+                previous = coordinate;
+                SortedSet<GridCoordinate> predecessorSet = new TreeSet<>();
+                int previousPredecessor = -1;
+                for (int entry = buffer.predecessorStart(position); entry < buffer.predecessorEnd(position); entry++) {
+                    int predecessor = buffer.predecessorAt(entry);
+                    assertTrue(predecessor > previousPredecessor);
+                    previousPredecessor = predecessor;
+                    predecessorSet.add(structure.coordinateOf(buffer.cellIndexAt(predecessor)));
+                }
+                cells.put(coordinate, predecessorSet);
+            }
+            rings.add(cells);
+        }
+        return rings;
+    }
+
+    @Test
+    void testFillMatchesReferenceRings() {
+        RadiusRingBuffer buffer = new RadiusRingBuffer();
+        for (CellShape cellShape : CellShape.values()) {
+            for (GridEdgeBehavior edgeBehavior : GridEdgeBehavior.values()) {
+                GridStructure structure = new GridStructure(new GridTopology(cellShape, edgeBehavior), new GridSize(12, 10));
+                for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+                    for (int radius : new int[]{0, 1, 2, 3, 6}) {
+                        for (int index = 0; index < structure.cellCount(); index += 7) {
+                            GridCoordinate center = structure.coordinateOf(index);
+                            buffer.fill(center, neighborhoodMode, structure, radius);
+
+                            assertEquals(referenceRings(center, neighborhoodMode, structure, radius),
+                                    bufferRings(buffer, structure),
+                                    structure + " " + neighborhoodMode + " radius=" + radius + " center=" + center);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInteriorCenterUsesStencilOffsets() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+                new GridSize(16, 16));
+        RadiusRingBuffer buffer = new RadiusRingBuffer();
+        buffer.fill(new GridCoordinate(8, 8), NeighborhoodMode.EDGES_ONLY, structure, 2);
+
+        assertAll(
+                () -> assertEquals(13, buffer.size()),
+                () -> assertEquals(0, buffer.ringStart(0)),
+                () -> assertEquals(1, buffer.ringStart(1)),
+                () -> assertEquals(5, buffer.ringStart(2)),
+                () -> assertEquals(13, buffer.ringEnd(2)),
+                () -> assertEquals(structure.indexOf(8, 8), buffer.cellIndexAt(0)),
+                // Ring 1 ordered by x, then y: (7, 8), (8, 7), (8, 9), (9, 8)
+                () -> assertEquals(structure.indexOf(7, 8), buffer.cellIndexAt(1)),
+                () -> assertEquals(structure.indexOf(9, 8), buffer.cellIndexAt(4)),
+                // (7, 7) in ring 2 is reached from (7, 8) and (8, 7)
+                () -> assertEquals(structure.indexOf(7, 7), buffer.cellIndexAt(6)),
+                () -> assertEquals(2, buffer.predecessorEnd(6) - buffer.predecessorStart(6)),
+                () -> assertEquals(1, buffer.predecessorAt(buffer.predecessorStart(6))),
+                () -> assertEquals(2, buffer.predecessorAt(buffer.predecessorStart(6) + 1))
+        );
+    }
+
+    @Test
+    void testInvalidArguments() {
+        GridStructure structure = new GridStructure(
+                new GridTopology(CellShape.HEXAGON, GridEdgeBehavior.WRAP_XY),
+                new GridSize(8, 8));
+        RadiusRingBuffer buffer = new RadiusRingBuffer();
+        buffer.fill(new GridCoordinate(0, 0), NeighborhoodMode.EDGES_ONLY, structure, 1);
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> buffer.fill(new GridCoordinate(0, 0), NeighborhoodMode.EDGES_ONLY, structure, -1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> buffer.fill(new GridCoordinate(0, 0), NeighborhoodMode.EDGES_ONLY, structure, CellNeighborhoods.MAX_RADIUS + 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> buffer.fill(new GridCoordinate(8, 0), NeighborhoodMode.EDGES_ONLY, structure, 1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> buffer.ringStart(2)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> buffer.cellIndexAt(7))
+        );
+    }
+
+}
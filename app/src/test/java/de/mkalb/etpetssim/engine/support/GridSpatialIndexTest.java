@@ -0,0 +1,195 @@
+package de.mkalb.etpetssim.engine.support;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.model.entity.GridEntity;
+import de.mkalb.etpetssim.engine.neighborhood.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class GridSpatialIndexTest {
+
+    private static GridStructure structure(GridEdgeBehavior edgeBehavior, int width, int height) {
+        return structure(CellShape.SQUARE, edgeBehavior, width, height);
+    }
+
+    private static GridStructure structure(CellShape cellShape, GridEdgeBehavior edgeBehavior, int width, int height) {
+        return new GridStructure(new GridTopology(cellShape, edgeBehavior), new GridSize(width, height));
+    }
+
+    private static boolean isFood(TestEntity entity) {
+        return entity == TestEntity.FOOD;
+    }
+
+    private static List<GridCoordinate> bruteForce(WritableGridModel<TestEntity> model, GridCoordinate center,
+                                                   NeighborhoodMode neighborhoodMode, int maxDistance, int limit) {
+        GridStructure structure = model.structure();
+        List<GridCoordinate> result = new ArrayList<>();
+        for (int index : model.filteredIndices(GridSpatialIndexTest::isFood)) {
+            GridCoordinate coordinate = structure.coordinateOf(index);
+            if (GridDistances.distance(center, coordinate, neighborhoodMode, structure) <= maxDistance) {
+                result.add(coordinate);
+            }
+        }
+        result.sort(Comparator.<GridCoordinate>comparingInt(c -> GridDistances.distance(center, c, neighborhoodMode, structure))
+                              .thenComparingInt(structure::indexOf));
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    @Test
+    void testQueriesMatchBruteForce() {
+        Random random = new Random(42L);
+        for (CellShape cellShape : CellShape.values()) {
+            for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+                for (GridEdgeBehavior edgeBehavior : GridEdgeBehavior.values()) {
+                    for (int bucketSize : new int[]{1, 3, 8}) {
+                        checkQueriesMatchBruteForce(structure(cellShape, edgeBehavior, 14, 12), neighborhoodMode, bucketSize, random);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void checkQueriesMatchBruteForce(GridStructure structure, NeighborhoodMode neighborhoodMode,
+                                                    int bucketSize, Random random) {
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(structure, TestEntity.EMPTY);
+        GridSpatialIndex<TestEntity> spatialIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood,
+                neighborhoodMode, bucketSize);
+        for (int round = 0; round < 20; round++) {
+            for (int write = 0; write < 6; write++) {
+                TestEntity entity = (random.nextInt(3) == 0) ? TestEntity.EMPTY : TestEntity.FOOD;
+                model.setEntity(random.nextInt(structure.cellCount()), entity);
+            }
+            GridCoordinate center = structure.coordinateOf(random.nextInt(structure.cellCount()));
+            int radius = random.nextInt(9);
+            int k = 1 + random.nextInt(5);
+            String message = structure + " " + neighborhoodMode + " bucketSize=" + bucketSize + " center=" + center;
+
+            assertAll(message,
+                    () -> assertEquals(bruteForce(model, center, neighborhoodMode, radius, Integer.MAX_VALUE),
+                            spatialIndex.withinDistance(center, radius)),
+                    () -> assertEquals(bruteForce(model, center, neighborhoodMode, Integer.MAX_VALUE, k),
+                            spatialIndex.nearest(center, k)),
+                    () -> assertEquals(bruteForce(model, center, neighborhoodMode, radius, k),
+                            spatialIndex.nearest(center, k, radius)),
+                    () -> assertEquals(model.filteredIndices(GridSpatialIndexTest::isFood).length,
+                            spatialIndex.size())
+            );
+        }
+    }
+
+    @Test
+    void testDistanceMatchesNeighborhoodMode() {
+        GridStructure structure = structure(GridEdgeBehavior.BLOCK_XY, 10, 10);
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(structure, TestEntity.EMPTY);
+        GridSpatialIndex<TestEntity> edgesIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood,
+                NeighborhoodMode.EDGES_ONLY);
+        GridSpatialIndex<TestEntity> verticesIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood,
+                NeighborhoodMode.EDGES_AND_VERTICES);
+        model.setEntity(new GridCoordinate(3, 3), TestEntity.FOOD);
+        model.setEntity(new GridCoordinate(5, 1), TestEntity.FOOD);
+        GridCoordinate center = new GridCoordinate(1, 1);
+
+        assertAll(
+                // Manhattan distances 4 and 4, Chebyshev distances 2 and 4
+                () -> assertEquals(List.of(new GridCoordinate(5, 1), new GridCoordinate(3, 3)),
+                        edgesIndex.withinDistance(center, 4)),
+                () -> assertEquals(List.of(), edgesIndex.withinDistance(center, 3)),
+                () -> assertEquals(List.of(new GridCoordinate(3, 3)), verticesIndex.withinDistance(center, 3)),
+                () -> assertEquals(Optional.of(new GridCoordinate(3, 3)), verticesIndex.findNearest(center, 2))
+        );
+    }
+
+    @Test
+    void testNearestUsesWrappedDistance() {
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(structure(GridEdgeBehavior.WRAP_XY, 16, 16), TestEntity.EMPTY);
+        GridSpatialIndex<TestEntity> spatialIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood, NeighborhoodMode.EDGES_ONLY, 4);
+        model.setEntity(new GridCoordinate(15, 0), TestEntity.FOOD);
+        model.setEntity(new GridCoordinate(4, 0), TestEntity.FOOD);
+
+        assertAll(
+                () -> assertEquals(Optional.of(new GridCoordinate(15, 0)), spatialIndex.findNearest(new GridCoordinate(0, 0), 5)),
+                () -> assertEquals(List.of(new GridCoordinate(15, 0), new GridCoordinate(4, 0)),
+                        spatialIndex.nearest(new GridCoordinate(1, 0), 2)),
+                () -> assertEquals(Optional.empty(), spatialIndex.findNearest(new GridCoordinate(8, 8), 3))
+        );
+    }
+
+    @Test
+    void testIndexFollowsWritesAndBulkOperations() {
+        GridStructure structure = structure(GridEdgeBehavior.BLOCK_XY, 8, 8);
+        SparseGridModel<TestEntity> model = new SparseGridModel<>(structure, TestEntity.EMPTY);
+        model.setEntity(new GridCoordinate(2, 2), TestEntity.FOOD);
+        GridSpatialIndex<TestEntity> spatialIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood, NeighborhoodMode.EDGES_ONLY);
+
+        assertTrue(spatialIndex.contains(new GridCoordinate(2, 2)));
+
+        model.setEntity(new GridCoordinate(2, 2), TestEntity.WALL);
+        model.setEntity(new GridCoordinate(5, 5), TestEntity.FOOD);
+        assertAll(
+                () -> assertFalse(spatialIndex.contains(new GridCoordinate(2, 2))),
+                () -> assertTrue(spatialIndex.contains(new GridCoordinate(5, 5))),
+                () -> assertEquals(1, spatialIndex.size())
+        );
+
+        model.fill(coordinate -> (coordinate.x() == 0) ? TestEntity.FOOD : TestEntity.EMPTY);
+        assertAll(
+                () -> assertEquals(8, spatialIndex.size()),
+                () -> assertEquals(List.of(new GridCoordinate(0, 3), new GridCoordinate(0, 2), new GridCoordinate(0, 4)),
+                        spatialIndex.nearest(new GridCoordinate(1, 3), 3))
+        );
+
+        model.clear();
+        assertEquals(0, spatialIndex.size());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        GridStructure structure = structure(GridEdgeBehavior.BLOCK_XY, 8, 8);
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(structure, TestEntity.EMPTY);
+        GridSpatialIndex<TestEntity> spatialIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood, NeighborhoodMode.EDGES_ONLY);
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new GridSpatialIndex<>(new ArrayGridModel<>(structure, TestEntity.EMPTY), GridSpatialIndexTest::isFood, NeighborhoodMode.EDGES_ONLY, 0)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> spatialIndex.nearest(new GridCoordinate(8, 0), 1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> spatialIndex.nearest(new GridCoordinate(0, 0), 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> spatialIndex.withinDistance(new GridCoordinate(0, 0), -1))
+        );
+    }
+
+    @Test
+    void testSharesModelWithAgentIndex() {
+        GridStructure structure = structure(GridEdgeBehavior.BLOCK_XY, 8, 8);
+        ArrayGridModel<TestEntity> model = new ArrayGridModel<>(structure, TestEntity.EMPTY);
+        GridAgentIndex<TestEntity> agentIndex = new GridAgentIndex<>(model, entity -> entity == TestEntity.WALL);
+        GridSpatialIndex<TestEntity> spatialIndex = new GridSpatialIndex<>(model, GridSpatialIndexTest::isFood, NeighborhoodMode.EDGES_ONLY);
+
+        model.setEntity(9, TestEntity.FOOD);
+        model.setEntity(20, TestEntity.WALL);
+        model.setEntity(9, TestEntity.WALL);
+        model.setEntity(40, TestEntity.FOOD);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{9, 20}, agentIndex.agentIndices()),
+                () -> assertEquals(1, spatialIndex.size()),
+                () -> assertTrue(spatialIndex.contains(structure.coordinateOf(40)))
+        );
+    }
+
+    private enum TestEntity implements GridEntity {
+        EMPTY,
+        WALL,
+        FOOD;
+
+        @Override
+        public String descriptorId() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package de.mkalb.etpetssim.engine.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.random.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class RandomStreamsTest {
+
+    @Test
+    void testKeyedValuesAreDeterministicAndOrderIndependent() {
+        RandomStreams randomStreams = new RandomStreams(42L);
+        double[] forward = new double[1000];
+        for (int index = 0; index < forward.length; index++) {
+            forward[index] = randomStreams.nextDouble(7, index, 0);
+        }
+        double[] backward = new double[1000];
+        RandomStreams sameSeed = new RandomStreams(42L);
+        for (int index = backward.length - 1; index >= 0; index--) {
+            backward[index] = sameSeed.nextDouble(7, index, 0);
+        }
+        double[] parallel = IntStream.range(0, 1000).parallel()
+                                     .mapToDouble(index -> randomStreams.nextDouble(7, index, 0))
+                                     .toArray();
+
+        assertAll(
+                () -> assertArrayEquals(forward, backward),
+                () -> assertArrayEquals(forward, parallel),
+                () -> assertTrue(Arrays.stream(forward).allMatch(value -> (value >= 0.0d) && (value < 1.0d)))
+        );
+    }
+
+    @Test
+    void testKeyComponentsAreIndependent() {
+        RandomStreams randomStreams = new RandomStreams(42L);
+        Set<Long> values = new HashSet<>();
+        for (int stepIndex = 0; stepIndex < 10; stepIndex++) {
+            for (int index = 0; index < 10; index++) {
+                for (int draw = 0; draw < 10; draw++) {
+                    values.add(randomStreams.nextLong(stepIndex, index, draw));
+                }
+            }
+        }
+
+        assertAll(
+                () -> assertEquals(1000, values.size()),
+                () -> assertNotEquals(randomStreams.nextLong(0, 0, 0), new RandomStreams(43L).nextLong(0, 0, 0)),
+                // Swapped step and index produce different values
+                () -> assertNotEquals(randomStreams.nextLong(1, 2, 0), randomStreams.nextLong(2, 1, 0))
+        );
+    }
+
+    @Test
+    void testKeyedValuesAreUniform() {
+        RandomStreams randomStreams = new RandomStreams(-1L);
+        int[] buckets = new int[10];
+        for (int index = 0; index < 100_000; index++) {
+            buckets[(int) (randomStreams.nextDouble(3, index, 1) * buckets.length)]++;
+        }
+
+        for (int bucket : buckets) {
+            assertEquals(10_000, bucket, 500);
+        }
+    }
+
+    @Test
+    void testRandomCanBeReseeded() {
+        RandomStreams randomStreams = new RandomStreams(42L);
+        Random random = randomStreams.random();
+        int[] values = random.ints(20, 0, 1000).toArray();
+        random.nextGaussian();
+
+        random.setSeed(42L);
+        int[] reseededValues = random.ints(20, 0, 1000).toArray();
+        random.setSeed(43L);
+
+        assertAll(
+                () -> assertArrayEquals(values, reseededValues),
+                () -> assertEquals(new RandomStreams(43L).generator().nextLong(), random.nextLong())
+        );
+    }
+
+    @Test
+    void testGenerators() {
+        RandomStreams randomStreams = new RandomStreams(42L);
+        RandomGenerator stream = randomStreams.stream(5, 17);
+        RandomGenerator sameStream = randomStreams.stream(5, 17);
+        RandomGenerator otherStream = randomStreams.stream(5, 18);
+        long[] streamValues = stream.longs(20).toArray();
+
+        assertAll(
+                () -> assertArrayEquals(streamValues, sameStream.longs(20).toArray()),
+                () -> assertFalse(Arrays.equals(streamValues, otherStream.longs(20).toArray())),
+                () -> assertEquals(randomStreams.generator().nextLong(), randomStreams.generator().nextLong()),
+                () -> assertEquals(randomStreams.random().nextInt(1000), randomStreams.random().nextInt(1000)),
+                () -> assertEquals(randomStreams.generator().nextLong(), randomStreams.random().nextLong()),
+                () -> assertEquals(42L, randomStreams.seed())
+        );
+    }
+
+}
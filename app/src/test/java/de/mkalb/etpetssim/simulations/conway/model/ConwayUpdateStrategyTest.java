@@ -0,0 +1,106 @@
+package de.mkalb.etpetssim.simulations.conway.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.executor.*;
+import de.mkalb.etpetssim.engine.model.*;
+import de.mkalb.etpetssim.engine.neighborhood.*;
+import de.mkalb.etpetssim.simulations.conway.model.entity.ConwayEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class ConwayUpdateStrategyTest {
+
+    private static ConwayConfig createConfig(CellShape cellShape,
+                                             GridEdgeBehavior gridEdgeBehavior,
+                                             NeighborhoodMode neighborhoodMode) {
+        return new ConwayConfig(
+                cellShape,
+                gridEdgeBehavior,
+                24,
+                20,
+                ConwayConstraints.CELL_EDGE_LENGTH_DEFAULT,
+                ConwayConstraints.CELL_DISPLAY_MODE_DEFAULT,
+                1L,
+                ConwayConstraints.ALIVE_PERCENT_DEFAULT,
+                neighborhoodMode,
+                ConwayConstraints.TRANSITION_RULES_DEFAULT
+        );
+    }
+
+    /**
+     * Computes the next alive cells by counting the alive neighbors of every cell.
+     */
+    private static Set<Integer> expectedNextAliveCells(ReadableGridModel<ConwayEntity> model,
+                                                       NeighborTable neighborTable,
+                                                       ConwayConfig config) {
+        Set<Integer> result = new HashSet<>();
+        for (int index = 0; index < model.structure().cellCount(); index++) {
+            int aliveNeighbors = 0;
+            for (int entry = neighborTable.start(index); entry < neighborTable.end(index); entry++) {
+                if (!model.isDefaultEntity(neighborTable.neighborAt(entry))) {
+                    aliveNeighbors++;
+                }
+            }
+            boolean nextAlive = model.isDefaultEntity(index)
+                    ? ((aliveNeighbors > 0) && config.transitionRules().shouldBeBorn(aliveNeighbors))
+                    : config.transitionRules().shouldSurvive(aliveNeighbors);
+            if (nextAlive) {
+                result.add(index);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testLiveCellAndCellDrivenStepsMatchReference() {
+        for (CellShape cellShape : CellShape.values()) {
+            for (GridEdgeBehavior edgeBehavior : GridEdgeBehavior.values()) {
+                for (NeighborhoodMode neighborhoodMode : NeighborhoodMode.values()) {
+                    ConwayConfig config = createConfig(cellShape, edgeBehavior, neighborhoodMode);
+                    GridStructure structure = new GridStructure(new GridTopology(cellShape, edgeBehavior),
+                            new GridSize(config.gridWidth(), config.gridHeight()));
+                    NeighborTable neighborTable = NeighborTable.build(structure, neighborhoodMode);
+                    ConwayUpdateStrategy strategy = new ConwayUpdateStrategy(structure, config);
+                    // A sparse grid uses the live-cell-driven path, a dense grid the cell-driven path.
+                    for (double alivePercent : new double[]{0.02d, 0.5d}) {
+                        Random random = new Random(7L);
+                        BitGridModel<ConwayEntity> currentModel = new BitGridModel<>(structure, ConwayEntity.DEAD, ConwayEntity.ALIVE);
+                        currentModel.fill(() -> (random.nextDouble() < alivePercent) ? ConwayEntity.ALIVE : ConwayEntity.DEAD);
+                        ConwayStatistics statistics = new ConwayStatistics(structure);
+                        statistics.initializeStartupCellCounts(currentModel.nonDefaultIndices().length);
+                        Set<Integer> expected = expectedNextAliveCells(currentModel, neighborTable, config);
+
+                        List<ConwayUpdateStrategy.CellCounts> bandCounts = new ArrayList<>();
+                        BitGridModel<ConwayEntity> nextModel = new BitGridModel<>(structure, ConwayEntity.DEAD, ConwayEntity.ALIVE);
+                        for (GridRowBand band : GridRowBand.partition(structure, 4)) {
+                            ConwayUpdateStrategy.CellCounts counts = strategy.createBandResult(band, 0, statistics);
+                            strategy.performBandStep(currentModel, nextModel, band, 0, counts);
+                            bandCounts.add(counts);
+                        }
+                        strategy.completeStep(bandCounts, 0, statistics);
+
+                        Set<Integer> actual = new HashSet<>();
+                        for (int index : nextModel.nonDefaultIndices()) {
+                            actual.add(index);
+                        }
+                        Set<Integer> changed = new HashSet<>(expected);
+                        for (int index : currentModel.nonDefaultIndices()) {
+                            if (!changed.remove(index)) {
+                                changed.add(index);
+                            }
+                        }
+                        String message = structure + " " + neighborhoodMode + " " + alivePercent;
+                        assertEquals(expected, actual, message);
+                        assertEquals(expected.size(), statistics.getAliveCells(), message);
+                        assertEquals(changed.size(), statistics.getChangedCells(), message);
+                    }
+                }
+            }
+        }
+    }
+
+}
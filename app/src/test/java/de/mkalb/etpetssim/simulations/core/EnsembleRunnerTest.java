@@ -0,0 +1,121 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import de.mkalb.etpetssim.SimulationType;
+import de.mkalb.etpetssim.simulations.wator.model.WatorStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class EnsembleRunnerTest {
+
+    private static final List<EnsembleMetric> METRICS = List.of(
+            EnsembleMetric.of("fish", WatorStatistics.class, WatorStatistics::getFishCells),
+            EnsembleMetric.of("sharks", WatorStatistics.class, WatorStatistics::getSharkCells));
+
+    private static final HeadlessConfigValues BASE_VALUES = HeadlessConfigValues.of(Map.of(
+            "gridWidth", "40",
+            "gridHeight", "30"));
+
+    @Test
+    void testParameterGrid() {
+        LinkedHashMap<String, List<String>> parameters = new LinkedHashMap<>();
+        parameters.put("a", List.of("1", "2"));
+        parameters.put("b", List.of("x", "y", "z"));
+
+        List<Map<String, String>> grid = EnsembleRunner.parameterGrid(parameters);
+
+        assertAll(
+                () -> assertEquals(6, grid.size()),
+                () -> assertEquals(Map.of("a", "1", "b", "x"), grid.get(0)),
+                () -> assertEquals(Map.of("a", "1", "b", "y"), grid.get(1)),
+                () -> assertEquals(Map.of("a", "2", "b", "z"), grid.get(5)),
+                () -> assertEquals(List.of(Map.of()), EnsembleRunner.parameterGrid(new LinkedHashMap<>())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> EnsembleRunner.parameterGrid(new LinkedHashMap<>(Map.of("a", List.of()))))
+        );
+    }
+
+    @Test
+    void testSeedsAndSampleSteps() {
+        assertAll(
+                () -> assertEquals(List.of(5L, 6L, 7L), EnsembleRunner.seeds(5L, 3)),
+                () -> assertThrows(IllegalArgumentException.class, () -> EnsembleRunner.seeds(5L, 0)),
+                () -> assertEquals(List.of(0, 5, 10),
+                        EnsembleRunner.forType(SimulationType.WATOR, METRICS, 10, 5).sampleSteps()),
+                () -> assertEquals(List.of(0, 4, 8, 10),
+                        EnsembleRunner.forType(SimulationType.WATOR, METRICS, 10, 4).sampleSteps()),
+                () -> assertEquals(List.of(0),
+                        EnsembleRunner.forType(SimulationType.WATOR, METRICS, 0, 4).sampleSteps()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> EnsembleRunner.forType(SimulationType.WATOR, METRICS, 10, 0)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> EnsembleRunner.forType(SimulationType.WATOR, List.of(), 10, 5)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> EnsembleRunner.forType(SimulationType.STARTSCREEN, METRICS, 10, 5))
+        );
+    }
+
+    @Test
+    void testRunIsReproducibleAndIndependentOfExecutor() throws InterruptedException, IOException {
+        EnsembleRunner runner = EnsembleRunner.forType(SimulationType.WATOR, METRICS, 10, 5);
+        LinkedHashMap<String, List<String>> parameters = new LinkedHashMap<>();
+        parameters.put("fishPercent", List.of("0.1", "0.3"));
+        List<Map<String, String>> points = EnsembleRunner.parameterGrid(parameters);
+        List<Long> seeds = EnsembleRunner.seeds(1L, 3);
+
+        EnsembleResult parallelResult = runner.run(BASE_VALUES, points, seeds);
+        EnsembleResult sequentialResult;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            sequentialResult = runner.run(BASE_VALUES, points, seeds, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int pointIndex = 0; pointIndex < points.size(); pointIndex++) {
+            for (int metricIndex = 0; metricIndex < METRICS.size(); metricIndex++) {
+                for (int sampleIndex = 0; sampleIndex < runner.sampleSteps().size(); sampleIndex++) {
+                    assertArrayEquals(sequentialResult.values(pointIndex, metricIndex, sampleIndex),
+                            parallelResult.values(pointIndex, metricIndex, sampleIndex));
+                }
+            }
+        }
+
+        StringBuilder table = new StringBuilder();
+        parallelResult.writeTable(table);
+        List<String> lines = table.toString().lines().toList();
+
+        assertAll(
+                () -> assertEquals(List.of(0, 5, 10), parallelResult.sampleSteps()),
+                () -> assertEquals(List.of("fish", "sharks"), parallelResult.metricNames()),
+                () -> assertEquals(3, parallelResult.summary(1, 0, 2).count()),
+                () -> assertEquals(3, parallelResult.values(0, 1, 0).length),
+                // More fish at the start of the second parameter point
+                () -> assertTrue(parallelResult.summary(0, 0, 0).mean() < parallelResult.summary(1, 0, 0).mean()),
+                // Header and one row per point, metric and sample step
+                () -> assertEquals(1 + (2 * 2 * 3), lines.size()),
+                () -> assertTrue(lines.get(0).startsWith("point\tparameters\tmetric\tstep\tcount\tmean")),
+                () -> assertTrue(lines.get(1).startsWith("0\t{fishPercent=0.1}\tfish\t0\t3\t"))
+        );
+    }
+
+    @Test
+    void testRunWithInvalidConfiguration() {
+        EnsembleRunner runner = EnsembleRunner.forType(SimulationType.WATOR, METRICS, 10, 5);
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> runner.run(BASE_VALUES, List.of(Map.of("gridWidth", "wide")), List.of(1L))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> runner.run(BASE_VALUES, List.of(), List.of(1L))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> runner.run(BASE_VALUES, List.of(Map.of()), List.of()))
+        );
+    }
+
+}
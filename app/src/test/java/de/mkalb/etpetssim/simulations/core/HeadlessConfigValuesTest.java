@@ -0,0 +1,85 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import de.mkalb.etpetssim.engine.CellShape;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class HeadlessConfigValuesTest {
+
+    @Test
+    void testTypedGetters() {
+        HeadlessConfigValues values = HeadlessConfigValues.of(Map.of(
+                "gridWidth", "120",
+                "treeDensity", "0.25",
+                "cellShape", "triangle",
+                "rule", "LLR"));
+
+        assertAll(
+                () -> assertEquals(120, values.getInt("gridWidth", 10)),
+                () -> assertEquals(10, values.getInt("gridHeight", 10)),
+                () -> assertEquals(0.25d, values.getDouble("treeDensity", 0.5d)),
+                () -> assertEquals(0.5d, values.getDouble("missing", 0.5d)),
+                () -> assertEquals(CellShape.TRIANGLE, values.getEnum("cellShape", CellShape.class, CellShape.SQUARE)),
+                () -> assertEquals(CellShape.SQUARE, values.getEnum("missing", CellShape.class, CellShape.SQUARE)),
+                () -> assertEquals("LLR", values.getString("rule", "RL")),
+                () -> assertNull(values.getString("missing"))
+        );
+    }
+
+    @Test
+    void testInvalidValues() {
+        HeadlessConfigValues values = HeadlessConfigValues.of(Map.of(
+                "gridWidth", "wide",
+                "treeDensity", "dense",
+                "cellShape", "circle"));
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> values.getInt("gridWidth", 10)),
+                () -> assertThrows(IllegalArgumentException.class, () -> values.getDouble("treeDensity", 0.5d)),
+                () -> assertThrows(IllegalArgumentException.class, () -> values.getEnum("cellShape", CellShape.class, CellShape.SQUARE))
+        );
+    }
+
+    @Test
+    void testUnusedKeysAndWith() {
+        HeadlessConfigValues values = HeadlessConfigValues.of(Map.of("gridWidth", "120", "gridWitdh", "80"));
+        HeadlessConfigValues seeded = values.with("seed", "42");
+        values.getInt("gridWidth", 10);
+
+        assertAll(
+                () -> assertEquals(List.of("gridWitdh"), values.unusedKeys()),
+                () -> assertEquals(List.of("gridWidth", "gridWitdh", "seed"), seeded.unusedKeys()),
+                () -> assertEquals("42", seeded.getString("seed")),
+                () -> assertNull(values.getString("seed")),
+                () -> assertTrue(HeadlessConfigValues.empty().unusedKeys().isEmpty())
+        );
+    }
+
+    @Test
+    void testLoad(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("forest.properties");
+        Files.writeString(file, """
+                # Forest fire experiment
+                gridWidth = 300
+                lightningIgnitionProbability=0.0005
+                """, StandardCharsets.UTF_8);
+
+        HeadlessConfigValues values = HeadlessConfigValues.load(file);
+
+        assertAll(
+                () -> assertEquals(300, values.getInt("gridWidth", 10)),
+                () -> assertEquals(0.0005d, values.getDouble("lightningIgnitionProbability", 0.0d)),
+                () -> assertTrue(values.unusedKeys().isEmpty()),
+                () -> assertThrows(IOException.class, () -> HeadlessConfigValues.load(tempDir.resolve("missing.properties")))
+        );
+    }
+
+}
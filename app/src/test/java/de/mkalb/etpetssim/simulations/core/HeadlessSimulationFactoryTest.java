@@ -0,0 +1,95 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import de.mkalb.etpetssim.SimulationType;
+import de.mkalb.etpetssim.engine.model.ReadableGridModel;
+import de.mkalb.etpetssim.simulations.forest.model.ForestConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class HeadlessSimulationFactoryTest {
+
+    @Test
+    void testCreateManagerWithDefaultsForAllSupportedTypes() {
+        for (SimulationType type : SimulationType.values()) {
+            if (HeadlessSimulationFactory.isSupported(type)) {
+                var manager = HeadlessSimulationFactory.createManager(type, HeadlessConfigValues.of(Map.of("seed", "42")));
+                var result = manager.executeSteps(3, true, () -> {
+                });
+
+                assertEquals(42L, manager.config().seed(), "type=" + type);
+                assertEquals(result.stepCount(), manager.stepCount(), "type=" + type);
+                assertTrue(manager.config().isValid(), "type=" + type);
+            } else {
+                assertThrows(IllegalArgumentException.class,
+                        () -> HeadlessSimulationFactory.createManager(type, HeadlessConfigValues.empty()));
+            }
+        }
+    }
+
+    @Test
+    void testCreateManagerWithValues() {
+        HeadlessConfigValues values = HeadlessConfigValues.of(Map.of(
+                "cellShape", "SQUARE",
+                "gridEdgeBehavior", "wrap_xy",
+                "gridWidth", "60",
+                "gridHeight", "40",
+                "seed", "experiment-1",
+                "treeGrowthProbability", "0.01"));
+
+        var manager = HeadlessSimulationFactory.createManager(SimulationType.FOREST_FIRE, values);
+
+        assertAll(
+                () -> assertInstanceOf(ForestConfig.class, manager.config()),
+                () -> assertEquals(60, manager.config().gridWidth()),
+                () -> assertEquals(40, manager.config().gridHeight()),
+                () -> assertEquals(0.01d, ((ForestConfig) manager.config()).treeGrowthProbability()),
+                () -> assertEquals(manager.config().seed(),
+                        HeadlessSimulationFactory.createManager(SimulationType.FOREST_FIRE, values).config().seed()),
+                () -> assertTrue(values.unusedKeys().isEmpty())
+        );
+    }
+
+    @Test
+    void testCreateManagerWithSequentialSteps() {
+        HeadlessConfigValues values = HeadlessConfigValues.of(Map.of("seed", "7", "gridWidth", "40", "gridHeight", "30"));
+        for (SimulationType type : List.of(SimulationType.CONWAYS_LIFE, SimulationType.FOREST_FIRE,
+                SimulationType.REBOUNDING_ENTITIES)) {
+            var parallelManager = HeadlessSimulationFactory.createManager(type, values, true);
+            var sequentialManager = HeadlessSimulationFactory.createManager(type, values, false);
+            parallelManager.executeSteps(20, true, () -> {
+            });
+            sequentialManager.executeSteps(20, true, () -> {
+            });
+
+            // Conway's Life, Forest Fire and Rebounding Entities use a single writable model
+            var parallelModel = (ReadableGridModel<?>) parallelManager.currentModel();
+            var sequentialModel = (ReadableGridModel<?>) sequentialManager.currentModel();
+
+            assertEquals(parallelManager.stepCount(), sequentialManager.stepCount(), "type=" + type);
+            for (int index = 0; index < parallelManager.structure().cellCount(); index++) {
+                // Rebounders are mutable entities without value equality
+                assertEquals(parallelModel.getEntity(index).toString(), sequentialModel.getEntity(index).toString(),
+                        "type=" + type + ", index=" + index);
+            }
+        }
+    }
+
+    @Test
+    void testCreateManagerWithInvalidValues() {
+        assertAll(
+                // Out of range
+                () -> assertThrows(IllegalArgumentException.class, () -> HeadlessSimulationFactory.createManager(
+                        SimulationType.FOREST_FIRE, HeadlessConfigValues.of(Map.of("treeDensity", "2.0")))),
+                // Not a number
+                () -> assertThrows(IllegalArgumentException.class, () -> HeadlessSimulationFactory.createManager(
+                        SimulationType.WATOR, HeadlessConfigValues.of(Map.of("gridWidth", "wide")))),
+                () -> assertFalse(HeadlessSimulationFactory.isSupported(SimulationType.STARTSCREEN)),
+                () -> assertTrue(HeadlessSimulationFactory.isSupported(SimulationType.CONWAYS_LIFE))
+        );
+    }
+
+}
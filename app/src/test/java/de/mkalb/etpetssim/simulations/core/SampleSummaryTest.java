@@ -0,0 +1,63 @@
+package de.mkalb.etpetssim.simulations.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class SampleSummaryTest {
+
+    private static final double DELTA = 1.0e-12d;
+
+    @Test
+    void testOf() {
+        double[] values = {4.0d, 1.0d, 3.0d, 2.0d, 5.0d};
+        SampleSummary summary = SampleSummary.of(values);
+
+        assertAll(
+                () -> assertEquals(5, summary.count()),
+                () -> assertEquals(3.0d, summary.mean(), DELTA),
+                () -> assertEquals(Math.sqrt(2.5d), summary.standardDeviation(), DELTA),
+                () -> assertEquals(1.0d, summary.min()),
+                () -> assertEquals(2.0d, summary.lowerQuartile(), DELTA),
+                () -> assertEquals(3.0d, summary.median(), DELTA),
+                () -> assertEquals(4.0d, summary.upperQuartile(), DELTA),
+                () -> assertEquals(5.0d, summary.max()),
+                // The values are not modified
+                () -> assertArrayEquals(new double[]{4.0d, 1.0d, 3.0d, 2.0d, 5.0d}, values)
+        );
+    }
+
+    @Test
+    void testOfSingleValue() {
+        SampleSummary summary = SampleSummary.of(new double[]{7.0d});
+
+        assertAll(
+                () -> assertEquals(1, summary.count()),
+                () -> assertEquals(7.0d, summary.mean()),
+                () -> assertEquals(0.0d, summary.standardDeviation()),
+                () -> assertEquals(7.0d, summary.median())
+        );
+    }
+
+    @Test
+    void testOfEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> SampleSummary.of(new double[0]));
+    }
+
+    @Test
+    void testQuantile() {
+        double[] sorted = {10.0d, 20.0d, 30.0d, 40.0d};
+
+        assertAll(
+                () -> assertEquals(10.0d, SampleSummary.quantile(sorted, 0.0d), DELTA),
+                () -> assertEquals(17.5d, SampleSummary.quantile(sorted, 0.25d), DELTA),
+                () -> assertEquals(25.0d, SampleSummary.quantile(sorted, 0.5d), DELTA),
+                () -> assertEquals(40.0d, SampleSummary.quantile(sorted, 1.0d), DELTA),
+                () -> assertThrows(IllegalArgumentException.class, () -> SampleSummary.quantile(sorted, 1.5d)),
+                () -> assertThrows(IllegalArgumentException.class, () -> SampleSummary.quantile(sorted, Double.NaN)),
+                () -> assertThrows(IllegalArgumentException.class, () -> SampleSummary.quantile(new double[0], 0.5d))
+        );
+    }
+
+}
@@ -0,0 +1,94 @@
+package de.mkalb.etpetssim.simulations.etpets.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.model.FusedGridLayers;
+import de.mkalb.etpetssim.simulations.etpets.model.entity.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class EtpetsCellCursorTest {
+
+    private static final GridStructure STRUCTURE = new GridStructure(
+            new GridTopology(CellShape.SQUARE, GridEdgeBehavior.BLOCK_XY),
+            new GridSize(8, 8));
+
+    private static EtpetsGridModel createModel() {
+        return new EtpetsGridModel(STRUCTURE);
+    }
+
+    @Test
+    void testCursorReadsAllLayersAtEachPosition() {
+        EtpetsGridModel model = createModel();
+        Plant plant = new Plant(1.0d, 2.0d, 0.1d);
+        model.terrainModel().setEntity(new GridCoordinate(1, 0), TerrainConstant.ROCK);
+        model.resourceModel().setEntity(new GridCoordinate(2, 3), plant);
+
+        EtpetsCellCursor cursor = model.cellCursor();
+
+        assertAll(
+                () -> assertEquals(new GridCoordinate(0, 0), cursor.coordinate()),
+                () -> assertTrue(cursor.isWalkable())
+        );
+
+        cursor.moveTo(new GridCoordinate(1, 0));
+        assertAll(
+                () -> assertEquals(1, cursor.index()),
+                () -> assertEquals(TerrainConstant.ROCK, cursor.terrainEntity()),
+                () -> assertEquals(TerrainConstant.ROCK, cursor.entity()),
+                () -> assertFalse(cursor.isWalkable())
+        );
+
+        cursor.moveTo(26);
+        assertAll(
+                () -> assertEquals(new GridCoordinate(2, 3), cursor.coordinate()),
+                () -> assertSame(plant, cursor.resourceEntity()),
+                () -> assertSame(plant, cursor.entity()),
+                () -> assertEquals(NoAgent.NO_AGENT, cursor.agentEntity()),
+                () -> assertEquals(EtpetsCell.of(model, new GridCoordinate(2, 3)), cursor.toCell())
+        );
+    }
+
+    @Test
+    void testLayersShareOneFusedStorage() {
+        EtpetsGridModel model = createModel();
+
+        assertAll(
+                () -> assertEquals(3, model.layers().layerCount()),
+                () -> assertEquals(0, model.terrainModel().layer()),
+                () -> assertEquals(1, model.resourceModel().layer()),
+                () -> assertEquals(2, model.agentModel().layer()),
+                () -> assertSame(model.layers(), model.agentModel().layers()),
+                () -> assertEquals(List.of(TerrainConstant.GROUND, NoResource.NO_RESOURCE, NoAgent.NO_AGENT),
+                        model.getEntities(new GridCoordinate(7, 7)))
+        );
+    }
+
+    @Test
+    void testLayersOfDifferentStoragesAreRejected() {
+        EtpetsGridModel model = createModel();
+        FusedGridLayers otherLayers = new FusedGridLayers(STRUCTURE, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> new EtpetsGridModel(
+                STRUCTURE,
+                model.terrainModel(),
+                model.resourceModel(),
+                otherLayers.addLayer(NoAgent.NO_AGENT)));
+    }
+
+    @Test
+    void testCursorRejectsInvalidPositions() {
+        EtpetsCellCursor cursor = createModel().cellCursor();
+
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(new GridCoordinate(8, 0))),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(64)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(-1)),
+                () -> assertEquals(0, cursor.index())
+        );
+    }
+
+}
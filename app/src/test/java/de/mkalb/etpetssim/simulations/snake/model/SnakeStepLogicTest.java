@@ -0,0 +1,55 @@
+package de.mkalb.etpetssim.simulations.snake.model;
+
+import de.mkalb.etpetssim.engine.*;
+import de.mkalb.etpetssim.engine.neighborhood.NeighborhoodMode;
+import de.mkalb.etpetssim.simulations.snake.model.entity.*;
+import de.mkalb.etpetssim.simulations.snake.model.strategy.SnakeMoveStrategies;
+import de.mkalb.etpetssim.simulations.snake.shared.SnakeDeathMode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("MagicNumber")
+final class SnakeStepLogicTest {
+
+    private static SnakeConfig createConfig() {
+        return new SnakeConfig(
+                CellShape.SQUARE,
+                GridEdgeBehavior.BLOCK_XY,
+                20,
+                20,
+                SnakeConstraints.CELL_EDGE_LENGTH_DEFAULT,
+                SnakeConstraints.CELL_DISPLAY_MODE_DEFAULT,
+                1L,
+                0,
+                0,
+                0,
+                0,
+                NeighborhoodMode.EDGES_ONLY,
+                SnakeDeathMode.PERMADEATH,
+                SnakeConstraints.GROWTH_PER_FOOD_DEFAULT,
+                SnakeConstraints.BASE_POINTS_PER_FOOD_DEFAULT,
+                SnakeConstraints.SEGMENT_LENGTH_MULTIPLIER_DEFAULT
+        );
+    }
+
+    @Test
+    void testFoodScentMovesTowardsNearestFoodInRange() {
+        SnakeSimulationManager manager = new SnakeSimulationManager(createConfig());
+        SnakeHead head = new SnakeHead(0, SnakeMoveStrategies.FOOD_SCENT, 0, 0);
+        manager.currentModel().setEntity(new GridCoordinate(2, 5), head);
+        manager.currentModel().setEntity(new GridCoordinate(9, 5), TerrainConstant.GROWTH_FOOD);
+        manager.currentModel().setEntity(new GridCoordinate(2, 17), TerrainConstant.GROWTH_FOOD);
+        manager.statistics().increaseSnakeHeadCells();
+        manager.statistics().increaseLivingSnakeHeadCells();
+
+        manager.executeStep();
+        manager.executeStep();
+
+        assertAll(
+                () -> assertSame(head, manager.currentModel().getEntity(new GridCoordinate(4, 5))),
+                () -> assertEquals(2, manager.stepCount())
+        );
+    }
+
+}